@@ -0,0 +1,399 @@
+package org.cytoscape.analyzer.benchmarks;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.cytoscape.analyzer.DirNetworkAnalyzer;
+import org.cytoscape.analyzer.UndirNetworkAnalyzer;
+import org.cytoscape.analyzer.benchmarks.SyntheticGraphs.EdgeList;
+import org.cytoscape.analyzer.benchmarks.SyntheticGraphs.Model;
+import org.cytoscape.analyzer.util.EigenvectorCentrality;
+import org.cytoscape.analyzer.util.GraphSnapshot;
+import org.cytoscape.analyzer.util.PageRank;
+import org.cytoscape.analyzer.util.PathLengthData;
+import org.cytoscape.analyzer.util.TraversalWorkspace;
+import org.cytoscape.analyzer.util.TriangleCounts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Throughput of the kernels of the analysis on seeded synthetic graphs.
+ * <p>
+ * The benchmarks run the kernels the analysis runs. The graph-wide benchmarks (building the
+ * snapshots, counting the triangles, PageRank and eigenvector centrality) process the whole graph
+ * per operation. The per-node benchmarks process a single node per operation, in the way the
+ * analysis does for every node: a search from a source, or the neighborhood of a node. They
+ * cycle through all nodes of the graph, so their throughput is averaged over nodes of every degree,
+ * and they reuse one workspace like a worker of the analysis does.
+ * </p>
+ * <p>
+ * Run {@link #main(String[])} to report the allocation rate next to the throughput; it accepts the
+ * usual JMH command line options, e.g. <code>-p model=GRID -p numNodes=1024</code>.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class KernelBenchmarks {
+
+	/**
+	 * Seed of the generated graphs, fixed so that every run benchmarks the same graphs.
+	 */
+	private static final long SEED = 20060101L;
+
+	/**
+	 * Damping factor of PageRank.
+	 */
+	private static final double DAMPING = 0.85;
+
+	/**
+	 * Convergence threshold of PageRank and eigenvector centrality.
+	 */
+	private static final double TOLERANCE = 1.0e-6;
+
+	/**
+	 * Model of the benchmarked graph.
+	 */
+	@Param({ "ERDOS_RENYI", "BARABASI_ALBERT", "GRID", "RMAT" })
+	public Model model;
+
+	/**
+	 * Number of nodes of the benchmarked graph; powers of four, so that the grids are square.
+	 */
+	@Param({ "1024", "16384", "262144" })
+	public int numNodes;
+
+	/**
+	 * Average number of neighbors of a node.
+	 */
+	@Param({ "8" })
+	public int averageDegree;
+
+	/**
+	 * Generates the graph and prepares the arrays of the kernels.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		graph = SyntheticGraphs.generate(model, numNodes, averageDegree, SEED);
+		final int n = graph.numNodes;
+		undirectedFlags = new boolean[graph.sources.length];
+		directedFlags = new boolean[graph.sources.length];
+		Arrays.fill(directedFlags, true);
+		undirected = GraphSnapshot.of(n, graph.sources, graph.targets, undirectedFlags);
+		directed = GraphSnapshot.of(n, graph.sources, graph.targets, directedFlags);
+
+		// Out-neighbors followed by in-neighbors, as built by DirNetworkAnalyzer
+		inoutOffsets = new int[n + 1];
+		inoutNeighbors = new int[directed.outNeighbors.length + directed.inNeighbors.length];
+		inoutArcs = new int[inoutNeighbors.length];
+		for (int node = 0, offset = 0; node < n; node++) {
+			inoutOffsets[node] = offset;
+			for (int ei = directed.outOffsets[node]; ei < directed.outOffsets[node + 1]; ei++) {
+				inoutArcs[offset] = ei;
+				inoutNeighbors[offset++] = directed.outNeighbors[ei];
+			}
+			for (int ei = directed.inOffsets[node]; ei < directed.inOffsets[node + 1]; ei++) {
+				inoutArcs[offset] = directed.inArcs[ei];
+				inoutNeighbors[offset++] = directed.inNeighbors[ei];
+			}
+		}
+		inoutOffsets[n] = inoutNeighbors.length;
+
+		// Edge lengths uniform in [1, 2), so that ties between paths are rare
+		final Random random = new Random(SEED);
+		final double[] edgeLengths = new double[graph.sources.length];
+		for (int e = 0; e < edgeLengths.length; e++)
+			edgeLengths[e] = 1 + random.nextDouble();
+		neighborLengths = undirected.neighborLengths(edgeLengths);
+
+		undirectedWorkspace = new TraversalWorkspace(n, undirected.neighbors.length);
+		directedWorkspace = new TraversalWorkspace(n, inoutNeighbors.length);
+		sharedNeighborsHist = new long[n];
+		sPathLengths = new long[n];
+		nodeBetweenness = new double[n];
+		stress = new long[n];
+		edgeBetweenness = new double[undirected.numPairs];
+		arcBetweenness = new double[directed.numArcs];
+		next = 0;
+	}
+
+	/**
+	 * Builds the compressed adjacency of an undirected graph.
+	 */
+	@Benchmark
+	public GraphSnapshot snapshotUndirected() {
+		return GraphSnapshot.of(graph.numNodes, graph.sources, graph.targets, undirectedFlags);
+	}
+
+	/**
+	 * Builds the compressed adjacency of a directed graph, with its out- and in-neighbors.
+	 */
+	@Benchmark
+	public GraphSnapshot snapshotDirected() {
+		return GraphSnapshot.of(graph.numNodes, graph.sources, graph.targets, directedFlags);
+	}
+
+	/**
+	 * Shortest path lengths and shared neighbors from one source of an undirected graph, as searched
+	 * when betweenness is not computed.
+	 */
+	@Benchmark
+	public PathLengthData shortestPathsAndSharedNeighbors() {
+		return UndirNetworkAnalyzer.computeSPandSN(nextNode(), graph.numNodes, undirected.neighbors,
+				undirected.neighborOffsets, sharedNeighborsHist, sPathLengths, undirectedWorkspace);
+	}
+
+	/**
+	 * Shortest path lengths, shared neighbors, betweenness and stress from a single search from one
+	 * source of an undirected graph.
+	 */
+	@Benchmark
+	public PathLengthData betweennessUndirected() {
+		return UndirNetworkAnalyzer.computeSPandNB(nextNode(), graph.numNodes, undirected.neighbors,
+				undirected.neighborOffsets, undirected.neighborPairs, sharedNeighborsHist, sPathLengths,
+				nodeBetweenness, stress, edgeBetweenness, undirectedWorkspace);
+	}
+
+	/**
+	 * Shortest path lengths, betweenness and stress from a single search from one source of a
+	 * directed graph.
+	 */
+	@Benchmark
+	public PathLengthData betweennessDirected() {
+		return DirNetworkAnalyzer.computeSPandNB(nextNode(), graph.numNodes, inoutNeighbors, inoutOffsets, inoutArcs,
+				directed.inOffsets, sPathLengths, nodeBetweenness, stress, arcBetweenness, directedWorkspace);
+	}
+
+	/**
+	 * Weighted shortest paths, betweenness and stress contributed by one source of an undirected
+	 * graph.
+	 */
+	@Benchmark
+	public PathLengthData betweennessWeighted() {
+		return UndirNetworkAnalyzer.computeWeightedSPandNB(nextNode(), undirected.neighbors,
+				undirected.neighborOffsets, undirected.neighborPairs, neighborLengths, null, true, nodeBetweenness,
+				stress, edgeBetweenness, undirectedWorkspace);
+	}
+
+	/**
+	 * Triangles of all nodes of an undirected graph, from which the clustering coefficients are
+	 * derived, on a single thread.
+	 */
+	@Benchmark
+	public long[] trianglesUndirected() {
+		return TriangleCounts.count(null, graph.numNodes, undirected.neighborOffsets, undirected.neighbors, null,
+				null).triangles;
+	}
+
+	/**
+	 * Triangles of all nodes of a directed graph, with the links among the neighbors of every node,
+	 * on a single thread.
+	 */
+	@Benchmark
+	public long[] trianglesDirected() {
+		return TriangleCounts.count(null, graph.numNodes, directed.neighborOffsets, directed.neighbors,
+				directed.outOffsets, directed.outNeighbors).links;
+	}
+
+	/**
+	 * Topological coefficient of one node of an undirected graph.
+	 */
+	@Benchmark
+	public double topologicalCoefficient() {
+		return UndirNetworkAnalyzer.computeTC(nextNode(), undirected.neighbors, undirected.neighborOffsets,
+				undirectedWorkspace);
+	}
+
+	/**
+	 * PageRank of all nodes of a directed graph, on a single thread.
+	 */
+	@Benchmark
+	public double[] pageRank() {
+		return PageRank.run(null, graph.numNodes, directed.outOffsets, directed.inOffsets, directed.inNeighbors,
+				DAMPING, TOLERANCE, false).ranks;
+	}
+
+	/**
+	 * PageRank of all nodes of a directed graph, on a single thread, with periodic extrapolation.
+	 */
+	@Benchmark
+	public double[] pageRankExtrapolated() {
+		return PageRank.run(null, graph.numNodes, directed.outOffsets, directed.inOffsets, directed.inNeighbors,
+				DAMPING, TOLERANCE, true).ranks;
+	}
+
+	/**
+	 * Eigenvector centrality of all nodes of an undirected graph, on a single thread.
+	 */
+	@Benchmark
+	public double[] eigenvectorCentrality() {
+		return EigenvectorCentrality.run(null, graph.numNodes, undirected.neighborOffsets, undirected.neighbors,
+				TOLERANCE).scores;
+	}
+
+	/**
+	 * Runs the benchmarks selected on the command line, or all of them, with the allocation profiler.
+	 *
+	 * @param args
+	 *            JMH command line options.
+	 * @throws CommandLineOptionException
+	 *             If the options cannot be parsed.
+	 * @throws RunnerException
+	 *             If a benchmark fails.
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+		final CommandLineOptions commandLine = new CommandLineOptions(args);
+		final ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class);
+		// The includes of the command line are added to these, so include everything only without them
+		if (commandLine.getIncludes().isEmpty())
+			builder.include(KernelBenchmarks.class.getSimpleName());
+		new Runner(builder.build()).run();
+	}
+
+	/**
+	 * Gets the node processed by the next operation.
+	 */
+	private int nextNode() {
+		final int node = next;
+		next = (node + 1 == graph.numNodes) ? 0 : node + 1;
+		return node;
+	}
+
+	/**
+	 * Generated graph.
+	 */
+	private EdgeList graph;
+
+	/**
+	 * Direction flags of the edges of the undirected graph: all <code>false</code>.
+	 */
+	private boolean[] undirectedFlags;
+
+	/**
+	 * Direction flags of the edges of the directed graph: all <code>true</code>.
+	 */
+	private boolean[] directedFlags;
+
+	/**
+	 * Snapshot of the graph with undirected edges.
+	 */
+	private GraphSnapshot undirected;
+
+	/**
+	 * Snapshot of the graph with directed edges.
+	 */
+	private GraphSnapshot directed;
+
+	/**
+	 * Offsets of the neighbors of the nodes in {@link #inoutNeighbors}.
+	 */
+	private int[] inoutOffsets;
+
+	/**
+	 * Out-neighbors followed by in-neighbors of every node of the directed graph.
+	 */
+	private int[] inoutNeighbors;
+
+	/**
+	 * Arc connecting every node to each neighbor in {@link #inoutNeighbors}.
+	 */
+	private int[] inoutArcs;
+
+	/**
+	 * Length of the edge to every neighbor of the undirected graph, parallel to its neighbors.
+	 */
+	private double[] neighborLengths;
+
+	/**
+	 * Workspace of the searches in the undirected graph.
+	 */
+	private TraversalWorkspace undirectedWorkspace;
+
+	/**
+	 * Workspace of the searches in the directed graph.
+	 */
+	private TraversalWorkspace directedWorkspace;
+
+	/**
+	 * Histogram of the shared neighbors.
+	 */
+	private long[] sharedNeighborsHist;
+
+	/**
+	 * Histogram of the shortest path lengths.
+	 */
+	private long[] sPathLengths;
+
+	/**
+	 * Accumulated node betweenness.
+	 */
+	private double[] nodeBetweenness;
+
+	/**
+	 * Accumulated stress.
+	 */
+	private long[] stress;
+
+	/**
+	 * Accumulated betweenness of the edges of the undirected graph.
+	 */
+	private double[] edgeBetweenness;
+
+	/**
+	 * Accumulated betweenness of the arcs of the directed graph.
+	 */
+	private double[] arcBetweenness;
+
+	/**
+	 * Node processed by the next per-node operation.
+	 */
+	private int next;
+}
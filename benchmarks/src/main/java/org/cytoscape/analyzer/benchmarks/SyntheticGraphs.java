@@ -0,0 +1,227 @@
+package org.cytoscape.analyzer.benchmarks;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+import java.util.Random;
+
+/**
+ * Seeded generators of the synthetic graphs the kernels are benchmarked on. Every generator returns
+ * a plain edge list, which may contain self-loops and multiple edges; the snapshot built from it
+ * drops them from the neighbor lists, like it does for the edges of a real network.
+ */
+public final class SyntheticGraphs {
+
+	/**
+	 * Random graph models.
+	 */
+	public enum Model {
+		/**
+		 * Erdos-Renyi graph with a fixed number of edges between uniformly chosen nodes.
+		 */
+		ERDOS_RENYI,
+
+		/**
+		 * Barabasi-Albert graph grown by preferential attachment: a scale-free graph with hubs.
+		 */
+		BARABASI_ALBERT,
+
+		/**
+		 * Square two-dimensional grid: a graph of large diameter and no triangles.
+		 */
+		GRID,
+
+		/**
+		 * Recursive matrix (R-MAT) graph with the Graph500 probabilities: a skewed graph with
+		 * communities, and typically some isolated nodes.
+		 */
+		RMAT
+	}
+
+	/**
+	 * Edges of a generated graph.
+	 */
+	public static final class EdgeList {
+
+		/**
+		 * Initializes a new instance of <code>EdgeList</code>.
+		 */
+		EdgeList(int aNumNodes, int[] aSources, int[] aTargets) {
+			numNodes = aNumNodes;
+			sources = aSources;
+			targets = aTargets;
+		}
+
+		/**
+		 * Number of nodes of the graph.
+		 */
+		public final int numNodes;
+
+		/**
+		 * Source node of every edge.
+		 */
+		public final int[] sources;
+
+		/**
+		 * Target node of every edge.
+		 */
+		public final int[] targets;
+	}
+
+	/**
+	 * Generates a graph.
+	 *
+	 * @param aModel
+	 *            Model of the graph.
+	 * @param aNumNodes
+	 *            Number of nodes; rounded down to a square for {@link Model#GRID} and to a power of
+	 *            two for {@link Model#RMAT}.
+	 * @param aAverageDegree
+	 *            Average number of neighbors of a node; ignored for {@link Model#GRID}.
+	 * @param aSeed
+	 *            Seed of the random number generator.
+	 * @return Edges of the graph.
+	 */
+	public static EdgeList generate(Model aModel, int aNumNodes, int aAverageDegree, long aSeed) {
+		final Random random = new Random(aSeed);
+		switch (aModel) {
+		case ERDOS_RENYI:
+			return erdosRenyi(aNumNodes, aAverageDegree, random);
+		case BARABASI_ALBERT:
+			return barabasiAlbert(aNumNodes, aAverageDegree, random);
+		case GRID:
+			return grid(aNumNodes);
+		case RMAT:
+			return rmat(aNumNodes, aAverageDegree, random);
+		default:
+			throw new IllegalArgumentException("Unknown model: " + aModel);
+		}
+	}
+
+	/**
+	 * Generates an Erdos-Renyi graph of <code>n * k / 2</code> edges.
+	 */
+	private static EdgeList erdosRenyi(int aNumNodes, int aAverageDegree, Random aRandom) {
+		final int numEdges = aNumNodes * aAverageDegree / 2;
+		final int[] sources = new int[numEdges];
+		final int[] targets = new int[numEdges];
+		for (int e = 0; e < numEdges; e++) {
+			sources[e] = aRandom.nextInt(aNumNodes);
+			targets[e] = aRandom.nextInt(aNumNodes);
+		}
+		return new EdgeList(aNumNodes, sources, targets);
+	}
+
+	/**
+	 * Generates a Barabasi-Albert graph in which every new node attaches to <code>k / 2</code>
+	 * earlier nodes. The targets are drawn from the endpoints of the earlier edges, so that a node is
+	 * chosen with a probability proportional to its degree.
+	 */
+	private static EdgeList barabasiAlbert(int aNumNodes, int aAverageDegree, Random aRandom) {
+		final int attach = Math.max(1, aAverageDegree / 2);
+		final int numEdges = Math.max(0, aNumNodes - 1) * attach;
+		final int[] sources = new int[numEdges];
+		final int[] targets = new int[numEdges];
+		int e = 0;
+		for (int node = 1; node < aNumNodes; node++) {
+			for (int i = 0; i < attach; i++) {
+				sources[e] = node;
+				// The first node only has the initial node to attach to
+				targets[e] = (e == 0) ? 0 : (aRandom.nextBoolean() ? sources : targets)[aRandom.nextInt(e)];
+				e++;
+			}
+		}
+		return new EdgeList(aNumNodes, sources, targets);
+	}
+
+	/**
+	 * Generates a square grid in which every node is linked to its right and lower neighbor.
+	 */
+	private static EdgeList grid(int aNumNodes) {
+		final int side = (int) Math.sqrt(aNumNodes);
+		final int numEdges = 2 * side * (side - 1);
+		final int[] sources = new int[numEdges];
+		final int[] targets = new int[numEdges];
+		int e = 0;
+		for (int row = 0; row < side; row++) {
+			for (int column = 0; column < side; column++) {
+				final int node = row * side + column;
+				if (column + 1 < side) {
+					sources[e] = node;
+					targets[e++] = node + 1;
+				}
+				if (row + 1 < side) {
+					sources[e] = node;
+					targets[e++] = node + side;
+				}
+			}
+		}
+		return new EdgeList(side * side, sources, targets);
+	}
+
+	/**
+	 * Generates an R-MAT graph (D. Chakrabarti, Y. Zhan and C. Faloutsos: R-MAT: A Recursive Model
+	 * for Graph Mining. SDM 2004) of <code>n * k / 2</code> edges. Every edge picks one quadrant of
+	 * the adjacency matrix per bit of the node indices, with the probabilities 0.57, 0.19, 0.19 and
+	 * 0.05.
+	 */
+	private static EdgeList rmat(int aNumNodes, int aAverageDegree, Random aRandom) {
+		final int scale = 31 - Integer.numberOfLeadingZeros(Math.max(1, aNumNodes));
+		final int numNodes = 1 << scale;
+		final int numEdges = numNodes * aAverageDegree / 2;
+		final int[] sources = new int[numEdges];
+		final int[] targets = new int[numEdges];
+		for (int e = 0; e < numEdges; e++) {
+			int source = 0, target = 0;
+			for (int bit = 0; bit < scale; bit++) {
+				final double p = aRandom.nextDouble();
+				source <<= 1;
+				target <<= 1;
+				if (p < 0.57) {
+					continue;
+				} else if (p < 0.76) {
+					target |= 1;
+				} else if (p < 0.95) {
+					source |= 1;
+				} else {
+					source |= 1;
+					target |= 1;
+				}
+			}
+			sources[e] = source;
+			targets[e] = target;
+		}
+		return new EdgeList(numNodes, sources, targets);
+	}
+
+	/**
+	 * This class is not meant to be instantiated.
+	 */
+	private SyntheticGraphs() {
+		// Static methods only
+	}
+}
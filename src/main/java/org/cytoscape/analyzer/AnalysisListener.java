@@ -0,0 +1,58 @@
+package org.cytoscape.analyzer;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+/**
+ * Listener notified when an analysis starts and finishes. An analyzer works without listeners; the
+ * results panel of the app is one of them, so that headless analyses do no user interface work.
+ * <p>
+ * The methods are called on the thread that runs the analysis; a listener that updates Swing
+ * components must hand the updates to the event dispatch thread.
+ * </p>
+ */
+public interface AnalysisListener {
+
+	/**
+	 * Called when the analysis starts, before the network is traversed.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer performing the analysis.
+	 */
+	void analysisStarting(NetworkAnalyzer aAnalyzer);
+
+	/**
+	 * Called when the analysis has finished, or has been cancelled, and its attributes have been
+	 * written to the network.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer that performed the analysis.
+	 * @param aResult
+	 *            Result of the analysis.
+	 */
+	void analysisFinished(NetworkAnalyzer aAnalyzer, AnalysisResult aResult);
+}
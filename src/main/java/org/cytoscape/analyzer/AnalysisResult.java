@@ -0,0 +1,285 @@
+package org.cytoscape.analyzer;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cytoscape.analyzer.util.AttributeBuffer;
+import org.cytoscape.analyzer.util.GraphSnapshot;
+import org.cytoscape.analyzer.util.NetworkStats;
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyIdentifiable;
+import org.cytoscape.model.CyNode;
+
+/**
+ * Result of the analysis of a network: the statistics, and the node and edge attributes as
+ * primitive arrays.
+ * <p>
+ * The nodes and edges are indexed like in the snapshot of the network taken when the analysis
+ * started, see {@link #getNodes()} and {@link #getEdges()}. Every attribute is an
+ * <code>int[]</code>, <code>long[]</code>, <code>double[]</code> or <code>boolean[]</code> with one
+ * value per node or edge, named like the column it is written to. The attributes collected per
+ * connected component are merged into these arrays on first access. The nodes that were not
+ * analyzed, when only some of them were, have zero values.
+ * </p>
+ */
+public final class AnalysisResult {
+
+	/**
+	 * Initializes a new instance of <code>AnalysisResult</code>.
+	 *
+	 * @param aStats
+	 *            Statistics of the network.
+	 * @param aDirected
+	 *            Flag indicating if the network was analyzed as directed.
+	 * @param aCancelled
+	 *            Flag indicating if the analysis was cancelled.
+	 * @param aGraph
+	 *            Snapshot of the analyzed network.
+	 * @param aAttributes
+	 *            Attributes collected by the analysis.
+	 */
+	AnalysisResult(NetworkStats aStats, boolean aDirected, boolean aCancelled, GraphSnapshot aGraph,
+			List<AttributeBuffer> aAttributes) {
+		stats = aStats;
+		directed = aDirected;
+		cancelled = aCancelled;
+		graph = aGraph;
+		attributes = aAttributes;
+	}
+
+	/**
+	 * Gets the statistics of the network.
+	 *
+	 * @return Statistics of the analyzed network.
+	 */
+	public NetworkStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Checks if the network was analyzed as directed.
+	 *
+	 * @return <code>true</code> if the edges were interpreted as directed; <code>false</code>
+	 *         otherwise.
+	 */
+	public boolean isDirected() {
+		return directed;
+	}
+
+	/**
+	 * Checks if the analysis was cancelled. The statistics and the attributes of a cancelled
+	 * analysis are incomplete.
+	 *
+	 * @return <code>true</code> if the analysis was cancelled; <code>false</code> otherwise.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Gets the nodes of the network.
+	 *
+	 * @return Nodes of the network, in the order of the values of the node attributes.
+	 */
+	public CyNode[] getNodes() {
+		return graph.nodes;
+	}
+
+	/**
+	 * Gets the edges of the network.
+	 *
+	 * @return Edges of the network, in the order of the values of the edge attributes.
+	 */
+	public CyEdge[] getEdges() {
+		return graph.edges;
+	}
+
+	/**
+	 * Gets the index of the given node in the node attributes.
+	 *
+	 * @param aNode
+	 *            Node of the analyzed network.
+	 * @return Index of <code>aNode</code>; <code>-1</code> if it was not part of the network.
+	 */
+	public int indexOf(CyNode aNode) {
+		return graph.indexOf(aNode);
+	}
+
+	/**
+	 * Checks if the parameters of the given node were computed.
+	 *
+	 * @param aNode
+	 *            Index of the node.
+	 * @return <code>true</code> if the node was analyzed; <code>false</code> if it was left out of
+	 *         an analysis of some of the nodes.
+	 */
+	public boolean isAnalyzed(int aNode) {
+		merge();
+		return analyzed[aNode];
+	}
+
+	/**
+	 * Gets the names of the node attributes.
+	 *
+	 * @return Names of the node attributes computed by the analysis.
+	 */
+	public Set<String> getNodeColumnNames() {
+		merge();
+		return Collections.unmodifiableSet(nodeColumns.keySet());
+	}
+
+	/**
+	 * Gets the names of the edge attributes.
+	 *
+	 * @return Names of the edge attributes computed by the analysis.
+	 */
+	public Set<String> getEdgeColumnNames() {
+		merge();
+		return Collections.unmodifiableSet(edgeColumns.keySet());
+	}
+
+	/**
+	 * Gets the values of a node attribute.
+	 *
+	 * @param aName
+	 *            Name of the attribute.
+	 * @param aType
+	 *            Type of the values, e.g. <code>double[].class</code>.
+	 * @return Values of the attribute, indexed like {@link #getNodes()}; <code>null</code> if the
+	 *         analysis did not compute the attribute.
+	 * @throws ClassCastException
+	 *             If the values are not of type <code>aType</code>.
+	 */
+	public <T> T getNodeColumn(String aName, Class<T> aType) {
+		merge();
+		return aType.cast(nodeColumns.get(aName));
+	}
+
+	/**
+	 * Gets the values of an edge attribute.
+	 *
+	 * @param aName
+	 *            Name of the attribute.
+	 * @param aType
+	 *            Type of the values, e.g. <code>double[].class</code>.
+	 * @return Values of the attribute, indexed like {@link #getEdges()}; <code>null</code> if the
+	 *         analysis did not compute the attribute. Edges the attribute does not apply to, e.g. the
+	 *         undirected edges of a directed analysis, have zero values.
+	 * @throws ClassCastException
+	 *             If the values are not of type <code>aType</code>.
+	 */
+	public <T> T getEdgeColumn(String aName, Class<T> aType) {
+		merge();
+		return aType.cast(edgeColumns.get(aName));
+	}
+
+	/**
+	 * Merges the attributes of the connected components into arrays over the whole network.
+	 */
+	private synchronized void merge() {
+		if (nodeColumns != null)
+			return;
+		final Map<String, Object> nodeValues = new LinkedHashMap<String, Object>();
+		final Map<String, Object> edgeValues = new LinkedHashMap<String, Object>();
+		final boolean[] analyzedNodes = new boolean[graph.numNodes];
+		Map<CyIdentifiable, Integer> edgeIndex = null;
+		for (final AttributeBuffer buffer : attributes) {
+			final CyIdentifiable[] targets = buffer.getTargets();
+			final boolean ofNodes = targets instanceof CyNode[];
+			if (!ofNodes && edgeIndex == null) {
+				edgeIndex = new HashMap<CyIdentifiable, Integer>(2 * graph.numEdges);
+				for (int e = 0; e < graph.numEdges; e++)
+					edgeIndex.put(graph.edges[e], Integer.valueOf(e));
+			}
+			final int[] indices = new int[targets.length];
+			for (int i = 0; i < targets.length; i++) {
+				indices[i] = ofNodes ? graph.indexOf((CyNode) targets[i]) : edgeIndex.get(targets[i]).intValue();
+				if (ofNodes && buffer.isWritten(i))
+					analyzedNodes[indices[i]] = true;
+			}
+			final Map<String, Object> values = ofNodes ? nodeValues : edgeValues;
+			final int size = ofNodes ? graph.numNodes : graph.numEdges;
+			for (final String name : buffer.getColumnNames()) {
+				final Object from = buffer.getColumn(name);
+				final Object to = values.computeIfAbsent(name, n -> AttributeBuffer.newColumn(from, size));
+				for (int i = 0; i < targets.length; i++)
+					if (buffer.isWritten(i))
+						System.arraycopy(from, i, to, indices[i], 1);
+			}
+		}
+		analyzed = analyzedNodes;
+		edgeColumns = edgeValues;
+		nodeColumns = nodeValues;
+	}
+
+	/**
+	 * Statistics of the network.
+	 */
+	private final NetworkStats stats;
+
+	/**
+	 * Flag indicating if the network was analyzed as directed.
+	 */
+	private final boolean directed;
+
+	/**
+	 * Flag indicating if the analysis was cancelled.
+	 */
+	private final boolean cancelled;
+
+	/**
+	 * Snapshot of the analyzed network.
+	 */
+	private final GraphSnapshot graph;
+
+	/**
+	 * Attributes collected per connected component.
+	 */
+	private final List<AttributeBuffer> attributes;
+
+	/**
+	 * Node attributes over the whole network; <code>null</code> until merged.
+	 */
+	private Map<String, Object> nodeColumns;
+
+	/**
+	 * Edge attributes over the whole network; <code>null</code> until merged.
+	 */
+	private Map<String, Object> edgeColumns;
+
+	/**
+	 * Flags of the analyzed nodes; <code>null</code> until merged.
+	 */
+	private boolean[] analyzed;
+}
@@ -24,7 +24,7 @@ import org.cytoscape.work.TaskIterator;
 import org.cytoscape.work.TaskManager;
 import org.cytoscape.work.TaskObserver;
 
-public class AnalyzerManager implements SessionLoadedListener {
+public class AnalyzerManager implements SessionLoadedListener, AnalysisListener {
 
 	final private TaskManager<?, ?> taskManager;
 	final private CyServiceRegistrar registrar; 
@@ -148,7 +148,7 @@ public class AnalyzerManager implements SessionLoadedListener {
 	// and listen for network change events, so we always show the current network stats
 	boolean isRegistered = false;
 
-	public void registerResultsPanel() {
+	public synchronized void registerResultsPanel() {
 		if (isRegistered)
 			return;
 		
@@ -159,8 +159,33 @@ public class AnalyzerManager implements SessionLoadedListener {
 		isRegistered = true;
 	}
 	
+	// The results panel is shown when an analysis started from the app begins
+	@Override
+	public void analysisStarting(NetworkAnalyzer analyzer) {
+		registerResultsPanel();
+	}
+
+	// and brought to the front with the new statistics once it is done
+	@Override
+	public void analysisFinished(NetworkAnalyzer analyzer, AnalysisResult result) {
+		// This runs on the analysis task's thread, so hand the panel updates to the EDT
+		SwingUtilities.invokeLater(() -> {
+			var panel = application.getCytoPanel(CytoPanelName.EAST);
+			panel.setState(CytoPanelState.DOCK);
+			int nPanels = panel.getCytoPanelComponentCount();
+			for (int c = 0; c < nPanels; c++) {
+				var comp = panel.getComponentAt(c);
+				if (comp instanceof ResultsPanel) {
+					var results = (ResultsPanel) comp;
+					results.update();
+					panel.setSelectedIndex(c);
+				}
+			}
+		});
+	}
+
 	// when a session closes, unregister the panel.
-	public void unregisterResultsPanel() {
+	public synchronized void unregisterResultsPanel() {
 		if (!isRegistered)
 			return;
 		
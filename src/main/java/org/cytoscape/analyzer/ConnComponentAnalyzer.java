@@ -36,6 +36,8 @@ import java.util.Set;
 
 import org.cytoscape.analyzer.util.ConnectedComponentInfo;
 import org.cytoscape.analyzer.util.CyNetworkUtils;
+import org.cytoscape.analyzer.util.GraphComponents;
+import org.cytoscape.analyzer.util.GraphSnapshot;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNode;
 
@@ -57,6 +59,7 @@ public class ConnComponentAnalyzer {
 		network = aNetwork;	
 		analyzer = analz;
 		components = null;
+		graph = (analz != null && analz.getGraph() != null) ? analz.getGraph() : GraphSnapshot.of(aNetwork);
 	}
 	
 	NetworkAnalyzer analyzer;
@@ -94,20 +97,11 @@ public class ConnComponentAnalyzer {
 	 *         the analyzed network is empty.
 	 */
 	public List<ConnectedComponentInfo> findComponents() {
-		int untravCount = network.getNodeCount();
-
-		Set<CyNode> traversed = new HashSet<CyNode>(untravCount);
-		Set<ConnectedComponentInfo> ccis = new HashSet<ConnectedComponentInfo>();
-
-		for ( CyNode node : network.getNodeList()) {
-			if (!traversed.contains(node)) {
-				// Unmarked node reached - create new conn. component
-				final int ccSize = traverseReachable(node, traversed);
-				untravCount -= ccSize;
-				ccis.add(new ConnectedComponentInfo(analyzer, ccSize, node, false));
-			}
-		}
-		components = new ArrayList<>(ccis);
+		labels = GraphComponents.of(graph);
+		components = new ArrayList<ConnectedComponentInfo>(labels.numComponents);
+		for (int c = 0; c < labels.numComponents; c++)
+			components.add(new ConnectedComponentInfo(analyzer, labels.membersOf(c), graph, false));
+		// Stable, so that components of equal size keep the order of their smallest nodes
 		Collections.sort(components);
 		return components;
 	}
@@ -134,6 +128,36 @@ public class ConnComponentAnalyzer {
 	private CyNetwork network;
 	public CyNetwork getNetwork() {		return network;	}
 
+	/**
+	 * Snapshot of the analyzed network, in which the components are searched.
+	 */
+	private final GraphSnapshot graph;
+
+	/**
+	 * Component labels of the nodes in {@link #graph}; <code>null</code> until the components are
+	 * found.
+	 */
+	private GraphComponents labels;
+
+	/**
+	 * Gets the component labels of the nodes of the analyzed network.
+	 * 
+	 * @return Component ID of every node and the nodes grouped by component, in the numbering of
+	 *         {@link #getGraph()}.
+	 */
+	public GraphComponents getLabels() {
+		if (labels == null)
+			findComponents();
+		return labels;
+	}
+
+	/**
+	 * Gets the snapshot of the analyzed network.
+	 * 
+	 * @return Snapshot the components are found in; node indices of the components refer to it.
+	 */
+	public GraphSnapshot getGraph() {		return graph;	}
+
 	/**
 	 * Gets all nodes in the given connected component.
 	 * 
@@ -143,32 +167,37 @@ public class ConnComponentAnalyzer {
 	 * 
 	 * @see #getNodesOf(CyNetwork, ConnectedComponentInfo)
 	 */
-	public Set<CyNode> getNodesOf(ConnectedComponentInfo aCompInfo) {		return getNodesOf(network, aCompInfo);	}
+	public Set<CyNode> getNodesOf(ConnectedComponentInfo aCompInfo) {
+		final int[] members = getMembersOf(aCompInfo);
+		final Set<CyNode> nodes = new HashSet<CyNode>(2 * members.length);
+		for (final int member : members)
+			nodes.add(graph.nodes[member]);
+		return nodes;
+	}
 
 	/**
-	 * Traverses all nodes that are reachable from the given node.
+	 * Gets the snapshot of the given connected component.
 	 * 
-	 * @param aNode Node to start the traversal from.
-	 * @param aTraversed Set of traversed nodes. This method add all visited nodes to this set.
-	 * @return Number of nodes which were traversed. <code>aNode</code> itself is also counted as
-	 *         traversed.
+	 * @param aCompInfo Information about a connected component found by this analyzer.
+	 * @return Snapshot of the subgraph induced by the component, in which its nodes keep their
+	 *         relative order.
 	 */
-	private int traverseReachable(CyNode aNode, Set<CyNode> aTraversed) {
-		int size = 1;
-		LinkedList<CyNode> toTraverse = new LinkedList<CyNode>();
-		aTraversed.add(aNode);
-		toTraverse.add(aNode);
-		while (!toTraverse.isEmpty()) {
-			final CyNode currentNode = toTraverse.removeFirst();
-			final Set<CyNode> neighbors = CyNetworkUtils.getNeighbors(network, currentNode);
-			for (CyNode nb : neighbors) {
-				if (!aTraversed.contains(nb)) {
-					size++;
-					toTraverse.add(nb);
-					aTraversed.add(nb);
-				}
-			}
-		}
-		return size;
+	public GraphSnapshot getGraphOf(ConnectedComponentInfo aCompInfo) {
+		return graph.subgraph(getMembersOf(aCompInfo));
+	}
+
+	/**
+	 * Gets the indices of the nodes in the given connected component.
+	 * 
+	 * @param aCompInfo Information about the connected component of interest.
+	 * @return Indices of the nodes of the component in {@link #getGraph()}, in ascending order.
+	 */
+	private int[] getMembersOf(ConnectedComponentInfo aCompInfo) {
+		final int[] members = aCompInfo.getMembers();
+		if (members != null)
+			return members;
+		// Component created elsewhere: look it up by its representative node
+		final int node = graph.indexOf(aCompInfo.getNode());
+		return (node >= 0) ? getLabels().membersOf(getLabels().component[node]) : new int[0];
 	}
 }
@@ -47,6 +47,7 @@ import org.cytoscape.analyzer.tasks.RemoveDupEdgesAction;
 import org.cytoscape.analyzer.tasks.RemoveDupEdgesTaskFactory;
 import org.cytoscape.analyzer.tasks.RemoveSelfLoopsAction;
 import org.cytoscape.analyzer.tasks.RemoveSelfLoopsTaskFactory;
+import org.cytoscape.analyzer.tasks.ShortestPathsTaskFactory;
 import org.cytoscape.analyzer.tasks.VersionTaskFactory;
 import org.cytoscape.application.CyApplicationManager;
 import org.cytoscape.application.swing.CyAction;
@@ -113,6 +114,21 @@ public class CyActivator extends AbstractCyActivator {
 			var factory = new RemoveDupEdgesTaskFactory();
 			registerService(bc, factory, TaskFactory.class, props);
 	    }
+	    {
+			props.clear();
+			props.put(COMMAND_NAMESPACE, "analyzer");
+			props.put(COMMAND, "shortest paths");
+			props.put(COMMAND_DESCRIPTION, "Compute the distances from a set of source nodes");
+			props.put(COMMAND_LONG_DESCRIPTION,
+					"Computes the lengths of the shortest paths from every source node to all nodes of the network, "
+					+ "optionally following a numeric edge column as edge lengths, and writes them to a node column "
+					+ "per source. Every search is shared among the worker threads with Delta-stepping.");
+			props.put(COMMAND_EXAMPLE_JSON,
+					"{\"network\": 52, \"columns\": [\"Distance from YAL001C\"]}");
+			props.put(COMMAND_SUPPORTS_JSON, "true");
+			var factory = new ShortestPathsTaskFactory(registrar);
+			registerService(bc, factory, TaskFactory.class, props);
+	    }
 
 		var remDupEdgesAction = new RemoveDupEdgesAction(mgr, desktop, netmgr);
 		var removeSelfLoopsAction = new RemoveSelfLoopsAction(mgr, desktop, netmgr);
@@ -30,33 +30,33 @@ import java.awt.geom.Point2D;
  */
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 import java.util.WeakHashMap;
 
+import org.cytoscape.analyzer.util.AttributeBuffer;
 import org.cytoscape.analyzer.util.AttributeSetup;
 import org.cytoscape.analyzer.util.ConnectedComponentInfo;
-import org.cytoscape.analyzer.util.CyNetworkUtils;
 import org.cytoscape.analyzer.util.DegreeDistribution;
+import org.cytoscape.analyzer.util.GraphSnapshot;
 import org.cytoscape.analyzer.util.LogBinDistribution;
 import org.cytoscape.analyzer.util.LongHistogram;
+import org.cytoscape.analyzer.util.MetricTier;
 import org.cytoscape.analyzer.util.Msgs;
-import org.cytoscape.analyzer.util.MutInteger;
 import org.cytoscape.analyzer.util.NetworkInterpretation;
 import org.cytoscape.analyzer.util.NodeBetweenInfo;
 import org.cytoscape.analyzer.util.PathLengthData;
 import org.cytoscape.analyzer.util.Points2D;
+import org.cytoscape.analyzer.util.SourceSample;
 import org.cytoscape.analyzer.util.SumCountPair;
-import org.cytoscape.application.swing.CySwingApplication;
+import org.cytoscape.analyzer.util.TraversalWorkspace;
+import org.cytoscape.analyzer.util.TriangleCounts;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNode;
-import org.cytoscape.model.CyRow;
 import org.w3c.dom.Node;
 
 /**
@@ -66,7 +66,8 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 
 	@Override public boolean isDirected() { return true;	}
 	/**
-	 * Initializes a new instance of <code>DirNetworkAnalyzer</code>.
+	 * Initializes a new instance of <code>DirNetworkAnalyzer</code> that is not connected to the
+	 * user interface.
 	 * 
 	 * @param aNetwork
 	 *            Network to be analyzed.
@@ -77,9 +78,9 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 	 * @param aInterpr
 	 *            Interpretation of the network edges.
 	 */
-	public DirNetworkAnalyzer(CyNetwork aNetwork, Set<CyNode> aNodeSet, NetworkInterpretation aInterpr, CySwingApplication app, AnalyzerManager mgr) 
+	public DirNetworkAnalyzer(CyNetwork aNetwork, Set<CyNode> aNodeSet, NetworkInterpretation aInterpr) 
 	{
-		super(aNetwork, aInterpr, app, mgr);
+		super(aNetwork, aNodeSet, aInterpr);
 		nodeCount = stats.getInt("nodeCount");
 		sPathLengths = new long[nodeCount];
 		useNodeAttributes = true;  //SettingsSerializer.getPluginSettings().getUseNodeAttributes();
@@ -92,8 +93,6 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 		edgeBetweenness = new WeakHashMap<CyEdge, Double>();
 		stress = new HashMap<CyNode, Long>();
 		computeNB = true;
-		AttributeSetup.createDirectedNodeAttributes(aNetwork.getTable(CyNode.class, CyNetwork.LOCAL_ATTRS));
-		AttributeSetup.createEdgeBetweennessAttribute(aNetwork.getTable(CyEdge.class, CyNetwork.LOCAL_ATTRS));
 	}
 
 	/*********************************************************************************************
@@ -105,6 +104,19 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 	public void computeAll() {
 		long time = System.currentTimeMillis();
 		analysisStarting();
+		if (options.writeAttributes) {
+			final MetricTier tier = getAttributeTier();
+			AttributeSetup.createDirectedNodeAttributes(network.getTable(CyNode.class, CyNetwork.LOCAL_ATTRS), tier,
+					isWeighted());
+			AttributeSetup.createEdgeBetweennessAttribute(network.getTable(CyEdge.class, CyNetwork.LOCAL_ATTRS),
+					tier == MetricTier.ALL);
+			createCentralityAttributes();
+		}
+		// There are no eccentricity bounds for directed paths; for the diameter and the radius
+		// the searches from every node are still needed, but betweenness and stress are not
+		computeNB = !options.diameterOnly && computes(MetricTier.ALL);
+		final boolean local = computes(MetricTier.LOCAL);
+		final boolean paths = computes(MetricTier.PATHS);
 		
 		inDegreeDist = new DegreeDistribution(nodeCount);
 		outDegreeDist = new DegreeDistribution(nodeCount);
@@ -118,6 +130,8 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 		aplMap = new HashMap<CyNode, Double>();
 		stressDist = new LogBinDistribution();
 		outNeighbors = 0;
+		weightedPathLength = 0;
+		weightedPairs = 0;
 		diameter = 0;
 		radius = Integer.MAX_VALUE;
 
@@ -128,157 +142,116 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 		final ConnectedComponentInfo largestComponent = analyzer.findLargestComponent();
 
 		if (NetworkAnalyzer.verbose) 	System.out.println(connectedComponentsCount + " components");
+		final List<AttributeBuffer> attributes = new ArrayList<AttributeBuffer>();
+		final List<AttributeBuffer> nodeBuffers = new ArrayList<AttributeBuffer>(connectedComponentsCount);
+		int analyzedCount = 0;	// number of nodes whose parameters are calculated
 		// Compute node and edge betweenness
 		for (ConnectedComponentInfo aCompInfo : components) {
 
-			// Get nodes of connected component
-			final Set<CyNode> connNodes = analyzer.getNodesOf(aCompInfo);
-			final Set<CyEdge> connEdges = new HashSet<CyEdge>();
+			// Array representation of the connected component, taken from the network snapshot
+			final GraphSnapshot graph = analyzer.getGraphOf(aCompInfo);
+			final int numNodes = graph.numNodes;
+			final int[] outEdgeOffsets = graph.outOffsets;
+			final int[] outEdges = graph.outNeighbors;
+			final int[] inEdgeOffsets = graph.inOffsets;
+			final int[] inEdges = graph.inNeighbors;
 
-			//-----------------------------------------------------------------------
-			// Convert the graph into an array representation to accelerate traversal
-			final int numNodes = connNodes.size();
+			// All neighbors, i.e. the union of the in- and out-neighbors
 			final int[] edgeOffsets = new int[numNodes + 1];
-			final int[] outEdgeOffsets = new int[numNodes + 1];
-			final int[] inEdgeOffsets = new int[numNodes + 1];
+			final int[] edges = mergeNeighbors(numNodes, outEdgeOffsets, outEdges, inEdgeOffsets, inEdges, edgeOffsets);
+
+			// Out-neighbors followed by in-neighbors, with the arc IDs and the lengths of the connecting edges
 			final int[] inoutEdgeOffsets = new int[numNodes + 1];
-			final HashMap<CyNode, Integer> node2Int = new HashMap<>();
-			int numEdgesLocal = 0, numOutEdgesLocal = 0, numInEdgesLocal = 0, numInoutEdgesLocal = 0;
-			final HashMap<Long, Integer> edgeHash2Int = new HashMap<>();
+			final int[] inoutEdges = new int[outEdges.length + inEdges.length];
+			final int[] inoutEdgeIDs = new int[inoutEdges.length];
+			final boolean weighted = isWeighted();
+			final double[] arcLengths = weighted ? graph.arcLengths(getEdgeLengths(graph)) : null;
+			final double[] inoutEdgeLengths = weighted ? new double[inoutEdges.length] : null;
+			for (int nodeID = 0, inoutOffset = 0; nodeID < numNodes; nodeID++)
 			{
-				int e = 0;
-				for (CyNode node : connNodes)
+				inoutEdgeOffsets[nodeID] = inoutOffset;
+				for (int ei = outEdgeOffsets[nodeID]; ei < outEdgeOffsets[nodeID + 1]; ei++)
 				{
-					edgeOffsets[node2Int.size()] = numEdgesLocal;
-					outEdgeOffsets[node2Int.size()] = numOutEdgesLocal;
-					inEdgeOffsets[node2Int.size()] = numInEdgesLocal;
-					inoutEdgeOffsets[node2Int.size()] = numInoutEdgesLocal;
-					node2Int.put(node, node2Int.size());
-					numEdgesLocal += getNeighbors(node).size();
-					numOutEdgesLocal += getOutNeighbors(node).size();
-					numInEdgesLocal += getInNeighbors(node).size();
-					numInoutEdgesLocal += getOutNeighbors(node).size() + getInNeighbors(node).size();
+					inoutEdgeIDs[inoutOffset] = ei;
+					inoutEdges[inoutOffset++] = outEdges[ei];
 				}
-				for (CyNode node : connNodes)
+				for (int ei = inEdgeOffsets[nodeID]; ei < inEdgeOffsets[nodeID + 1]; ei++)
 				{
-					for (CyEdge edge : getOutEdges(node))
-					{
-						connEdges.add(edge);
-						int sourceID = node2Int.get(edge.getSource());
-						int targetID = node2Int.get(edge.getTarget());
-						long edgeHash = computeEdgeHash(sourceID, targetID);
-						if (!edgeHash2Int.containsKey(edgeHash))
-							edgeHash2Int.put(edgeHash, e++);
-					}
+					inoutEdgeIDs[inoutOffset] = graph.inArcs[ei];
+					inoutEdges[inoutOffset++] = inEdges[ei];
 				}
 			}
-			final int numEdges = numEdgesLocal;
-			edgeOffsets[numNodes] = numEdges;
-			outEdgeOffsets[numNodes] = numOutEdgesLocal;
-			inEdgeOffsets[numNodes] = numInEdgesLocal;
-			inoutEdgeOffsets[numNodes] = numInoutEdgesLocal;
-			final int[] edges = new int[numEdges];
-			final int[] outEdges = new int[numOutEdgesLocal];
-			final int[] inEdges = new int[numInEdgesLocal];
-			final int[] inoutEdges = new int[numInoutEdgesLocal];
-			final int[] inoutEdgeIDs = new int[numInoutEdgesLocal];
-			final boolean[] inoutIsOutEdge = new boolean[numInoutEdgesLocal];
-			for (CyNode node : connNodes)
+			inoutEdgeOffsets[numNodes] = inoutEdges.length;
+			if (weighted)
+				for (int ei = 0; ei < inoutEdges.length; ei++)
+					inoutEdgeLengths[ei] = arcLengths[inoutEdgeIDs[ei]];
+			//-----------------------------------------------------------------------
+			// Betweenness and stress are only computed in the 'all' tier; otherwise their arrays are empty
+			nodeBetweennessLean = new double[computeNB ? numNodes : 0];
+			edgeBetweennessLean = new double[computeNB ? graph.numArcs : 0];
+			stressLean = new long[computeNB ? numNodes : 0];
+
+			final int[] neighborCounts = new int[numNodes];
+			final boolean[] analyzed = getAnalyzedNodes(graph);
+			final int[] sources = sourcesOf(analyzed, numNodes);
+			analyzedCount += sources.length;
+			final AttributeBuffer nodeAttributes = new AttributeBuffer(graph.nodes, analyzed);
+			attributes.add(nodeAttributes);
+			nodeBuffers.add(nodeAttributes);
+			final int[] inDegrees = useNodeAttributes ? nodeAttributes.intColumn(Msgs.getAttr("din")) : null;
+			final int[] outDegrees = useNodeAttributes ? nodeAttributes.intColumn(Msgs.getAttr("dou")) : null;
+			final int[] degrees = useNodeAttributes ? nodeAttributes.intColumn(Msgs.getAttr("deg")) : null;
+			final boolean[] isolated = useNodeAttributes ? nodeAttributes.booleanColumn(Msgs.getAttr("isn")) : null;
+			final int[] selfLoops = useNodeAttributes ? nodeAttributes.intColumn(Msgs.getAttr("slo")) : null;
+			final int[] multiEdgePartnerAttrs = useNodeAttributes ? nodeAttributes.intColumn(Msgs.getAttr("pmn")) : null;
+			final double[] clusteringCoefs = (useNodeAttributes && local) ? nodeAttributes.doubleColumn(Msgs.getAttr("cco")) : null;
+			final double[] neighborConnects = (useNodeAttributes && local) ? nodeAttributes.doubleColumn(Msgs.getAttr("nco")) : null;
+			final TriangleCounts triangles = local
+					? TriangleCounts.count(this, numNodes, edgeOffsets, edges, outEdgeOffsets, outEdges,
+							(analyzed == null) ? null : sources)
+					: null;
+
+			// Directed edges from and to every node, counted from the snapshot; a directed self-loop is both
+			final int[] inEdgeCounts = new int[numNodes];
+			final int[] outEdgeCounts = new int[numNodes];
+			final int[] selfLoopCounts = new int[numNodes];
+			for (int e = 0; e < graph.numEdges; e++)
 			{
-				int nodeID = node2Int.get(node);
-				int offset = edgeOffsets[nodeID];
-				for (CyNode neighbor : getNeighbors(node))
-					edges[offset++] = node2Int.get(neighbor);
-				
-				offset = outEdgeOffsets[nodeID];
-				int inoutOffset = inoutEdgeOffsets[nodeID];
-				for (CyNode outNeighbor : getOutNeighbors(node))
-				{
-					int outNeighborID = node2Int.get(outNeighbor);
-					long edgeHash = computeEdgeHash(nodeID, outNeighborID);
-					int edgeID = edgeHash2Int.get(edgeHash);
-					inoutEdgeIDs[inoutOffset] = edgeID;
-					inoutEdges[inoutOffset] = outNeighborID;
-					inoutIsOutEdge[inoutOffset++] = true;
-					outEdges[offset++] = outNeighborID;
-				}
-				
-				offset = inEdgeOffsets[nodeID];
-				for (CyNode inNeighbor : getInNeighbors(node))
-				{
-					int inNeighborID = node2Int.get(inNeighbor);
-					long edgeHash = computeEdgeHash(inNeighborID, nodeID);
-					int edgeID = edgeHash2Int.get(edgeHash);
-					inoutEdgeIDs[inoutOffset] = edgeID;
-					inoutEdges[inoutOffset] = inNeighborID;
-					inoutIsOutEdge[inoutOffset++] = false;
-					inEdges[offset++] = inNeighborID;
-				}
+				if (!graph.edgeDirected[e])
+					continue;
+				outEdgeCounts[graph.edgeSources[e]]++;
+				inEdgeCounts[graph.edgeTargets[e]]++;
+				if (graph.edgeSources[e] == graph.edgeTargets[e])
+					selfLoopCounts[graph.edgeSources[e]]++;
 			}
-			//-----------------------------------------------------------------------
-			nodeBetweennessLean = new double[numNodes];
-			edgeBetweennessLean = new double[connEdges.size()];
-			stressLean = new long[numNodes];
+			// Multi-edge node pairs; currently edge direction is ignored
+			final int[] multiEdgePartnerCounts = graph.multiEdgePartners();
 
-			final Queue<CyNode> nodesLeft = new LinkedList<>();
-			for (CyNode node : connNodes)
-				nodesLeft.add(node);
-			
-			CyNode node = null;
-			int localDiameter = 0;	
-			int localRadius = Integer.MAX_VALUE;
-			long[] localSPathLengths = new long[sPathLengths.length];
-			double[] localNodeBetweenness = new double[nodeBetweennessLean.length];
-			double[] localEdgeBetweenness = new double[edgeBetweennessLean.length];
-			long[] localStress = new long[stressLean.length];
-
-			while (nodesLeft.size() > 0) 
+			for (int nodeID = 0; nodeID < numNodes; nodeID++) 
 			{
-				node = nodesLeft.remove();
 				progress++;
-				if (node == null) continue;
-//	System.out.println("processing: " + node);
-				int nodeID = node2Int.get(node);
-				final List<CyEdge> inCyEdges = getInEdges(node);
-				final List<CyEdge> outCyEdges = getOutEdges(node);
-				CyRow nodeRow = network.getRow(node);
+				if (analyzed != null && !analyzed[nodeID])
+					continue;
+				meter.advance(1);
+				final int inDegree = inEdgeCounts[nodeID];
+				final int outDegree = outEdgeCounts[nodeID];
 				int firstEdge = edgeOffsets[nodeID], lastEdge = edgeOffsets[nodeID + 1];
 				int outFirstEdge = outEdgeOffsets[nodeID], outLastEdge = outEdgeOffsets[nodeID + 1];
 				int inFirstEdge = inEdgeOffsets[nodeID], inLastEdge = inEdgeOffsets[nodeID + 1];
 	
 				synchronized (inDegreeDist) {
-					inDegreeDist.addObservation(inCyEdges.size());
-					outDegreeDist.addObservation(outCyEdges.size());
+					inDegreeDist.addObservation(inDegree);
+					outDegreeDist.addObservation(outDegree);
 				}
 
 //				Set<CyNode> neighbors = getNeighbors(node, inCyEdges, outCyEdges);
 				int neighborCount = lastEdge - firstEdge;
 				int outNeighborCount = outLastEdge - outFirstEdge;
 				int inNeighborCount = inLastEdge - inFirstEdge;
+				neighborCounts[nodeID] = neighborCount;
 	
-				int[] neighborsArray = new int[lastEdge - firstEdge];
-				for (int ei = firstEdge; ei < lastEdge; ei++)
-					neighborsArray[ei - firstEdge] = edges[ei];
-				int[] outNeighborsArray = new int[outLastEdge - outFirstEdge];
-				for (int ei = outFirstEdge; ei < outLastEdge; ei++)
-					outNeighborsArray[ei - outFirstEdge] = outEdges[ei];
-				int[] inNeighborsArray = new int[inLastEdge - inFirstEdge];
-				for (int ei = inFirstEdge; ei < inLastEdge; ei++)
-					inNeighborsArray[ei - inFirstEdge] = inEdges[ei];
-	
-				// Number of self-loops calculation
-				int selfloops = 0;
-				for (int j = 0; j < inCyEdges.size(); j++) {
-					CyEdge e = inCyEdges.get(j);
-					if (e.getSource() == node)
-						selfloops++;
-				}
-				// Multi-edge node pair computation. Currently edge direction is ignored.
-				int partnerOfMultiEdgeNodePairs = 0;
-				for (final MutInteger freq : CyNetworkUtils.getNeighborMap(network, node).values()) {
-					if (freq.value > 1)
-						partnerOfMultiEdgeNodePairs++;
-				}
+				final int selfloops = selfLoopCounts[nodeID];
+				final int partnerOfMultiEdgeNodePairs = multiEdgePartnerCounts[nodeID];
 				// Atomic addition of neighborCount, numberOfIsolatedNodes, numberOfSelfLoops
 				// and multiEdgePartners
 				if (neighborsAccum == null)
@@ -294,136 +267,207 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 	
 				multiEdgePartners += partnerOfMultiEdgeNodePairs;
 	
+				outNeighbors += outNeighborCount;
+	
 				if (useNodeAttributes) {
-					nodeRow.set(Msgs.getAttr("cco"), 0.0);
-					nodeRow.set(Msgs.getAttr("din"), inCyEdges.size());
-					nodeRow.set(Msgs.getAttr("dou"), outCyEdges.size());
+					inDegrees[nodeID] = inDegree;
+					outDegrees[nodeID] = outDegree;
 					// Total degree, i.e. in-degree + out-degree. It is stored under the name the
 					// undirected analysis uses, so that anything reading "Degree" -- the charts,
 					// in particular -- works the same way whichever interpretation was analyzed.
-					nodeRow.set(Msgs.getAttr("deg"), inCyEdges.size() + outCyEdges.size());
-					nodeRow.set(Msgs.getAttr("isn"), (neighborCount == 0));
-					nodeRow.set(Msgs.getAttr("slo"), selfloops);
-					nodeRow.set(Msgs.getAttr("pmn"), partnerOfMultiEdgeNodePairs);
+					degrees[nodeID] = inDegree + outDegree;
+					isolated[nodeID] = (neighborCount == 0);
+					selfLoops[nodeID] = selfloops;
+					multiEdgePartnerAttrs[nodeID] = partnerOfMultiEdgeNodePairs;
+				}
+	
+				if (!local) {
+					// Neighborhood parameters are not computed
+					if (cancelled)
+						break;
+					continue;
 				}
 	
 				if (neighborCount > 1) {
 					// Clustering coefficients calculation
-					final double nodeCCp = computeCC(neighborsArray, numNodes, outEdges, outEdgeOffsets);
+					final double nodeCCp = triangles.getClusteringCoefficient(nodeID);
 					accumulate(CCps, neighborCount, nodeCCp);
 					
 					if (useNodeAttributes)
-						nodeRow.set(Msgs.getAttr("cco"), nodeCCp);
+						clusteringCoefs[nodeID] = nodeCCp;
 				} else if (useNodeAttributes)
-					nodeRow.set(Msgs.getAttr("cco"), 0.0);
+					clusteringCoefs[nodeID] = 0.0;
 	
 				// Neighborhood connectivity calculation
 				// -------------------------------------
-				final double nco = averageNeighbors(neighborsArray, edgeOffsets);
+				final double nco = averageNeighbors(edges, firstEdge, lastEdge, edgeOffsets);
 				if (neighborCount > 0) {
 					accumulate(ioNCps, neighborCount, nco);
 				}
 				if (outNeighborCount > 0) {
-					double outNC = averageNeighbors(outNeighborsArray, outEdgeOffsets);
-					outNeighbors += outNeighborCount;
+					double outNC = averageNeighbors(outEdges, outFirstEdge, outLastEdge, outEdgeOffsets);
 					accumulate(outNCps, outNeighborCount, outNC);
 				}
 				if (inNeighborCount > 0) {
-					double inNC = averageNeighbors(inNeighborsArray, inEdgeOffsets);
+					double inNC = averageNeighbors(inEdges, inFirstEdge, inLastEdge, inEdgeOffsets);
 					accumulate(inNCps, inNeighborCount, inNC);
 				}
 	
-				if (useNodeAttributes) 		nodeRow.set(Msgs.getAttr("nco"), nco);
-				
-	
-				{
-					// Compute shortest path lengths
-					PathLengthData pathLengths = computeSP(nodeID, numNodes, outEdges, outEdgeOffsets, localSPathLengths);
-	
-					final int eccentricity = pathLengths.getMaxLength();
-					localDiameter = Math.max(localDiameter, eccentricity);
-					if (0 < eccentricity)
-						localRadius = Math.min(localRadius, eccentricity);
-	
-					final double apl = (pathLengths.getCount() > 0) ? pathLengths.getAverageLength() : 0;
-					synchronized (aplMap) {
-						aplMap.put(node, Double.valueOf(apl));
-					}
-	
-					final double closeness = (apl > 0.0) ? 1 / apl : 0.0;
-					synchronized (closenessCent) {
-						closenessCent.add(new Point2D.Double(neighborCount, closeness));
-					}
-	
-					if (useNodeAttributes) {
-						nodeRow.set(Msgs.getAttr("spl"), eccentricity);
-						nodeRow.set(Msgs.getAttr("apl"), apl);
-						nodeRow.set(Msgs.getAttr("clc"), closeness);
-					}
-	
-					// CyNode and edge betweenness calculation
-					if (computeNB)
-						computeNBandEB(nodeID, numNodes, inoutEdges, inoutEdgeOffsets, inoutEdgeIDs, inEdgeOffsets,
-								localNodeBetweenness, localStress, localEdgeBetweenness);
-				}
+				if (useNodeAttributes) 		neighborConnects[nodeID] = nco;
 	
 				if (cancelled)
 					break;
 			}
 
-			// Reduce results into global (parent's) variables
-			diameter = Math.max(diameter, localDiameter);
-			radius = Math.min(radius, localRadius);
-			for (int i = 0; i < localSPathLengths.length; i++)
-				sPathLengths[i] += localSPathLengths[i];
-			for (int i = 0; i < localNodeBetweenness.length; i++)
-				nodeBetweennessLean[i] += localNodeBetweenness[i];
-			for (int i = 0; i < localEdgeBetweenness.length; i++)
-				edgeBetweennessLean[i] += localEdgeBetweenness[i];
-			for (int i = 0; i < localStress.length; i++)
-				stressLean[i] += localStress[i];
-
-			if (cancelled)
+			// Only the degree and the neighborhood parameters: no searches. A cancelled analysis
+			// skips the remaining components and still reports its partial result.
+			if (!paths || cancelled)
+				continue;
+
+			// Shortest path lengths, betweenness and stress from every source, shared among the workers
+			final int[] eccentricities = new int[numNodes];
+			final double[] apls = new double[numNodes];
+			final double[] harmonics = new double[numNodes];
+			final double[] weightedLengths = weighted ? new double[numNodes] : null;
+			final int[] reached = weighted ? new int[numNodes] : null;
+			if (!cancelled)
+			{
+				// Betweenness and stress are accumulated from every source, or from a sample of them
+				final SourceSample sample = computeNB ? sampleSources(numNodes) : null;
+				// Path lengths are not estimated with HyperANF: there are no eccentricity bounds for
+				// directed paths, and the searches for the exact eccentricities find the exact path
+				// lengths as well
+				List<SourceAccumulator> workers = forEachSource(sources.length,
+						() -> new SourceAccumulator(sPathLengths.length, numNodes, nodeBetweennessLean.length,
+								edgeBetweennessLean.length, inoutEdges.length),
+						(acc, i) -> {
+							final int nodeID = sources[i];
+							meter.advance(1);
+							if (weighted)
+							{
+								PathLengthData pathLengths = UndirNetworkAnalyzer.computeWeightedSPandNB(nodeID, inoutEdges,
+										inoutEdgeOffsets, inoutEdgeIDs, inoutEdgeLengths, inEdgeOffsets,
+										computeNB && (sample == null || sample.contains(nodeID)),
+										acc.nodeBetweenness, acc.stress, acc.edgeBetweenness, acc.workspace);
+								apls[nodeID] = pathLengths.getAverageLength();
+								harmonics[nodeID] = pathLengths.getHarmonicSum();
+								weightedLengths[nodeID] = pathLengths.getWeightedLength();
+								reached[nodeID] = pathLengths.getCount();
+								return;
+							}
+							final boolean betweenness = computeNB && (sample == null || sample.contains(nodeID));
+							// With betweenness, a single search yields the path lengths as well
+							PathLengthData pathLengths = betweenness
+									? computeSPandNB(nodeID, numNodes, inoutEdges, inoutEdgeOffsets, inoutEdgeIDs, inEdgeOffsets,
+											acc.sPathLengths, acc.nodeBetweenness, acc.stress, acc.edgeBetweenness, acc.workspace)
+									: computeSP(nodeID, numNodes, outEdges, outEdgeOffsets, acc.sPathLengths, acc.workspace);
+							final int eccentricity = pathLengths.getMaxLength();
+							eccentricities[nodeID] = eccentricity;
+							apls[nodeID] = (pathLengths.getCount() > 0) ? pathLengths.getAverageLength() : 0;
+							harmonics[nodeID] = pathLengths.getHarmonicSum();
+							acc.diameter = Math.max(acc.diameter, eccentricity);
+							if (0 < eccentricity)
+								acc.radius = Math.min(acc.radius, eccentricity);
+						});
+
+				// Reduce results into global (parent's) variables
+				for (SourceAccumulator acc : workers)
+				{
+					diameter = Math.max(diameter, acc.diameter);
+					radius = Math.min(radius, acc.radius);
+					for (int i = 0; i < acc.sPathLengths.length; i++)
+						sPathLengths[i] += acc.sPathLengths[i];
+					for (int i = 0; i < acc.nodeBetweenness.length; i++)
+						nodeBetweennessLean[i] += acc.nodeBetweenness[i];
+					for (int i = 0; i < acc.edgeBetweenness.length; i++)
+						edgeBetweennessLean[i] += acc.edgeBetweenness[i];
+					for (int i = 0; i < acc.stress.length; i++)
+						stressLean[i] = UndirNetworkAnalyzer.saturatedAdd(stressLean[i], acc.stress[i]);
+				}
+				if (sample != null)
+				{
+					sample.scale(nodeBetweennessLean);
+					sample.scale(edgeBetweennessLean);
+					sample.scale(stressLean);
+				}
+			}
+
+			// Save eccentricity, average shortest path length, closeness and harmonic centrality
+			// Eccentricity counts edges, so it is not saved for weighted paths
+			final int[] eccentricityAttrs = useNodeAttributes && !weighted ? nodeAttributes.intColumn(Msgs.getAttr("spl")) : null;
+			final double[] aplAttrs = useNodeAttributes ? nodeAttributes.doubleColumn(Msgs.getAttr("apl")) : null;
+			final double[] closenessAttrs = useNodeAttributes ? nodeAttributes.doubleColumn(Msgs.getAttr("clc")) : null;
+			final double[] harmonicAttrs = useNodeAttributes ? nodeAttributes.doubleColumn(Msgs.getAttr("hrc")) : null;
+			for (int nodeID : sources)
 			{
-				analysisFinished();
-				return;
+				final CyNode n = graph.nodes[nodeID];
+				final double apl = apls[nodeID];
+				aplMap.put(n, Double.valueOf(apl));
+
+				final double closeness = (apl > 0.0) ? 1 / apl : 0.0;
+				closenessCent.add(new Point2D.Double(neighborCounts[nodeID], closeness));
+				final double harmonic = accumulateHarmonic(harmonics[nodeID]);
+				if (weighted) {
+					weightedPathLength += weightedLengths[nodeID];
+					weightedPairs += reached[nodeID];
+				}
+
+				if (useNodeAttributes) {
+					if (!weighted)
+						eccentricityAttrs[nodeID] = eccentricities[nodeID];
+					aplAttrs[nodeID] = apl;
+					closenessAttrs[nodeID] = closeness;
+					harmonicAttrs[nodeID] = harmonic;
+				}
 			}
 			
 			// Normalize and save betweenness and stress
+			if (computeNB)
 			{
-				for (final CyNode n : connNodes) 
+				final double[] betweennessAttrs = useNodeAttributes ? nodeAttributes.doubleColumn(Msgs.getAttr("nbt")) : null;
+				final long[] stressAttrs = useNodeAttributes ? nodeAttributes.longColumn(Msgs.getAttr("stress")) : null;
+				for (int id = 0; id < numNodes; id++) 
 				{
-					int id = node2Int.get(n);
-					CyRow row = network.getRow(n);
 					final double nNormFactor = computeNormFactor(numNodes);
 					double nb = nodeBetweennessLean[id] * nNormFactor;
 					if (Double.isNaN(nb))			nb = 0.0;
-					final int connectivity = getNeighbors(n).size();
+					final int connectivity = edgeOffsets[id + 1] - edgeOffsets[id];
 					nodeBetweennessArray.add(new Point2D.Double(connectivity, nb));
 					
 					final long nodeStress = stressLean[id];
 					stressDist.addObservation(nodeStress);
 					
 					if (useNodeAttributes) {
-						row.set(Msgs.getAttr("nbt"), nb);
-						row.set(Msgs.getAttr("stress"), nodeStress);
+						betweennessAttrs[id] = nb;
+						stressAttrs[id] = nodeStress;
 					}
 				}
 
-				// Save edge betweenness
+				// Save edge betweenness of the directed edges
 				if (useEdgeAttributes) 
 				{
-					for (CyEdge edge : connEdges)
+					int directedCount = 0;
+					for (int edgeIndex = 0; edgeIndex < graph.numEdges; edgeIndex++)
+						if (graph.edgeDirected[edgeIndex])
+							directedCount++;
+					final CyEdge[] directedEdges = new CyEdge[directedCount];
+					for (int edgeIndex = 0, i = 0; edgeIndex < graph.numEdges; edgeIndex++)
+						if (graph.edgeDirected[edgeIndex])
+							directedEdges[i++] = graph.edges[edgeIndex];
+					final AttributeBuffer edgeAttributes = new AttributeBuffer(directedEdges);
+					attributes.add(edgeAttributes);
+					final double[] edgeBetweennessAttrs = edgeAttributes.doubleColumn(Msgs.getAttr("ebt"));
+					for (int edgeIndex = 0, i = 0; edgeIndex < graph.numEdges; edgeIndex++)
 					{
-						int sourceID = node2Int.get(edge.getSource());
-						int targetID = node2Int.get(edge.getTarget());
-						long edgeHash = computeEdgeHash(sourceID, targetID);						
+						if (!graph.edgeDirected[edgeIndex])
+							continue;
+						int arcID = graph.arcOf(graph.edgeSources[edgeIndex], graph.edgeTargets[edgeIndex]);
 						double eb = Double.NaN;
-						if (edgeHash2Int.containsKey(edgeHash))
-							eb = edgeBetweennessLean[edgeHash2Int.get(edgeHash)];
+						if (arcID >= 0)
+							eb = edgeBetweennessLean[arcID];
 						
 						if (Double.isNaN(eb)) 	eb = 0.0;
-						network.getRow(edge).set(Msgs.getAttr("ebt"), eb);
+						edgeBetweennessAttrs[i++] = eb;
 					}
 				}
 			}
@@ -436,7 +480,7 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 		// Save C(k) in the statistics instance
 		if (CCps.size() > 0) {
 			Point2D.Double[] averages = new Point2D.Double[CCps.size()];
-			double cc = accumulateCCs(CCps, averages) / nodeCount;
+			double cc = accumulateCCs(CCps, averages) / analyzedCount;
 			stats.set("cc", cc);
 			if (averages.length > 1) 
 				stats.set("cksDist", new Points2D(averages));
@@ -449,7 +493,12 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 				connPairs += sPathLengths[i];
 				totalPathLength += i * sPathLengths[i];
 			}
-			stats.set("connPairs", connPairs);
+			if (isWeighted())
+				connPairs = weightedPairs;
+			if (paths)
+				stats.set("connPairs", connPairs);
+			if (isWeighted() && connPairs > 0)
+				stats.set("avSpl", weightedPathLength / connPairs);
 
 			if (diameter > 0) {
 				// Save the diameter and the shortest path lengths distribution
@@ -465,7 +514,7 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 		if (neighborsAccum != null) {
 			stats.set("avNeighbors", neighborsAccum.getAverage());
 		}
-		stats.set("density", ( ((double)outNeighbors) / (nodeCount * (nodeCount - 1))));
+		stats.set("density", ( ((double)outNeighbors) / ((double) analyzedCount * (nodeCount - 1))));
 		stats.set("ncc", connectedComponentsCount);
 		stats.set("usn", numberOfIsolatedNodes);
 		stats.set("nsl", numberOfSelfLoops);
@@ -488,7 +537,13 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 			stats.set("nodeBetween", new Points2D(nodeBetweennessArray));
 
 		// Save stress distribution in the statistics instance
-		stats.set("stressDist", stressDist.createPoints2D());
+		if (computeNB)
+			stats.set("stressDist", stressDist.createPoints2D());
+		saveSamplingStats();
+		saveEfficiency();
+		computeCores(components, nodeBuffers);
+		computeCentralities(components, nodeBuffers);
+		writeAttributes(attributes);
 
 		analysisFinished();
 		time = System.currentTimeMillis() - time;
@@ -510,101 +565,6 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 		return total / inNCps2.size();
 	}
 
-	/**
-	 * Gets all incoming edges of the given node.
-	 * 
-	 * @param aNode
-	 *            Node, of which incoming edges are to be found.
-	 * @return Array of edge indices, containing all the edges in the network that point to
-	 *         <code>aNode</code> .
-	 */
-	private List<CyEdge> getInEdges(CyNode aNode) {
-		return network.getAdjacentEdgeList(aNode, CyEdge.Type.INCOMING);
-	}
-
-	/**
-	 * Gets all outgoing edges of the given node.
-	 * 
-	 * @param aNode
-	 *            Node, of which outgoing edges are to be found.
-	 * @return Array of edge indices, containing all the edges in the network that start from
-	 *         <code>aNode</code>.
-	 */
-	private List<CyEdge> getOutEdges(CyNode aNode) {
-		return network.getAdjacentEdgeList(aNode, CyEdge.Type.OUTGOING);
-	}
-
-	/**
-	 * Gets all the neighbors of the given node.
-	 * <p>
-	 * Note that the node is never returned as its neighbor.
-	 * </p>
-	 * 
-	 * @param aNode
-	 *            Node, whose neighbors are to be found.
-	 * @param aInEdges
-	 *            Array of all incoming edges of <code>aNode</code>.
-	 * @param aOutEdges
-	 *            Array of all outgoing edges of <code>aNode</code>.
-	 * @return <code>Set</code> of <code>Node</code> instances, containing all the neighbors of
-	 *         <code>aNode</code>; empty set if the node specified is an isolatd vertex.
-	 */
-	private Set<CyNode> getNeighbors(CyNode aNode, List<CyEdge> aInEdges, List<CyEdge> aOutEdges) {
-		Set<CyNode> neighborSet = new HashSet<CyNode>();
-		for (final CyEdge e : aInEdges) {
-			final CyNode sourceNode = e.getSource();
-			if (sourceNode != aNode) {
-				neighborSet.add(sourceNode);
-			}
-		}
-		for (final CyEdge e : aOutEdges) {
-			final CyNode targetNode = e.getTarget();
-			if (targetNode != aNode) {
-				neighborSet.add(targetNode);
-			}
-		}
-		return neighborSet;
-	}
-
-	/**
-	 * Gets all neighbors of the given node.
-	 * 
-	 * @param aNode
-	 *            Node, whose neighbors are to be found.
-	 * @return <code>Set</code> of <code>Node</code> instances, containing all the neighbors of
-	 *         <code>aNode</code>; empty set if the node specified is an isolated vertex.
-	 * @see CyNetworkUtils#getNeighbors(CyNetwork, Node, int[])
-	 */
-	private Set<CyNode> getNeighbors(CyNode aNode) {
-		return getNeighbors(aNode, getInEdges(aNode), getOutEdges(aNode));
-	}
-
-	/**
-	 * Gets all out-neighbors of the given node.
-	 * 
-	 * @param aNode
-	 *            Node, whose out-neighbors are to be found.
-	 * @return <code>Set</code> of <code>Node</code> instances, containing all the out-neighbors of
-	 *         <code>aNode</code>; empty set if the specified node does not have outgoing edges.
-	 * @see CyNetworkUtils#getNeighbors(CyNetwork, Node, int[])
-	 */
-	private Set<CyNode> getOutNeighbors(CyNode aNode) {
-		return CyNetworkUtils.getNeighbors(network, aNode, getOutEdges(aNode));
-	}
-
-	/**
-	 * Gets all in-neighbors of the given node.
-	 * 
-	 * @param aNode
-	 *            Node, whose in-neighbors are to be found.
-	 * @return <code>Set</code> of <code>Node</code> instances, containing all the in-neighbors of
-	 *         <code>aNode</code>; empty set if the specified node does not have incoming edges.
-	 * @see CyNetworkUtils#getNeighbors(CyNetwork, Node, int[])
-	 */
-	private Set<CyNode> getInNeighbors(CyNode aNode) {
-		return CyNetworkUtils.getNeighbors(network, aNode, getInEdges(aNode));
-	}
-
 	/**
 	 * Computes the shortest path lengths from the given node to all other nodes in the network,
 	 * and builds related statistics.
@@ -613,49 +573,51 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 	 * @param edges Array with every node's neighbor indices.
 	 * @param edgeOffsets Array with the indices of each node's first neighbor in <code>edges</code>.
 	 * @param outSPathLengths Array that will hold the updated shortest path length histogram.
-	 * @return Data on the shortest path lengths from the current node to all other reachable nodes in the network.
+	 * @param workspace Workspace of the calling thread.
+	 * @return Data on the shortest path lengths from the current node to all other reachable nodes in the network;
+	 *         owned by <code>workspace</code> and only valid until its next traversal.
 	 */
-	private PathLengthData computeSP(int node, int numNodes, int[] edges, int[] edgeOffsets, long[] outSPathLengths) 
+	static PathLengthData computeSP(int node, int numNodes, int[] edges, int[] edgeOffsets, long[] outSPathLengths,
+	                                TraversalWorkspace workspace) 
 	{
-		boolean[] visited = new boolean[numNodes];
-		visited[node] = true;
-		int[] frontier = new int[numNodes];
-		int[] nextFrontier = new int[numNodes];
-		frontier[0] = node;
-		int frontierSize = 1;
+		int epoch = workspace.nextEpoch();
+		int[] visited = workspace.visited;
+		int[] queue = workspace.queue;	// Holds the frontiers of all levels one after another
+		visited[node] = epoch;
+		queue[0] = node;
+		int frontierStart = 0, frontierEnd = 1;
 		int length = 1;
 		
-		PathLengthData result = new PathLengthData();
+		PathLengthData result = workspace.pathLengths;
 		
-		while (frontierSize > 0)
+		while (frontierStart < frontierEnd)
 		{
-			int nextFrontierSize = 0;
+			int nextFrontierEnd = frontierEnd;
 			
-			for (int fi = 0; fi < frontierSize; fi++)
+			for (int fi = frontierStart; fi < frontierEnd; fi++)
 			{
-				int n = frontier[fi];
+				int n = queue[fi];
 				int firstNeighbor = edgeOffsets[n], lastNeighbor = edgeOffsets[n + 1];
 				
 				for (int ni = firstNeighbor; ni < lastNeighbor; ni++)
 				{
 					int neighbor = edges[ni];
-					if (!visited[neighbor])
+					if (visited[neighbor] != epoch)
 					{
-						visited[neighbor] = true;
-						nextFrontier[nextFrontierSize++] = neighbor;
+						visited[neighbor] = epoch;
+						queue[nextFrontierEnd++] = neighbor;
 					}
 				}
 			}
 			
+			int nextFrontierSize = nextFrontierEnd - frontierEnd;
 			for (int nfi = 0; nfi < nextFrontierSize; nfi++)
-			{
-				frontier[nfi] = nextFrontier[nfi];
 				result.addSPL(length);
-			}
 
 			if (length < outSPathLengths.length)
 				outSPathLengths[length] += nextFrontierSize;
-			frontierSize = nextFrontierSize;
+			frontierStart = frontierEnd;
+			frontierEnd = nextFrontierEnd;
 			length++;
 		}
 		
@@ -663,19 +625,57 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 	}
 
 	/**
-	 * Computes the average number of neighbors of the nodes in a given node set.
-	 * @param nodes Array with neighbor indices.
-	 * @param edgeOffsets Array with the indices of each node's first neighbor.
-	 * @return Average number of neighbors of the nodes in <code>nodes</code>;
-	 *         NaN if <code>nodes.length</code> is 0.
+	 * Merges the sorted out- and in-neighbor lists of every node into a sorted list of all its
+	 * neighbors, in which every neighbor appears once.
+	 * @param numNodes Number of nodes in graph.
+	 * @param outOffsets Array with the indices of each node's first out-neighbor in <code>outNeighbors</code>.
+	 * @param outNeighbors Array with every node's out-neighbor indices.
+	 * @param inOffsets Array with the indices of each node's first in-neighbor in <code>inNeighbors</code>.
+	 * @param inNeighbors Array with every node's in-neighbor indices.
+	 * @param returnOffsets Array that will hold the indices of each node's first neighbor in the result.
+	 * @return Array with every node's neighbor indices.
+	 */
+	private static int[] mergeNeighbors(int numNodes, int[] outOffsets, int[] outNeighbors,
+			int[] inOffsets, int[] inNeighbors, int[] returnOffsets)
+	{
+		int[] merged = new int[outNeighbors.length + inNeighbors.length];
+		int length = 0;
+		for (int node = 0; node < numNodes; node++)
+		{
+			returnOffsets[node] = length;
+			int oi = outOffsets[node], outLast = outOffsets[node + 1];
+			int ii = inOffsets[node], inLast = inOffsets[node + 1];
+			while (oi < outLast || ii < inLast)
+			{
+				int next;
+				if (ii == inLast || (oi < outLast && outNeighbors[oi] <= inNeighbors[ii]))
+					next = outNeighbors[oi++];
+				else
+					next = inNeighbors[ii++];
+				if (length == returnOffsets[node] || merged[length - 1] != next)
+					merged[length++] = next;
+			}
+		}
+		returnOffsets[numNodes] = length;
+		return Arrays.copyOf(merged, length);
+	}
+
+	/**
+	 * Computes the average number of neighbors of the neighbors of a node.
+	 * @param edges Array with every node's neighbor indices.
+	 * @param first Index of the node's first neighbor in <code>edges</code>.
+	 * @param last Index after the node's last neighbor in <code>edges</code>.
+	 * @param edgeOffsets Array with the indices of each node's first neighbor, whose neighbors are counted.
+	 * @return Average number of neighbors of the nodes in <code>edges[first..last-1]</code>;
+	 *         NaN if <code>first</code> equals <code>last</code>.
 	 */
-	private double averageNeighbors(int[] nodes, int[] edgeOffsets)
+	private double averageNeighbors(int[] edges, int first, int last, int[] edgeOffsets)
 	{
 		int neighbors = 0;
-		for (int node : nodes)
-			neighbors += edgeOffsets[node + 1] - edgeOffsets[node];
+		for (int ei = first; ei < last; ei++)
+			neighbors += edgeOffsets[edges[ei] + 1] - edgeOffsets[edges[ei]];
 		
-		return (double)neighbors / (double)nodes.length;
+		return (double)neighbors / (double)(last - first);
 	}
 
 	/**
@@ -685,6 +685,7 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 	 * @param edges Array with every node's neighbor indices
 	 * @param edgeOffsets Array with the indices of each node's first neighbor in <code>edges</code>
 	 * @return Clustering coefficient in the range [0; 1]
+	 * @see TriangleCounts
 	 */
 	public static double computeCC(int[] neighbors, int numNodes, int[] edges, int[] edgeOffsets)
 	{
@@ -727,30 +728,80 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 								int[] edges, int[] edgeOffsets, int[] edgeIDs,
 								int[] inEdgeOffsets,
 								double[] returnNodeBetweenness, long[] returnStress, double[] returnEdgeBetweenness)
+	{
+		computeNBandEB(source, numNodes, edges, edgeOffsets, edgeIDs, inEdgeOffsets,
+				returnNodeBetweenness, returnStress, returnEdgeBetweenness, new TraversalWorkspace(numNodes, edges.length));
+	}
+
+	/**
+	 * Accumulates the node betweenness, stress and edge betweenness contributed by the given source
+	 * node, using the arrays of the given workspace instead of allocating new ones.
+	 * 
+	 * @param workspace
+	 *            Workspace of the calling thread.
+	 * @see #computeNBandEB(int, int, int[], int[], int[], int[], double[], long[], double[])
+	 */
+	public static void computeNBandEB(int source, int numNodes, 
+								int[] edges, int[] edgeOffsets, int[] edgeIDs,
+								int[] inEdgeOffsets,
+								double[] returnNodeBetweenness, long[] returnStress, double[] returnEdgeBetweenness,
+								TraversalWorkspace workspace)
+	{
+		computeSPandNB(source, numNodes, edges, edgeOffsets, edgeIDs, inEdgeOffsets, NO_PATH_LENGTHS,
+				returnNodeBetweenness, returnStress, returnEdgeBetweenness, workspace);
+	}
+
+	/**
+	 * Computes, from a single breadth-first search starting at the given node, the shortest path
+	 * lengths to all nodes reachable from it, and the node betweenness, stress and edge betweenness
+	 * contributed by it. The search follows the outgoing edges, which are stored first among the
+	 * neighbors of every node in <code>edges</code>.
+	 * 
+	 * @param source
+	 *            Starting node of the breadth-first search.
+	 * @param outSPathLengths
+	 *            Array that will hold the updated shortest path length histogram.
+	 * @param workspace
+	 *            Workspace of the calling thread. The returned data is owned by the workspace and is
+	 *            only valid until the next traversal that uses it.
+	 * @return Data on the shortest path lengths from the source to all other reachable nodes in the
+	 *         network.
+	 */
+	public static PathLengthData computeSPandNB(int source, int numNodes, 
+								int[] edges, int[] edgeOffsets, int[] edgeIDs,
+								int[] inEdgeOffsets, long[] outSPathLengths,
+								double[] returnNodeBetweenness, long[] returnStress, double[] returnEdgeBetweenness,
+								TraversalWorkspace workspace)
 	{		
-		int[] Q = new int[numNodes];		// Serves as queue for the first part, as stack for the second part
+		int epoch = workspace.nextEpoch();
+		int[] visited = workspace.visited;	// Nodes not visited in this epoch have not been found yet
+		
+		int[] Q = workspace.queue;		// Serves as queue for the first part, as stack for the second part
 		Q[0] = source;
 		int Qlow = 0, Qhigh = 1;			// Keep track of queue's first and last element / stack size
 		
-		int[] P = new int[edges.length];	// Predecessors
-		int[] Pedge = new int[edges.length];
-		int[] Pcount = new int[numNodes];	// Predecessor count, for each node at most its edge count
+		int[] P = workspace.predecessors;	// Predecessors
+		int[] Pedge = workspace.predecessorEdges;
+		int[] Pcount = workspace.predecessorCount;	// Predecessor count, for each node at most its edge count
 		
-		int[] Dedge = new int[edges.length];	// Edges to descendants
-		int[] Dcount = new int[numNodes];
+		int[] Dedge = workspace.descendantEdges;	// Edges to descendants
+		int[] Dcount = workspace.descendantCount;
 		
-		int[] sigma = new int[numNodes];	// Sigma in Brandes paper, W in Newman
-		sigma[source] = 1;
+		int[] sigma = workspace.sigma;	// Sigma in Brandes paper, W in Newman
+		int[] d = workspace.distance;		// Distance from source, with source having d = 0
+		double[] delta = workspace.delta;	// Delta in Brandes paper
+		long[] stressDependency = workspace.stressDependency;		// Keep track of node stress metric
 		
-		int[] d = new int[numNodes];		// Distance from source, with source having d = 0
-		for (int i = 0; i < numNodes; i++)
-			d[i] = -1;
+		visited[source] = epoch;
 		d[source] = 0;
+		sigma[source] = 1;
+		Pcount[source] = 0;
+		Dcount[source] = 0;
+		delta[source] = 0.0;
+		stressDependency[source] = 0;
 		
-		double[] delta = new double[numNodes];	// Delta in Brandes paper
-		
-		long[] stressDependency = new long[numNodes];		// Keep track of node stress metric
-		double[] edgeDependency = new double[edges.length];	// This round's edge betweenness values
+		PathLengthData result = workspace.pathLengths;
+		int overflow = 0;	// Negative once a number of shortest paths has overflowed
 		
 		while (Qlow < Qhigh)	// While query.size > 0
 		{
@@ -766,15 +817,26 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 			{
 				int neighbor = edges[ei];
 				
-				if (d[neighbor] < 0)	// Has not been found yet
+				if (visited[neighbor] != epoch)	// Has not been found yet
 				{
+					visited[neighbor] = epoch;
 					Q[Qhigh++] = neighbor;		// Enqueue
 					d[neighbor] = dnodeplus;	// d[node] + 1
+					sigma[neighbor] = 0;
+					Pcount[neighbor] = 0;
+					Dcount[neighbor] = 0;
+					delta[neighbor] = 0.0;
+					stressDependency[neighbor] = 0;
+					result.addSPL(dnodeplus);
+					if (dnodeplus < outSPathLengths.length)
+						outSPathLengths[dnodeplus]++;
 				}
 				
 				if (d[neighbor] == dnodeplus)	// Is descendant
 				{
-					sigma[neighbor] += sigmanode;
+					int sigmaneighbor = sigma[neighbor] + sigmanode;
+					sigma[neighbor] = sigmaneighbor;
+					overflow |= sigmaneighbor;	// A sum of path counts is negative only if it overflows
 					int pi = edgeOffsets[neighbor] + Pcount[neighbor];	// Predecessor number
 					P[pi] = node;	// Store node as its neighbor's predecessor
 					Pedge[pi] = edgeIDs[ei];	// Also remember the edge from predecessor for edge betweenness later
@@ -787,83 +849,35 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 			}
 		}
 		
-		while (Qhigh > 0)	// While stack.size > 0
-		{
-			int w = Q[--Qhigh];				// Pop from stack
-			int firstP = edgeOffsets[w];	// First predecessor number
-			int lastP = firstP + Pcount[w];	// Last predecessor number
-			double sigmaw = 1.0 / (double)sigma[w], deltaw = delta[w];	// Precalc for later
-			long stressw = stressDependency[w];
-			
-			double Dbetweenness = 0.0;		// Precalc 
-			int firstD = edgeOffsets[w];
-			int lastD = firstD + Dcount[w];
-			boolean isLeaf = lastD - firstD == 0;
-			for (int di = firstD; di < lastD; di++)
-				Dbetweenness += edgeDependency[Dedge[di]];
-			
-			for (int pi = firstP; pi < lastP; pi++)	// For each predecessor
-			{
-				int v = P[pi];	// v is predecessor
-				double sigmavw = (double)sigma[v] * sigmaw;	// Precalc
-				delta[v] += sigmavw * (1 + deltaw);
-				stressDependency[v] += 1 + stressw;
-				
-				double edgeBetweenness = 0;
-				int edgeID = Pedge[pi];
-				if (isLeaf)
-					edgeBetweenness = sigmavw;
-				else
-					edgeBetweenness = (1.0 + Dbetweenness) * sigmavw;
-				
-				edgeDependency[edgeID] = edgeBetweenness;
-				returnEdgeBetweenness[edgeID] += edgeBetweenness;
-			}
-			
-			if (w != source)
-			{
-				returnNodeBetweenness[w] += deltaw;
-				returnStress[w] += sigma[w] * stressw;
-			}
-		}
+		UndirNetworkAnalyzer.accumulateDependencies(source, Qhigh, edgeOffsets, workspace, overflow < 0,
+				returnNodeBetweenness, returnStress, returnEdgeBetweenness);
+		return result;
 	}
 	
-	private double[] computePageRank(int numNodes, int[] edges, int[] edgeOffsets, double d, double epsilon)
+	/**
+	 * Results of the all-sources traversals accumulated by a single worker.
+	 */
+	private static class SourceAccumulator
 	{
-		double[] rank = new double[numNodes], oldRank = new double[numNodes];
-		double startRank = 1.0 / (double)numNodes;
-		for (int i = 0; i < numNodes; i++)
-			rank[i] = startRank;
-		double updateConstant = (1.0 - d) / (double)numNodes;
-		double[] invDegree = new double[numNodes];
-		for (int i = 0; i < numNodes; i++)
-			invDegree[i] = 1.0 / (double)(edgeOffsets[i + 1] - edgeOffsets[i]);
-		
-		double diff = epsilon * 2.0;
-		while (diff > epsilon)
+		SourceAccumulator(int pathLengthSize, int numNodes, int numBetweennessNodes, int numEdges, int numInoutEdges)
 		{
-			System.arraycopy(rank, 0, oldRank, 0, numNodes);
-			
-			for (int i = 0; i < numNodes; i++)
-			{
-				int firstEdge = edgeOffsets[i], lastEdge = edgeOffsets[i + 1];
-				double nodeRank = 0.0;
-				for (int e = firstEdge; e < lastEdge; e++)
-				{
-					int neighbor = edges[e];
-					nodeRank += oldRank[neighbor] * invDegree[neighbor];
-				}
-				rank[i] = updateConstant + d * nodeRank;
-			}
-			
-			diff = 0.0;
-			for (int i = 0; i < numNodes; i++)
-				diff += Math.abs(rank[i] - oldRank[i]);
+			workspace = new TraversalWorkspace(numNodes, numInoutEdges);
+			sPathLengths = new long[pathLengthSize];
+			nodeBetweenness = new double[numBetweennessNodes];
+			edgeBetweenness = new double[numEdges];
+			stress = new long[numBetweennessNodes];
+			diameter = 0;
+			radius = Integer.MAX_VALUE;
 		}
-		
-		return rank;
-	}
 
+		final long[] sPathLengths;
+		final double[] nodeBetweenness;
+		final double[] edgeBetweenness;
+		final long[] stress;
+		final TraversalWorkspace workspace;
+		int diameter;
+		int radius;
+	}
 	
 	/**
 	 * Computes a direction-sensitive 64 bit hash of an edge
@@ -958,6 +972,11 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 	 * number of shortest paths exceeds the maximum long value.
 	 */
 	private boolean computeNB;
+
+	/**
+	 * Empty shortest path length histogram, for traversals that do not accumulate one.
+	 */
+	private static final long[] NO_PATH_LENGTHS = new long[0];
 	
 	/**
 	 * Map of all nodes with their respective node betweenness information, which stores information
@@ -989,6 +1008,8 @@ public class DirNetworkAnalyzer extends NetworkAnalyzer {
 	Map<CyNode, Double> aplMap; 					// average shortest path length
 	LogBinDistribution stressDist; 					// stress
 	long outNeighbors; 								// total number of out-neighbors
+	double weightedPathLength;						// sum of the lengths of the shortest paths over weighted edges
+	long weightedPairs;								// number of node pairs connected by the weighted shortest paths
 	double[] nodeBetweennessLean;
 	double[] edgeBetweennessLean;
 	long[] stressLean;
@@ -28,27 +28,58 @@ package org.cytoscape.analyzer;
  */
 
 import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
 
-import javax.swing.SwingUtilities;
-
+import org.cytoscape.analyzer.util.AnalysisOptions;
+import org.cytoscape.analyzer.util.AttributeBuffer;
+import org.cytoscape.analyzer.util.AttributeSetup;
+import org.cytoscape.analyzer.util.ConnectedComponentInfo;
+import org.cytoscape.analyzer.util.CoreDecomposition;
+import org.cytoscape.analyzer.util.CyNetworkUtils;
+import org.cytoscape.analyzer.util.DeltaStepping;
+import org.cytoscape.analyzer.util.EigenvectorCentrality;
+import org.cytoscape.analyzer.util.GraphSnapshot;
+import org.cytoscape.analyzer.util.Hits;
+import org.cytoscape.analyzer.util.KatzCentrality;
+import org.cytoscape.analyzer.util.MetricTier;
+import org.cytoscape.analyzer.util.Msgs;
 import org.cytoscape.analyzer.util.NetworkInterpretation;
 import org.cytoscape.analyzer.util.NetworkStats;
+import org.cytoscape.analyzer.util.NetworkStatus;
+import org.cytoscape.analyzer.util.PageRank;
+import org.cytoscape.analyzer.util.ProgressMeter;
+import org.cytoscape.analyzer.util.SourceSample;
 import org.cytoscape.analyzer.util.SumCountPair;
-import org.cytoscape.application.swing.CySwingApplication;
-import org.cytoscape.application.swing.CytoPanelName;
-import org.cytoscape.application.swing.CytoPanelState;
+import org.cytoscape.event.CyEventHelper;
 import org.cytoscape.model.CyColumn;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
 import org.cytoscape.model.CyTable;
+import org.cytoscape.model.events.RowSetRecord;
+import org.cytoscape.model.events.RowsSetEvent;
 import org.cytoscape.model.subnetwork.CySubNetwork;
 
 /**
  * Base class for all control classes that perform analysis on a specific network type.
-
+ * <p>
+ * An analyzer does not depend on the user interface: {@link #analyze(CyNetwork, Set, boolean, AnalysisOptions, CyEventHelper)}
+ * runs an analysis and returns its {@link AnalysisResult}. The results panel of the app is an
+ * {@link AnalysisListener} that the analyses started from the app are connected to.
+ * </p>
  */
 public abstract class NetworkAnalyzer {
 	
@@ -77,6 +108,35 @@ public abstract class NetworkAnalyzer {
 		return stats;
 	}
 
+	/**
+	 * Gets the options that control this analysis.
+	 * 
+	 * @return Options of this analyzer; never <code>null</code>.
+	 */
+	public AnalysisOptions getOptions() {
+		return options;
+	}
+
+	/**
+	 * Sets the options that control this analysis. This method must be called before
+	 * {@link #computeAll()}.
+	 * 
+	 * @param aOptions
+	 *            Options to use; <code>null</code> restores the default options.
+	 */
+	public void setOptions(AnalysisOptions aOptions) {
+		options = (aOptions != null) ? aOptions : new AnalysisOptions();
+	}
+
+	/**
+	 * Gets the snapshot of the analyzed network.
+	 * 
+	 * @return Snapshot taken when the analysis started; <code>null</code> before that.
+	 */
+	public GraphSnapshot getGraph() {
+		return graph;
+	}
+
 	/**
 	 * Gets the current progress of the analyzer as a number of steps.
 	 * 
@@ -86,37 +146,131 @@ public abstract class NetworkAnalyzer {
 		return progress;
 	}
 
+	/**
+	 * Gets the result of the analysis.
+	 * 
+	 * @return Result of the analysis; <code>null</code> until {@link #computeAll()} has finished.
+	 */
+	public AnalysisResult getResult() {
+		return result;
+	}
+
+	/**
+	 * Adds a listener to be notified when the analysis starts and finishes. This method must be
+	 * called before {@link #computeAll()}.
+	 * 
+	 * @param aListener
+	 *            Listener to add.
+	 */
+	public void addListener(AnalysisListener aListener) {
+		listeners.add(aListener);
+	}
+
+	/**
+	 * Sets the event helper that silences the node and edge tables while the attributes are written,
+	 * and fires a single event for all the values written.
+	 * 
+	 * @param aEventHelper
+	 *            Event helper of Cytoscape; <code>null</code> to leave the tables to fire an event for
+	 *            every value written.
+	 */
+	public void setEventHelper(CyEventHelper aEventHelper) {
+		eventHelper = aEventHelper;
+	}
+
+	/**
+	 * Finds the interpretation of the edges of a network as directed or undirected.
+	 * 
+	 * @param aNetwork
+	 *            Network to be analyzed.
+	 * @param aDirected
+	 *            Flag indicating if the network is to be analyzed as directed.
+	 * @return Interpretation of the edges of <code>aNetwork</code>; <code>null</code> if the network
+	 *         cannot be analyzed as requested.
+	 */
+	public static NetworkInterpretation interpret(CyNetwork aNetwork, boolean aDirected) {
+		final NetworkStatus status = NetworkStatus.getStatus(CyNetworkUtils.inspectNetwork(aNetwork));
+		for (final NetworkInterpretation interpretation : status.getInterpretations())
+			if (interpretation.isDirected() == aDirected)
+				return interpretation;
+		return null;
+	}
+
+	/**
+	 * Creates an analyzer that is not connected to the user interface.
+	 * 
+	 * @param aNetwork
+	 *            Network to be analyzed.
+	 * @param aNodeSet
+	 *            Subset of nodes in <code>aNetwork</code>, for which topological parameters are to be
+	 *            calculated; <code>null</code> for all nodes.
+	 * @param aInterpr
+	 *            Interpretation of the network's edges, see
+	 *            {@link #interpret(CyNetwork, boolean)}.
+	 * @return Analyzer for directed or undirected networks, as chosen by the interpretation.
+	 */
+	public static NetworkAnalyzer create(CyNetwork aNetwork, Set<CyNode> aNodeSet, NetworkInterpretation aInterpr) {
+		return aInterpr.isDirected() ? new DirNetworkAnalyzer(aNetwork, aNodeSet, aInterpr)
+				: new UndirNetworkAnalyzer(aNetwork, aNodeSet, aInterpr);
+	}
+
+	/**
+	 * Analyzes a network without any user interface work.
+	 * 
+	 * @param aNetwork
+	 *            Network to be analyzed.
+	 * @param aNodeSet
+	 *            Subset of nodes in <code>aNetwork</code>, for which topological parameters are to be
+	 *            calculated; <code>null</code> for all nodes.
+	 * @param aDirected
+	 *            Flag indicating if the network is to be analyzed as directed.
+	 * @param aOptions
+	 *            Options of the analysis; <code>null</code> for the default options.
+	 * @param aEventHelper
+	 *            Event helper of Cytoscape, see {@link #setEventHelper(CyEventHelper)};
+	 *            <code>null</code> to leave the tables to fire an event for every attribute value
+	 *            written.
+	 * @return Result of the analysis.
+	 * @throws IllegalArgumentException
+	 *             If the network cannot be analyzed as requested.
+	 */
+	public static AnalysisResult analyze(CyNetwork aNetwork, Set<CyNode> aNodeSet, boolean aDirected,
+			AnalysisOptions aOptions, CyEventHelper aEventHelper) {
+		final NetworkInterpretation interpr = interpret(aNetwork, aDirected);
+		if (interpr == null)
+			throw new IllegalArgumentException("The network cannot be analyzed as "
+					+ (aDirected ? "directed" : "undirected") + ".");
+		final NetworkAnalyzer analyzer = create(aNetwork, aNodeSet, interpr);
+		analyzer.setOptions(aOptions);
+		analyzer.setEventHelper(aEventHelper);
+		analyzer.computeAll();
+		return analyzer.getResult();
+	}
+
+	/**
+	 * Name of the hidden network column that holds the statistics in JSON format.
+	 */
 	static String columnName = "statistics";
+
+	/**
+	 * Publishes the result of the analysis: stores the statistics in the network, unless the
+	 * attributes are not written, and notifies the listeners. This method is called at the end of
+	 * {@link #computeAll()}.
+	 */
 	public void doOutput()
 	{
-		String json = stats.jsonOutput();
-//		CyTable netTable = network.getDefaultNetworkTable();
-		CyTable hiddenTable = network.getTable(CyNetwork.class, CyNetwork.HIDDEN_ATTRS);
-		CyColumn col = hiddenTable.getColumn(columnName);
-		if (col == null) {
-			hiddenTable.createColumn(columnName, String.class, true);
-			col = hiddenTable.getColumn(columnName);
+		if (options.writeAttributes) {
+			String json = stats.jsonOutput();
+			CyTable hiddenTable = network.getTable(CyNetwork.class, CyNetwork.HIDDEN_ATTRS);
+			CyColumn col = hiddenTable.getColumn(columnName);
+			if (col == null)
+				hiddenTable.createColumn(columnName, String.class, true);
+			hiddenTable.getRow(network.getSUID()).set(columnName, json);
 		}
-		hiddenTable.getRow(network.getSUID()).set(columnName, json);
-		
-		
-//		String out = stats.formattedOutput();
-//		String out = stats.htmlOutput();
-
-		// This runs on the analysis task's thread, so hand the panel updates to the EDT
-		SwingUtilities.invokeLater(() -> {
-			var panel = desktop.getCytoPanel(CytoPanelName.EAST);
-			panel.setState(CytoPanelState.DOCK);
-			int nPanels = panel.getCytoPanelComponentCount();
-			for (int c = 0; c < nPanels; c++) {
-				var comp = panel.getComponentAt(c);
-				if (comp instanceof ResultsPanel) {
-					var results = (ResultsPanel) comp;
-					results.update();
-					panel.setSelectedIndex(c);
-				}
-			}
-		});
+
+		result = new AnalysisResult(stats, isDirected(), cancelled, graph, attributes);
+		for (final AnalysisListener listener : listeners)
+			listener.analysisFinished(this, result);
 	}
 
 	/**
@@ -152,11 +306,12 @@ public abstract class NetworkAnalyzer {
 	 *         nodes only.
 	 */
 	public boolean isGlobal() {
-		return true;  // nodeSet == null;
+		return nodeSet == null;
 	}
 
 	/**
-	 * Initializes the fields of this class.
+	 * Initializes the fields of this class. The analysis is not connected to the user interface
+	 * unless a listener is added.
 	 * 
 	 * @param aNetwork
 	 *            Network to be analyzed.
@@ -170,18 +325,19 @@ public abstract class NetworkAnalyzer {
 	 * @see #interpr
 	 * @see #stats
 	 */
-	
-	
-	protected NetworkAnalyzer(CyNetwork aNetwork, NetworkInterpretation aInterpr, CySwingApplication app, AnalyzerManager mgr) {
+	protected NetworkAnalyzer(CyNetwork aNetwork, Set<CyNode> aNodeSet, NetworkInterpretation aInterpr) {
 		network = aNetwork;
-//		nodeSet = aNodeSet;
+		nodeSet = aNodeSet;
 		interpr = aInterpr;
 		stats = new NetworkStats(aNetwork, aInterpr.getInterpretSuffix());
+		if (nodeSet != null)
+			stats.set("nodeSubset", nodeSet.size());
 		progress = 0;
-		desktop = app;
-		manager = mgr;
+		listeners = new ArrayList<AnalysisListener>(1);
+		attributes = new ArrayList<AttributeBuffer>();
 	}
 
+
 	/**
 	 * Prepares the network, if necessary, before the analysis starts.
 	 * <p>
@@ -189,7 +345,11 @@ public abstract class NetworkAnalyzer {
 	 * </p>
 	 */
 	protected void analysisStarting() {
-		manager.registerResultsPanel();
+		// The edge lengths are checked before the network is modified
+		if (isWeighted())
+			CyNetworkUtils.getEdgeLengths(network, network.getEdgeList().toArray(new CyEdge[0]), options.edgeWeights);
+		for (final AnalysisListener listener : listeners)
+			listener.analysisStarting(this);
 		if (interpr.isIgnoreUSL()) {
 			removedEdges = new HashSet<CyEdge>();
 			for ( CyEdge edge : network.getEdgeList() ) {
@@ -203,6 +363,16 @@ public abstract class NetworkAnalyzer {
 			// Update edge count
 			stats.set("edgeCount", new Integer(network.getEdgeCount()));
 		}
+		graph = GraphSnapshot.of(network);
+		edgeLengths = isWeighted() ? CyNetworkUtils.getEdgeLengths(network, graph.edges, options.edgeWeights) : null;
+		if (edgeLengths != null)
+			stats.set("edgeWeights", options.edgeWeights);
+		random = new Random(options.seed);
+		meter.start(countSteps());
+		sampledSources = 0;
+		samplingError = 0;
+		harmonicSum = 0;
+		harmonicSources = 0;
 	}
 
 	/**
@@ -220,7 +390,495 @@ public abstract class NetworkAnalyzer {
 				((CySubNetwork)network).addEdge(e);
 			}
 		}
-		
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+		if (!cancelled)
+			meter.finish();
+	}
+
+	/**
+	 * Counts the steps of the analysis measured by the progress meter: one per analyzed node for the
+	 * pass over the nodes, and one per analyzed node for the searches from them, if these are run.
+	 * 
+	 * @return Number of steps of the analysis.
+	 */
+	protected long countSteps() {
+		final long analyzed = (nodeSet != null) ? nodeSet.size() : network.getNodeCount();
+		// The diameter of an undirected network is found from a few searches only
+		final boolean searches = computes(MetricTier.PATHS) && (isDirected() || !options.diameterOnly);
+		return searches ? 2 * analyzed : analyzed;
+	}
+
+	/**
+	 * Gets the meter of the progress of this analysis. The workers of the analyzer advance it by one
+	 * step for every node they process and for every source they search from.
+	 * 
+	 * @return Progress meter of this analyzer.
+	 */
+	public ProgressMeter getProgressMeter() {
+		return meter;
+	}
+
+	/**
+	 * Runs a visitor for every source node of a connected component, sharing the sources among
+	 * {@link AnalysisOptions#threads} workers.
+	 * <p>
+	 * Every worker owns one state instance, created by <code>aNewState</code>, into which it
+	 * accumulates the results of the sources it visits. Workers take the sources in small chunks
+	 * from a common counter, so that a few expensive sources do not leave the other workers idle.
+	 * The states are returned to the caller, which is responsible for reducing them. When a single
+	 * worker is used, all sources are visited in order on the calling thread.
+	 * </p>
+	 * 
+	 * @param aSourceCount
+	 *            Number of sources; the sources visited are <code>0</code> to
+	 *            <code>aSourceCount - 1</code>.
+	 * @param aNewState
+	 *            Factory of the per-worker states.
+	 * @param aVisitor
+	 *            Visitor called with the state of the current worker and the index of the source.
+	 * @return List of the states of all workers.
+	 */
+	public <T> List<T> forEachSource(int aSourceCount, Supplier<T> aNewState, ObjIntConsumer<T> aVisitor) {
+		final int workers = Math.max(1, Math.min(options.threads, aSourceCount / MIN_SOURCES_PER_WORKER));
+		final List<T> states = new ArrayList<T>(workers);
+		for (int w = 0; w < workers; w++)
+			states.add(aNewState.get());
+
+		if (workers == 1) {
+			final T state = states.get(0);
+			for (int source = 0; source < aSourceCount && !cancelled; source++)
+				aVisitor.accept(state, source);
+			return states;
+		}
+
+		final AtomicInteger nextSource = new AtomicInteger();
+		final int chunk = Math.max(1, aSourceCount / (workers * CHUNKS_PER_WORKER));
+		final List<RecursiveAction> tasks = new ArrayList<RecursiveAction>(workers);
+		for (final T state : states) {
+			tasks.add(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					int first;
+					while (!cancelled && (first = nextSource.getAndAdd(chunk)) < aSourceCount) {
+						final int last = Math.min(aSourceCount, first + chunk);
+						for (int source = first; source < last; source++)
+							aVisitor.accept(state, source);
+					}
+				}
+			});
+		}
+		if (pool == null)
+			pool = new ForkJoinPool(options.threads);
+		pool.invoke(new RecursiveAction() {
+			@Override
+			protected void compute() {
+				ForkJoinTask.invokeAll(tasks);
+			}
+		});
+		return states;
+	}
+
+	/**
+	 * Computes the lengths of the shortest paths from the given sources to all nodes of the network,
+	 * following the edge lengths of {@link AnalysisOptions#edgeWeights}, or counting the edges if no
+	 * column is selected. In a directed analysis the paths follow the directed edges; otherwise they
+	 * follow all edges in both directions. The searches run one after another with
+	 * {@link DeltaStepping}, each of them sharing its nodes among {@link AnalysisOptions#threads}
+	 * workers, so that a few sources still keep the workers busy. The progress meter advances by one
+	 * step for every source.
+	 * 
+	 * @param aSources
+	 *            Nodes of the network from which the paths start.
+	 * @return For every source, the distance to every node of {@link #getGraph()}, indexed like its
+	 *         nodes; <code>Double.POSITIVE_INFINITY</code> for the nodes the source does not reach.
+	 *         The sources not searched because the computation was cancelled have no distances.
+	 * @throws IllegalArgumentException
+	 *             If a source is not in the network, if the edge lengths are not valid, or if the
+	 *             bucket width of the options is too small for them.
+	 */
+	public double[][] computeDistances(CyNode[] aSources) {
+		graph = GraphSnapshot.of(network);
+		final int[] sources = new int[aSources.length];
+		for (int i = 0; i < aSources.length; i++) {
+			sources[i] = graph.indexOf(aSources[i]);
+			if (sources[i] < 0)
+				throw new IllegalArgumentException("Node " + aSources[i].getSUID() + " is not in the network.");
+		}
+		final double[] lengths;
+		if (options.edgeWeights != null) {
+			lengths = CyNetworkUtils.getEdgeLengths(network, graph.edges, options.edgeWeights);
+		} else {
+			lengths = new double[graph.numEdges];
+			Arrays.fill(lengths, 1);
+		}
+		final boolean directed = isDirected();
+		final int[] offsets = directed ? graph.outOffsets : graph.neighborOffsets;
+		final int[] neighbors = directed ? graph.outNeighbors : graph.neighbors;
+		final double[] neighborLengths = directed ? graph.arcLengths(lengths) : graph.neighborLengths(lengths);
+		final double width = (options.bucketWidth > 0) ? options.bucketWidth
+				: DeltaStepping.defaultBucketWidth(graph.numNodes, neighborLengths);
+		final DeltaStepping search = new DeltaStepping(graph.numNodes, offsets, neighbors, neighborLengths, width);
+
+		meter.start(sources.length);
+		final double[][] distances = new double[sources.length][];
+		try {
+			for (int i = 0; i < sources.length && !cancelled; i++) {
+				distances[i] = search.run(this, sources[i]);
+				meter.advance(1);
+			}
+		} finally {
+			if (pool != null) {
+				pool.shutdown();
+				pool = null;
+			}
+		}
+		if (!cancelled)
+			meter.finish();
+		return distances;
+	}
+
+	/**
+	 * Writes the distances found by {@link #computeDistances(CyNode[])} to the given node columns,
+	 * which must exist, through the same single pass as the attributes of an analysis. The nodes a
+	 * source does not reach are left without a value.
+	 * 
+	 * @param aDistances
+	 *            Distances from every source, indexed like the nodes of {@link #getGraph()}.
+	 * @param aColumns
+	 *            Names of the columns, one per source.
+	 */
+	public void writeDistances(double[][] aDistances, String[] aColumns) {
+		final AttributeBuffer nodeAttributes = new AttributeBuffer(graph.nodes);
+		for (int i = 0; i < aColumns.length; i++) {
+			final double[] column = nodeAttributes.optionalDoubleColumn(aColumns[i]);
+			for (int node = 0; node < graph.numNodes; node++) {
+				final double distance = aDistances[i][node];
+				column[node] = distance < Double.POSITIVE_INFINITY ? distance : Double.NaN;
+			}
+		}
+		writeAttributes(Collections.singletonList(nodeAttributes));
+	}
+
+	/**
+	 * Draws the sources from which the betweenness of a connected component is estimated.
+	 * <p>
+	 * The components must be sampled in the same order in every run, so that the analysis can be
+	 * repeated with the same {@link AnalysisOptions#seed}.
+	 * </p>
+	 * 
+	 * @param aNumNodes
+	 *            Number of nodes in the connected component.
+	 * @return Sample of the sources; <code>null</code> if betweenness must be computed from every
+	 *         source.
+	 */
+	public SourceSample sampleSources(int aNumNodes) {
+		final SourceSample sample = SourceSample.draw(aNumNodes, options.betweennessEpsilon,
+				options.betweennessDelta, random);
+		if (sample != null) {
+			sampledSources += sample.size;
+			samplingError = Math.max(samplingError, sample.epsilon);
+		} else {
+			sampledSources += aNumNodes;
+		}
+		return sample;
+	}
+
+	/**
+	 * Checks if the parameters of the given tier are computed by this analysis.
+	 * 
+	 * @param aTier
+	 *            Tier of parameters.
+	 * @return <code>true</code> if the tier selected in the options includes <code>aTier</code>;
+	 *         <code>false</code> otherwise. Betweenness and stress need every node as a source, so
+	 *         {@link MetricTier#ALL} is never computed for a subset of the nodes.
+	 */
+	public boolean computes(MetricTier aTier) {
+		return options.metrics.includes(aTier) && (aTier != MetricTier.ALL || isGlobal());
+	}
+
+	/**
+	 * Gets the highest tier of parameters whose node and edge attributes are written by this
+	 * analysis.
+	 * 
+	 * @return Highest tier {@link #computes(MetricTier)} accepts, lowered to the tier before
+	 *         {@link MetricTier#ALL} in a {@link AnalysisOptions#diameterOnly} analysis, which
+	 *         computes no betweenness and stress.
+	 */
+	protected MetricTier getAttributeTier() {
+		MetricTier attributeTier = MetricTier.DEGREE;
+		for (MetricTier tier : MetricTier.values())
+			if (computes(tier))
+				attributeTier = tier;
+		if (options.diameterOnly && attributeTier == MetricTier.ALL)
+			attributeTier = MetricTier.PATHS;
+		return attributeTier;
+	}
+
+	/**
+	 * Checks if the shortest paths of this analysis follow the edge lengths of
+	 * {@link AnalysisOptions#edgeWeights}.
+	 * 
+	 * @return <code>true</code> if an edge column is selected and the shortest path parameters other
+	 *         than the diameter and the radius are computed; <code>false</code> otherwise.
+	 */
+	public boolean isWeighted() {
+		return options.edgeWeights != null && !options.diameterOnly && computes(MetricTier.PATHS);
+	}
+
+	/**
+	 * Gets the lengths of the edges of a connected component.
+	 * 
+	 * @param aGraph
+	 *            Snapshot of the connected component, taken from the snapshot of the network.
+	 * @return Length of every edge of <code>aGraph</code>, indexed like its edges; <code>null</code>
+	 *         if the analysis is not weighted.
+	 */
+	public double[] getEdgeLengths(GraphSnapshot aGraph) {
+		return (edgeLengths != null) ? aGraph.edgeValues(edgeLengths) : null;
+	}
+
+	/**
+	 * Flags the nodes of a connected component whose topological parameters are calculated.
+	 * 
+	 * @param aGraph
+	 *            Snapshot of the connected component.
+	 * @return Flags indexed like the nodes of <code>aGraph</code>; <code>null</code> if the parameters
+	 *         of all nodes are calculated.
+	 */
+	public boolean[] getAnalyzedNodes(GraphSnapshot aGraph) {
+		if (nodeSet == null)
+			return null;
+		final boolean[] analyzed = new boolean[aGraph.numNodes];
+		for (int node = 0; node < aGraph.numNodes; node++)
+			analyzed[node] = nodeSet.contains(aGraph.nodes[node]);
+		return analyzed;
+	}
+
+	/**
+	 * Lists the nodes whose topological parameters are calculated; these are the sources of the
+	 * shortest path searches.
+	 * 
+	 * @param aAnalyzed
+	 *            Flags of the analyzed nodes, as returned by {@link #getAnalyzedNodes(GraphSnapshot)}.
+	 * @param aNumNodes
+	 *            Number of nodes in the connected component.
+	 * @return Indices of the analyzed nodes, in ascending order.
+	 */
+	public static int[] sourcesOf(boolean[] aAnalyzed, int aNumNodes) {
+		int count = aNumNodes;
+		if (aAnalyzed != null) {
+			count = 0;
+			for (boolean analyzed : aAnalyzed)
+				if (analyzed)
+					count++;
+		}
+		final int[] sources = new int[count];
+		for (int node = 0, i = 0; node < aNumNodes; node++)
+			if (aAnalyzed == null || aAnalyzed[node])
+				sources[i++] = node;
+		return sources;
+	}
+
+	/**
+	 * Stores the number of sources betweenness was computed from, and the error bound achieved, in the
+	 * statistics. Nothing is stored when betweenness is computed exactly.
+	 */
+	protected void saveSamplingStats() {
+		if (options.betweennessEpsilon > 0 && !options.diameterOnly && computes(MetricTier.ALL)) {
+			stats.set("nbtSources", sampledSources);
+			stats.set("nbtError", samplingError);
+		}
+	}
+
+	/**
+	 * Computes the core numbers of the nodes of the whole network with a {@link CoreDecomposition},
+	 * adds them to the attributes collected by the analysis and stores the degeneracy of the network
+	 * in the statistics. The cores are computed over all edges regardless of their direction, in
+	 * every tier.
+	 * 
+	 * @param aComponents
+	 *            Connected components of the network.
+	 * @param aNodeBuffers
+	 *            Node attributes collected by the analysis, one per connected component in the
+	 *            order of <code>aComponents</code>.
+	 */
+	protected void computeCores(List<ConnectedComponentInfo> aComponents, List<AttributeBuffer> aNodeBuffers) {
+		if (cancelled)
+			return;
+		final CoreDecomposition cores = CoreDecomposition.compute(graph.numNodes, graph.neighborOffsets,
+				graph.neighbors);
+		copyNodeColumn(Msgs.getAttr("kco"), cores.cores, aComponents, aNodeBuffers);
+		stats.set("degeneracy", cores.getDegeneracy());
+	}
+
+	/**
+	 * Adds a column of values over the nodes of the whole network to the node attributes of the
+	 * connected components, so that they are written in the same pass as the other attributes.
+	 * 
+	 * @param aName
+	 *            Name of the attribute.
+	 * @param aValues
+	 *            Primitive array with the values of the attribute, indexed like the nodes of
+	 *            {@link #getGraph()}.
+	 * @param aComponents
+	 *            Connected components of the network.
+	 * @param aNodeBuffers
+	 *            Node attributes of the connected components, in the order of
+	 *            <code>aComponents</code>.
+	 */
+	private static void copyNodeColumn(String aName, Object aValues, List<ConnectedComponentInfo> aComponents,
+			List<AttributeBuffer> aNodeBuffers) {
+		for (int c = 0; c < aNodeBuffers.size(); c++)
+			aNodeBuffers.get(c).copyColumn(aName, aValues, aComponents.get(c).getMembers());
+	}
+
+	/**
+	 * Creates the node columns of the optional centralities selected in the options. The columns of
+	 * the centralities this analysis does not compute are left untouched.
+	 */
+	protected void createCentralityAttributes() {
+		final boolean local = computes(MetricTier.LOCAL);
+		AttributeSetup.createCentralityAttributes(network.getTable(CyNode.class, CyNetwork.LOCAL_ATTRS),
+				local && options.pageRank, local && options.eigenvector, local && options.katz,
+				local && options.hits && isDirected());
+	}
+
+	/**
+	 * Computes the {@link PageRank} and the optional centralities selected in the options for the
+	 * nodes of the whole network, and adds them to the attributes collected by the analysis. In a
+	 * directed analysis the centralities flow along the directed edges; otherwise they flow along all
+	 * edges in both directions. The HITS scores are only computed in a directed analysis.
+	 * 
+	 * @param aComponents
+	 *            Connected components of the network.
+	 * @param aNodeBuffers
+	 *            Node attributes collected by the analysis, one per connected component in the
+	 *            order of <code>aComponents</code>.
+	 */
+	protected void computeCentralities(List<ConnectedComponentInfo> aComponents, List<AttributeBuffer> aNodeBuffers) {
+		if (!computes(MetricTier.LOCAL) || cancelled)
+			return;
+		final boolean directed = isDirected();
+		final int numNodes = graph.numNodes;
+		final int[] outOffsets = directed ? graph.outOffsets : graph.neighborOffsets;
+		final int[] outNeighbors = directed ? graph.outNeighbors : graph.neighbors;
+		final int[] inOffsets = directed ? graph.inOffsets : graph.neighborOffsets;
+		final int[] inNeighbors = directed ? graph.inNeighbors : graph.neighbors;
+		if (options.pageRank) {
+			final PageRank pageRank = PageRank.run(this, numNodes, outOffsets, inOffsets, inNeighbors,
+					options.pageRankDamping, options.pageRankTolerance, options.pageRankExtrapolation);
+			copyNodeColumn(Msgs.getAttr("prk"), pageRank.ranks, aComponents, aNodeBuffers);
+		}
+		if (options.eigenvector || options.katz) {
+			final EigenvectorCentrality eigenvector = EigenvectorCentrality.run(this, numNodes, inOffsets,
+					inNeighbors, options.centralityTolerance);
+			if (options.eigenvector)
+				copyNodeColumn(Msgs.getAttr("evc"), eigenvector.scores, aComponents, aNodeBuffers);
+			if (options.katz) {
+				// Below the inverse of the principal eigenvalue the walks converge; without cycles, any
+				// attenuation does. The largest in- and out-degrees bound the eigenvalue from above, and
+				// stand in for the estimate when its iterations did not converge
+				double eigenvalue = Math.min(maxDegree(inOffsets), maxDegree(outOffsets));
+				if (eigenvector.isConverged())
+					eigenvalue = Math.min(eigenvalue, eigenvector.getEigenvalue());
+				final double attenuation = options.katzAttenuation / Math.max(1, eigenvalue);
+				final KatzCentrality katz = KatzCentrality.run(this, numNodes, inOffsets, inNeighbors, attenuation,
+						options.centralityTolerance);
+				copyNodeColumn(Msgs.getAttr("kac"), katz.scores, aComponents, aNodeBuffers);
+			}
+		}
+		if (options.hits && directed) {
+			final Hits hits = Hits.run(this, numNodes, outOffsets, outNeighbors, inOffsets, inNeighbors,
+					options.centralityTolerance);
+			copyNodeColumn(Msgs.getAttr("hub"), hits.hubs, aComponents, aNodeBuffers);
+			copyNodeColumn(Msgs.getAttr("aut"), hits.authorities, aComponents, aNodeBuffers);
+		}
+	}
+
+	/**
+	 * Finds the largest degree in an adjacency list.
+	 *
+	 * @param aOffsets
+	 *            Array with the indices of each node's first neighbor, followed by the number of
+	 *            neighbors.
+	 * @return Largest number of neighbors of a node; <code>0</code> if there are no nodes.
+	 */
+	private static int maxDegree(int[] aOffsets) {
+		int max = 0;
+		for (int i = 1; i < aOffsets.length; i++)
+			max = Math.max(max, aOffsets[i] - aOffsets[i - 1]);
+		return max;
+	}
+
+	/**
+	 * Adds the inverse distances from a source to the global efficiency of the network and computes
+	 * the harmonic centrality of the source. The sources must be added in the same order in every
+	 * run, so that the efficiency does not depend on the number of workers.
+	 * 
+	 * @param aHarmonicSum
+	 *            Sum of the inverse distances from the source to the nodes reachable from it.
+	 * @return Harmonic centrality of the source: <code>aHarmonicSum</code> divided by the number of
+	 *         other nodes in the network, so that it is comparable across connected components.
+	 */
+	public double accumulateHarmonic(double aHarmonicSum) {
+		harmonicSum += aHarmonicSum;
+		harmonicSources++;
+		return (graph.numNodes > 1) ? aHarmonicSum / (graph.numNodes - 1) : 0;
+	}
+
+	/**
+	 * Stores the global efficiency of the network in the statistics: the average inverse distance
+	 * over the ordered pairs of distinct nodes whose first node is a source of the searches, where
+	 * disconnected pairs count as zero. Nothing is stored if no search was run.
+	 */
+	protected void saveEfficiency() {
+		if (harmonicSources > 0 && graph.numNodes > 1)
+			stats.set("efficiency", harmonicSum / ((double) harmonicSources * (graph.numNodes - 1)));
+	}
+
+	/**
+	 * Writes the node and edge attributes collected by the analysis to the network, unless the
+	 * analysis was cancelled or {@link AnalysisOptions#writeAttributes} is not set, and stores the
+	 * time taken in the statistics. With an event helper, the node and edge tables are silenced
+	 * while the values are written, and a single {@link RowsSetEvent} per table then reports all of
+	 * them. The attributes are kept for the {@link AnalysisResult} in any case.
+	 * 
+	 * @param aBuffers
+	 *            Attributes collected by the analysis.
+	 */
+	protected void writeAttributes(List<AttributeBuffer> aBuffers) {
+		long time = System.currentTimeMillis();
+		attributes.addAll(aBuffers);
+		if (!cancelled && options.writeAttributes) {
+			if (eventHelper == null) {
+				for (final AttributeBuffer buffer : aBuffers)
+					buffer.writeTo(network, null);
+			} else {
+				final CyTable[] tables = { network.getDefaultNodeTable(),
+						network.getTable(CyNode.class, CyNetwork.LOCAL_ATTRS), network.getDefaultEdgeTable(),
+						network.getTable(CyEdge.class, CyNetwork.LOCAL_ATTRS) };
+				final List<RowSetRecord> nodeRecords = new ArrayList<RowSetRecord>();
+				final List<RowSetRecord> edgeRecords = new ArrayList<RowSetRecord>();
+				for (final CyTable table : tables)
+					eventHelper.silenceEventSource(table);
+				try {
+					for (final AttributeBuffer buffer : aBuffers)
+						buffer.writeTo(network, (buffer.getTargets() instanceof CyNode[]) ? nodeRecords : edgeRecords);
+				} finally {
+					for (final CyTable table : tables)
+						eventHelper.unsilenceEventSource(table);
+				}
+				if (!nodeRecords.isEmpty())
+					eventHelper.fireEvent(new RowsSetEvent(tables[0], nodeRecords));
+				if (!edgeRecords.isEmpty())
+					eventHelper.fireEvent(new RowsSetEvent(tables[2], edgeRecords));
+			}
+		}
+		time = System.currentTimeMillis() - time;
+		stats.set("writeTime", time / 1000.0);
 	}
 
 	/**
@@ -298,22 +956,99 @@ public abstract class NetworkAnalyzer {
 	}
 	
 	/**
-	 * the local object that remembers locations for our app
+	 * Listeners notified when the analysis starts and finishes.
+	 */
+	private final List<AnalysisListener> listeners;
+
+	/**
+	 * Event helper that silences the tables while the attributes are written; <code>null</code> if
+	 * the tables fire an event for every value written.
+	 */
+	private CyEventHelper eventHelper;
+
+	/**
+	 * Attributes collected by the analysis, for its result.
+	 */
+	private final List<AttributeBuffer> attributes;
+
+	/**
+	 * Result of the analysis; <code>null</code> until the analysis has finished.
+	 */
+	private AnalysisResult result;
+
+	/**
+	 * Minimal number of sources given to a worker in {@link #forEachSource}. Smaller connected
+	 * components are traversed by fewer workers, or serially.
+	 */
+	private static final int MIN_SOURCES_PER_WORKER = 32;
+
+	/**
+	 * Number of chunks the sources are split into per worker in {@link #forEachSource}.
 	 */
-	AnalyzerManager  manager;
+	private static final int CHUNKS_PER_WORKER = 16;
+
 	/**
-	 * the frame is used to access the results panel
+	 * Meter of the progress of the analysis, advanced concurrently by the workers.
 	 */
-	protected CySwingApplication desktop;
+	protected final ProgressMeter meter = new ProgressMeter();
+
+	/**
+	 * Options that control this analysis.
+	 */
+	protected AnalysisOptions options = new AnalysisOptions();
+
+	/**
+	 * Random generator of the source samples, seeded by {@link #analysisStarting()}.
+	 */
+	private Random random;
+
+	/**
+	 * Number of sources betweenness has been accumulated from, over all connected components.
+	 */
+	private int sampledSources;
+
+	/**
+	 * Largest error bound achieved by the source samples drawn so far.
+	 */
+	private double samplingError;
+
+	/**
+	 * Sum of the inverse distances from the sources of the searches, over all connected components.
+	 */
+	private double harmonicSum;
+
+	/**
+	 * Number of sources whose inverse distances are summed in {@link #harmonicSum}.
+	 */
+	private int harmonicSources;
+
+	/**
+	 * Pool of the workers used by {@link #forEachSource}. It is created on first use and shut down
+	 * when the analysis finishes.
+	 */
+	private ForkJoinPool pool;
+
 	/**
 	 * Target network for analysis.
 	 */
 	public CyNetwork network;
 
 	/**
-	 * Subset of nodes to be analyzed.
+	 * Snapshot of {@link #network}, taken by {@link #analysisStarting()}. The analyzers traverse the
+	 * snapshot instead of the network.
 	 */
-//	protected Set<CyNode> nodeSet;
+	protected GraphSnapshot graph;
+
+	/**
+	 * Length of every edge of {@link #graph}, read from the column of
+	 * {@link AnalysisOptions#edgeWeights}; <code>null</code> if the analysis is not weighted.
+	 */
+	private double[] edgeLengths;
+
+	/**
+	 * Subset of nodes to be analyzed; <code>null</code> if all nodes are analyzed.
+	 */
+	protected Set<CyNode> nodeSet;
 
 	/**
 	 * Interpretation of edges in {@link #network}.
@@ -345,15 +1080,7 @@ public abstract class NetworkAnalyzer {
 	 * value of this flag should be checked at regular intervals.
 	 * </p>
 	 */
-	public boolean cancelled;
-
-	/**
-	 * Flag indicating if only the minimal calculations should be run
-	 * <p>
-	 * This flag supports a subset of the functionality, especially when the size of the network is larger.
-	 * </p>
-	 */
-	protected boolean degreeOnly;
+	public volatile boolean cancelled;
 
 	/**
 	 * Set of all edges that are removed from {@link #network} before the analysis. These edges are added back
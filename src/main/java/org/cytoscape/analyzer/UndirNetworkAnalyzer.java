@@ -1,14 +1,19 @@
 package org.cytoscape.analyzer;
 
 
+import org.cytoscape.analyzer.util.AttributeBuffer;
 import org.cytoscape.analyzer.util.AttributeSetup;
 import org.cytoscape.analyzer.util.ConnectedComponentInfo;
+import org.cytoscape.analyzer.util.MetricTier;
 import org.cytoscape.analyzer.util.NetworkInterpretation;
 import org.cytoscape.analyzer.util.PathLengthData;
+import org.cytoscape.analyzer.util.RadixHeap;
+import org.cytoscape.analyzer.util.TraversalWorkspace;
+import org.cytoscape.analyzer.util.TriangleCounts;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
-import org.cytoscape.application.swing.CySwingApplication;
 import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNode;
@@ -22,7 +27,8 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 {
 	@Override public boolean isDirected() { return false;	}
 	/**
-	 * Initializes a new instance of <code>UndirNetworkAnalyzer</code>.
+	 * Initializes a new instance of <code>UndirNetworkAnalyzer</code> that is not connected to the
+	 * user interface.
 	 * 
 	 * @param aNetwork
 	 *            Network to be analyzed.
@@ -33,13 +39,9 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 	 * @param aInterpr
 	 *            Interpretation of the network edges.
 	 */
-	public UndirNetworkAnalyzer(CyNetwork aNetwork, NetworkInterpretation aInterpr, CySwingApplication app, AnalyzerManager mgr) 
+	public UndirNetworkAnalyzer(CyNetwork aNetwork, Set<CyNode> aNodeSet, NetworkInterpretation aInterpr) 
 	{
-		super(aNetwork, aInterpr, app, mgr);
-//		if (nodeSet != null) 
-//			stats.set("nodeCount", nodeSet.size());
-		AttributeSetup.createUndirectedNodeAttributes(aNetwork.getTable(CyNode.class, CyNetwork.LOCAL_ATTRS));
-		AttributeSetup.createEdgeBetweennessAttribute(aNetwork.getTable(CyEdge.class, CyNetwork.LOCAL_ATTRS));
+		super(aNetwork, aNodeSet, aInterpr);
 	}
 
 	/*
@@ -53,20 +55,48 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 //	System.out.println("computeALL");	
 		long time = System.currentTimeMillis();
 		analysisStarting();
+		if (options.writeAttributes)
+		{
+			// Only the diameter and the radius of the path parameters are found with diameterOnly
+			MetricTier tier = getAttributeTier();
+			if (options.diameterOnly && tier == MetricTier.PATHS)
+				tier = MetricTier.LOCAL;
+			AttributeSetup.createUndirectedNodeAttributes(network.getTable(CyNode.class, CyNetwork.LOCAL_ATTRS), tier,
+					isWeighted());
+			AttributeSetup.createEdgeBetweennessAttribute(network.getTable(CyEdge.class, CyNetwork.LOCAL_ATTRS),
+					tier == MetricTier.ALL);
+			createCentralityAttributes();
+		}
 		ConnComponentAnalyzer cca = new ConnComponentAnalyzer(this,network);						// Compute number of connected components
 		List<ConnectedComponentInfo> components = cca.findComponents();
 		int connectedComponentCount = components.size();
 		ConnectedComponentInfo largest = cca.findLargestComponent();
 		stats.set("ncc", connectedComponentCount);
 
+		List<AttributeBuffer> attributes = new ArrayList<AttributeBuffer>(2 * connectedComponentCount);
+		List<AttributeBuffer> nodeAttributes = new ArrayList<AttributeBuffer>(connectedComponentCount);
 		for (ConnectedComponentInfo aCompInfo : components) 
 		{
 			aCompInfo.analyze(network, cca);
+			attributes.add(aCompInfo.getNodeAttributes());
+			attributes.add(aCompInfo.getEdgeAttributes());
+			nodeAttributes.add(aCompInfo.getNodeAttributes());
 			progress++;
 		}
+		saveEfficiency();
+		computeCores(components, nodeAttributes);
+		computeCentralities(components, nodeAttributes);
+		writeAttributes(attributes);
+
+		// For a subset of the nodes, the statistics come from the component with the most analyzed nodes
+		ConnectedComponentInfo statsSource = largest;
+		for (ConnectedComponentInfo aCompInfo : components)
+			if (aCompInfo.getAnalyzedCount() > statsSource.getAnalyzedCount())
+				statsSource = aCompInfo;
 
 		// OK, now copy over the statistics from our largest connected component
-		stats.copyStats(largest.getStats());
+		stats.copyStats(statsSource.getStats());
+		saveSamplingStats();
 		analysisFinished();
 		time = System.currentTimeMillis() - time;
 		stats.set("time", time / 1000.0);
@@ -79,6 +109,7 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 	 * @param edges Array with every node's neighbor indices.
 	 * @param edgeOffsets Array with the indices of each node's first neighbor in <code>edges</code>.
 	 * @return Clustering coefficient in the range [0; 1].
+	 * @see TriangleCounts
 	 */
 	public static double computeCC(int[] neighbors, int numNodes, int[] edges, int[] edgeOffsets)
 	{
@@ -124,61 +155,123 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 	public static PathLengthData computeSPandSN(int node, int numNodes, int[] edges, 
 	                                            int[] edgeOffsets, long[] outSharedNeighborsHist, long[] outSPathLengths) 
 	{
-		boolean[] visited = new boolean[numNodes];
-		visited[node] = true;
-		int[] frontier = new int[numNodes];
-		int[] nextFrontier = new int[numNodes];
-		frontier[0] = node;
-		int frontierSize = 1;
+		return computeSPandSN(node, numNodes, edges, edgeOffsets, outSharedNeighborsHist, outSPathLengths,
+				new TraversalWorkspace(numNodes, edges.length));
+	}
+
+	/**
+	 * Computes the shortest path lengths from the given node to all other nodes in the network and
+	 * accumulates the shared neighbors histogram, using the arrays of the given workspace instead of
+	 * allocating new ones.
+	 * 
+	 * @param workspace
+	 *            Workspace of the calling thread. The returned data is owned by the workspace and is
+	 *            only valid until the next traversal that uses it.
+	 * @see #computeSPandSN(int, int, int[], int[], long[], long[])
+	 */
+	public static PathLengthData computeSPandSN(int node, int numNodes, int[] edges, int[] edgeOffsets,
+	                                            long[] outSharedNeighborsHist, long[] outSPathLengths,
+	                                            TraversalWorkspace workspace) 
+	{
+		int epoch = workspace.nextEpoch();
+		int[] visited = workspace.visited;
+		int[] startNeighbors = workspace.marks;
+		int[] queue = workspace.queue;	// Holds the frontiers of all levels one after another
+		visited[node] = epoch;
+		queue[0] = node;
+		int frontierStart = 0, frontierEnd = 1;
 		int i = 1;
-		boolean[] startNeighbors = new boolean[numNodes];
 		{
 			int firstNeighbor = edgeOffsets[node], lastNeighbor = edgeOffsets[node + 1];
 			for (int ni = firstNeighbor; ni < lastNeighbor; ni++)
-				startNeighbors[edges[ni]] = true;
+				startNeighbors[edges[ni]] = epoch;
 		}
 		
-		PathLengthData result = new PathLengthData();
+		PathLengthData result = workspace.pathLengths;
 		
-		while (frontierSize > 0)
+		while (frontierStart < frontierEnd)
 		{
-			int nextFrontierSize = 0;
+			int nextFrontierEnd = frontierEnd;
 			
-			for (int fi = 0; fi < frontierSize; fi++)
+			for (int fi = frontierStart; fi < frontierEnd; fi++)
 			{
-				int n = frontier[fi];
+				int n = queue[fi];
 				int firstNeighbor = edgeOffsets[n], lastNeighbor = edgeOffsets[n + 1];
 				int sharedNeighbors = 0;
 				
 				for (int ni = firstNeighbor; ni < lastNeighbor; ni++)
 				{
 					int neighbor = edges[ni];
-					if (startNeighbors[neighbor])
+					if (startNeighbors[neighbor] == epoch)
 						sharedNeighbors++;
-					if (!visited[neighbor])
+					if (visited[neighbor] != epoch)
 					{
-						visited[neighbor] = true;
-						nextFrontier[nextFrontierSize++] = neighbor;
+						visited[neighbor] = epoch;
+						queue[nextFrontierEnd++] = neighbor;
 					}
 				}
 				int index = i > 2 ? sharedNeighbors : 0;
 				outSharedNeighborsHist[index]++;
 			}
 			
+			int nextFrontierSize = nextFrontierEnd - frontierEnd;
 			for (int nfi = 0; nfi < nextFrontierSize; nfi++)
-			{
-				frontier[nfi] = nextFrontier[nfi];
 				result.addSPL(i);
-			}
 			if (i < outSPathLengths.length)
 				outSPathLengths[i] += nextFrontierSize;
-			frontierSize = nextFrontierSize;
+			frontierStart = frontierEnd;
+			frontierEnd = nextFrontierEnd;
 			i++;
 		}
 		
 		return result;
 	}
 
+	/**
+	 * Accumulates the shared neighbors histogram for the given node without computing shortest path
+	 * lengths. Only the nodes at distance 2 share neighbors with the given node, so it suffices to
+	 * visit the neighbors of its neighbors. The entries of the histogram from index <code>1</code> on
+	 * are the same as those {@link #computeSPandSN(int, int, int[], int[], long[], long[], TraversalWorkspace)}
+	 * accumulates.
+	 * 
+	 * @param workspace
+	 *            Workspace of the calling thread.
+	 */
+	public static void computeSN(int node, int numNodes, int[] edges, int[] edgeOffsets,
+	                             long[] outSharedNeighborsHist, TraversalWorkspace workspace)
+	{
+		int epoch = workspace.nextEpoch();
+		int[] found = workspace.visited;
+		int[] startNeighbors = workspace.marks;
+		int[] queue = workspace.queue;
+		int[] shared = workspace.distance;	// Number of neighbors shared with the node
+		int firstNeighbor = edgeOffsets[node], lastNeighbor = edgeOffsets[node + 1];
+		startNeighbors[node] = epoch;
+		for (int ni = firstNeighbor; ni < lastNeighbor; ni++)
+			startNeighbors[edges[ni]] = epoch;
+
+		int count = 0;
+		for (int ni = firstNeighbor; ni < lastNeighbor; ni++)
+		{
+			int neighbor = edges[ni];
+			for (int ei = edgeOffsets[neighbor]; ei < edgeOffsets[neighbor + 1]; ei++)
+			{
+				int second = edges[ei];
+				if (startNeighbors[second] == epoch)
+					continue;	// The node itself or one of its neighbors
+				if (found[second] != epoch)
+				{
+					found[second] = epoch;
+					shared[second] = 0;
+					queue[count++] = second;
+				}
+				shared[second]++;
+			}
+		}
+		for (int i = 0; i < count; i++)
+			outSharedNeighborsHist[shared[queue[i]]]++;
+	}
+
 	/**
 	 * Accumulates the node and edge betweenness of all nodes in a connected component. The node
 	 * betweenness is calculate using the algorithm of Brandes (U. Brandes: A Faster Algorithm for
@@ -199,30 +292,150 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 	 */
 	public static void computeNBandEB(int source, int numNodes, int[] edges, int[] edgeOffsets, int[] edgeIDs,
 								double[] outNodeBetweenness, long[] outStress,  double[] outEdgeBetweenness)
+	{
+		computeNBandEB(source, numNodes, edges, edgeOffsets, edgeIDs, outNodeBetweenness, outStress, outEdgeBetweenness,
+				new TraversalWorkspace(numNodes, edges.length));
+	}
+
+	/**
+	 * Accumulates the node betweenness, stress and edge betweenness contributed by the given source
+	 * node, using the arrays of the given workspace instead of allocating new ones.
+	 * 
+	 * @param workspace
+	 *     Workspace of the calling thread.
+	 * @see #computeNBandEB(int, int, int[], int[], int[], double[], long[], double[])
+	 */
+	public static void computeNBandEB(int source, int numNodes, int[] edges, int[] edgeOffsets, int[] edgeIDs,
+								double[] outNodeBetweenness, long[] outStress,  double[] outEdgeBetweenness,
+								TraversalWorkspace workspace)
 	{		
-		int[] Q = new int[numNodes];		// Serves as queue for the first part, as stack for the second part
+		int epoch = workspace.nextEpoch();
+		int[] visited = workspace.visited;	// Nodes not visited in this epoch have not been found yet
+		
+		int[] Q = workspace.queue;		// Serves as queue for the first part, as stack for the second part
 		Q[0] = source;
 		int Qlow = 0, Qhigh = 1;			// Keep track of queue's first and last element / stack size
 
-		int[] P = new int[edges.length];	// Predecessors
-		int[] Pedge = new int[edges.length];
-		int[] Pcount = new int[numNodes];	// Predecessor count, for each node at most its edge count
+		int[] P = workspace.predecessors;	// Predecessors
+		int[] Pedge = workspace.predecessorEdges;
+		int[] Pcount = workspace.predecessorCount;	// Predecessor count, for each node at most its edge count
 		
-		int[] Dedge = new int[edges.length];	// Edges to descendants
-		int[] Dcount = new int[numNodes];
+		int[] Dedge = workspace.descendantEdges;	// Edges to descendants
+		int[] Dcount = workspace.descendantCount;
 		
-		int[] sigma = new int[numNodes];	// Sigma in Brandes paper, W in Newman
-		sigma[source] = 1;
+		int[] sigma = workspace.sigma;	// Sigma in Brandes paper, W in Newman
+		int[] d = workspace.distance;		// Distance from source, with source having d = 0
+		double[] delta = workspace.delta;	// Delta in Brandes paper
+		long[] stressDependency = workspace.stressDependency;		// Keep track of node stress metric
 		
-		int[] d = new int[numNodes];		// Distance from source, with source having d = 0
-		for (int i = 0; i < numNodes; i++)
-			d[i] = -1;
+		visited[source] = epoch;
 		d[source] = 0;
+		sigma[source] = 1;
+		Pcount[source] = 0;
+		Dcount[source] = 0;
+		delta[source] = 0.0;
+		stressDependency[source] = 0;
+		int overflow = 0;	// Negative once a number of shortest paths has overflowed
 		
-		double[] delta = new double[numNodes];	// Delta in Brandes paper
+		while (Qlow < Qhigh)	// While query.size > 0
+		{
+			int node = Q[Qlow++];	// Dequeue
+			int firstEdge = edgeOffsets[node], lastEdge = edgeOffsets[node + 1];
+			int dnodeplus = d[node] + 1;
+			int sigmanode = sigma[node];
+			
+			for (int ei = firstEdge; ei < lastEdge; ei++)	// For each neighbor of node
+			{
+				int neighbor = edges[ei];
+				
+				if (visited[neighbor] != epoch)	// Has not been found yet
+				{
+					visited[neighbor] = epoch;
+					Q[Qhigh++] = neighbor;		// Enqueue
+					d[neighbor] = dnodeplus;	// d[node] + 1
+					sigma[neighbor] = 0;
+					Pcount[neighbor] = 0;
+					Dcount[neighbor] = 0;
+					delta[neighbor] = 0.0;
+					stressDependency[neighbor] = 0;
+				}
+				
+				if (d[neighbor] == dnodeplus)	// Is descendant
+				{
+					int sigmaneighbor = sigma[neighbor] + sigmanode;
+					sigma[neighbor] = sigmaneighbor;
+					overflow |= sigmaneighbor;	// A sum of path counts is negative only if it overflows
+					int pi = edgeOffsets[neighbor] + Pcount[neighbor];	// Predecessor number
+					P[pi] = node;	// Store node as its neighbor's predecessor
+					Pedge[pi] = edgeIDs[ei];	// Also remember the edge from predecessor for edge betweenness later
+					Pcount[neighbor]++;	// Got one more predecessor
+					
+					int di = edgeOffsets[node] + Dcount[node];
+					Dedge[di] = edgeIDs[ei];
+					Dcount[node]++;
+				}
+			}
+		}
 		
-		long[] stressDependency = new long[numNodes];		// Keep track of node stress metric
-		double[] edgeDependency = new double[edges.length];	// This round's edge betweenness values
+		accumulateDependencies(source, Qhigh, edgeOffsets, workspace, overflow < 0, outNodeBetweenness, outStress, outEdgeBetweenness);
+	}
+	
+	/**
+	 * Computes, from a single breadth-first search starting at the given node, everything the
+	 * separate runs of {@link #computeSPandSN(int, int, int[], int[], long[], long[], TraversalWorkspace)}
+	 * and {@link #computeNBandEB(int, int, int[], int[], int[], double[], long[], double[], TraversalWorkspace)}
+	 * would compute: the shortest path lengths, the shared neighbors histogram, and the node
+	 * betweenness, stress and edge betweenness contributed by the source. Each node and each edge
+	 * of the component is read only once per direction of the search.
+	 * 
+	 * @param source
+	 *            Starting node of the breadth-first search.
+	 * @param workspace
+	 *            Workspace of the calling thread. The returned data is owned by the workspace and is
+	 *            only valid until the next traversal that uses it.
+	 * @return Data on the shortest path lengths from the source to all other reachable nodes in the
+	 *         network.
+	 */
+	public static PathLengthData computeSPandNB(int source, int numNodes, int[] edges, int[] edgeOffsets, int[] edgeIDs,
+								long[] outSharedNeighborsHist, long[] outSPathLengths,
+								double[] outNodeBetweenness, long[] outStress, double[] outEdgeBetweenness,
+								TraversalWorkspace workspace)
+	{
+		int epoch = workspace.nextEpoch();
+		int[] visited = workspace.visited;	// Nodes not visited in this epoch have not been found yet
+		int[] startNeighbors = workspace.marks;
+		
+		int[] Q = workspace.queue;		// Serves as queue for the first part, as stack for the second part
+		Q[0] = source;
+		int Qlow = 0, Qhigh = 1;			// Keep track of queue's first and last element / stack size
+
+		int[] P = workspace.predecessors;	// Predecessors
+		int[] Pedge = workspace.predecessorEdges;
+		int[] Pcount = workspace.predecessorCount;	// Predecessor count, for each node at most its edge count
+		
+		int[] Dedge = workspace.descendantEdges;	// Edges to descendants
+		int[] Dcount = workspace.descendantCount;
+		
+		int[] sigma = workspace.sigma;	// Sigma in Brandes paper, W in Newman
+		int[] d = workspace.distance;		// Distance from source, with source having d = 0
+		double[] delta = workspace.delta;	// Delta in Brandes paper
+		long[] stressDependency = workspace.stressDependency;		// Keep track of node stress metric
+		
+		PathLengthData result = workspace.pathLengths;
+		
+		visited[source] = epoch;
+		d[source] = 0;
+		sigma[source] = 1;
+		Pcount[source] = 0;
+		Dcount[source] = 0;
+		delta[source] = 0.0;
+		stressDependency[source] = 0;
+		{
+			int firstNeighbor = edgeOffsets[source], lastNeighbor = edgeOffsets[source + 1];
+			for (int ni = firstNeighbor; ni < lastNeighbor; ni++)
+				startNeighbors[edges[ni]] = epoch;
+		}
+		int overflow = 0;	// Negative once a number of shortest paths has overflowed
 		
 		while (Qlow < Qhigh)	// While query.size > 0
 		{
@@ -230,20 +443,34 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 			int firstEdge = edgeOffsets[node], lastEdge = edgeOffsets[node + 1];
 			int dnodeplus = d[node] + 1;
 			int sigmanode = sigma[node];
+			int sharedNeighbors = 0;
 			
 			for (int ei = firstEdge; ei < lastEdge; ei++)	// For each neighbor of node
 			{
 				int neighbor = edges[ei];
+				if (startNeighbors[neighbor] == epoch)
+					sharedNeighbors++;
 				
-				if (d[neighbor] < 0)	// Has not been found yet
+				if (visited[neighbor] != epoch)	// Has not been found yet
 				{
+					visited[neighbor] = epoch;
 					Q[Qhigh++] = neighbor;		// Enqueue
 					d[neighbor] = dnodeplus;	// d[node] + 1
+					sigma[neighbor] = 0;
+					Pcount[neighbor] = 0;
+					Dcount[neighbor] = 0;
+					delta[neighbor] = 0.0;
+					stressDependency[neighbor] = 0;
+					result.addSPL(dnodeplus);
+					if (dnodeplus < outSPathLengths.length)
+						outSPathLengths[dnodeplus]++;
 				}
 				
 				if (d[neighbor] == dnodeplus)	// Is descendant
 				{
-					sigma[neighbor] += sigmanode;
+					int sigmaneighbor = sigma[neighbor] + sigmanode;
+					sigma[neighbor] = sigmaneighbor;
+					overflow |= sigmaneighbor;	// A sum of path counts is negative only if it overflows
 					int pi = edgeOffsets[neighbor] + Pcount[neighbor];	// Predecessor number
 					P[pi] = node;	// Store node as its neighbor's predecessor
 					Pedge[pi] = edgeIDs[ei];	// Also remember the edge from predecessor for edge betweenness later
@@ -254,8 +481,185 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 					Dcount[node]++;
 				}
 			}
+			// Only nodes at distance 2 or more share neighbors with the source in the histogram
+			int index = dnodeplus > 2 ? sharedNeighbors : 0;
+			outSharedNeighborsHist[index]++;
+		}
+		
+		accumulateDependencies(source, Qhigh, edgeOffsets, workspace, overflow < 0, outNodeBetweenness, outStress, outEdgeBetweenness);
+		return result;
+	}
+	
+	/**
+	 * Computes, from a single search with Dijkstra's algorithm starting at the given node, the lengths
+	 * of the shortest paths over weighted edges to all nodes reachable from it and, if requested, the
+	 * node betweenness, stress and edge betweenness contributed by the source (U. Brandes: On Variants
+	 * of Shortest-Path Betweenness Centrality and their Generic Computation. Social Networks
+	 * 30(2):136-145, 2008).
+	 * <p>
+	 * The nodes are settled from a {@link RadixHeap} in order of non-decreasing distance. The
+	 * predecessors of a node are final once it is settled, since the edge lengths are positive, so
+	 * the node is then recorded as a descendant of its predecessors and the dependencies are
+	 * accumulated exactly as those of a breadth-first search. Two paths are equally short only if
+	 * their lengths are equal in double precision.
+	 * </p>
+	 * 
+	 * @param source
+	 *            Starting node of the search.
+	 * @param edges
+	 *            Array with every node's neighbor indices. In a directed component, the out-neighbors
+	 *            of every node are stored first, followed by its in-neighbors, which are not followed.
+	 * @param edgeOffsets
+	 *            Array with the indices of each node's first neighbor in <code>edges</code>.
+	 * @param edgeIDs
+	 *            IDs of the edges to the neighbors, parallel to <code>edges</code>.
+	 * @param edgeLengths
+	 *            Positive lengths of the edges to the neighbors, parallel to <code>edges</code>.
+	 * @param inEdgeOffsets
+	 *            Offsets of the in-neighbors of a directed component; <code>null</code> for an
+	 *            undirected component.
+	 * @param betweenness
+	 *            Flag indicating if the node betweenness, stress and edge betweenness are accumulated.
+	 * @param workspace
+	 *            Workspace of the calling thread. The returned data is owned by the workspace and is
+	 *            only valid until the next traversal that uses it.
+	 * @return Data on the weighted shortest path lengths from the source to all other reachable
+	 *         nodes in the network.
+	 */
+	public static PathLengthData computeWeightedSPandNB(int source, int[] edges, int[] edgeOffsets, int[] edgeIDs,
+								double[] edgeLengths, int[] inEdgeOffsets, boolean betweenness,
+								double[] outNodeBetweenness, long[] outStress, double[] outEdgeBetweenness,
+								TraversalWorkspace workspace)
+	{
+		int epoch = workspace.nextEpoch();
+		int[] visited = workspace.visited;	// Nodes not visited in this epoch have not been found yet
+		int[] settled = workspace.marks;	// Nodes whose distance is final
+		
+		int[] Q = workspace.queue;		// Settled nodes in order of non-decreasing distance; stack for the second part
+		int Qhigh = 0;
+		
+		int[] P = workspace.predecessors;	// Predecessors
+		int[] Pedge = workspace.predecessorEdges;
+		int[] Pcount = workspace.predecessorCount;
+		
+		int[] Dedge = workspace.descendantEdges;	// Edges to descendants
+		int[] Dcount = workspace.descendantCount;
+		
+		int[] sigma = workspace.sigma;
+		double[] d = workspace.lengths();	// Length of the shortest path from the source found so far
+		double[] delta = workspace.delta;
+		long[] stressDependency = workspace.stressDependency;
+		
+		RadixHeap heap = workspace.heap();
+		heap.clear();
+		PathLengthData result = workspace.pathLengths;
+		
+		visited[source] = epoch;
+		d[source] = 0.0;
+		sigma[source] = 1;
+		Pcount[source] = 0;
+		heap.add(source, 0.0);
+		int overflow = 0;	// Negative once a number of shortest paths has overflowed
+		
+		while (!heap.isEmpty())
+		{
+			int node = heap.poll();
+			if (settled[node] == epoch)
+				continue;	// Entry left behind when the distance of the node decreased
+			settled[node] = epoch;
+			Q[Qhigh++] = node;
+			Dcount[node] = 0;
+			delta[node] = 0.0;
+			stressDependency[node] = 0;
+			double dnode = d[node];
+			if (node != source)
+				result.addWeightedSPL(dnode);
+			if (betweenness)
+			{
+				// The predecessors are final: record the node as their descendant
+				int firstP = edgeOffsets[node], lastP = firstP + Pcount[node];
+				for (int pi = firstP; pi < lastP; pi++)
+				{
+					int v = P[pi];
+					Dedge[edgeOffsets[v] + Dcount[v]++] = Pedge[pi];
+				}
+			}
+			
+			int firstEdge = edgeOffsets[node], lastEdge = edgeOffsets[node + 1];
+			if (inEdgeOffsets != null)
+				lastEdge -= inEdgeOffsets[node + 1] - inEdgeOffsets[node];
+			int sigmanode = sigma[node];
+			for (int ei = firstEdge; ei < lastEdge; ei++)	// For each neighbor of node
+			{
+				int neighbor = edges[ei];
+				if (settled[neighbor] == epoch)
+					continue;
+				double length = dnode + edgeLengths[ei];
+				if (visited[neighbor] != epoch || length < d[neighbor])	// Shorter path found
+				{
+					visited[neighbor] = epoch;
+					d[neighbor] = length;
+					heap.add(neighbor, length);
+					sigma[neighbor] = 0;
+					Pcount[neighbor] = 0;
+				}
+				if (betweenness && d[neighbor] == length)	// Node is a predecessor
+				{
+					int sigmaneighbor = sigma[neighbor] + sigmanode;
+					sigma[neighbor] = sigmaneighbor;
+					overflow |= sigmaneighbor;
+					int pi = edgeOffsets[neighbor] + Pcount[neighbor]++;
+					P[pi] = node;
+					Pedge[pi] = edgeIDs[ei];
+				}
+			}
 		}
 		
+		if (betweenness)
+			accumulateDependencies(source, Qhigh, edgeOffsets, workspace, overflow < 0, outNodeBetweenness, outStress, outEdgeBetweenness);
+		return result;
+	}
+	
+	/**
+	 * Second part of the algorithm of Brandes: pops the nodes found by a breadth-first search in
+	 * order of non-increasing distance from the source and accumulates their dependencies into the
+	 * node betweenness, stress and edge betweenness. Stress saturates at <code>Long.MAX_VALUE</code>
+	 * instead of overflowing.
+	 * 
+	 * @param source
+	 *            Source node of the breadth-first search.
+	 * @param stackSize
+	 *            Number of nodes found by the search; they are stored in the queue of the workspace
+	 *            in the order they were found.
+	 * @param edgeOffsets
+	 *            Array with the indices of each node's first neighbor, also used as offsets of its
+	 *            predecessors and descendants in the workspace.
+	 * @param workspace
+	 *            Workspace filled by the breadth-first search.
+	 * @param overflow
+	 *            Flag indicating if a number of shortest paths overflowed during the search, in
+	 *            which case the numbers are counted again in logarithmic scale.
+	 */
+	static void accumulateDependencies(int source, int stackSize, int[] edgeOffsets, TraversalWorkspace workspace,
+								boolean overflow, double[] outNodeBetweenness, long[] outStress, double[] outEdgeBetweenness)
+	{
+		if (overflow)
+		{
+			accumulateLogDependencies(source, stackSize, edgeOffsets, workspace, outNodeBetweenness, outStress, outEdgeBetweenness);
+			return;
+		}
+		int[] Q = workspace.queue;
+		int Qhigh = stackSize;
+		int[] P = workspace.predecessors;
+		int[] Pedge = workspace.predecessorEdges;
+		int[] Pcount = workspace.predecessorCount;
+		int[] Dedge = workspace.descendantEdges;
+		int[] Dcount = workspace.descendantCount;
+		int[] sigma = workspace.sigma;
+		double[] delta = workspace.delta;
+		long[] stressDependency = workspace.stressDependency;
+		double[] edgeDependency = workspace.edgeDependency;	// This round's edge betweenness values, set before read
+		
 		while (Qhigh > 0)	// While stack.size > 0
 		{
 			int w = Q[--Qhigh];				// Pop from stack
@@ -276,7 +680,7 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 				int v = P[pi];	// v is predecessor
 				double sigmavw = (double)sigma[v] * sigmaw;	// Precalc
 				delta[v] += sigmavw * (1 + deltaw);
-				stressDependency[v] += 1 + stressw;
+				stressDependency[v] = saturatedAdd(stressDependency[v], 1 + stressw);
 				
 				double edgeBetweenness = 0;
 				int edgeID = Pedge[pi];
@@ -292,10 +696,113 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 			if (w != source)
 			{
 				outNodeBetweenness[w] += deltaw;
-				outStress[w] += sigma[w] * stressw;
+				outStress[w] = saturatedAdd(outStress[w], saturatedMultiply(sigma[w], stressw));
 			}
 		}
 	}
+
+	/**
+	 * Variant of {@link #accumulateDependencies(int, int, int[], TraversalWorkspace, boolean, double[], long[], double[])}
+	 * for searches in which the numbers of shortest paths overflow, as they do in grid-like and
+	 * dense networks. The numbers are counted again from the predecessors the search stored, as
+	 * natural logarithms, so that they neither overflow nor lose their relative precision; the
+	 * dependencies only need their ratios.
+	 */
+	private static void accumulateLogDependencies(int source, int stackSize, int[] edgeOffsets, TraversalWorkspace workspace,
+								double[] outNodeBetweenness, long[] outStress, double[] outEdgeBetweenness)
+	{
+		int[] Q = workspace.queue;
+		int[] P = workspace.predecessors;
+		int[] Pedge = workspace.predecessorEdges;
+		int[] Pcount = workspace.predecessorCount;
+		int[] Dedge = workspace.descendantEdges;
+		int[] Dcount = workspace.descendantCount;
+		double[] logSigma = workspace.logSigma();
+		double[] delta = workspace.delta;
+		long[] stressDependency = workspace.stressDependency;
+		double[] edgeDependency = workspace.edgeDependency;
+
+		// The nodes are stored in order of non-decreasing distance, so the predecessors come first
+		logSigma[source] = 0.0;
+		for (int i = 1; i < stackSize; i++)
+		{
+			int w = Q[i];
+			int firstP = edgeOffsets[w], lastP = firstP + Pcount[w];
+			double max = Double.NEGATIVE_INFINITY;
+			for (int pi = firstP; pi < lastP; pi++)
+				max = Math.max(max, logSigma[P[pi]]);
+			double sum = 0.0;
+			for (int pi = firstP; pi < lastP; pi++)
+				sum += Math.exp(logSigma[P[pi]] - max);
+			logSigma[w] = max + Math.log(sum);
+		}
+
+		for (int Qhigh = stackSize; Qhigh > 0; )
+		{
+			int w = Q[--Qhigh];
+			int firstP = edgeOffsets[w];
+			int lastP = firstP + Pcount[w];
+			double logSigmaw = logSigma[w], deltaw = delta[w];
+			long stressw = stressDependency[w];
+
+			double Dbetweenness = 0.0;
+			int firstD = edgeOffsets[w];
+			int lastD = firstD + Dcount[w];
+			for (int di = firstD; di < lastD; di++)
+				Dbetweenness += edgeDependency[Dedge[di]];
+
+			for (int pi = firstP; pi < lastP; pi++)
+			{
+				int v = P[pi];
+				double sigmavw = Math.exp(logSigma[v] - logSigmaw);
+				delta[v] += sigmavw * (1 + deltaw);
+				stressDependency[v] = saturatedAdd(stressDependency[v], 1 + stressw);
+
+				double edgeBetweenness = (1.0 + Dbetweenness) * sigmavw;
+				edgeDependency[Pedge[pi]] = edgeBetweenness;
+				outEdgeBetweenness[Pedge[pi]] += edgeBetweenness;
+			}
+
+			if (w != source)
+			{
+				outNodeBetweenness[w] += deltaw;
+				// Path counts below 2^53 are recovered exactly; the conversion of a larger product saturates
+				double sigmaw = Math.exp(logSigmaw);
+				long pathStress = (sigmaw < 0x1p53) ? saturatedMultiply(Math.round(sigmaw), stressw) : (long)(sigmaw * stressw);
+				outStress[w] = saturatedAdd(outStress[w], pathStress);
+			}
+		}
+	}
+
+	/**
+	 * Adds two non-negative counts, saturating at <code>Long.MAX_VALUE</code>.
+	 * 
+	 * @param a
+	 *            First count.
+	 * @param b
+	 *            Second count.
+	 * @return Sum of the counts; <code>Long.MAX_VALUE</code> if it overflows.
+	 */
+	public static long saturatedAdd(long a, long b)
+	{
+		long sum = a + b;
+		return (sum < 0) ? Long.MAX_VALUE : sum;
+	}
+
+	/**
+	 * Multiplies two non-negative counts, saturating at <code>Long.MAX_VALUE</code>.
+	 * 
+	 * @param a
+	 *            First count.
+	 * @param b
+	 *            Second count.
+	 * @return Product of the counts; <code>Long.MAX_VALUE</code> if it overflows.
+	 */
+	public static long saturatedMultiply(long a, long b)
+	{
+		long product = a * b;
+		return (Math.multiplyHigh(a, b) != 0 || product < 0) ? Long.MAX_VALUE : product;
+	}
 	
 	/**
 	 * Computes a normalization factor for node betweenness normalization.
@@ -318,18 +825,35 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 	 * @param edgeOffsets Array with the indices of each node's first neighbor in <code>edges</code>.
 	 * @return	The node's topological coefficient in the range [0; 1];
 	 *          <code>NaN</code> in case the topological coefficient is not defined for this case.
+	 * @see #computeTC(int, int[], int[], TraversalWorkspace)
 	 */
 	public static double computeTC(int node, int numNodes, int[] edges, int[] edgeOffsets)
 	{
-		boolean[] commNNodes = new boolean[numNodes];
+		return computeTC(node, edges, edgeOffsets, new TraversalWorkspace(numNodes, 0));
+	}
+
+	/**
+	 * Computes the topological coefficient of the given node, marking the neighbors in the given
+	 * workspace instead of allocating flags for all nodes.
+	 * @param node The node's index.
+	 * @param edges Array with every node's neighbor indices.
+	 * @param edgeOffsets Array with the indices of each node's first neighbor in <code>edges</code>.
+	 * @param workspace Workspace of the calling thread.
+	 * @return	The node's topological coefficient in the range [0; 1];
+	 *          <code>NaN</code> in case the topological coefficient is not defined for this case.
+	 */
+	public static double computeTC(int node, int[] edges, int[] edgeOffsets, TraversalWorkspace workspace)
+	{
+		int epoch = workspace.nextEpoch();
+		int[] commNNodes = workspace.visited;
+		int[] isNeighbor = workspace.marks;
 		int commNNodesSize = 0;
-		boolean[] isNeighbor = new boolean[numNodes];
 		int tc = 0;
 		
 		int firstEdge = edgeOffsets[node], lastEdge = edgeOffsets[node + 1];
 		
 		for (int ni = firstEdge; ni < lastEdge; ni++)
-			isNeighbor[edges[ni]] = true;
+			isNeighbor[edges[ni]] = epoch;
 		
 		for (int ni = firstEdge; ni < lastEdge; ni++)
 		{
@@ -341,11 +865,11 @@ public class UndirNetworkAnalyzer extends NetworkAnalyzer
 				if (nneighbor == node)
 					continue;
 				tc++;
-				if (!commNNodes[nneighbor])
+				if (commNNodes[nneighbor] != epoch)
 				{
-					commNNodes[nneighbor] = true;
+					commNNodes[nneighbor] = epoch;
 					commNNodesSize++;
-					if (isNeighbor[nneighbor])
+					if (isNeighbor[nneighbor] == epoch)
 						tc++;
 				}
 			}
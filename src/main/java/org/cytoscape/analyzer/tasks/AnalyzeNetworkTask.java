@@ -1,5 +1,6 @@
 package org.cytoscape.analyzer.tasks;
 
+import java.io.IOException;
 import java.util.Arrays;
 
 /*
@@ -31,18 +32,23 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.cytoscape.analyzer.AnalyzerManager;
-import org.cytoscape.analyzer.DirNetworkAnalyzer;
 import org.cytoscape.analyzer.NetworkAnalyzer;
-import org.cytoscape.analyzer.UndirNetworkAnalyzer;
-import org.cytoscape.analyzer.util.CyNetworkUtils;
-import org.cytoscape.analyzer.util.NetworkInspection;
+import org.cytoscape.analyzer.util.AnalysisOptions;
+import org.cytoscape.analyzer.util.HyperAnf;
+import org.cytoscape.analyzer.util.MetricTier;
 import org.cytoscape.analyzer.util.NetworkInterpretation;
-import org.cytoscape.analyzer.util.NetworkStatus;
+import org.cytoscape.analyzer.util.NetworkStats;
 import org.cytoscape.application.CyApplicationManager;
 import org.cytoscape.application.swing.CySwingApplication;
 import org.cytoscape.command.StringToModel;
+import org.cytoscape.event.CyEventHelper;
 import org.cytoscape.model.CyIdentifiable;
 import org.cytoscape.model.CyNetwork;
 import org.cytoscape.model.CyNode;
@@ -59,6 +65,7 @@ import org.cytoscape.work.TaskMonitor;
 import org.cytoscape.work.Tunable;
 import org.cytoscape.work.TunableValidator;
 import org.cytoscape.work.json.JSONResult;
+import org.cytoscape.work.util.ListSingleSelection;
 
 public class AnalyzeNetworkTask extends AbstractTask implements TunableValidator, ObservableTask {
 
@@ -73,10 +80,132 @@ public class AnalyzeNetworkTask extends AbstractTask implements TunableValidator
 	@Tunable(description = "Analyze only selected nodes?", context="nogui")
 	public Boolean selectedOnly = false;
 
+	@Tunable(description = "Parameters to compute",
+	         longDescription = "Tier of topological parameters to compute; every tier includes the ones before it. "
+	                         + "'degree': degrees, self-loops, isolated nodes and multi-edge node pairs. "
+	                         + "'local': also clustering coefficient, topological coefficient and neighborhood "
+	                         + "connectivity. 'paths': also the shortest path parameters, which need a search from "
+	                         + "every node. 'all': also betweenness, edge betweenness and stress.",
+	         exampleStringValue = "local")
+	public ListSingleSelection<MetricTier> metrics = new ListSingleSelection<MetricTier>(MetricTier.values());
+
+	@Tunable(description = "Number of threads", context="nogui",
+	         longDescription = "Number of worker threads that share the shortest path, betweenness and stress "
+	                         + "computations. Use 1 to run the analysis on a single thread. When several networks "
+	                         + "are analyzed concurrently, they split these threads among them.")
+	public int threads = Runtime.getRuntime().availableProcessors();
+
+	@Tunable(description = "Betweenness error bound (0 for exact)", context="nogui",
+	         longDescription = "Largest absolute error allowed in the normalized betweenness of any node. "
+	                         + "A positive value estimates betweenness, edge betweenness and stress from a "
+	                         + "random sample of sources, which is much faster on large networks; 0 computes "
+	                         + "them from every source.")
+	public double betweennessEpsilon = 0.0;
+
+	@Tunable(description = "Betweenness failure probability", context="nogui",
+	         longDescription = "Largest probability that the estimated betweenness misses the error bound. "
+	                         + "Only used when the betweenness error bound is positive.")
+	public double betweennessDelta = 0.1;
+
+	@Tunable(description = "Random seed", context="nogui",
+	         longDescription = "Seed of the random source sampling. Analyses with the same seed and settings "
+	                         + "sample the same sources.")
+	public long seed = 0;
+
+	@Tunable(description = "Approximate path lengths (HyperANF)?", context="nogui",
+	         longDescription = "Estimate average shortest path length, closeness centrality and the shortest path "
+	                         + "length distribution with HyperANF in near-linear time, instead of searching from "
+	                         + "every node. The eccentricity, diameter and radius stay exact, found from a few "
+	                         + "searches. Undirected analyses only: a directed analysis searches from every node "
+	                         + "for the exact eccentricities. Needs a tier below 'all' or a positive betweenness "
+	                         + "error bound: exact betweenness searches from every node anyway. The sources sampled "
+	                         + "for betweenness keep their exact path lengths.")
+	public boolean approximatePaths = false;
+
+	@Tunable(description = "HyperANF register bits", context="nogui",
+	         longDescription = "Binary logarithm of the number of registers per HyperANF counter (4 to 16). "
+	                         + "Each counter has a relative standard error of about 1.04 / sqrt(2^bits); "
+	                         + "every additional bit doubles the memory used.")
+	public int registerBits = 7;
+
+	@Tunable(description = "Edge weight column",
+	         longDescription = "Name of a numeric edge column whose values are used as the lengths of the edges. "
+	                         + "The shortest paths then minimize the sum of the lengths, which weights the "
+	                         + "average shortest path length, closeness, harmonic centrality, betweenness and "
+	                         + "stress; eccentricity, radiality, diameter and radius are not computed. All values "
+	                         + "must be positive. Leave empty to count the edges of the paths.",
+	         exampleStringValue = "weight")
+	public String edgeWeights = "";
+
+	@Tunable(description = "Diameter and radius only?", context="nogui",
+	         longDescription = "Compute the diameter and the radius without the other shortest path parameters, "
+	                         + "betweenness and stress. In undirected networks the exact values are found from a "
+	                         + "few breadth-first searches by bounding the node eccentricities.")
+	public boolean diameterOnly = false;
+
+	@Tunable(description = "Compute PageRank?",
+	         longDescription = "Compute the PageRank of every node over the whole network, in the 'local' tier and "
+	                         + "above. In a directed analysis the rank follows the directed edges; otherwise it "
+	                         + "follows all edges in both directions.")
+	public boolean pageRank = false;
+
+	@Tunable(description = "PageRank damping factor", dependsOn = "pageRank=true",
+	         longDescription = "Probability that the random surfer of PageRank follows a link rather than jumping "
+	                         + "to a random node; greater than 0 and less than 1.")
+	public double pageRankDamping = 0.85;
+
+	@Tunable(description = "PageRank tolerance", dependsOn = "pageRank=true",
+	         longDescription = "Largest total change of the ranks at which the PageRank iterations stop.")
+	public double pageRankTolerance = 1.0e-6;
+
+	@Tunable(description = "Extrapolate PageRank?", dependsOn = "pageRank=true",
+	         longDescription = "Periodically extrapolate the ranks from the last iterations (quadratic extrapolation), "
+	                         + "which takes fewer iterations to converge, especially for damping factors close "
+	                         + "to 1.")
+	public boolean pageRankExtrapolation = true;
+
+	@Tunable(description = "Compute eigenvector centrality?", context="nogui",
+	         longDescription = "Compute the eigenvector centrality of every node over the whole network, in the "
+	                         + "'local' tier and above: the principal eigenvector of the adjacency matrix, which "
+	                         + "follows the in-edges in a directed analysis.")
+	public boolean eigenvector = false;
+
+	@Tunable(description = "Compute Katz centrality?", context="nogui",
+	         longDescription = "Compute the Katz centrality of every node over the whole network, in the 'local' "
+	                         + "tier and above: the number of walks ending in the node, each weighted by the "
+	                         + "attenuation factor to the power of its length.")
+	public boolean katz = false;
+
+	@Tunable(description = "Katz attenuation factor", context="nogui",
+	         longDescription = "Attenuation factor of Katz centrality, relative to the inverse of the largest "
+	                         + "eigenvalue of the adjacency matrix; greater than 0 and less than 1. Values close "
+	                         + "to 1 approach eigenvector centrality, small values the degree.")
+	public double katzAttenuation = 0.5;
+
+	@Tunable(description = "Compute HITS hub and authority scores?", context="nogui",
+	         longDescription = "Compute the HITS hub and authority scores of every node over the whole network, in "
+	                         + "the 'local' tier and above. They are only computed when the network is analyzed "
+	                         + "as directed.")
+	public boolean hits = false;
+
+	@Tunable(description = "Centrality tolerance", context="nogui",
+	         longDescription = "Largest total change of the eigenvector centralities, Katz centralities and HITS "
+	                         + "scores at which their iterations stop.")
+	public double centralityTolerance = 1.0e-6;
+
+	@Tunable(description = "Networks analyzed concurrently", context="nogui",
+	         longDescription = "Number of networks of the collection that are analyzed at the same time. The "
+	                         + "given number of threads is divided among them, and every network uses at least "
+	                         + "one thread. Use 1 to analyze the networks one after another with all threads.")
+	public int concurrentNetworks = 1;
+
 	final CyServiceRegistrar registrar;
 	final CySwingApplication desktop;
 	final CyApplicationManager appMgr;
-	private NetworkAnalyzer analyzer;
+	// One analyzer per network, in the order of the networks; null until the analysis of the network starts
+	private NetworkAnalyzer[] analyzers = new NetworkAnalyzer[0];
+	// Progress of the analysis of every network, between 0 and 1
+	private double[] progress = new double[0];
 	final AnalyzerManager manager;
 	final StringToModel stringToModel;
 	final Collection<CyNetwork> networks;
@@ -89,6 +218,7 @@ public class AnalyzeNetworkTask extends AbstractTask implements TunableValidator
 		manager = mgr;
 		appMgr = reg.getService(CyApplicationManager.class);
 		stringToModel = reg.getService(StringToModel.class);
+		metrics.setSelectedValue(MetricTier.ALL);
 
 		if (networks != null)
 			directed = anyDirected(networks);   // this relies on the style defined, so is not error-free
@@ -96,8 +226,6 @@ public class AnalyzeNetworkTask extends AbstractTask implements TunableValidator
 
 	@Override
 	public void run(TaskMonitor taskMonitor) throws Exception {
-		double processed = 0.0d;
-
 		Collection<CyNetwork> nets = networks;
 		if (nets == null) {
 			nets = new ArrayList<CyNetwork>();
@@ -109,63 +237,148 @@ public class AnalyzeNetworkTask extends AbstractTask implements TunableValidator
 			}
 		}
 
-		final double increment= 1.0d/nets.size();
-
-		taskMonitor.setProgress(processed);
+		taskMonitor.setProgress(0.0d);
 		taskMonitor.setTitle("Analyzing Networks");
 
-		for (final CyNetwork network : nets) {
-//			System.out.println((network == null ? "null" : network.getSUID()));
-			taskMonitor.setStatusMessage("Analyzing Network: " + network.getRow(network).get(CyNetwork.NAME, String.class));
-
-			final Set<CyNode> selectedNodes = new HashSet<CyNode>();
-			Collection<CyRow> matched;
-			if(selectedOnly)
-				matched = network.getDefaultNodeTable().getMatchingRows(CyNetwork.SELECTED, true);
-			else
-				matched = network.getDefaultNodeTable().getAllRows();
-
-			for(CyRow row : matched)
-				selectedNodes.add(network.getNode(row.get(CyIdentifiable.SUID, Long.class)));
-//			System.out.println(("analyze " + network.getSUID()));
-			analyze(network, selectedNodes);
-			processed = processed+increment;
-			taskMonitor.setProgress(processed);
+		final List<CyNetwork> targets = new ArrayList<CyNetwork>(nets);
+		synchronized (this) {
+			analyzers = new NetworkAnalyzer[targets.size()];
+			progress = new double[targets.size()];
+		}
+		final int workers = Math.max(1, Math.min(concurrentNetworks, targets.size()));
+		// The networks analyzed at the same time share the threads instead of multiplying them
+		final int networkThreads = Math.max(1, threads / workers);
+		if (workers == 1) {
+			for (int i = 0; i < targets.size() && !cancelled; i++)
+				analyze(targets.get(i), i, networkThreads, taskMonitor);
+			return;
+		}
+
+		// A bounded pool analyzes several networks at a time; the first failure cancels the others
+		final ExecutorService executor = Executors.newFixedThreadPool(workers);
+		try {
+			final List<Future<Void>> futures = new ArrayList<Future<Void>>(targets.size());
+			for (int i = 0; i < targets.size(); i++) {
+				final int index = i;
+				futures.add(executor.submit(() -> {
+					if (!cancelled)
+						analyze(targets.get(index), index, networkThreads, taskMonitor);
+					return null;
+				}));
+			}
+			for (final Future<Void> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					cancel();
+					if (e.getCause() instanceof Exception)
+						throw (Exception) e.getCause();
+					throw e;
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Override
+	public void cancel() {
+		super.cancel();
+		synchronized (this) {
+			for (final NetworkAnalyzer analyzer : analyzers)
+				if (analyzer != null)
+					analyzer.cancel();
 		}
 	}
 
-	private void analyze(final CyNetwork network, final Set<CyNode> nodes) {
+	private void analyze(final CyNetwork network, final int index, final int networkThreads,
+			final TaskMonitor taskMonitor) {
+//		System.out.println((network == null ? "null" : network.getSUID()));
+		final String name = network.getRow(network).get(CyNetwork.NAME, String.class);
+		taskMonitor.setStatusMessage("Analyzing Network: " + name);
+
+		final Set<CyNode> selectedNodes = new HashSet<CyNode>();
+		Collection<CyRow> matched;
+		if(selectedOnly)
+			matched = network.getDefaultNodeTable().getMatchingRows(CyNetwork.SELECTED, true);
+		else
+			matched = network.getDefaultNodeTable().getAllRows();
+
+		for(CyRow row : matched)
+			selectedNodes.add(network.getNode(row.get(CyIdentifiable.SUID, Long.class)));
+//		System.out.println(("analyze " + network.getSUID()));
+		final NetworkAnalyzer analyzer = createAnalyzer(network, selectedNodes, networkThreads);
+		synchronized (this) {
+			analyzers[index] = analyzer;
+			// The task may have been cancelled while the analyzer was created
+			if (cancelled)
+				analyzer.cancel();
+		}
+		// The analyzer publishes its progress at a bounded rate while it runs
+		analyzer.getProgressMeter().setListener(meter -> updateProgress(taskMonitor, index,
+				meter.getFraction(), "Analyzing Network: " + name + " - " + meter));
+		analyzer.computeAll();
+		updateProgress(taskMonitor, index, 1.0d, null);
+	}
+
+	// Progress of the whole task: the average progress of the networks
+	private synchronized void updateProgress(TaskMonitor taskMonitor, int index, double fraction, String message) {
+		progress[index] = fraction;
+		double total = 0.0d;
+		for (final double p : progress)
+			total += p;
+		taskMonitor.setProgress(total / progress.length);
+		if (message != null)
+			taskMonitor.setStatusMessage(message);
+	}
+
+	private NetworkAnalyzer createAnalyzer(final CyNetwork network, final Set<CyNode> nodes,
+			final int networkThreads) {
 //		System.out.println("A:" + (network == null ? "null" : network.getSUID()));
 //		System.out.println("B:" + ( nodes == null ? 0 : nodes.size()));
 
-		final NetworkInspection status = CyNetworkUtils.inspectNetwork(network);
-		final NetworkInterpretation interpr = interpretNetwork(status);
+		final NetworkInterpretation interpr = NetworkAnalyzer.interpret(network, directed);
 
 //		System.out.println((network == null ? "null" : network.getSUID()) + " " + nodes == null ? 0 : nodes.size());
 		if(interpr == null && directed)
 			throw new NullPointerException("Analyze as direct graph is not applicable. Try to analzye as undirected graph");
 		if(interpr == null)
 			throw new NullPointerException("NetworkInterpretation is null.");
-		if (nodes.size() < 4)
+		if (network.getNodeCount() < 4)
 			throw new IllegalArgumentException("Network too small: 4 node minimum.");
+		if (nodes.isEmpty())
+			throw new IllegalArgumentException("No nodes selected.");
 
-		if (directed)
-			analyzer = new DirNetworkAnalyzer(network, nodes, interpr, desktop, manager);
-		else
-			analyzer = new UndirNetworkAnalyzer(network, interpr, desktop, manager);
-
-		analyzer.computeAll();
+		// The parameters of the selected nodes only are calculated
+		final Set<CyNode> nodeSet = selectedOnly ? nodes : null;
+		final NetworkAnalyzer analyzer = NetworkAnalyzer.create(network, nodeSet, interpr);
+		// The results panel follows the analysis
+		analyzer.addListener(manager);
+		analyzer.setEventHelper(registrar.getService(CyEventHelper.class));
 
-	}
-
-	private final NetworkInterpretation interpretNetwork(NetworkInspection aInsp) {
-		final NetworkStatus status = NetworkStatus.getStatus(aInsp);
-		final NetworkInterpretation[] interpretations = status.getInterpretations();
-		for(NetworkInterpretation ni: interpretations) {
-			if(directed == ni.isDirected())
-				return ni;
-		}
-		return null;
+		final AnalysisOptions options = new AnalysisOptions();
+		options.threads = networkThreads;
+		options.betweennessEpsilon = betweennessEpsilon;
+		options.betweennessDelta = betweennessDelta;
+		options.seed = seed;
+		options.approximatePaths = approximatePaths;
+		options.registerBits = registerBits;
+		options.diameterOnly = diameterOnly;
+		if (edgeWeights != null && !edgeWeights.trim().isEmpty())
+			options.edgeWeights = edgeWeights.trim();
+		options.pageRank = pageRank;
+		options.pageRankDamping = pageRankDamping;
+		options.pageRankTolerance = pageRankTolerance;
+		options.pageRankExtrapolation = pageRankExtrapolation;
+		options.eigenvector = eigenvector;
+		options.katz = katz;
+		options.katzAttenuation = katzAttenuation;
+		options.hits = hits;
+		options.centralityTolerance = centralityTolerance;
+		if (metrics.getSelectedValue() != null)
+			options.metrics = metrics.getSelectedValue();
+		analyzer.setOptions(options);
+		return analyzer;
 	}
 
 	private Boolean anyDirected(Collection<CyNetwork> networks) {
@@ -184,18 +397,70 @@ public class AnalyzeNetworkTask extends AbstractTask implements TunableValidator
 	@SuppressWarnings("unchecked")
 	@Override
 	public <R> R getResults(Class<? extends R> type) {
-	    String response = analyzer.getStats().jsonOutput();
+		// The networks whose analysis started, in the order of the collection
+		final List<NetworkStats> results = new ArrayList<NetworkStats>();
+		synchronized (this) {
+			for (final NetworkAnalyzer analyzer : analyzers)
+				if (analyzer != null)
+					results.add(analyzer.getStats());
+		}
+		if (results.isEmpty())
+			return null;
 		if (type.equals(String.class)) {
-      return (R)analyzer.getStats().toString();
-    } else if (type.equals(JSONResult.class)) {
-			JSONResult res = () -> { return analyzer.getStats().jsonOutput(); };
+			final StringBuilder out = new StringBuilder();
+			for (final NetworkStats stats : results)
+				out.append(stats.toString());
+			return (R)out.toString();
+		} else if (type.equals(JSONResult.class)) {
+			// A single network keeps its plain object; several networks give an array of them
+			JSONResult res = () -> {
+				if (results.size() == 1)
+					return results.get(0).jsonOutput();
+				final StringJoiner json = new StringJoiner(",\n", "[\n", "]\n");
+				for (final NetworkStats stats : results)
+					json.add(stats.jsonOutput());
+				return json.toString();
+			};
 			return (R)res;
 		}
-    return null;
-  }
+		return null;
+	}
+
 	@Override
 	public ValidationState getValidationState(Appendable errMsg) {
-		return ValidationState.OK;		// no illegal options with 2 booleans
+		String error = null;
+		if (threads < 1)
+			error = "Number of threads must be at least 1.";
+		else if (concurrentNetworks < 1)
+			error = "Number of networks analyzed concurrently must be at least 1.";
+		else if (!(betweennessEpsilon >= 0 && betweennessEpsilon < 1))
+			error = "Betweenness error bound must be at least 0 and less than 1.";
+		else if (!(betweennessDelta > 0 && betweennessDelta < 1))
+			error = "Betweenness failure probability must be greater than 0 and less than 1.";
+		else if (approximatePaths && !directed && !selectedOnly && metrics.getSelectedValue() == MetricTier.ALL
+				&& betweennessEpsilon == 0 && !diameterOnly)
+			// Only undirected analyses of whole networks estimate the path lengths
+			error = "Approximate path lengths need a betweenness error bound above 0, or a tier below 'all'.";
+		else if (registerBits < HyperAnf.MIN_REGISTER_BITS || registerBits > HyperAnf.MAX_REGISTER_BITS)
+			error = "HyperANF register bits must be between " + HyperAnf.MIN_REGISTER_BITS + " and "
+			      + HyperAnf.MAX_REGISTER_BITS + ".";
+		else if (!(pageRankDamping > 0 && pageRankDamping < 1))
+			error = "PageRank damping factor must be greater than 0 and less than 1.";
+		else if (!(pageRankTolerance > 0))
+			error = "PageRank tolerance must be greater than 0.";
+		else if (!(katzAttenuation > 0 && katzAttenuation < 1))
+			error = "Katz attenuation factor must be greater than 0 and less than 1.";
+		else if (!(centralityTolerance > 0))
+			error = "Centrality tolerance must be greater than 0.";
+		if (error != null) {
+			try {
+				errMsg.append(error);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			return ValidationState.INVALID;
+		}
+		return ValidationState.OK;
 	}
 
 	@Override
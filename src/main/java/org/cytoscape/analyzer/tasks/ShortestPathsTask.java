@@ -0,0 +1,233 @@
+package org.cytoscape.analyzer.tasks;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+import org.cytoscape.analyzer.util.AnalysisOptions;
+import org.cytoscape.analyzer.util.AttributeSetup;
+import org.cytoscape.analyzer.util.NetworkInterpretation;
+import org.cytoscape.application.CyApplicationManager;
+import org.cytoscape.command.StringToModel;
+import org.cytoscape.event.CyEventHelper;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+import org.cytoscape.model.CyTable;
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.work.AbstractTask;
+import org.cytoscape.work.ObservableTask;
+import org.cytoscape.work.TaskMonitor;
+import org.cytoscape.work.Tunable;
+import org.cytoscape.work.TunableValidator;
+import org.cytoscape.work.json.JSONResult;
+
+/**
+ * Task computing the lengths of the shortest paths from a few source nodes to all nodes of a
+ * network, and writing them to one node column per source.
+ * <p>
+ * Every search is shared among the worker threads with Delta-stepping (see
+ * {@link org.cytoscape.analyzer.util.DeltaStepping}), which pays off when there are too few
+ * sources to keep the workers busy with one search each. The nodes a source does not reach are left
+ * without a value.
+ * </p>
+ */
+public class ShortestPathsTask extends AbstractTask implements TunableValidator, ObservableTask {
+
+	/**
+	 * Prefix of the names of the distance columns, which end with the name of the source. The SUID of
+	 * the source follows the name of sources that share their name.
+	 */
+	public static final String COLUMN_PREFIX = "Distance from ";
+
+	@Tunable(description = "Network", context="nogui",
+	         exampleStringValue=StringToModel.CY_NETWORK_EXAMPLE_STRING,
+	         longDescription=StringToModel.CY_NETWORK_LONG_DESCRIPTION)
+	public String network = null;
+
+	@Tunable(description = "Source nodes", required = true,
+	         exampleStringValue = StringToModel.CY_NODE_LIST_EXAMPLE_STRING,
+	         longDescription = StringToModel.CY_NODE_LIST_LONG_DESCRIPTION)
+	public String nodeList = null;
+
+	@Tunable(description = "Follow edge directions?",
+	         longDescription = "Follow the directed edges from their source to their target only; otherwise all "
+	                         + "edges are followed in both directions.")
+	public Boolean directed = false;
+
+	@Tunable(description = "Edge weight column",
+	         longDescription = "Name of a numeric edge column whose values are used as the lengths of the edges. "
+	                         + "All values must be positive. Leave empty to count the edges of the paths.",
+	         exampleStringValue = "weight")
+	public String edgeWeights = "";
+
+	@Tunable(description = "Bucket width (0 for automatic)",
+	         longDescription = "Width of the buckets of tentative distances in the Delta-stepping searches. Wider "
+	                         + "buckets process more nodes in parallel but may relax some edges more than once; "
+	                         + "0 chooses the longest edge divided by the average degree.")
+	public double bucketWidth = 0.0;
+
+	@Tunable(description = "Number of threads",
+	         longDescription = "Number of worker threads that share every search. Use 1 to run the searches on a "
+	                         + "single thread.")
+	public int threads = Runtime.getRuntime().availableProcessors();
+
+	final CyServiceRegistrar registrar;
+	// Names of the columns written, one per source; null until the distances are written
+	private String[] columns;
+	private CyNetwork target;
+	private NetworkAnalyzer analyzer;
+
+	public ShortestPathsTask(final CyServiceRegistrar reg) {
+		registrar = reg;
+	}
+
+	@Override
+	public void run(TaskMonitor taskMonitor) {
+		target = (network == null) ? registrar.getService(CyApplicationManager.class).getCurrentNetwork()
+				: registrar.getService(StringToModel.class).getNetwork(network);
+		if (target == null)
+			throw new IllegalArgumentException("No network to search.");
+		final List<CyNode> nodes = registrar.getService(StringToModel.class).getNodeList(target, nodeList);
+		if (nodes == null || nodes.isEmpty())
+			throw new IllegalArgumentException("No source nodes selected.");
+		// A node listed twice is searched once
+		final List<CyNode> sources = new ArrayList<CyNode>(new LinkedHashSet<CyNode>(nodes));
+		final NetworkInterpretation interpr = NetworkAnalyzer.interpret(target, directed);
+		if (interpr == null)
+			throw new IllegalArgumentException("The edges of the network cannot be followed as "
+					+ (directed ? "directed." : "undirected."));
+
+		taskMonitor.setTitle("Computing Shortest Paths");
+		taskMonitor.setProgress(0.0d);
+		final AnalysisOptions options = new AnalysisOptions();
+		options.threads = threads;
+		options.bucketWidth = bucketWidth;
+		if (edgeWeights != null && !edgeWeights.trim().isEmpty())
+			options.edgeWeights = edgeWeights.trim();
+		synchronized (this) {
+			analyzer = NetworkAnalyzer.create(target, null, interpr);
+			if (cancelled)
+				analyzer.cancel();
+		}
+		analyzer.setOptions(options);
+		analyzer.setEventHelper(registrar.getService(CyEventHelper.class));
+		analyzer.getProgressMeter().setListener(meter -> {
+			taskMonitor.setProgress(meter.getFraction());
+			taskMonitor.setStatusMessage("Searching from " + meter.getDone() + " of " + sources.size() + " nodes");
+		});
+		final double[][] distances = analyzer.computeDistances(sources.toArray(new CyNode[sources.size()]));
+		if (cancelled)
+			return;
+
+		final CyTable nodeTable = target.getTable(CyNode.class, CyNetwork.LOCAL_ATTRS);
+		final String[] names = columnNames(sources);
+		for (final String name : names)
+			AttributeSetup.createDistanceAttribute(nodeTable, name);
+		analyzer.writeDistances(distances, names);
+		columns = names;
+		taskMonitor.setProgress(1.0d);
+	}
+
+	/**
+	 * Names the distance column of every source after the source, and adds the SUID to the names
+	 * shared by several sources, so that every source has a column of its own.
+	 */
+	private String[] columnNames(List<CyNode> sources) {
+		final String[] names = new String[sources.size()];
+		final Map<String, Integer> counts = new HashMap<String, Integer>();
+		for (int i = 0; i < names.length; i++) {
+			final CyNode source = sources.get(i);
+			final String name = target.getRow(source).get(CyNetwork.NAME, String.class);
+			names[i] = COLUMN_PREFIX + (name != null ? name : String.valueOf(source.getSUID()));
+			counts.merge(names[i], 1, Integer::sum);
+		}
+		for (int i = 0; i < names.length; i++) {
+			if (counts.get(names[i]) > 1)
+				names[i] += " (" + sources.get(i).getSUID() + ")";
+		}
+		return names;
+	}
+
+	@Override
+	public void cancel() {
+		super.cancel();
+		synchronized (this) {
+			if (analyzer != null)
+				analyzer.cancel();
+		}
+	}
+
+	@Override
+	public ValidationState getValidationState(Appendable errMsg) {
+		String error = null;
+		if (threads < 1)
+			error = "Number of threads must be at least 1.";
+		else if (!(bucketWidth >= 0 && bucketWidth < Double.POSITIVE_INFINITY))
+			error = "Bucket width must be at least 0.";
+		if (error != null) {
+			try {
+				errMsg.append(error);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			return ValidationState.INVALID;
+		}
+		return ValidationState.OK;
+	}
+
+	@Override
+	public List<Class<?>> getResultClasses() {
+		return Arrays.asList(String.class, JSONResult.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <R> R getResults(Class<? extends R> type) {
+		final List<String> written = (columns != null) ? Arrays.asList(columns) : new ArrayList<String>();
+		if (type.equals(String.class)) {
+			return (R) ("Distances from " + written.size() + " source(s) written to the node columns: "
+					+ String.join(", ", written));
+		} else if (type.equals(JSONResult.class)) {
+			JSONResult res = () -> {
+				final StringJoiner json = new StringJoiner(",", "[", "]");
+				for (final String column : written)
+					json.add("\"" + column.replace("\\", "\\\\").replace("\"", "\\\"") + "\"");
+				return "{\"network\":" + (target != null ? target.getSUID() : null) + ",\"columns\":" + json + "}";
+			};
+			return (R) res;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,19 @@
+package org.cytoscape.analyzer.tasks;
+
+import org.cytoscape.service.util.CyServiceRegistrar;
+import org.cytoscape.work.AbstractTaskFactory;
+import org.cytoscape.work.TaskIterator;
+
+public class ShortestPathsTaskFactory extends AbstractTaskFactory {
+
+	private final CyServiceRegistrar reg;
+
+	public ShortestPathsTaskFactory(CyServiceRegistrar registrar) {
+		reg = registrar;
+	}
+
+	@Override
+	public TaskIterator createTaskIterator() {
+		return new TaskIterator(new ShortestPathsTask(reg));
+	}
+}
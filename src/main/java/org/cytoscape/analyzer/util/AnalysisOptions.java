@@ -0,0 +1,193 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Storage class for the options that control how a network is analyzed.
+ */
+public class AnalysisOptions {
+
+	/**
+	 * Initializes a new instance of <code>AnalysisOptions</code> with the default settings.
+	 */
+	public AnalysisOptions() {
+		threads = Runtime.getRuntime().availableProcessors();
+		betweennessEpsilon = 0;
+		betweennessDelta = 0.1;
+		seed = 0;
+		approximatePaths = false;
+		registerBits = 7;
+		diameterOnly = false;
+		metrics = MetricTier.ALL;
+		pageRank = false;
+		pageRankDamping = 0.85;
+		pageRankTolerance = 1.0e-6;
+		pageRankExtrapolation = true;
+		eigenvector = false;
+		katz = false;
+		katzAttenuation = 0.5;
+		hits = false;
+		centralityTolerance = 1.0e-6;
+		edgeWeights = null;
+		bucketWidth = 0;
+		writeAttributes = true;
+	}
+
+	/**
+	 * Number of worker threads that share the all-sources traversals of a connected component.
+	 * A value of <code>1</code> runs the traversals serially on the analysis thread.
+	 */
+	public int threads;
+
+	/**
+	 * Largest admissible absolute error of the normalized betweenness of a node. A positive value
+	 * estimates betweenness and stress from a random sample of sources (see {@link SourceSample});
+	 * <code>0</code> computes them exactly.
+	 */
+	public double betweennessEpsilon;
+
+	/**
+	 * Largest admissible probability that an estimated betweenness misses the error bound
+	 * {@link #betweennessEpsilon}.
+	 */
+	public double betweennessDelta;
+
+	/**
+	 * Seed of the random source sampling, so that an approximate analysis can be repeated.
+	 */
+	public long seed;
+
+	/**
+	 * Flag indicating if the shortest path lengths of undirected networks (average shortest path
+	 * length, closeness and the path length distribution) are estimated with {@link HyperAnf} instead
+	 * of a breadth-first search from every node. The eccentricities stay exact: they are computed
+	 * with {@link EccentricityBounds}. Directed networks have no such bounds, and the searches for
+	 * their exact eccentricities find the exact path lengths as well, so they are never estimated.
+	 * The estimate is skipped in components where exact betweenness searches from every node anyway,
+	 * and the sources sampled for betweenness keep their exact path lengths.
+	 */
+	public boolean approximatePaths;
+
+	/**
+	 * Binary logarithm of the number of registers of each {@link HyperAnf} counter. Every additional
+	 * bit doubles the memory used and divides the standard error by the square root of 2.
+	 */
+	public int registerBits;
+
+	/**
+	 * Flag indicating if only the diameter and the radius are computed from the shortest path
+	 * lengths. In undirected networks they are found with {@link EccentricityBounds}, from a few
+	 * breadth-first searches, and the other path-based parameters are skipped. In directed networks
+	 * every node is still searched, but betweenness and stress are skipped.
+	 */
+	public boolean diameterOnly;
+
+	/**
+	 * Tier of the parameters to be computed. The kernels and the node and edge attributes of the
+	 * parameters outside this tier are skipped.
+	 */
+	public MetricTier metrics;
+
+	/**
+	 * Flag indicating if the {@link PageRank} of the nodes is computed. It is computed over the whole
+	 * network, in the tiers from {@link MetricTier#LOCAL} on.
+	 */
+	public boolean pageRank;
+
+	/**
+	 * Damping factor of PageRank: the probability of following a link rather than jumping to a random
+	 * node.
+	 */
+	public double pageRankDamping;
+
+	/**
+	 * Largest total change of the ranks at which the PageRank iterations stop.
+	 */
+	public double pageRankTolerance;
+
+	/**
+	 * Flag indicating if the PageRank iterations are periodically accelerated by extrapolating the
+	 * ranks.
+	 */
+	public boolean pageRankExtrapolation;
+
+	/**
+	 * Flag indicating if the {@link EigenvectorCentrality} of the nodes is computed. Like PageRank, it
+	 * is computed over the whole network, in the tiers from {@link MetricTier#LOCAL} on.
+	 */
+	public boolean eigenvector;
+
+	/**
+	 * Flag indicating if the {@link KatzCentrality} of the nodes is computed, in the tiers from
+	 * {@link MetricTier#LOCAL} on.
+	 */
+	public boolean katz;
+
+	/**
+	 * Attenuation factor of Katz centrality, relative to the inverse of the principal eigenvalue of
+	 * the adjacency matrix, so that every value between <code>0</code> and <code>1</code> converges.
+	 * If the eigenvalue does not converge, the largest degree, which bounds it, is used instead.
+	 * Values close to <code>1</code> approach the eigenvector centrality, small values the degree.
+	 */
+	public double katzAttenuation;
+
+	/**
+	 * Flag indicating if the {@link Hits} hub and authority scores of the nodes are computed, in the
+	 * tiers from {@link MetricTier#LOCAL} on. They are computed in directed analyses only.
+	 */
+	public boolean hits;
+
+	/**
+	 * Largest total change of the eigenvector centralities, Katz centralities and HITS scores at
+	 * which their iterations stop.
+	 */
+	public double centralityTolerance;
+
+	/**
+	 * Name of the numeric edge column whose values are the lengths of the edges in the shortest path
+	 * parameters; <code>null</code> for edges of unit length. The lengths must be positive. With
+	 * weighted edges, the shortest paths are found with Dijkstra's algorithm, and the average shortest
+	 * path length, closeness, harmonic centrality, betweenness and stress follow the weighted paths;
+	 * the parameters that count edges (eccentricity, radiality, diameter, radius and the path length
+	 * distribution) are not computed. The weights are ignored by {@link #diameterOnly} analyses, and
+	 * take precedence over {@link #approximatePaths}.
+	 */
+	public String edgeWeights;
+
+	/**
+	 * Width of the buckets of tentative distances in the Delta-stepping searches of
+	 * {@link org.cytoscape.analyzer.NetworkAnalyzer#computeDistances}; <code>0</code> to choose it from
+	 * the edge lengths (see {@link DeltaStepping#defaultBucketWidth}).
+	 */
+	public double bucketWidth;
+
+	/**
+	 * Flag indicating if the node and edge attributes and the statistics are written to the network.
+	 * Analyses that only need the returned result, e.g. from automation, can skip the table writes.
+	 */
+	public boolean writeAttributes;
+}
@@ -0,0 +1,281 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.cytoscape.model.CyIdentifiable;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyRow;
+import org.cytoscape.model.events.RowSetRecord;
+
+/**
+ * Values of node or edge attributes collected during an analysis, to be written to the network in
+ * a single pass once the analysis is complete.
+ * <p>
+ * Every column is a primitive array with one entry per target node or edge. Writing the columns
+ * row by row fetches every row once, instead of once per value, and can collect the records of all
+ * the writes, to be delivered to the table listeners in a single event.
+ * </p>
+ */
+public final class AttributeBuffer {
+
+	/**
+	 * Initializes a new instance of <code>AttributeBuffer</code>.
+	 *
+	 * @param aTargets
+	 *            Nodes or edges whose attributes are collected. The index of a target in this array
+	 *            is the index of its values in the columns.
+	 */
+	public AttributeBuffer(CyIdentifiable[] aTargets) {
+		this(aTargets, null);
+	}
+
+	/**
+	 * Initializes a new instance of <code>AttributeBuffer</code> that writes the values of some of the
+	 * targets only.
+	 *
+	 * @param aTargets
+	 *            Nodes or edges whose attributes are collected. The index of a target in this array
+	 *            is the index of its values in the columns.
+	 * @param aWritten
+	 *            Flags of the targets whose values are written, indexed like <code>aTargets</code>;
+	 *            <code>null</code> if the values of all targets are written.
+	 */
+	public AttributeBuffer(CyIdentifiable[] aTargets, boolean[] aWritten) {
+		targets = aTargets;
+		written = aWritten;
+		columns = new LinkedHashMap<String, Object>();
+		optionalColumns = new HashSet<String>();
+	}
+
+	/**
+	 * Gets the column of integer values with the given name, creating it if necessary.
+	 *
+	 * @param aName
+	 *            Name of the attribute.
+	 * @return Values of the attribute, indexed like the targets.
+	 */
+	public int[] intColumn(String aName) {
+		return (int[]) columns.computeIfAbsent(aName, name -> new int[targets.length]);
+	}
+
+	/**
+	 * Gets the column of long integer values with the given name, creating it if necessary.
+	 *
+	 * @param aName
+	 *            Name of the attribute.
+	 * @return Values of the attribute, indexed like the targets.
+	 */
+	public long[] longColumn(String aName) {
+		return (long[]) columns.computeIfAbsent(aName, name -> new long[targets.length]);
+	}
+
+	/**
+	 * Gets the column of floating point values with the given name, creating it if necessary.
+	 *
+	 * @param aName
+	 *            Name of the attribute.
+	 * @return Values of the attribute, indexed like the targets.
+	 */
+	public double[] doubleColumn(String aName) {
+		return (double[]) columns.computeIfAbsent(aName, name -> new double[targets.length]);
+	}
+
+	/**
+	 * Gets the column of floating point values with the given name, creating it if necessary, in
+	 * which <code>Double.NaN</code> marks a missing value. The targets with a missing value are
+	 * left without a value when the column is written.
+	 *
+	 * @param aName
+	 *            Name of the attribute.
+	 * @return Values of the attribute, indexed like the targets.
+	 */
+	public double[] optionalDoubleColumn(String aName) {
+		optionalColumns.add(aName);
+		return doubleColumn(aName);
+	}
+
+	/**
+	 * Gets the column of boolean values with the given name, creating it if necessary.
+	 *
+	 * @param aName
+	 *            Name of the attribute.
+	 * @return Values of the attribute, indexed like the targets.
+	 */
+	public boolean[] booleanColumn(String aName) {
+		return (boolean[]) columns.computeIfAbsent(aName, name -> new boolean[targets.length]);
+	}
+
+	/**
+	 * Copies the values of the targets from a column over a larger array of nodes or edges, such as
+	 * the whole network, to the column with the given name.
+	 *
+	 * @param aName
+	 *            Name of the attribute. The column is created if necessary, of the same type as
+	 *            <code>aValues</code>.
+	 * @param aValues
+	 *            Primitive array with the values of the attribute over the larger array.
+	 * @param aIndices
+	 *            Index in <code>aValues</code> of every target.
+	 */
+	public void copyColumn(String aName, Object aValues, int[] aIndices) {
+		final Object column = columns.computeIfAbsent(aName, name -> newColumn(aValues, targets.length));
+		for (int i = 0; i < targets.length; i++)
+			System.arraycopy(aValues, aIndices[i], column, i, 1);
+	}
+
+	/**
+	 * Gets the targets whose attributes are collected.
+	 *
+	 * @return Nodes or edges, in the order of the values in the columns.
+	 */
+	public CyIdentifiable[] getTargets() {
+		return targets;
+	}
+
+	/**
+	 * Checks if the values of the given target are written.
+	 *
+	 * @param aIndex
+	 *            Index of the target.
+	 * @return <code>true</code> if the values of the target are written to the network;
+	 *         <code>false</code> if they are left out.
+	 */
+	public boolean isWritten(int aIndex) {
+		return written == null || written[aIndex];
+	}
+
+	/**
+	 * Gets the names of the columns, in the order they were created.
+	 *
+	 * @return Names of the attributes collected.
+	 */
+	public Set<String> getColumnNames() {
+		return columns.keySet();
+	}
+
+	/**
+	 * Gets the column with the given name.
+	 *
+	 * @param aName
+	 *            Name of the attribute.
+	 * @return Primitive array with the values of the attribute; <code>null</code> if there is no
+	 *         such column.
+	 */
+	public Object getColumn(String aName) {
+		return columns.get(aName);
+	}
+
+	/**
+	 * Creates a column of the same type as the given one.
+	 *
+	 * @param aColumn
+	 *            Column of any of the supported types.
+	 * @param aSize
+	 *            Number of values of the new column.
+	 * @return New primitive array of <code>aSize</code> zero values.
+	 */
+	public static Object newColumn(Object aColumn, int aSize) {
+		if (aColumn instanceof int[])
+			return new int[aSize];
+		if (aColumn instanceof long[])
+			return new long[aSize];
+		if (aColumn instanceof double[])
+			return new double[aSize];
+		return new boolean[aSize];
+	}
+
+	/**
+	 * Writes the values of all columns to the rows of the targets, skipping the targets not flagged
+	 * as written. The missing values of the optional columns are written as <code>null</code>.
+	 *
+	 * @param aNetwork
+	 *            Network that contains the targets.
+	 * @param aRecords
+	 *            List to add a record of every value written to, for an event that replaces the
+	 *            events of the single writes; <code>null</code> if no records are needed.
+	 */
+	public void writeTo(CyNetwork aNetwork, List<RowSetRecord> aRecords) {
+		if (columns.isEmpty())
+			return;
+		final String[] names = columns.keySet().toArray(new String[columns.size()]);
+		final Object[] values = columns.values().toArray();
+		final boolean[] optional = new boolean[names.length];
+		for (int c = 0; c < names.length; c++)
+			optional[c] = optionalColumns.contains(names[c]);
+		for (int i = 0; i < targets.length; i++) {
+			if (written != null && !written[i])
+				continue;
+			final CyRow row = aNetwork.getRow(targets[i]);
+			for (int c = 0; c < names.length; c++) {
+				final boolean missing = optional[c] && Double.isNaN(((double[]) values[c])[i]);
+				final Object value = missing ? null : valueOf(values[c], i);
+				row.set(names[c], value);
+				if (aRecords != null)
+					aRecords.add(new RowSetRecord(row, names[c], value, value));
+			}
+		}
+	}
+
+	/**
+	 * Boxes the value at the given index of a column.
+	 */
+	private static Object valueOf(Object aColumn, int aIndex) {
+		if (aColumn instanceof int[])
+			return Integer.valueOf(((int[]) aColumn)[aIndex]);
+		if (aColumn instanceof long[])
+			return Long.valueOf(((long[]) aColumn)[aIndex]);
+		if (aColumn instanceof double[])
+			return Double.valueOf(((double[]) aColumn)[aIndex]);
+		return Boolean.valueOf(((boolean[]) aColumn)[aIndex]);
+	}
+
+	/**
+	 * Nodes or edges whose attributes are collected.
+	 */
+	private final CyIdentifiable[] targets;
+
+	/**
+	 * Flags of the targets whose values are written; <code>null</code> if all of them are written.
+	 */
+	private final boolean[] written;
+
+	/**
+	 * Primitive arrays with the values of the attributes, in the order the columns were created.
+	 */
+	private final Map<String, Object> columns;
+
+	/**
+	 * Names of the floating point columns in which <code>Double.NaN</code> marks a missing value.
+	 */
+	private final Set<String> optionalColumns;
+}
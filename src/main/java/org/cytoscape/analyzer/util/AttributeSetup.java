@@ -33,45 +33,70 @@ final public class AttributeSetup {
 
 	private AttributeSetup() {}
 
-	public static void createDirectedNodeAttributes(CyTable nodeTable) {
-		createCommonNodeAttributes(nodeTable);
+	public static void createDirectedNodeAttributes(CyTable nodeTable, MetricTier tier, boolean weighted) {
+		createCommonNodeAttributes(nodeTable, tier, weighted);
 		createAttr(nodeTable,Msgs.getAttr("deg"), Integer.class);
 		createAttr(nodeTable,Msgs.getAttr("din"), Integer.class);
 		createAttr(nodeTable,Msgs.getAttr("dou"), Integer.class);
-		createAttr(nodeTable,Msgs.getAttr("nbt"), Double.class);
-		createAttr(nodeTable,Msgs.getAttr("nco"), Double.class);
+		createAttr(nodeTable,Msgs.getAttr("nco"), Double.class, tier.includes(MetricTier.LOCAL));
+		createAttr(nodeTable,Msgs.getAttr("nbt"), Double.class, tier.includes(MetricTier.ALL));
 	}
 
-	public static void createUndirectedNodeAttributes(CyTable nodeTable) {
-		createCommonNodeAttributes(nodeTable);
+	public static void createUndirectedNodeAttributes(CyTable nodeTable, MetricTier tier, boolean weighted) {
+		createCommonNodeAttributes(nodeTable, tier, weighted);
 		createAttr(nodeTable,Msgs.getAttr("deg"), Integer.class);
-		createAttr(nodeTable,Msgs.getAttr("nbt"), Double.class); 
-		createAttr(nodeTable,Msgs.getAttr("nco"), Double.class);
 		createAttr(nodeTable,Msgs.getAttr("nde"), Integer.class);
 		createAttr(nodeTable,Msgs.getAttr("nue"), Integer.class);
-		createAttr(nodeTable,Msgs.getAttr("rad"), Double.class);
-		createAttr(nodeTable,Msgs.getAttr("tco"), Double.class);
+		createAttr(nodeTable,Msgs.getAttr("nco"), Double.class, tier.includes(MetricTier.LOCAL));
+		createAttr(nodeTable,Msgs.getAttr("tco"), Double.class, tier.includes(MetricTier.LOCAL));
+		createAttr(nodeTable,Msgs.getAttr("rad"), Double.class, tier.includes(MetricTier.PATHS) && !weighted);
+		createAttr(nodeTable,Msgs.getAttr("nbt"), Double.class, tier.includes(MetricTier.ALL)); 
 	}
 
-	private static void createCommonNodeAttributes(CyTable nodeTable) {
-		createAttr(nodeTable,Msgs.getAttr("apl"), Double.class); 
-		createAttr(nodeTable,Msgs.getAttr("cco"), Double.class);
-		createAttr(nodeTable,Msgs.getAttr("clc"), Double.class);
+	// Only the columns of the tiers the analysis computes are created; the other columns, which may
+	// hold the values of an earlier analysis or of the user, are left untouched. Eccentricity and
+	// radiality count edges and are not computed for weighted paths.
+	private static void createCommonNodeAttributes(CyTable nodeTable, MetricTier tier, boolean weighted) {
 		createAttr(nodeTable,Msgs.getAttr("isn"), Boolean.class);
+		createAttr(nodeTable,Msgs.getAttr("kco"), Integer.class);
 		createAttr(nodeTable,Msgs.getAttr("pmn"), Integer.class);
 		createAttr(nodeTable,Msgs.getAttr("slo"), Integer.class);
-		createAttr(nodeTable,Msgs.getAttr("spl"), Integer.class);
-		createAttr(nodeTable,Msgs.getAttr("stress"), Long.class);
+		createAttr(nodeTable,Msgs.getAttr("cco"), Double.class, tier.includes(MetricTier.LOCAL));
+		final boolean paths = tier.includes(MetricTier.PATHS);
+		createAttr(nodeTable,Msgs.getAttr("apl"), Double.class, paths); 
+		createAttr(nodeTable,Msgs.getAttr("clc"), Double.class, paths);
+		createAttr(nodeTable,Msgs.getAttr("hrc"), Double.class, paths);
+		createAttr(nodeTable,Msgs.getAttr("spl"), Integer.class, paths && !weighted);
+		createAttr(nodeTable,Msgs.getAttr("stress"), Long.class, tier.includes(MetricTier.ALL));
 	}
 
-	public static void createEdgeBetweennessAttribute(CyTable edgeTable) {
-		createAttr(edgeTable,Msgs.getAttr("ebt"),Double.class);
+	public static void createCentralityAttributes(CyTable nodeTable, boolean pageRank, boolean eigenvector,
+			boolean katz, boolean hits) {
+		createAttr(nodeTable,Msgs.getAttr("prk"), Double.class, pageRank);
+		createAttr(nodeTable,Msgs.getAttr("evc"), Double.class, eigenvector);
+		createAttr(nodeTable,Msgs.getAttr("kac"), Double.class, katz);
+		createAttr(nodeTable,Msgs.getAttr("hub"), Double.class, hits);
+		createAttr(nodeTable,Msgs.getAttr("aut"), Double.class, hits);
+	}
+
+	public static void createEdgeBetweennessAttribute(CyTable edgeTable, boolean computed) {
+		createAttr(edgeTable,Msgs.getAttr("ebt"),Double.class, computed);
 	}
 	
 	public static void createEdgeDuplicateAttribute(CyTable edgeTable) {
 		createAttr(edgeTable,Msgs.getAttr("dpe"),Integer.class);
 	}
 
+	public static void createDistanceAttribute(CyTable nodeTable, String name) {
+		createAttr(nodeTable,name,Double.class);
+	}
+
+	private static void createAttr(final CyTable table, final String col, final Class<?> newType,
+			final boolean computed) {
+		if (computed)
+			createAttr(table, col, newType);
+	}
+
 	private static void createAttr(final CyTable table, final String col, final Class<?> newType) {
 		final CyColumn column = table.getColumn(col);
 		if (column == null)
@@ -2,18 +2,16 @@ package org.cytoscape.analyzer.util;
 
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 
 import org.cytoscape.analyzer.ConnComponentAnalyzer;
 import org.cytoscape.analyzer.NetworkAnalyzer;
 import org.cytoscape.analyzer.UndirNetworkAnalyzer;
-import org.cytoscape.model.CyEdge;
 import org.cytoscape.model.CyNetwork;
 
 /*
@@ -43,7 +41,6 @@ import org.cytoscape.model.CyNetwork;
  */
 
 import org.cytoscape.model.CyNode;
-import org.cytoscape.model.CyRow;
 
 /**
  * Immutable storage of information on a connected component.
@@ -67,6 +64,17 @@ public class ConnectedComponentInfo implements Comparable<ConnectedComponentInfo
 		sPathLengths = new long[size];
 		if (NetworkAnalyzer.verbose) 	System.out.println("Component of size " + aSize);
 	}
+
+	/**
+	 * Initializes a new instance of <code>CCInfo</code> for a component found in a snapshot.
+	 * 
+	 * @param aMembers Indices of the nodes of the component in <code>aGraph</code>, in ascending order.
+	 * @param aGraph Snapshot of the network that contains the component.
+	 */
+	public ConnectedComponentInfo(NetworkAnalyzer analyzer, int[] aMembers, GraphSnapshot aGraph, boolean directed) {
+		this(analyzer, aMembers.length, aGraph.nodes[aMembers[0]], directed);
+		members = aMembers;
+	}
 	NetworkAnalyzer parent;
 boolean isPaired = false;
 	/**
@@ -87,6 +95,14 @@ boolean isPaired = false;
 	 */
 	public CyNode getNode() {		return node;	}
 
+	/**
+	 * Gets the nodes of the connected component.
+	 * 
+	 * @return Indices of the nodes in the snapshot the component was found in, in ascending order;
+	 *         <code>null</code> if the component was not found in a snapshot.
+	 */
+	public int[] getMembers() {		return members;	}
+
 
 	/**
 	 * Histogram of shortest path lengths.
@@ -128,6 +144,11 @@ boolean isPaired = false;
 	protected double[] edgeBetweennessLean;
 	protected long[] stressLean;
 	protected int componentDiameter;
+	protected boolean extremesOnly;	// only the diameter and the radius of the shortest path lengths are known
+	protected double weightedPathLength;	// sum of the lengths of the shortest paths over weighted edges
+	protected long weightedPairs;	// number of node pairs connected by the weighted shortest paths
+	protected AttributeBuffer nodeAttributes;	// node attributes, written after the analysis
+	protected AttributeBuffer edgeAttributes;	// edge attributes, written after the analysis
 	protected CyNetwork network;
 	protected NetworkStats 	stats = new NetworkStats();
 
@@ -138,19 +159,18 @@ boolean isPaired = false;
 	 * One of the nodes in the connected component.
 	 */
 	private CyNode node;		// the node currently being processed
-	private Set<CyNode> connNodes;
-	final Set<CyEdge> connEdges = new HashSet<CyEdge>();
-	final HashMap<CyNode, Integer> node2Int = new HashMap<>();
-	final HashMap<Long, Integer> edgeHash2Int = new HashMap<>();
+	private int[] members;
+	private GraphSnapshot graph;	// snapshot of the component, set by analyze()
+	private boolean[] analyzed;	// flags of the nodes whose parameters are calculated; null for all nodes
+	private int[] sources;		// indices of the nodes whose parameters are calculated
 	int[] edgeOffsets;
 	int numNodes;
 	int[] edges;
 	int[] edgeIDs;
 
-	public int nodeToInt(CyNode node)	{ 	return node2Int.get(node);	}
-	public Integer edgeToInt(Long node)	{ 	return edgeHash2Int.get(node);	}
+	public int nodeToInt(CyNode node)	{ 	return graph.indexOf(node);	}
 	
-	public Set<CyNode> getAllNodes() 	{ 	return connNodes;	}
+	public Set<CyNode> getAllNodes() 	{ 	return new HashSet<CyNode>(Arrays.asList(graph.nodes));	}
 	
 	public void analyze(CyNetwork net, 	ConnComponentAnalyzer cca ) 
 	{
@@ -158,8 +178,8 @@ boolean isPaired = false;
 		networkEdgeCount = 0;
 		params = new SimpleUndirParams();
 		maxConnectivity = 0;
-		connNodes = cca.getNodesOf(this);
-		numNodes = connNodes.size();
+		graph = cca.getGraphOf(this);
+		numNodes = graph.numNodes;
 		size = numNodes;
 		degreeDist = new DegreeDistribution(size);						
 		CCps = new HashMap<Integer, SumCountPair>();					// clustering coefficients
@@ -169,188 +189,321 @@ boolean isPaired = false;
 		NCps = new HashMap<Integer, SumCountPair>();					// neighborhood connectivity
 		aplMap = new HashMap<CyNode, Double>();							// average shortest path length
 		stressDist = new LogBinDistribution();							// stress
-		// Get nodes of connected component
-		
-		
-		edgeOffsets = new int[numNodes + 1];
-		int numEdgesLocal = 0;
-		for (CyNode node : connNodes)
-		{
-			edgeOffsets[node2Int.size()] = numEdgesLocal;
-			node2Int.put(node, node2Int.size());
-			numEdgesLocal += getNeighbors(node).size();
-			for (CyEdge edge : getIncidentEdges(node, false))
-				connEdges.add(edge);
-		}
-		final int numEdges = numEdgesLocal;
-		edgeOffsets[numNodes] = numEdges;
-		edges = new int[numEdges];
-		edgeIDs = new int[numEdges];
-
-		int e = 0;
-		for (CyNode node : connNodes)
-		{
-			int nodeID = node2Int.get(node);
-			int offset = edgeOffsets[nodeID];
-			for (CyNode neighbor : getNeighbors(node))
-			{
-				int neighborID = node2Int.get(neighbor);
-				long edgeHash = computeEdgeHash(nodeID, neighborID);
-				if (!edgeHash2Int.containsKey(edgeHash))
-					edgeHash2Int.put(edgeHash, e++);
-				int edgeID = edgeHash2Int.get(edgeHash);
-				edgeIDs[offset] = edgeID;
-				edges[offset++] = neighborID;
-			}
-		}
-		
-		
-		final Queue<CyNode> nodeQueue = new LinkedList<>();
-		for (CyNode node : getAllNodes())
-			nodeQueue.add(node);
-		run(nodeQueue, numEdges);
-		
+		// Adjacency of the component, shared by all the traversals
+		edgeOffsets = graph.neighborOffsets;
+		edges = graph.neighbors;
+		edgeIDs = graph.neighborPairs;
+		analyzed = parent.getAnalyzedNodes(graph);
+		sources = NetworkAnalyzer.sourcesOf(analyzed, numNodes);
+		nodeAttributes = new AttributeBuffer(graph.nodes, analyzed);
+		edgeAttributes = new AttributeBuffer(graph.edges);
+		run(graph.numPairs);
 	}
-	boolean paired = false;
 
 		
-	private void run(Queue<CyNode> nodeQueue, int numEdges) 
+	private void run(int numEdges) 
 	{
 		int localNetworkEdgeCount = 0;	
 		int localMaxConnectivity = 0;
-		int localComponentDiameter = 0;
-		long[] localSharedNeighborsHist = new long[sharedNeighborsHist.length];
-		long[] localSPathLengths = new long[sPathLengths.length];
-
-		
-		nodeBetweennessLean = new double[numNodes];
-		edgeBetweennessLean = new double[numEdges];
-		stressLean = new long[numNodes];
 
-		double[] localNodeBetweenness = new double[nodeBetweennessLean.length];
-		double[] localEdgeBetweenness = new double[edgeBetweennessLean.length];
-		long[] localStress = new long[stressLean.length];
+		// Betweenness and stress are only computed in the 'all' tier; otherwise their arrays are empty
+		final boolean computeNB = parent.computes(MetricTier.ALL);
+		nodeBetweennessLean = new double[computeNB ? numNodes : 0];
+		edgeBetweennessLean = new double[computeNB ? numEdges : 0];
+		stressLean = new long[computeNB ? numNodes : 0];
 		componentDiameter = 0;
+		weightedPathLength = 0;
+		weightedPairs = 0;
 		
-	
+		int[] neighborCounts = new int[numNodes];
+		final ProgressMeter meter = parent.getProgressMeter();
+		// Triangles and topological coefficients of all nodes, shared among the workers
+		final boolean local = parent.computes(MetricTier.LOCAL);
+		final TriangleCounts triangles = local
+				? TriangleCounts.count(parent, numNodes, edgeOffsets, edges, null, null, (analyzed == null) ? null : sources)
+				: null;
+		final double[] topologicalCoefs = local ? nodeAttributes.doubleColumn("TopologicalCoefficient") : null;
+		if (local)
+			parent.forEachSource(sources.length, () -> new TraversalWorkspace(numNodes, 0),
+					(workspace, i) -> topologicalCoefs[sources[i]] = UndirNetworkAnalyzer.computeTC(sources[i], edges, edgeOffsets, workspace));
+		final int[] degrees = nodeAttributes.intColumn("Degree");
+		final double[] clusteringCoefs = local ? nodeAttributes.doubleColumn("ClusteringCoefficient") : null;
+		final double[] neighborConnects = local ? nodeAttributes.doubleColumn("NeighborhoodConnectivity") : null;
+		final int[] selfLoopAttrs = nodeAttributes.intColumn(Msgs.getAttr("slo"));
+		final boolean[] isolatedAttrs = nodeAttributes.booleanColumn(Msgs.getAttr("isn"));
+		final int[] undirEdgeAttrs = nodeAttributes.intColumn(Msgs.getAttr("nue"));
+		final int[] dirEdgeAttrs = nodeAttributes.intColumn(Msgs.getAttr("nde"));
+		final int[] multiPartnerAttrs = nodeAttributes.intColumn(Msgs.getAttr("pmn"));
+
+		// Edges incident on every node, counted from the snapshot; a self-loop is incident once
+		final boolean isDirected = parent.isDirected();
+		final int[] incidentEdges = new int[numNodes];
+		final int[] selfLoops = new int[numNodes];
+		final int[] dirEdges = new int[numNodes];
+		for (int e = 0; e < graph.numEdges; e++)
+		{
+			final int source = graph.edgeSources[e], target = graph.edgeTargets[e];
+			final boolean directed = isDirected && graph.edgeDirected[e];
+			incidentEdges[source]++;
+			if (directed)
+				dirEdges[source]++;
+			if (source == target)
+				selfLoops[source]++;
+			else
+			{
+				incidentEdges[target]++;
+				if (directed)
+					dirEdges[target]++;
+			}
+		}
+		final int[] multiEdgePartners = graph.multiEdgePartners();
 		
-		while (nodeQueue.size() > 0)
+		for (int nodeID = 0; nodeID < numNodes; nodeID++)
 		{
-			CyNode node = null;
-			if (nodeQueue.size() == 0)			break;
-			node = nodeQueue.remove();
 			parent.progress++;
-			
-			long timeStart = System.nanoTime();
-			int nodeID = nodeToInt(node);
-			List<CyEdge> incEdges = getIncidentEdges(node, paired);
-			Map<CyNode, MutInteger> neighborMap = CyNetworkUtils.getNeighborMap(parent.network, node, incEdges);
-			CyRow row = parent.network.getRow(node);
-
-			// Degree distribution calculation
-			int degree = getDegree(node, incEdges, paired);
+			if (analyzed != null && !analyzed[nodeID])
+				continue;
+			meter.advance(1);
+
+			// Degree distribution calculation; a self-loop adds two to the degree
+			int degree = incidentEdges[nodeID] + selfLoops[nodeID];
 			
 			localNetworkEdgeCount += degree;
 			degreeDist.addObservation(degree);
-			row.set("Degree",degree);
+			degrees[nodeID] = degree;
 			
-			int neighborCount = calcSimple(node, incEdges, neighborMap, params);
+			int neighborCount = calcSimple(nodeID, selfLoops[nodeID], multiEdgePartners[nodeID], params);
+			selfLoopAttrs[nodeID] = selfLoops[nodeID];
+			isolatedAttrs[nodeID] = (neighborCount == 0);
+			undirEdgeAttrs[nodeID] = incidentEdges[nodeID] - dirEdges[nodeID];
+			dirEdgeAttrs[nodeID] = dirEdges[nodeID];
+			multiPartnerAttrs[nodeID] = multiEdgePartners[nodeID];
 			localMaxConnectivity = Math.max(localMaxConnectivity, neighborCount);
-			
+			neighborCounts[nodeID] = neighborCount;
 
 			int firstEdge = edgeOffsets[nodeID], lastEdge = edgeOffsets[nodeID + 1];
+			if (!local)
+			{
+				// Neighborhood parameters are not computed
+				if (parent.cancelled)
+					break;
+				continue;
+			}
 			if (neighborCount > 0) 
 			{
-				int[] neighbors = new int[lastEdge - firstEdge];
-				for (int ei = firstEdge; ei < lastEdge; ei++)
-					neighbors[ei - firstEdge] = edges[ei];
-
 				// Neighborhood connectivity computation
-				; // = averageNeighbors(neighbors, edgeOffsets);
-				
-					double accum = 0;
-					for (int n : neighbors)
-						accum += edgeOffsets[n + 1] - edgeOffsets[n];
-					
-					double neighborConnect = accum / neighbors.length;
-				
+				double neighborConnect = averageNeighbors(edges, firstEdge, lastEdge, edgeOffsets);
 				parent.accumulate(NCps, neighborCount, neighborConnect);
 
 				if (neighborCount > 1) 
 				{
 					// Topological coefficients computation
-					double topCoef = UndirNetworkAnalyzer.computeTC(nodeID, numNodes, edges, edgeOffsets);
+					double topCoef = topologicalCoefs[nodeID];
 					if (!Double.isNaN(topCoef)) 
 						topCoefs.add(new Point2D.Double(neighborCount, topCoef));
 					else 
 						topCoef = 0.0;
 
 					// Clustering coefficients computation
-					final double nodeCCp = UndirNetworkAnalyzer.computeCC(neighbors, numNodes, edges, edgeOffsets);
+					final double nodeCCp = triangles.getClusteringCoefficient(nodeID);
 					parent.accumulate(CCps, neighborCount, nodeCCp);
-					row.set( "ClusteringCoefficient", nodeCCp);
-					row.set( "TopologicalCoefficient", topCoef);
+					clusteringCoefs[nodeID] = nodeCCp;
+					topologicalCoefs[nodeID] = topCoef;
 
 				} 
 				else  
 				{
-					row.set("ClusteringCoefficient", 0.0);
-					row.set("TopologicalCoefficient", 0.0);
+					clusteringCoefs[nodeID] = 0.0;
+					topologicalCoefs[nodeID] = 0.0;
 				}
-				row.set( "NeighborhoodConnectivity", neighborConnect);
+				neighborConnects[nodeID] = neighborConnect;
 			} 
 			else 
 			{
-				row.set( "NeighborhoodConnectivity", 0.0);
-				row.set( "ClusteringCoefficient", 0.0);
-				row.set( "TopologicalCoefficient", 0.0);
+				neighborConnects[nodeID] = 0.0;
+				clusteringCoefs[nodeID] = 0.0;
+				topologicalCoefs[nodeID] = 0.0;
 			}
 			if (parent.cancelled) 
 				break;
-			
-			PathLengthData pathLengths = UndirNetworkAnalyzer.computeSPandSN(nodeID, numNodes, edges, edgeOffsets, localSharedNeighborsHist, localSPathLengths);
-			
-			int eccentricity = pathLengths.getMaxLength();
+		} // end node iteration
+
+		accumulate(localNetworkEdgeCount, localMaxConnectivity, 0);
+
+	// Only the degree and the neighborhood parameters: no searches
+		if (!parent.computes(MetricTier.PATHS))
+		{
+			saveStatistics();
+			return;
+		}
+
+	// Only the diameter and the radius: bound the eccentricities instead of searching from every node
+		extremesOnly = parent.getOptions().diameterOnly;
+		if (extremesOnly)
+		{
+			final EccentricityBounds bounds = new EccentricityBounds(numNodes, edgeOffsets, edges);
+			bounds.computeExtremes(parent);
+			params.diameter = bounds.getDiameter();
+			params.radius = bounds.getRadius();
+			accumulate(0, 0, bounds.getDiameter());
+			saveStatistics();
+			return;
+		}
+
+	// Shortest paths, betweenness and stress from every source, shared among the workers
+		final int[] eccentricities = new int[numNodes];
+		final double[] apls = new double[numNodes];
+		final double[] harmonics = new double[numNodes];
+		// Weighted searches sum the lengths of the shortest paths and count the reached nodes
+		final boolean weighted = parent.isWeighted();
+		final double[] weightedLengths = weighted ? new double[numNodes] : null;
+		final int[] reached = weighted ? new int[numNodes] : null;
+		if (!parent.cancelled)
+		{
+			// Betweenness and stress are accumulated from every source, or from a sample of them
+			final SourceSample sample = computeNB ? parent.sampleSources(numNodes) : null;
+			// Path lengths are estimated by HyperANF, or found by the searches from every source. The
+			// estimate only pays off if no source searches the whole component anyway, i.e. without
+			// betweenness or with sampled betweenness; searching from a subset of the nodes is already
+			// cheaper than estimating all path lengths.
+			final AnalysisOptions options = parent.getOptions();
+			final boolean exhaustive = computeNB && sample == null;
+			final HyperAnf anf = (options.approximatePaths && analyzed == null && !weighted && !exhaustive)
+					? HyperAnf.run(parent, numNodes, edgeOffsets, edges, options.registerBits, options.seed)
+					: null;
+			// Sources whose path lengths are found by their betweenness searches, and not estimated
+			final boolean[] searched = (anf != null) ? new boolean[numNodes] : null;
+			final double[] edgeLengths = weighted ? graph.neighborLengths(parent.getEdgeLengths(graph)) : null;
+			List<SourceAccumulator> workers = parent.forEachSource(sources.length, 
+					() -> new SourceAccumulator(sharedNeighborsHist.length, sPathLengths.length, numNodes, numEdges, edges.length,
+							computeNB),
+					(acc, i) -> {
+						final int nodeID = sources[i];
+						meter.advance(1);
+						final boolean betweenness = computeNB && (sample == null || sample.contains(nodeID));
+						if (weighted)
+						{
+							// The shared neighbors do not depend on the edge lengths
+							UndirNetworkAnalyzer.computeSN(nodeID, numNodes, edges, edgeOffsets, acc.sharedNeighborsHist,
+									acc.workspace);
+							PathLengthData pathLengths = UndirNetworkAnalyzer.computeWeightedSPandNB(nodeID, edges, edgeOffsets,
+									edgeIDs, edgeLengths, null, betweenness, acc.nodeBetweenness, acc.stress, acc.edgeBetweenness,
+									acc.workspace);
+							apls[nodeID] = pathLengths.getAverageLength();
+							harmonics[nodeID] = pathLengths.getHarmonicSum();
+							weightedLengths[nodeID] = pathLengths.getWeightedLength();
+							reached[nodeID] = pathLengths.getCount();
+							return;
+						}
+						if (anf != null && !betweenness)
+						{
+							UndirNetworkAnalyzer.computeSN(nodeID, numNodes, edges, edgeOffsets, acc.sharedNeighborsHist,
+									acc.workspace);
+							return;
+						}
+						// Path lengths, shared neighbors, betweenness and stress from a single search; the
+						// path length distribution is estimated by HyperANF for all sources, if it runs
+						PathLengthData pathLengths = betweenness
+								? UndirNetworkAnalyzer.computeSPandNB(nodeID, numNodes, edges, edgeOffsets, edgeIDs,
+										acc.sharedNeighborsHist, (anf != null) ? NO_PATH_LENGTHS : acc.sPathLengths,
+										acc.nodeBetweenness, acc.stress, acc.edgeBetweenness, acc.workspace)
+								: UndirNetworkAnalyzer.computeSPandSN(nodeID, numNodes, edges, edgeOffsets,
+										acc.sharedNeighborsHist, acc.sPathLengths, acc.workspace);
+						if (searched != null)
+							searched[nodeID] = true;
+						int eccentricity = pathLengths.getMaxLength();
+						eccentricities[nodeID] = eccentricity;
+						apls[nodeID] = (pathLengths.getCount() > 0) ? pathLengths.getAverageLength() : 0;
+						harmonics[nodeID] = pathLengths.getHarmonicSum();
+						acc.componentDiameter = Math.max(acc.componentDiameter, eccentricity);
+					});
+
+	// Reduce results into global (parent's) variables
+			for (SourceAccumulator acc : workers)
+			{
+				accumulate(0, 0, acc.componentDiameter);
+				accumulate(acc.sharedNeighborsHist, acc.sPathLengths, acc.nodeBetweenness, acc.edgeBetweenness, acc.stress);
+			}
+			if (anf != null)
+			{
+				// The estimated eccentricities are replaced by exact ones, found from a few searches, and
+				// the sources searched for betweenness keep their exact path lengths
+				final EccentricityBounds bounds = new EccentricityBounds(numNodes, edgeOffsets, edges);
+				bounds.computeAll(parent);
+				for (int nodeID = 0; nodeID < numNodes; nodeID++)
+				{
+					eccentricities[nodeID] = bounds.getEccentricity(nodeID);
+					if (searched[nodeID])
+						continue;
+					apls[nodeID] = anf.getAverageLength(nodeID);
+					harmonics[nodeID] = anf.harmonicSums[nodeID];
+				}
+				for (int length = 1; length <= anf.getDiameter() && length < sPathLengths.length; length++)
+					sPathLengths[length] += Math.round(anf.getPairCount(length));
+				accumulate(0, 0, bounds.getDiameter());
+			}
+			if (analyzed != null && !weighted)
+			{
+				// Radiality is relative to the diameter of the whole component
+				final EccentricityBounds bounds = new EccentricityBounds(numNodes, edgeOffsets, edges);
+				bounds.computeExtremes(parent);
+				accumulate(0, 0, bounds.getDiameter());
+			}
+			if (sample != null)
+			{
+				sample.scale(nodeBetweennessLean);
+				sample.scale(edgeBetweennessLean);
+				sample.scale(stressLean);
+			}
+		}
+
+	// Save eccentricity, average shortest path length, closeness and harmonic centrality
+		// Eccentricity counts edges, so it is not saved for weighted paths
+		final int[] eccentricityAttrs = weighted ? null : nodeAttributes.intColumn(Msgs.getAttr("spl"));
+		final double[] aplAttrs = nodeAttributes.doubleColumn(Msgs.getAttr("apl"));
+		final double[] closenessAttrs = nodeAttributes.doubleColumn(Msgs.getAttr("clc"));
+		final double[] harmonicAttrs = nodeAttributes.doubleColumn(Msgs.getAttr("hrc"));
+		for (int nodeID : sources) 
+		{
+			final CyNode n = graph.nodes[nodeID];
+			int eccentricity = eccentricities[nodeID];
 			if (params.diameter < eccentricity)
 				params.diameter = eccentricity;
 			if (0 < eccentricity && eccentricity < params.radius)
 				params.radius = eccentricity;
-			localComponentDiameter = Math.max(localComponentDiameter, eccentricity);
 			
-			double apl = (pathLengths.getCount() > 0) ? pathLengths.getAverageLength() : 0;
-			aplMap.put(node, Double.valueOf(apl));
+			double apl = apls[nodeID];
+			aplMap.put(n, Double.valueOf(apl));
 			
 			double closeness = (apl > 0.0) ? 1 / apl : 0.0;
-			closenessCent.add(new Point2D.Double(neighborCount, closeness));
-			
+			closenessCent.add(new Point2D.Double(neighborCounts[nodeID], closeness));
 
 			// Store max. and avg. shortest path lengths, and closeness in node attributes
-			row.set( Msgs.getAttr("spl"), eccentricity);
-			row.set( Msgs.getAttr("apl"), apl);
-			row.set( Msgs.getAttr("clc"), closeness);
-
-			// CyNode and edge betweenness calculation
-			UndirNetworkAnalyzer.computeNBandEB(nodeID, numNodes, edges, edgeOffsets, edgeIDs, 
-			                                    localNodeBetweenness, localStress, localEdgeBetweenness);
-
-			if (parent.cancelled)
-				break;
-		} // end node iteration
-
-	// Reduce results into global (parent's) variables
-		
-		accumulate(localNetworkEdgeCount, localMaxConnectivity, localComponentDiameter);
-		accumulate(localSharedNeighborsHist, localSPathLengths, localNodeBetweenness, localEdgeBetweenness, localStress);
+			if (!weighted)
+				eccentricityAttrs[nodeID] = eccentricity;
+			aplAttrs[nodeID] = apl;
+			closenessAttrs[nodeID] = closeness;
+			harmonicAttrs[nodeID] = parent.accumulateHarmonic(harmonics[nodeID]);
+			if (weighted)
+			{
+				weightedPathLength += weightedLengths[nodeID];
+				weightedPairs += reached[nodeID];
+			}
+		}
 		saveStatistics();
 
 	// Normalize and save node betweenness
-	for (final CyNode n : connNodes) 
+	// Radiality is relative to the diameter, which counts edges
+	final double[] radialities = weighted ? null : nodeAttributes.doubleColumn("Radiality");
+	final double[] betweennessAttrs = computeNB ? nodeAttributes.doubleColumn(Msgs.getAttr("nbt")) : null;
+	final long[] stressAttrs = computeNB ? nodeAttributes.longColumn("Stress") : null;
+	for (int nodeID : sources) 
 	{
-		CyRow row = parent.network.getRow(n);
-		int nodeID = nodeToInt(n);
 		// Compute node radiality
-		final double rad = (componentDiameter + 1.0 - aplMap.get(n).doubleValue()) / componentDiameter;
-		row.set( "Radiality", rad);
+		if (!weighted)
+			radialities[nodeID] = (componentDiameter + 1.0 - apls[nodeID]) / componentDiameter;
+		if (!computeNB)
+			continue;
 		
 		// normalize
 		final double nNormFactor = UndirNetworkAnalyzer.computeNormFactor(numNodes);		
@@ -358,63 +511,101 @@ boolean isPaired = false;
 		if (Double.isNaN(nb)) 		nb = 0.0;
 
 		// degree, betweenness
-		final int degree = getDegree(n, getIncidentEdges(n, paired), paired);
-		nodeBetweennessArray.add(new Point2D.Double(degree, nb));
-		row.set( Msgs.getAttr("nbt"), nb);
+		nodeBetweennessArray.add(new Point2D.Double(degrees[nodeID], nb));
+		betweennessAttrs[nodeID] = nb;
 
 		// stress
 		final long nodeStress = stressLean[nodeID];
-		row.set( "Stress", nodeStress);
+		stressAttrs[nodeID] = nodeStress;
 		stressDist.addObservation(nodeStress);
 	} 
 	
+	if (!computeNB)
+		return;
+	
 	// Save edge betweenness
-	for (CyEdge edge : connEdges)
+	final double[] edgeBetweennessAttrs = edgeAttributes.doubleColumn(Msgs.getAttr("ebt"));
+	for (int edgeIndex = 0; edgeIndex < graph.numEdges; edgeIndex++)
 	{
-		int sourceID = nodeToInt(edge.getSource());
-		int targetID = nodeToInt(edge.getTarget());
-		long edgeHash = computeEdgeHash(sourceID, targetID);						
+		int pairID = graph.pairOf(graph.edgeSources[edgeIndex], graph.edgeTargets[edgeIndex]);
 		double eb = Double.NaN;
-		if (edgeToInt(edgeHash) != null)
-			eb = edgeBetweennessLean[edgeToInt(edgeHash)];
+		if (pairID >= 0)
+			eb = edgeBetweennessLean[pairID];
 		if (Double.isNaN(eb)) 	eb = 0.0;
-		CyRow edgeRow = network.getRow(edge);
-		edgeRow.set( Msgs.getAttr("ebt"), eb);
+		edgeBetweennessAttrs[edgeIndex] = eb;
 	}
 }
+
+	/**
+	 * Empty shortest path length histogram, passed to the searches whose path lengths are not needed.
+	 */
+	private static final long[] NO_PATH_LENGTHS = new long[0];
+
+	/**
+	 * Results of the all-sources traversals accumulated by a single worker. The accumulators of all
+	 * workers are added up by {@link ConnectedComponentInfo#accumulate(long[], long[], double[], double[], long[])}.
+	 */
+	private static class SourceAccumulator
+	{
+		SourceAccumulator(int histSize, int pathLengthSize, int numNodes, int numEdges, int numNeighbors,
+				boolean betweenness)
+		{
+			workspace = new TraversalWorkspace(numNodes, numNeighbors);
+			sharedNeighborsHist = new long[histSize];
+			sPathLengths = new long[pathLengthSize];
+			nodeBetweenness = new double[betweenness ? numNodes : 0];
+			edgeBetweenness = new double[betweenness ? numEdges : 0];
+			stress = new long[betweenness ? numNodes : 0];
+		}
+
+		final long[] sharedNeighborsHist;
+		final long[] sPathLengths;
+		final double[] nodeBetweenness;
+		final double[] edgeBetweenness;
+		final long[] stress;
+		final TraversalWorkspace workspace;
+		int componentDiameter;
+	}
+
 /**
- * Computes the average number of neighbors of the nodes in a given node set.
+ * Computes the average number of neighbors of the neighbors of a node.
  * 
- * @param aNodes
- *            Non-empty set of nodes. Specifying <code>null</code> or an empty set for this
- *            parameter results in throwing an exception.
- * @return Average number of neighbors of the nodes in <code>nodes</code>.
+ * @param aEdges
+ *            Array with every node's neighbor indices.
+ * @param aFirst
+ *            Index of the node's first neighbor in <code>aEdges</code>.
+ * @param aLast
+ *            Index after the node's last neighbor in <code>aEdges</code>; greater than
+ *            <code>aFirst</code>.
+ * @param aEdgeOffsets
+ *            Array with the indices of each node's first neighbor in <code>aEdges</code>.
+ * @return Average number of neighbors of the nodes in <code>aEdges[aFirst..aLast-1]</code>.
  */
-	private double averageNeighbors(int[] nodes, int[] edgeOffsets)
+	private static double averageNeighbors(int[] aEdges, int aFirst, int aLast, int[] aEdgeOffsets)
 	{
 		int neighbors = 0;
-		for (int node : nodes)
-			neighbors += edgeOffsets[node + 1] - edgeOffsets[node];
+		for (int ei = aFirst; ei < aLast; ei++)
+			neighbors += aEdgeOffsets[aEdges[ei] + 1] - aEdgeOffsets[aEdges[ei]];
 		
-		return (double)neighbors / (double)nodes.length;
+		return (double)neighbors / (double)(aLast - aFirst);
 	}
 
 	/**
 	 * Calculates a set of simple properties of the given node.
 	 * 
 	 * @param aNodeID
-	 *            ID of the node of interest. This parameter is used for storing attribute values.
-	 * @param aIncEdges
-	 *            Array of the indices of all the neighbors of the node of interest.
-	 * @param aNeMap
-	 *            Map of neighbors of the node of interest and their frequency.
+	 *            Index of the node of interest in the component.
+	 * @param aSelfLoops
+	 *            Number of self-loops of the node of interest.
+	 * @param aMultiEdgePartners
+	 *            Number of neighbors connected to the node of interest by more than one edge.
 	 * @param aParams
 	 *            Instance to accumulate the computed values.
 	 * @return Number of neighbors of the node of interest.
 	 */
-	protected int calcSimple(CyNode aNode, List<CyEdge> aIncEdges, Map<CyNode, MutInteger> aNeMap, SimpleUndirParams aParams) 
+	protected int calcSimple(int aNodeID, int aSelfLoops, int aMultiEdgePartners, SimpleUndirParams aParams) 
 	{
-		final int neighborCount = aNeMap.size();
+		final int neighborCount = edgeOffsets[aNodeID + 1] - edgeOffsets[aNodeID];
 	
 		// Avg. number of neighbors, density & centralization calculation
 		if (aParams.connectivityAccum != null)
@@ -432,74 +623,12 @@ boolean isPaired = false;
 		if (neighborCount == 0)
 			aParams.unconnectedNodeCount++;
 	
-		// Number of self-loops and number of directed/undirected edges
-		// calculation
-		boolean isDirected = parent.isDirected();
-		int selfLoops = 0;
-		int dirEdges = 0;
-		for (int j = 0; j < aIncEdges.size(); j++) 
-		{
-			CyEdge e = aIncEdges.get(j);
-			if (isDirected && e.isDirected())
-				dirEdges++;
-			if (e.getSource() == e.getTarget())
-				selfLoops++;
-		}
-		aParams.selfLoopCount += selfLoops;
-		int undirEdges = aIncEdges.size() - dirEdges;
-	
-		// Number of multi-edge node partners calculation
-		int partnerOfMultiEdgeNodePairs = 0;
-		for (final MutInteger freq : aNeMap.values()) 
-			if (freq.value > 1)
-				partnerOfMultiEdgeNodePairs++;
-		aParams.multiEdgePartners += partnerOfMultiEdgeNodePairs;
-	
-		// Storing the values in attributes
-		CyRow nodeRow = network.getRow(aNode);
-		nodeRow.set(Msgs.getAttr("slo"), selfLoops);
-		nodeRow.set(Msgs.getAttr("isn"), (neighborCount == 0));
-		nodeRow.set(Msgs.getAttr("nue"), undirEdges);
-		nodeRow.set(Msgs.getAttr("nde"), dirEdges);
-		nodeRow.set(Msgs.getAttr("pmn"), partnerOfMultiEdgeNodePairs);
+		// Number of self-loops and multi-edge node partners
+		aParams.selfLoopCount += aSelfLoops;
+		aParams.multiEdgePartners += aMultiEdgePartners;
 		return neighborCount;
 	}
 
-	/**
-	 * Gets all the neighbors of the given node.
-	 * 
-	 * @param aNode
-	 *            CyNode , whose neighbors are to be found.
-	 * @return <code>Set</code> of <code>Node</code> instances, containing all the neighbors of
-	 *         <code>aNode</code>; empty set if the node specified is an isolated vertex.
-	 * @see CyNetworkUtils#getNeighbors(CyNetwork, CyNode , int[])
-	 */
-	protected Set<CyNode> getNeighbors(CyNode aNode) {
-		return CyNetworkUtils.getNeighbors(network, aNode, getIncidentEdges(aNode, false));
-	}
-	/**
-	 * Gets all edges incident on the given node.
-	 * 
-	 * @param aNode
-	 *            CyNode , on which incident edges are to be found.
-	 * @return Array of edge indices, containing all the edges in the network incident on
-	 *         <code>aNode</code>.
-	 */
-	public List<CyEdge> getIncidentEdges(CyNode aNode, boolean paired) {
-		return network.getAdjacentEdgeList(aNode, (paired ? CyEdge.Type.INCOMING : CyEdge.Type.ANY));
-	}
-	/**
-	 * Computes a direction-invariant 64 bit hash of an edge (represented by its two nodes' IDs).
-	 * @param ID of the first node
-	 * @param ID of the second node
-	 * @return 64 bit hash, where the left 32 bit are the smaller ID, and the right 32 bit the larger ID
-	 */
-	public static long computeEdgeHash(int id1, int id2)
-	{
-		int smaller = id1 < id2 ? id1 : id2;
-		int bigger = id1 > id2 ? id1 : id2;
-		return (((long)smaller) << 32) + bigger;
-	}
 	/**
 	 * Gets the averages of the accumulated values and stores them in a set.
 	 * <p>
@@ -522,27 +651,6 @@ boolean isPaired = false;
 		}
 		return averages;
 	}
-	/**
-	 * Gets the degree of a given node.
-	 * 
-	 * @param aNode
-	 *            CyNode to get the degree of.
-	 * @param aIncEdges
-	 *            Array of the indices of all edges incident on the given node.
-	 * @return Degree of the given node, as defined in the book &qout;Graph Theory&qout; by Reinhard
-	 *         Diestel.
-	 */
-	int getDegree(CyNode aNode, List<CyEdge> aIncEdges, boolean isPaired) {
-		int degree = aIncEdges.size();
-		for (int i = 0; i < aIncEdges.size(); ++i) {
-			CyEdge e = aIncEdges.get(i);
-			if (e.getSource() == e.getTarget() && (!(e.isDirected() && isPaired))) {
-				degree++;
-			}
-		}
-		return degree;
-	}
-
 	public void accumulate(int localNetworkEdgeCount, int localMaxConnectivity, int localComponentDiameter) {
 		networkEdgeCount += localNetworkEdgeCount;
 		maxConnectivity = Math.max(maxConnectivity, localMaxConnectivity);
@@ -561,7 +669,7 @@ boolean isPaired = false;
 		for (int i = 0; i < edgeBetweenness.length; i++)
 			edgeBetweennessLean[i] += edgeBetweenness[i];
 		for (int i = 0; i < stress.length; i++)
-			stressLean[i] += stress[i];
+			stressLean[i] = UndirNetworkAnalyzer.saturatedAdd(stressLean[i], stress[i]);
 		
 	}
 	
@@ -586,7 +694,7 @@ boolean isPaired = false;
 	// Save C(k) in the statistics instance
 		if (CCps.size() > 0) {
 			Point2D.Double[] averages = new Point2D.Double[CCps.size()];
-			double cc = parent.accumulateCCs(CCps, averages) / numNodes;
+			double cc = parent.accumulateCCs(CCps, averages) / sources.length;
 			stats.set("cc", cc);
 			if (averages.length > 1) 
 				stats.set("cksDist", new Points2D(averages));
@@ -599,7 +707,7 @@ boolean isPaired = false;
 		stats.set(Msgs.get("usn"), params.unconnectedNodeCount);
 		stats.set(Msgs.get("nsl"), params.selfLoopCount);
 		stats.set(Msgs.get("mnp"), params.multiEdgePartners / 2);
-		if (isPaired) 
+		if (isPaired && analyzed == null) 
 			stats.set("edgeCount", networkEdgeCount / 2);
 	
 		long connPairs = 0; // total number of connected pairs of nodes
@@ -608,26 +716,33 @@ boolean isPaired = false;
 			connPairs += sPathLengths[i];
 			totalPathLength += i * sPathLengths[i];
 		}
-		stats.set("connPairs", connPairs);
+		if (parent.isWeighted())
+			connPairs = weightedPairs;
+		if (!extremesOnly && parent.computes(MetricTier.PATHS))
+			stats.set("connPairs", connPairs);
+		if (parent.isWeighted() && connPairs > 0)
+			stats.set("avSpl", weightedPathLength / connPairs);
 	
 			// Save shortest path lengths distribution
 		if (params.diameter > 0) {
 			stats.set("diameter", params.diameter);
 			stats.set("radius", params.radius);
-			stats.set("avSpl", (double) totalPathLength / connPairs);
-			if (params.diameter > 1) 
-				stats.set("splDist", new LongHistogram(sPathLengths, 1, params.diameter));
-			int largestCommN = 0;
-			for (int i = 1; i < numNodes; ++i) {
-				if (sharedNeighborsHist[i] != 0) {
-					sharedNeighborsHist[i] /= 2;
-					largestCommN = i;
-				}
+			if (!extremesOnly) {
+				stats.set("avSpl", (double) totalPathLength / connPairs);
+				if (params.diameter > 1) 
+					stats.set("splDist", new LongHistogram(sPathLengths, 1, params.diameter));
+			}
+		}
+		int largestCommN = 0;
+		for (int i = 1; i < numNodes; ++i) {
+			if (sharedNeighborsHist[i] != 0) {
+				sharedNeighborsHist[i] /= 2;
+				largestCommN = i;
 			}
-			// Save common neighbors distribution
-			if (largestCommN > 0) 
-				stats.set("commNeighbors", new LongHistogram(sharedNeighborsHist, 1,largestCommN));
 		}
+		// Save common neighbors distribution
+		if (largestCommN > 0) 
+			stats.set("commNeighbors", new LongHistogram(sharedNeighborsHist, 1,largestCommN));
 	
 	
 		if (closenessCent.size() > 1) 
@@ -639,7 +754,7 @@ boolean isPaired = false;
 		if (NCps.size() > 1) 										
 			stats.set("neighborConn", new Points2D(getAverages(NCps)));		// Save neighborhood connectivity in the statistics instance
 	
-		// if (computeNB) 						
+		if (parent.computes(MetricTier.ALL))
 			stats.set("stressDist", stressDist.createPoints2D());			// Save stress distribution in the statistics instance
 		
 	}
@@ -650,4 +765,25 @@ boolean isPaired = false;
 	}
 
 	public NetworkStats getStats() { return stats; }
+
+	/**
+	 * Gets the number of nodes of the component whose parameters are calculated.
+	 * 
+	 * @return Number of analyzed nodes; the size of the component if all nodes are analyzed.
+	 */
+	public int getAnalyzedCount() { return sources.length; }
+
+	/**
+	 * Gets the node attributes computed by the analysis of the component.
+	 * 
+	 * @return Attributes of the nodes of the component, not yet written to the network.
+	 */
+	public AttributeBuffer getNodeAttributes() { return nodeAttributes; }
+
+	/**
+	 * Gets the edge attributes computed by the analysis of the component.
+	 * 
+	 * @return Attributes of the edges of the component, not yet written to the network.
+	 */
+	public AttributeBuffer getEdgeAttributes() { return edgeAttributes; }
 }
@@ -0,0 +1,136 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Core numbers of the nodes of a network, computed in time linear in the number of edges
+ * (V. Batagelj and M. Zaversnik: An O(m) Algorithm for Cores Decomposition of Networks.
+ * arXiv:cs/0310049, 2003).
+ * <p>
+ * The <code>k</code>-core of a network is its largest subgraph in which every node has at least
+ * <code>k</code> neighbors, and the core number of a node is the largest <code>k</code> such that
+ * the node belongs to the <code>k</code>-core. The nodes are kept sorted by their remaining degree
+ * in an array of bins, one per degree. They are removed in order of increasing degree, and every
+ * removal moves each neighbor of higher remaining degree one bin down in constant time. The largest
+ * core number is the degeneracy of the network.
+ * </p>
+ */
+public final class CoreDecomposition {
+
+	/**
+	 * Computes the core number of every node.
+	 *
+	 * @param aNumNodes
+	 *            Number of nodes.
+	 * @param aOffsets
+	 *            Array with the indices of each node's first neighbor in <code>aNeighbors</code>.
+	 * @param aNeighbors
+	 *            Array with every node's neighbor indices, regardless of edge direction and without
+	 *            repetitions.
+	 * @return Core numbers of the nodes.
+	 */
+	public static CoreDecomposition compute(int aNumNodes, int[] aOffsets, int[] aNeighbors) {
+		final int[] degrees = new int[aNumNodes];
+		int maxDegree = 0;
+		for (int node = 0; node < aNumNodes; node++) {
+			degrees[node] = aOffsets[node + 1] - aOffsets[node];
+			maxDegree = Math.max(maxDegree, degrees[node]);
+		}
+
+		// Start of every bin in the nodes sorted by degree
+		final int[] bins = new int[maxDegree + 1];
+		for (int node = 0; node < aNumNodes; node++)
+			bins[degrees[node]]++;
+		for (int degree = 0, start = 0; degree <= maxDegree; degree++) {
+			final int count = bins[degree];
+			bins[degree] = start;
+			start += count;
+		}
+		final int[] sorted = new int[aNumNodes];
+		final int[] positions = new int[aNumNodes];
+		for (int node = 0; node < aNumNodes; node++) {
+			positions[node] = bins[degrees[node]]++;
+			sorted[positions[node]] = node;
+		}
+		for (int degree = maxDegree; degree > 0; degree--)
+			bins[degree] = bins[degree - 1];
+		bins[0] = 0;
+
+		int degeneracy = 0;
+		for (int i = 0; i < aNumNodes; i++) {
+			final int node = sorted[i];
+			final int core = degrees[node];
+			degeneracy = Math.max(degeneracy, core);
+			for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++) {
+				final int neighbor = aNeighbors[ni];
+				final int degree = degrees[neighbor];
+				if (degree <= core)
+					continue;
+				// Swap the neighbor with the first node of its bin, then move the bin start past it
+				final int position = positions[neighbor];
+				final int first = bins[degree];
+				final int other = sorted[first];
+				if (other != neighbor) {
+					sorted[position] = other;
+					positions[other] = position;
+					sorted[first] = neighbor;
+					positions[neighbor] = first;
+				}
+				bins[degree]++;
+				degrees[neighbor] = degree - 1;
+			}
+		}
+		return new CoreDecomposition(degrees, degeneracy);
+	}
+
+	/**
+	 * Initializes a new instance of <code>CoreDecomposition</code>.
+	 */
+	private CoreDecomposition(int[] aCores, int aDegeneracy) {
+		cores = aCores;
+		degeneracy = aDegeneracy;
+	}
+
+	/**
+	 * Gets the degeneracy of the network.
+	 *
+	 * @return Largest core number of any node; <code>0</code> if the network has no edges.
+	 */
+	public int getDegeneracy() {
+		return degeneracy;
+	}
+
+	/**
+	 * Core number of each node.
+	 */
+	public final int[] cores;
+
+	/**
+	 * Largest core number of any node.
+	 */
+	private final int degeneracy;
+}
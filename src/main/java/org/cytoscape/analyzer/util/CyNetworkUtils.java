@@ -484,4 +484,42 @@ public  class CyNetworkUtils {
 		aNetwork.removeEdges(toRemove);
 		return removedCount;
 	}
+
+	/**
+	 * Reads the lengths of the given edges from a numeric edge column, for the shortest paths over
+	 * weighted edges.
+	 *
+	 * @param aNetwork
+	 *            Network of the edges.
+	 * @param aEdges
+	 *            Edges whose lengths are read.
+	 * @param aColumn
+	 *            Name of an <code>Integer</code>, <code>Long</code> or <code>Double</code> column of the
+	 *            edges.
+	 * @return Length of every edge, indexed like <code>aEdges</code>.
+	 * @throws IllegalArgumentException
+	 *             If the column does not exist or is not numeric, or if an edge has no value or a value
+	 *             that is not positive and finite.
+	 */
+	public static double[] getEdgeLengths(CyNetwork aNetwork, CyEdge[] aEdges, String aColumn) {
+		final CyColumn column = aNetwork.getDefaultEdgeTable().getColumn(aColumn);
+		if (column == null)
+			throw new IllegalArgumentException("There is no edge column \"" + aColumn + "\".");
+		final Class<?> type = column.getType();
+		if (type != Integer.class && type != Long.class && type != Double.class)
+			throw new IllegalArgumentException("Edge column \"" + aColumn + "\" is not numeric.");
+		final double[] lengths = new double[aEdges.length];
+		for (int e = 0; e < aEdges.length; e++) {
+			final Number value = (Number) aNetwork.getRow(aEdges[e]).get(aColumn, type);
+			if (value == null)
+				throw new IllegalArgumentException("Edge " + aEdges[e].getSUID() + " has no value in column \""
+						+ aColumn + "\".");
+			final double length = value.doubleValue();
+			if (!(length > 0 && length < Double.POSITIVE_INFINITY))
+				throw new IllegalArgumentException("Edge " + aEdges[e].getSUID() + " has length " + length
+						+ " in column \"" + aColumn + "\"; edge lengths must be positive and finite.");
+			lengths[e] = length;
+		}
+		return lengths;
+	}
 }
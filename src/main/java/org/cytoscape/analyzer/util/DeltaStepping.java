@@ -0,0 +1,460 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+
+/**
+ * Single-source shortest paths over positive edge lengths whose nodes are shared among the workers
+ * of the analyzer within a single search, computed with Delta-stepping (U. Meyer and P. Sanders:
+ * Delta-stepping: a parallelizable shortest path algorithm. Journal of Algorithms 49(1):114-152,
+ * 2003).
+ * <p>
+ * The tentative distances are kept in buckets of a fixed width. The nodes of the lowest non-empty
+ * bucket are processed together in phases: every phase relaxes, in parallel, the light edges (no
+ * longer than the bucket width) of the nodes that entered the bucket, which may add nodes to the
+ * same bucket for the next phase. Once the bucket stays empty, the heavy edges of all its nodes are
+ * relaxed once. A wide bucket gives many nodes per phase but may relax edges from nodes whose
+ * distance later decreases; a bucket narrower than the shortest edge processes the nodes in the
+ * order of Dijkstra's algorithm.
+ * </p>
+ * <p>
+ * A distance is lowered with an atomic compare-and-set of its bits, which are ordered like the
+ * non-negative numbers themselves. Every worker adds the nodes it improves to buckets of its own,
+ * which are merged into the next frontier between the phases; stale and repeated entries are dropped
+ * there. The buckets are a ring over the few widths the tentative distances can span, so an instance
+ * allocates nothing once it has grown and can be reused for the searches from several sources. An
+ * instance is not thread-safe.
+ * </p>
+ */
+public final class DeltaStepping {
+
+	/**
+	 * Largest number of buckets the tentative distances may span: the length of the longest edge
+	 * divided by the bucket width.
+	 */
+	public static final int MAX_BUCKETS = 1 << 20;
+
+	/**
+	 * Initial capacity of every bucket of a worker.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Bits of the distance of the nodes not reached yet.
+	 */
+	private static final long UNREACHED = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+
+	/**
+	 * Atomic access to the elements of {@link #distances}.
+	 */
+	private static final VarHandle DISTANCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+	/**
+	 * Initializes a new instance of <code>DeltaStepping</code>.
+	 *
+	 * @param aNumNodes
+	 *            Number of nodes.
+	 * @param aOffsets
+	 *            Array with the indices of each node's first neighbor in <code>aNeighbors</code>.
+	 * @param aNeighbors
+	 *            Array with every node's neighbor indices. For directed distances, these are the
+	 *            out-neighbors.
+	 * @param aLengths
+	 *            Positive lengths of the edges to the neighbors, parallel to <code>aNeighbors</code>;
+	 *            an infinite length is never followed.
+	 * @param aBucketWidth
+	 *            Width of the buckets of tentative distances.
+	 * @throws IllegalArgumentException
+	 *             If <code>aBucketWidth</code> is not positive, or so small that the distances would
+	 *             span more than {@link #MAX_BUCKETS} buckets.
+	 */
+	public DeltaStepping(int aNumNodes, int[] aOffsets, int[] aNeighbors, double[] aLengths, double aBucketWidth) {
+		if (!(aBucketWidth > 0 && aBucketWidth < Double.POSITIVE_INFINITY))
+			throw new IllegalArgumentException("Bucket width must be positive.");
+		double longest = 0;
+		for (final double length : aLengths)
+			if (length < Double.POSITIVE_INFINITY)
+				longest = Math.max(longest, length);
+		// A relaxation reaches at most this many buckets beyond the current one
+		final double span = Math.floor(longest / aBucketWidth) + 2;
+		if (span > MAX_BUCKETS)
+			throw new IllegalArgumentException("Bucket width must be at least " + longest / (MAX_BUCKETS - 2)
+					+ " for the longest edge.");
+		int ring = 1;
+		while (ring < span)
+			ring <<= 1;
+		numNodes = aNumNodes;
+		offsets = aOffsets;
+		neighbors = aNeighbors;
+		lengths = aLengths;
+		bucketWidth = aBucketWidth;
+		ringMask = ring - 1;
+		distances = new long[aNumNodes];
+		frontierMarks = new int[aNumNodes];
+		settledMarks = new int[aNumNodes];
+		frontier = new int[INITIAL_CAPACITY];
+		settled = new int[INITIAL_CAPACITY];
+		workers = new ArrayList<Buckets>();
+		workers.add(new Buckets(ring));
+	}
+
+	/**
+	 * Chooses a bucket width for the given edge lengths: the longest edge divided by the average
+	 * degree, as suggested by Meyer and Sanders for random edge lengths, but not narrower than the
+	 * shortest edge, below which the buckets only add phases.
+	 *
+	 * @param aNumNodes
+	 *            Number of nodes.
+	 * @param aLengths
+	 *            Lengths of the edges to the neighbors of all nodes.
+	 * @return Bucket width; <code>1</code> if no edge has a finite length.
+	 */
+	public static double defaultBucketWidth(int aNumNodes, double[] aLengths) {
+		double shortest = Double.POSITIVE_INFINITY, longest = 0;
+		int edges = 0;
+		for (final double length : aLengths) {
+			if (length < Double.POSITIVE_INFINITY) {
+				shortest = Math.min(shortest, length);
+				longest = Math.max(longest, length);
+				edges++;
+			}
+		}
+		if (edges == 0)
+			return 1;
+		final double degree = Math.max(1, (double) edges / Math.max(1, aNumNodes));
+		return Math.max(shortest, longest / degree);
+	}
+
+	/**
+	 * Computes the lengths of the shortest paths from the given node to all nodes.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer whose workers share the nodes of every phase; the search stops early if it
+	 *            is cancelled. <code>null</code> to run the search serially on the calling thread.
+	 * @param aSource
+	 *            Index of the source node.
+	 * @return Distance from <code>aSource</code> to every node; <code>Double.POSITIVE_INFINITY</code>
+	 *         for the nodes it does not reach.
+	 */
+	public double[] run(NetworkAnalyzer aAnalyzer, int aSource) {
+		Arrays.fill(distances, UNREACHED);
+		for (final Buckets worker : workers)
+			worker.clear();
+		distances[aSource] = Double.doubleToRawLongBits(0);
+		workers.get(0).add(0, aSource);
+
+		long bucket = 0;
+		while (bucket >= 0 && !(aAnalyzer != null && aAnalyzer.cancelled)) {
+			settledCount = 0;
+			settledEpoch = nextEpoch(settledMarks, settledEpoch);
+			int count;
+			while ((count = gather(bucket)) > 0)
+				relax(aAnalyzer, frontier, count, true);
+			relax(aAnalyzer, settled, settledCount, false);
+			// Rounding may put the target of a heavy edge back in this bucket, so it is searched again
+			bucket = nextBucket(bucket);
+		}
+
+		final double[] result = new double[numNodes];
+		for (int node = 0; node < numNodes; node++)
+			result[node] = Double.longBitsToDouble(distances[node]);
+		return result;
+	}
+
+	/**
+	 * Moves the current nodes of the given bucket from the buckets of all workers to the frontier,
+	 * dropping the stale and repeated ones, and adds the nodes new to the bucket to the settled
+	 * nodes.
+	 *
+	 * @return Number of nodes in the frontier.
+	 */
+	private int gather(long aBucket) {
+		final int slot = (int) (aBucket & ringMask);
+		frontierEpoch = nextEpoch(frontierMarks, frontierEpoch);
+		int count = 0;
+		for (final Buckets worker : workers) {
+			final int[] nodes = worker.nodes[slot];
+			final int size = worker.sizes[slot];
+			for (int i = 0; i < size; i++) {
+				final int node = nodes[i];
+				if (frontierMarks[node] == frontierEpoch || bucketOf(Double.longBitsToDouble(distances[node])) != aBucket)
+					continue;
+				frontierMarks[node] = frontierEpoch;
+				frontier = ensureCapacity(frontier, count);
+				frontier[count++] = node;
+				if (settledMarks[node] != settledEpoch) {
+					settledMarks[node] = settledEpoch;
+					settled = ensureCapacity(settled, settledCount);
+					settled[settledCount++] = node;
+				}
+			}
+			worker.empty(slot);
+		}
+		return count;
+	}
+
+	/**
+	 * Relaxes the light or the heavy edges of the given nodes, sharing the nodes among the workers of
+	 * the analyzer.
+	 */
+	private void relax(NetworkAnalyzer aAnalyzer, int[] aNodes, int aCount, boolean aLight) {
+		if (aCount == 0)
+			return;
+		if (aAnalyzer == null) {
+			final Buckets worker = workers.get(0);
+			for (int i = 0; i < aCount; i++)
+				relax(worker, aNodes[i], aLight);
+			return;
+		}
+		handedOut = 0;
+		aAnalyzer.forEachSource(aCount, this::nextWorker, (worker, i) -> relax(worker, aNodes[i], aLight));
+	}
+
+	/**
+	 * Relaxes the light or the heavy edges of a node, adding the improved neighbors to the buckets
+	 * of the worker.
+	 */
+	private void relax(Buckets aWorker, int aNode, boolean aLight) {
+		final double distance = Double.longBitsToDouble((long) DISTANCES.getAcquire(distances, aNode));
+		for (int ni = offsets[aNode]; ni < offsets[aNode + 1]; ni++) {
+			final double length = lengths[ni];
+			if ((length <= bucketWidth) != aLight)
+				continue;
+			final int neighbor = neighbors[ni];
+			final double tentative = distance + length;
+			final long bits = Double.doubleToRawLongBits(tentative);
+			long current = (long) DISTANCES.getAcquire(distances, neighbor);
+			while (bits < current) {
+				if (DISTANCES.compareAndSet(distances, neighbor, current, bits)) {
+					aWorker.add((int) (bucketOf(tentative) & ringMask), neighbor);
+					break;
+				}
+				current = (long) DISTANCES.getAcquire(distances, neighbor);
+			}
+		}
+	}
+
+	/**
+	 * Finds the lowest non-empty bucket, starting from the given one.
+	 *
+	 * @return Index of the bucket; <code>-1</code> if all buckets are empty.
+	 */
+	private long nextBucket(long aFrom) {
+		long entries = 0;
+		for (final Buckets worker : workers)
+			entries += worker.entries;
+		if (entries == 0)
+			return -1;
+		for (long bucket = aFrom;; bucket++) {
+			final int slot = (int) (bucket & ringMask);
+			for (final Buckets worker : workers)
+				if (worker.sizes[slot] > 0)
+					return bucket;
+		}
+	}
+
+	/**
+	 * Hands the buckets of the next worker of a phase out, creating them if needed.
+	 */
+	private Buckets nextWorker() {
+		if (handedOut == workers.size())
+			workers.add(new Buckets(ringMask + 1));
+		return workers.get(handedOut++);
+	}
+
+	/**
+	 * Gets the index of the bucket of the given distance.
+	 */
+	private long bucketOf(double aDistance) {
+		return (long) (aDistance / bucketWidth);
+	}
+
+	/**
+	 * Advances the epoch of the given marks, clearing them when it wraps around.
+	 */
+	private static int nextEpoch(int[] aMarks, int aEpoch) {
+		if (++aEpoch == Integer.MAX_VALUE) {
+			Arrays.fill(aMarks, 0);
+			aEpoch = 1;
+		}
+		return aEpoch;
+	}
+
+	/**
+	 * Grows the given array, if needed, so that it has room at the given index.
+	 */
+	private static int[] ensureCapacity(int[] aArray, int aIndex) {
+		return (aIndex < aArray.length) ? aArray : Arrays.copyOf(aArray, 2 * aArray.length);
+	}
+
+	/**
+	 * Ring of buckets owned by a single worker.
+	 */
+	private static final class Buckets {
+
+		/**
+		 * Initializes a new, empty instance of <code>Buckets</code>.
+		 */
+		Buckets(int aRing) {
+			nodes = new int[aRing][];
+			sizes = new int[aRing];
+			entries = 0;
+		}
+
+		/**
+		 * Adds a node to the bucket in the given slot of the ring.
+		 */
+		void add(int aSlot, int aNode) {
+			final int size = sizes[aSlot];
+			if (nodes[aSlot] == null)
+				nodes[aSlot] = new int[INITIAL_CAPACITY];
+			else if (size == nodes[aSlot].length)
+				nodes[aSlot] = Arrays.copyOf(nodes[aSlot], 2 * size);
+			nodes[aSlot][size] = aNode;
+			sizes[aSlot] = size + 1;
+			entries++;
+		}
+
+		/**
+		 * Empties the bucket in the given slot of the ring.
+		 */
+		void empty(int aSlot) {
+			entries -= sizes[aSlot];
+			sizes[aSlot] = 0;
+		}
+
+		/**
+		 * Empties all buckets, keeping their arrays.
+		 */
+		void clear() {
+			Arrays.fill(sizes, 0);
+			entries = 0;
+		}
+
+		/**
+		 * Nodes in every bucket of the ring; <code>null</code> for the buckets never used.
+		 */
+		final int[][] nodes;
+
+		/**
+		 * Number of nodes in every bucket of the ring.
+		 */
+		final int[] sizes;
+
+		/**
+		 * Number of nodes in all buckets.
+		 */
+		long entries;
+	}
+
+	/**
+	 * Number of nodes.
+	 */
+	private final int numNodes;
+
+	/**
+	 * Offsets of the neighbor lists of the nodes.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Neighbor lists of the nodes.
+	 */
+	private final int[] neighbors;
+
+	/**
+	 * Lengths of the edges to the neighbors.
+	 */
+	private final double[] lengths;
+
+	/**
+	 * Width of the buckets; the edges no longer than it are light.
+	 */
+	private final double bucketWidth;
+
+	/**
+	 * Number of buckets in the ring of every worker minus one; the ring has a power of two buckets.
+	 */
+	private final int ringMask;
+
+	/**
+	 * Bits of the tentative distance of every node.
+	 */
+	private final long[] distances;
+
+	/**
+	 * Epoch in which every node last entered the frontier.
+	 */
+	private final int[] frontierMarks;
+
+	/**
+	 * Epoch in which every node was last added to {@link #settled}.
+	 */
+	private final int[] settledMarks;
+
+	/**
+	 * Epoch of the current frontier.
+	 */
+	private int frontierEpoch;
+
+	/**
+	 * Epoch of the current bucket.
+	 */
+	private int settledEpoch;
+
+	/**
+	 * Nodes whose light edges are relaxed in the current phase.
+	 */
+	private int[] frontier;
+
+	/**
+	 * Nodes that entered the current bucket, whose heavy edges are relaxed once it stays empty.
+	 */
+	private int[] settled;
+
+	/**
+	 * Number of nodes in {@link #settled}.
+	 */
+	private int settledCount;
+
+	/**
+	 * Buckets of the workers; the first one is used by the serial phases.
+	 */
+	private final List<Buckets> workers;
+
+	/**
+	 * Number of workers whose buckets were handed out in the current phase.
+	 */
+	private int handedOut;
+}
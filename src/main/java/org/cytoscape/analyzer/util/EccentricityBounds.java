@@ -0,0 +1,321 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+
+/**
+ * Exact eccentricities, diameter and radius of an undirected connected component, computed from a
+ * small number of breadth-first searches by bounding the eccentricities of the nodes (F.W. Takes and
+ * W.A. Kosters: Determining the Diameter of Small World Networks. CIKM 2011).
+ * <p>
+ * Every node keeps a lower and an upper bound of its eccentricity. A search from a node
+ * <code>v</code> gives the exact eccentricity <code>e(v)</code> of <code>v</code> and, for every
+ * node <code>w</code> at distance <code>d</code>, the bounds
+ * <code>max(e(v) - d, d) &lt;= e(w) &lt;= e(v) + d</code>. The sources are taken alternately as
+ * the node with the largest upper bound and the node with the smallest lower bound, the first one
+ * being a node of highest degree; the first two searches are therefore a double sweep. A node stops
+ * being a candidate source once its eccentricity is known, or once its bounds show that it can
+ * neither raise the diameter above the largest lower bound nor lower the radius below the smallest
+ * upper bound. The searches stop when the bounds of the diameter and the radius meet, or, when the
+ * eccentricities of all nodes are needed, when the bounds of every node meet.
+ * </p>
+ */
+public final class EccentricityBounds {
+
+	/**
+	 * Initializes a new instance of <code>EccentricityBounds</code>.
+	 *
+	 * @param aNumNodes
+	 *            Number of nodes in the connected component.
+	 * @param aOffsets
+	 *            Array with the indices of each node's first neighbor in <code>aNeighbors</code>.
+	 * @param aNeighbors
+	 *            Array with every node's neighbor indices.
+	 */
+	public EccentricityBounds(int aNumNodes, int[] aOffsets, int[] aNeighbors) {
+		numNodes = aNumNodes;
+		offsets = aOffsets;
+		neighbors = aNeighbors;
+		lower = new int[aNumNodes];
+		upper = new int[aNumNodes];
+		candidate = new boolean[aNumNodes];
+		workspace = new TraversalWorkspace(aNumNodes, 0);
+		for (int node = 0; node < aNumNodes; node++) {
+			upper[node] = Integer.MAX_VALUE;
+			candidate[node] = true;
+		}
+		diameter = 0;
+		radius = Integer.MAX_VALUE;
+		searchCount = 0;
+	}
+
+	/**
+	 * Computes the diameter and the radius of the component.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer performing the computation; the searches stop early if it is cancelled.
+	 */
+	public void computeExtremes(NetworkAnalyzer aAnalyzer) {
+		bound(aAnalyzer, false);
+	}
+
+	/**
+	 * Computes the eccentricity of every node of the component, and with it the diameter and the
+	 * radius.
+	 * <p>
+	 * The searches continue until the bounds of every node meet (F.W. Takes and W.A. Kosters:
+	 * Computing the Eccentricity Distribution of Large Graphs. Algorithms 6(1):100-118, 2013). A
+	 * node with a single neighbor is never searched from: in a component of more than two nodes,
+	 * its eccentricity is that of its neighbor plus one.
+	 * </p>
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer performing the computation; the searches stop early if it is cancelled.
+	 */
+	public void computeAll(NetworkAnalyzer aAnalyzer) {
+		bound(aAnalyzer, true);
+		if (numNodes < 2 || aAnalyzer.cancelled)
+			return;
+		diameter = 0;
+		radius = Integer.MAX_VALUE;
+		for (int node = 0; node < numNodes; node++) {
+			if (numNodes > 2 && degree(node) == 1) {
+				lower[node] = upper[node] = lower[neighbors[offsets[node]]] + 1;
+			}
+			diameter = Math.max(diameter, lower[node]);
+			radius = Math.min(radius, lower[node]);
+		}
+	}
+
+	/**
+	 * Gets the eccentricity of the given node. This method should be called only after the call to
+	 * {@link #computeAll(NetworkAnalyzer)}.
+	 *
+	 * @param aNode
+	 *            Index of the node.
+	 * @return Largest distance from <code>aNode</code> to any node of the component.
+	 */
+	public int getEccentricity(int aNode) {
+		return lower[aNode];
+	}
+
+	/**
+	 * Runs the searches until the bounds of the extremes, or of all nodes, meet.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer performing the computation.
+	 * @param aAllNodes
+	 *            Flag indicating if the eccentricities of all nodes are needed.
+	 */
+	private void bound(NetworkAnalyzer aAnalyzer, boolean aAllNodes) {
+		if (numNodes < 2)
+			return;
+		int candidates = numNodes;
+		if (aAllNodes && numNodes > 2) {
+			for (int node = 0; node < numNodes; node++) {
+				if (degree(node) == 1) {
+					candidate[node] = false;
+					candidates--;
+				}
+			}
+		}
+		boolean highUpper = true;
+		int source = highestDegree();
+		while (candidates > 0 && !aAnalyzer.cancelled) {
+			search(source);
+
+			int lowDiameter = 0, highDiameter = 0;
+			int lowRadius = Integer.MAX_VALUE, highRadius = Integer.MAX_VALUE;
+			for (int node = 0; node < numNodes; node++) {
+				lowDiameter = Math.max(lowDiameter, lower[node]);
+				highDiameter = Math.max(highDiameter, upper[node]);
+				lowRadius = Math.min(lowRadius, lower[node]);
+				highRadius = Math.min(highRadius, upper[node]);
+			}
+			diameter = lowDiameter;
+			radius = highRadius;
+			if (!aAllNodes && lowDiameter == highDiameter && lowRadius == highRadius)
+				break;
+
+			// Drop the candidates whose eccentricity is known, or that cannot change either extreme
+			for (int node = 0; node < numNodes; node++) {
+				if (candidate[node] && (lower[node] == upper[node]
+						|| (!aAllNodes && upper[node] <= lowDiameter && lower[node] >= highRadius))) {
+					candidate[node] = false;
+					candidates--;
+				}
+			}
+
+			source = -1;
+			for (int node = 0; node < numNodes; node++) {
+				if (!candidate[node])
+					continue;
+				if (source < 0) {
+					source = node;
+					continue;
+				}
+				final int better = highUpper ? upper[node] - upper[source] : lower[source] - lower[node];
+				if (better > 0 || (better == 0 && degree(node) > degree(source)))
+					source = node;
+			}
+			highUpper = !highUpper;
+		}
+	}
+
+	/**
+	 * Gets the diameter of the component.
+	 *
+	 * @return Largest eccentricity; <code>0</code> if the component has a single node.
+	 */
+	public int getDiameter() {
+		return diameter;
+	}
+
+	/**
+	 * Gets the radius of the component.
+	 *
+	 * @return Smallest eccentricity; <code>Integer.MAX_VALUE</code> if the component has a single
+	 *         node.
+	 */
+	public int getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Gets the number of breadth-first searches performed.
+	 *
+	 * @return Number of searches run so far.
+	 */
+	public int getSearchCount() {
+		return searchCount;
+	}
+
+	/**
+	 * Runs a breadth-first search from the given node and tightens the bounds of all nodes.
+	 */
+	private void search(int aSource) {
+		searchCount++;
+		final int epoch = workspace.nextEpoch();
+		final int[] visited = workspace.visited;
+		final int[] queue = workspace.queue;
+		final int[] distance = workspace.distance;
+		visited[aSource] = epoch;
+		distance[aSource] = 0;
+		queue[0] = aSource;
+		int head = 0, tail = 1;
+		while (head < tail) {
+			final int node = queue[head++];
+			final int next = distance[node] + 1;
+			for (int ni = offsets[node]; ni < offsets[node + 1]; ni++) {
+				final int neighbor = neighbors[ni];
+				if (visited[neighbor] != epoch) {
+					visited[neighbor] = epoch;
+					distance[neighbor] = next;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+
+		// The last node dequeued is one of the farthest
+		final int eccentricity = distance[queue[tail - 1]];
+		for (int i = 0; i < tail; i++) {
+			final int node = queue[i];
+			final int d = distance[node];
+			lower[node] = Math.max(lower[node], Math.max(eccentricity - d, d));
+			upper[node] = Math.min(upper[node], eccentricity + d);
+		}
+	}
+
+	/**
+	 * Finds a node of highest degree.
+	 */
+	private int highestDegree() {
+		int best = 0;
+		for (int node = 1; node < numNodes; node++)
+			if (degree(node) > degree(best))
+				best = node;
+		return best;
+	}
+
+	/**
+	 * Gets the number of neighbors of the given node.
+	 */
+	private int degree(int aNode) {
+		return offsets[aNode + 1] - offsets[aNode];
+	}
+
+	/**
+	 * Number of nodes in the component.
+	 */
+	private final int numNodes;
+
+	/**
+	 * Offsets of the neighbor lists of the nodes.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Neighbor lists of the nodes.
+	 */
+	private final int[] neighbors;
+
+	/**
+	 * Lower bound of the eccentricity of each node.
+	 */
+	private final int[] lower;
+
+	/**
+	 * Upper bound of the eccentricity of each node.
+	 */
+	private final int[] upper;
+
+	/**
+	 * Flags of the nodes that may still be chosen as sources.
+	 */
+	private final boolean[] candidate;
+
+	/**
+	 * Scratch arrays of the searches.
+	 */
+	private final TraversalWorkspace workspace;
+
+	/**
+	 * Largest lower bound of the eccentricities found so far.
+	 */
+	private int diameter;
+
+	/**
+	 * Smallest upper bound of the eccentricities found so far.
+	 */
+	private int radius;
+
+	/**
+	 * Number of breadth-first searches performed.
+	 */
+	private int searchCount;
+}
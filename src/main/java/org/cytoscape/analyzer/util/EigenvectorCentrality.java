@@ -0,0 +1,176 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+
+/**
+ * Eigenvector centrality of the nodes of a network (P. Bonacich: Factoring and Weighting Approaches
+ * to Status Scores and Clique Identification. Journal of Mathematical Sociology 2(1):113-120, 1972).
+ * <p>
+ * The centrality of a node is proportional to the sum of the centralities of its neighbors, or of
+ * its in-neighbors in a directed network: the centralities are the principal eigenvector of the
+ * adjacency matrix, scaled to unit Euclidean norm. They are found with a {@link PowerIteration}
+ * from the uniform vector. The iterations multiply by the adjacency matrix plus the identity, which
+ * has the same eigenvectors but never oscillates, e.g. on bipartite networks. They stop when the
+ * centralities change by at most <code>tolerance</code> in total.
+ * </p>
+ * <p>
+ * In a network of several connected components, the centralities concentrate on the component of
+ * the largest eigenvalue. In a directed network without cycles the principal eigenvalue is
+ * <code>0</code>, and the centralities concentrate on the ends of the longest paths.
+ * </p>
+ */
+public final class EigenvectorCentrality {
+
+	/**
+	 * Computes the eigenvector centrality of every node, sharing the nodes of every iteration among
+	 * the workers of the given analyzer.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer whose workers are used; the iterations stop early if it is cancelled.
+	 *            <code>null</code> to run the iterations serially on the calling thread.
+	 * @param aNumNodes
+	 *            Number of nodes.
+	 * @param aInOffsets
+	 *            Array with the indices of each node's first in-neighbor in <code>aInNeighbors</code>.
+	 * @param aInNeighbors
+	 *            Array with every node's in-neighbor indices. For an undirected network, these are
+	 *            the neighbors.
+	 * @param aTolerance
+	 *            Largest total change of the centralities in the last iteration.
+	 * @return Eigenvector centralities of the nodes.
+	 * @throws IllegalArgumentException
+	 *             If <code>aTolerance</code> is not positive.
+	 */
+	public static EigenvectorCentrality run(NetworkAnalyzer aAnalyzer, int aNumNodes, int[] aInOffsets,
+			int[] aInNeighbors, double aTolerance) {
+		if (!(aTolerance > 0))
+			throw new IllegalArgumentException("Centrality tolerance must be greater than 0.");
+		final EigenvectorCentrality centrality = new EigenvectorCentrality(aNumNodes);
+		if (aNumNodes > 0)
+			centrality.iterate(aAnalyzer, aInOffsets, aInNeighbors, aTolerance);
+		return centrality;
+	}
+
+	/**
+	 * Initializes a new instance of <code>EigenvectorCentrality</code>.
+	 */
+	private EigenvectorCentrality(int aNumNodes) {
+		numNodes = aNumNodes;
+		scores = new double[aNumNodes];
+		eigenvalue = 0;
+		iterations = 0;
+		converged = false;
+	}
+
+	/**
+	 * Gets the principal eigenvalue of the adjacency matrix.
+	 *
+	 * @return Rayleigh quotient of the centralities of the last iteration.
+	 */
+	public double getEigenvalue() {
+		return eigenvalue;
+	}
+
+	/**
+	 * Gets the number of iterations performed.
+	 *
+	 * @return Number of iterations.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Checks if the iterations converged within the tolerance, rather than being stopped by the
+	 * iteration limit or a cancellation.
+	 *
+	 * @return <code>true</code> if the centralities and the eigenvalue converged;
+	 *         <code>false</code> otherwise.
+	 */
+	public boolean isConverged() {
+		return converged;
+	}
+
+	/**
+	 * Iterates the centralities until they converge.
+	 */
+	private void iterate(NetworkAnalyzer aAnalyzer, int[] aInOffsets, int[] aInNeighbors, double aTolerance) {
+		final PowerIteration engine = new PowerIteration(aAnalyzer, numNodes);
+		double[] current = scores;
+		double[] next = new double[numNodes];
+		Arrays.fill(current, 1 / Math.sqrt(numNodes));
+
+		while (iterations < PowerIteration.MAX_ITERATIONS && !engine.isCancelled()) {
+			final double[] from = current;
+			engine.multiply(aInOffsets, aInNeighbors, from, null, next, (node, pulled) -> pulled + from[node]);
+			if (engine.isCancelled())
+				break;
+			// The current vector has unit norm, so this is the Rayleigh quotient of the shifted matrix
+			eigenvalue = engine.dot(current, next) - 1;
+			engine.normalize(next);
+			final double change = engine.distance(next, current);
+			iterations++;
+			current = next;
+			next = from;
+			if (change <= aTolerance) {
+				converged = true;
+				break;
+			}
+		}
+		if (current != scores)
+			System.arraycopy(current, 0, scores, 0, numNodes);
+	}
+
+	/**
+	 * Number of nodes.
+	 */
+	private final int numNodes;
+
+	/**
+	 * Eigenvector centrality of each node.
+	 */
+	public final double[] scores;
+
+	/**
+	 * Principal eigenvalue of the adjacency matrix.
+	 */
+	private double eigenvalue;
+
+	/**
+	 * Number of iterations performed.
+	 */
+	private int iterations;
+
+	/**
+	 * Flag indicating if the iterations converged within the tolerance.
+	 */
+	private boolean converged;
+}
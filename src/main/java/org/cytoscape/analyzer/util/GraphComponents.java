@@ -0,0 +1,160 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * Labelling of the nodes of a {@link GraphSnapshot} by (weakly) connected component.
+ * <p>
+ * The components are found in a single pass over the edges with a union-find structure. They are
+ * numbered in the order of their smallest node, and {@link #order} lists the nodes grouped by
+ * component: the nodes of component <code>c</code> are stored, in ascending order, at the
+ * positions <code>offsets[c]</code> to <code>offsets[c + 1] - 1</code>. Like those of the snapshot,
+ * the arrays are public and must not be modified once the components are found.
+ * </p>
+ */
+public final class GraphComponents {
+
+	/**
+	 * Finds the connected components of the given snapshot. Edge directions are ignored.
+	 *
+	 * @param aGraph
+	 *            Snapshot whose components are to be found.
+	 * @return Components of <code>aGraph</code>.
+	 */
+	public static GraphComponents of(GraphSnapshot aGraph) {
+		final int numNodes = aGraph.numNodes;
+		final int[] parent = new int[numNodes];
+		final int[] size = new int[numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			parent[i] = i;
+			size[i] = 1;
+		}
+		for (int e = 0; e < aGraph.numEdges; e++) {
+			int root1 = find(parent, aGraph.edgeSources[e]);
+			int root2 = find(parent, aGraph.edgeTargets[e]);
+			if (root1 == root2)
+				continue;
+			// Union by size keeps the trees shallow
+			if (size[root1] < size[root2]) {
+				final int swap = root1;
+				root1 = root2;
+				root2 = swap;
+			}
+			parent[root2] = root1;
+			size[root1] += size[root2];
+		}
+
+		// Number the components by their smallest node; reuse size as root -> component mapping
+		final int[] component = new int[numNodes];
+		Arrays.fill(size, -1);
+		int numComponents = 0;
+		for (int i = 0; i < numNodes; i++) {
+			final int root = find(parent, i);
+			if (size[root] < 0)
+				size[root] = numComponents++;
+			component[i] = size[root];
+		}
+
+		// Counting sort of the nodes by component
+		final int[] offsets = new int[numComponents + 1];
+		for (int i = 0; i < numNodes; i++)
+			offsets[component[i] + 1]++;
+		for (int c = 0; c < numComponents; c++)
+			offsets[c + 1] += offsets[c];
+		final int[] order = new int[numNodes];
+		final int[] fill = Arrays.copyOf(offsets, numComponents);
+		for (int i = 0; i < numNodes; i++)
+			order[fill[component[i]]++] = i;
+
+		return new GraphComponents(numComponents, component, order, offsets);
+	}
+
+	/**
+	 * Finds the root of the tree of the given node, halving the path on the way.
+	 */
+	private static int find(int[] aParent, int aNode) {
+		while (aParent[aNode] != aNode) {
+			aParent[aNode] = aParent[aParent[aNode]];
+			aNode = aParent[aNode];
+		}
+		return aNode;
+	}
+
+	/**
+	 * Initializes a new instance of <code>GraphComponents</code>.
+	 */
+	private GraphComponents(int aNumComponents, int[] aComponent, int[] aOrder, int[] aOffsets) {
+		numComponents = aNumComponents;
+		component = aComponent;
+		order = aOrder;
+		offsets = aOffsets;
+	}
+
+	/**
+	 * Gets the number of nodes in the given component.
+	 *
+	 * @param aComponent
+	 *            Component ID.
+	 * @return Size of the component.
+	 */
+	public int sizeOf(int aComponent) {
+		return offsets[aComponent + 1] - offsets[aComponent];
+	}
+
+	/**
+	 * Gets the nodes of the given component.
+	 *
+	 * @param aComponent
+	 *            Component ID.
+	 * @return New array with the indices of the nodes of the component, in ascending order.
+	 */
+	public int[] membersOf(int aComponent) {
+		return Arrays.copyOfRange(order, offsets[aComponent], offsets[aComponent + 1]);
+	}
+
+	/**
+	 * Number of connected components.
+	 */
+	public final int numComponents;
+
+	/**
+	 * Component ID of every node.
+	 */
+	public final int[] component;
+
+	/**
+	 * Permutation of the nodes that groups them by component.
+	 */
+	public final int[] order;
+
+	/**
+	 * Offsets of the components in {@link #order}.
+	 */
+	public final int[] offsets;
+}
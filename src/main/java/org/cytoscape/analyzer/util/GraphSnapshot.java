@@ -0,0 +1,541 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cytoscape.model.CyEdge;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyNode;
+
+/**
+ * Copy of the topology of a network, stored in primitive arrays.
+ * <p>
+ * Nodes are numbered from <code>0</code> to <code>numNodes - 1</code> and edges from <code>0</code>
+ * to <code>numEdges - 1</code>. The adjacency is kept in compressed sparse row (CSR) form in three
+ * views: the undirected view over all edges, and the out- and in-views over the directed edges.
+ * The neighbors of node <code>i</code> in a view are stored in ascending order at the positions
+ * <code>offsets[i]</code> to <code>offsets[i + 1] - 1</code> of the view's neighbor array. Every
+ * neighbor is listed once, however many edges connect the two nodes, and a node is never its own
+ * neighbor.
+ * </p>
+ * <p>
+ * Every neighbor position also carries an edge ID. In the undirected view, the ID identifies the
+ * unordered pair of nodes; in the directed views, the ordered pair (arc). IDs are numbered from
+ * <code>0</code> to <code>numPairs - 1</code> and <code>numArcs - 1</code>, respectively.
+ * </p>
+ * <p>
+ * A snapshot is built once per analysis, so the analyzers do not depend on the network while they
+ * traverse it. The kernels read the arrays directly, so they are public and not copied: they must
+ * not be modified once the snapshot is built. Under this convention a snapshot is safe to be read
+ * by several threads.
+ * </p>
+ */
+public final class GraphSnapshot {
+
+	/**
+	 * Creates a snapshot of the topology of the given network.
+	 *
+	 * @param aNetwork
+	 *            Network to be copied.
+	 * @return Snapshot of <code>aNetwork</code>, in which the nodes and the edges are numbered in
+	 *         the order of {@link CyNetwork#getNodeList()} and {@link CyNetwork#getEdgeList()}.
+	 */
+	public static GraphSnapshot of(CyNetwork aNetwork) {
+		final List<CyNode> nodeList = aNetwork.getNodeList();
+		final List<CyEdge> edgeList = aNetwork.getEdgeList();
+		final CyNode[] nodes = nodeList.toArray(new CyNode[nodeList.size()]);
+		final CyEdge[] edges = edgeList.toArray(new CyEdge[edgeList.size()]);
+		final Map<CyNode, Integer> nodeIndex = new HashMap<CyNode, Integer>(2 * nodes.length);
+		for (int i = 0; i < nodes.length; i++)
+			nodeIndex.put(nodes[i], Integer.valueOf(i));
+
+		final int[] sources = new int[edges.length];
+		final int[] targets = new int[edges.length];
+		final boolean[] directed = new boolean[edges.length];
+		for (int e = 0; e < edges.length; e++) {
+			sources[e] = nodeIndex.get(edges[e].getSource()).intValue();
+			targets[e] = nodeIndex.get(edges[e].getTarget()).intValue();
+			directed[e] = edges[e].isDirected();
+		}
+		return new GraphSnapshot(nodes, edges, nodeIndex, null, null, sources, targets, directed);
+	}
+
+	/**
+	 * Creates a snapshot of a graph given as an edge list. The snapshot is not backed by a network,
+	 * so {@link #nodes} and {@link #edges} are <code>null</code>.
+	 *
+	 * @param aNumNodes
+	 *            Number of nodes of the graph.
+	 * @param aSources
+	 *            Source node of every edge.
+	 * @param aTargets
+	 *            Target node of every edge.
+	 * @param aDirected
+	 *            Flag of every edge indicating if it is directed.
+	 * @return Snapshot of the graph.
+	 * @throws IllegalArgumentException
+	 *             If the edge arrays differ in length, or refer to a node that does not exist.
+	 */
+	public static GraphSnapshot of(int aNumNodes, int[] aSources, int[] aTargets, boolean[] aDirected) {
+		if (aSources.length != aTargets.length || aSources.length != aDirected.length)
+			throw new IllegalArgumentException("Edge arrays must have equal length");
+		for (int e = 0; e < aSources.length; e++)
+			if (aSources[e] < 0 || aSources[e] >= aNumNodes || aTargets[e] < 0 || aTargets[e] >= aNumNodes)
+				throw new IllegalArgumentException("Edge " + e + " refers to a node that does not exist");
+		return new GraphSnapshot(aNumNodes, aSources.clone(), aTargets.clone(), aDirected.clone());
+	}
+
+	/**
+	 * Creates the snapshot of the subgraph induced by the given nodes. The nodes keep their
+	 * relative order, so the subgraph is numbered monotonically and its neighbor lists stay sorted.
+	 * <p>
+	 * The nodes must be closed under adjacency, e.g. the nodes of one or more connected components;
+	 * an edge belongs to the subgraph if its source is among the given nodes.
+	 * </p>
+	 *
+	 * @param aMembers
+	 *            Indices of the nodes of the subgraph in this snapshot, in ascending order.
+	 * @return Snapshot of the subgraph; {@link #indexOf(CyNode)} of the subgraph translates the nodes
+	 *         to subgraph indices.
+	 */
+	public GraphSnapshot subgraph(int[] aMembers) {
+		int numSubEdges = 0;
+		for (final int member : aMembers)
+			numSubEdges += sourceOffsets[member + 1] - sourceOffsets[member];
+
+		final CyNode[] subNodes = (nodes != null) ? new CyNode[aMembers.length] : null;
+		final CyEdge[] subEdges = (edges != null) ? new CyEdge[numSubEdges] : null;
+		final int[] sources = new int[numSubEdges];
+		final int[] targets = new int[numSubEdges];
+		final boolean[] directed = new boolean[numSubEdges];
+		final int[] members = new int[aMembers.length];
+		final int[] memberEdges = new int[numSubEdges];
+		int e = 0;
+		for (int i = 0; i < aMembers.length; i++) {
+			final int member = aMembers[i];
+			members[i] = (globalIndex != null) ? globalIndex[member] : member;
+			if (subNodes != null)
+				subNodes[i] = nodes[member];
+			for (int si = sourceOffsets[member]; si < sourceOffsets[member + 1]; si++) {
+				final int edge = sourceEdges[si];
+				if (subEdges != null)
+					subEdges[e] = edges[edge];
+				sources[e] = i;
+				targets[e] = Arrays.binarySearch(aMembers, edgeTargets[edge]);
+				directed[e] = edgeDirected[edge];
+				memberEdges[e] = (globalEdgeIndex != null) ? globalEdgeIndex[edge] : edge;
+				e++;
+			}
+		}
+		return new GraphSnapshot(subNodes, subEdges, nodeIndex, members, memberEdges, sources, targets, directed);
+	}
+
+	/**
+	 * Initializes a new instance of <code>GraphSnapshot</code> that is not backed by a network.
+	 */
+	private GraphSnapshot(int aNumNodes, int[] aSources, int[] aTargets, boolean[] aDirected) {
+		this(null, null, null, null, null, aNumNodes, aSources, aTargets, aDirected);
+	}
+
+	/**
+	 * Initializes a new instance of <code>GraphSnapshot</code> that is backed by a network.
+	 */
+	private GraphSnapshot(CyNode[] aNodes, CyEdge[] aEdges, Map<CyNode, Integer> aNodeIndex, int[] aGlobalIndex,
+			int[] aGlobalEdgeIndex, int[] aSources, int[] aTargets, boolean[] aDirected) {
+		this(aNodes, aEdges, aNodeIndex, aGlobalIndex, aGlobalEdgeIndex,
+				aGlobalIndex != null ? aGlobalIndex.length : aNodes.length, aSources, aTargets, aDirected);
+	}
+
+	/**
+	 * Initializes a new instance of <code>GraphSnapshot</code> and builds its CSR views.
+	 */
+	private GraphSnapshot(CyNode[] aNodes, CyEdge[] aEdges, Map<CyNode, Integer> aNodeIndex, int[] aGlobalIndex,
+			int[] aGlobalEdgeIndex, int aNumNodes, int[] aSources, int[] aTargets, boolean[] aDirected) {
+		nodes = aNodes;
+		edges = aEdges;
+		nodeIndex = aNodeIndex;
+		globalIndex = aGlobalIndex;
+		globalEdgeIndex = aGlobalEdgeIndex;
+		numNodes = aNumNodes;
+		numEdges = aSources.length;
+		edgeSources = aSources;
+		edgeTargets = aTargets;
+		edgeDirected = aDirected;
+
+		// Edges grouped by source
+		sourceOffsets = new int[numNodes + 1];
+		for (int e = 0; e < numEdges; e++)
+			sourceOffsets[edgeSources[e] + 1]++;
+		for (int i = 0; i < numNodes; i++)
+			sourceOffsets[i + 1] += sourceOffsets[i];
+		sourceEdges = new int[numEdges];
+		final int[] fill = Arrays.copyOf(sourceOffsets, numNodes);
+		for (int e = 0; e < numEdges; e++)
+			sourceEdges[fill[edgeSources[e]]++] = e;
+
+		// Undirected view over all edges, directed views over the directed edges
+		final int[] degrees = new int[numNodes];
+		final int[] outDegrees = new int[numNodes];
+		final int[] inDegrees = new int[numNodes];
+		for (int e = 0; e < numEdges; e++) {
+			final int s = edgeSources[e], t = edgeTargets[e];
+			if (s == t)
+				continue;
+			degrees[s]++;
+			degrees[t]++;
+			if (edgeDirected[e]) {
+				outDegrees[s]++;
+				inDegrees[t]++;
+			}
+		}
+		final int[][] lists = new int[3][];
+		final int[] offsetsAll = prefixSums(degrees), offsetsOut = prefixSums(outDegrees), offsetsIn = prefixSums(inDegrees);
+		lists[0] = new int[offsetsAll[numNodes]];
+		lists[1] = new int[offsetsOut[numNodes]];
+		lists[2] = new int[offsetsIn[numNodes]];
+		for (int e = 0; e < numEdges; e++) {
+			final int s = edgeSources[e], t = edgeTargets[e];
+			if (s == t)
+				continue;
+			lists[0][offsetsAll[s] + --degrees[s]] = t;
+			lists[0][offsetsAll[t] + --degrees[t]] = s;
+			if (edgeDirected[e]) {
+				lists[1][offsetsOut[s] + --outDegrees[s]] = t;
+				lists[2][offsetsIn[t] + --inDegrees[t]] = s;
+			}
+		}
+		neighborOffsets = offsetsAll;
+		neighbors = sortAndCompact(offsetsAll, lists[0]);
+		outOffsets = offsetsOut;
+		outNeighbors = sortAndCompact(offsetsOut, lists[1]);
+		inOffsets = offsetsIn;
+		inNeighbors = sortAndCompact(offsetsIn, lists[2]);
+
+		// Pair IDs: numbered at the smaller node, looked up at the larger one
+		neighborPairs = new int[neighbors.length];
+		int pairs = 0;
+		for (int i = 0; i < numNodes; i++)
+			for (int ni = neighborOffsets[i]; ni < neighborOffsets[i + 1]; ni++)
+				if (i < neighbors[ni])
+					neighborPairs[ni] = pairs++;
+		for (int i = 0; i < numNodes; i++)
+			for (int ni = neighborOffsets[i]; ni < neighborOffsets[i + 1]; ni++)
+				if (neighbors[ni] < i)
+					neighborPairs[ni] = neighborPairs[find(neighborOffsets, neighbors, neighbors[ni], i)];
+		numPairs = pairs;
+
+		// Arc IDs: the position of the arc in the out-view
+		numArcs = outNeighbors.length;
+		inArcs = new int[inNeighbors.length];
+		for (int i = 0; i < numNodes; i++)
+			for (int ni = inOffsets[i]; ni < inOffsets[i + 1]; ni++)
+				inArcs[ni] = find(outOffsets, outNeighbors, inNeighbors[ni], i);
+	}
+
+	/**
+	 * Finds a neighbor of a node in one of the views of a snapshot.
+	 *
+	 * @param aOffsets
+	 *            Offsets of the view.
+	 * @param aNeighbors
+	 *            Neighbor array of the view.
+	 * @param aNode
+	 *            Node whose neighbor list is searched.
+	 * @param aNeighbor
+	 *            Neighbor to be found.
+	 * @return Position of <code>aNeighbor</code> in <code>aNeighbors</code>; <code>-1</code> if it is
+	 *         not a neighbor of <code>aNode</code>.
+	 */
+	public static int find(int[] aOffsets, int[] aNeighbors, int aNode, int aNeighbor) {
+		final int position = Arrays.binarySearch(aNeighbors, aOffsets[aNode], aOffsets[aNode + 1], aNeighbor);
+		return (position >= 0) ? position : -1;
+	}
+
+	/**
+	 * Gets the ID of the unordered pair of the given nodes.
+	 *
+	 * @return Pair ID; <code>-1</code> if the nodes are not adjacent or equal.
+	 */
+	public int pairOf(int aNode1, int aNode2) {
+		final int position = find(neighborOffsets, neighbors, aNode1, aNode2);
+		return (position >= 0) ? neighborPairs[position] : -1;
+	}
+
+	/**
+	 * Gets the ID of the arc from the first to the second given node.
+	 *
+	 * @return Arc ID; <code>-1</code> if there is no directed edge between the nodes in this
+	 *         direction, or the nodes are equal.
+	 */
+	public int arcOf(int aSource, int aTarget) {
+		return find(outOffsets, outNeighbors, aSource, aTarget);
+	}
+
+	/**
+	 * Gets the index of the given node in this snapshot.
+	 *
+	 * @param aNode
+	 *            Node of the network this snapshot was taken of.
+	 * @return Index of <code>aNode</code>; <code>-1</code> if the node is not part of this snapshot.
+	 */
+	public int indexOf(CyNode aNode) {
+		final Integer index = (nodeIndex != null) ? nodeIndex.get(aNode) : null;
+		if (index == null)
+			return -1;
+		if (globalIndex == null)
+			return index.intValue();
+		final int position = Arrays.binarySearch(globalIndex, index.intValue());
+		return (position >= 0) ? position : -1;
+	}
+
+	/**
+	 * Gets the values of the edges of this snapshot from values of the edges of the whole network.
+	 *
+	 * @param aValues
+	 *            Value of every edge of the snapshot of the whole network, indexed like its edges.
+	 * @return Value of every edge of this snapshot, indexed like its edges; <code>aValues</code>
+	 *         itself if this is the snapshot of the whole network.
+	 */
+	public double[] edgeValues(double[] aValues) {
+		if (globalEdgeIndex == null)
+			return aValues;
+		final double[] values = new double[numEdges];
+		for (int e = 0; e < numEdges; e++)
+			values[e] = aValues[globalEdgeIndex[e]];
+		return values;
+	}
+
+	/**
+	 * Computes the length of every neighbor position of the undirected view: the smallest length of
+	 * the edges, of either direction, that connect the two nodes.
+	 *
+	 * @param aEdgeLengths
+	 *            Length of every edge of this snapshot.
+	 * @return Lengths parallel to {@link #neighbors}.
+	 */
+	public double[] neighborLengths(double[] aEdgeLengths) {
+		final double[] lengths = new double[neighbors.length];
+		Arrays.fill(lengths, Double.POSITIVE_INFINITY);
+		for (int e = 0; e < numEdges; e++) {
+			final int s = edgeSources[e], t = edgeTargets[e];
+			if (s == t)
+				continue;
+			final int st = find(neighborOffsets, neighbors, s, t);
+			final int ts = find(neighborOffsets, neighbors, t, s);
+			lengths[st] = Math.min(lengths[st], aEdgeLengths[e]);
+			lengths[ts] = Math.min(lengths[ts], aEdgeLengths[e]);
+		}
+		return lengths;
+	}
+
+	/**
+	 * Computes the length of every arc: the smallest length of the directed edges from its source to
+	 * its target.
+	 *
+	 * @param aEdgeLengths
+	 *            Length of every edge of this snapshot.
+	 * @return Lengths indexed by arc ID, i.e. parallel to {@link #outNeighbors}.
+	 */
+	public double[] arcLengths(double[] aEdgeLengths) {
+		final double[] lengths = new double[numArcs];
+		Arrays.fill(lengths, Double.POSITIVE_INFINITY);
+		for (int e = 0; e < numEdges; e++) {
+			if (!edgeDirected[e] || edgeSources[e] == edgeTargets[e])
+				continue;
+			final int arc = arcOf(edgeSources[e], edgeTargets[e]);
+			lengths[arc] = Math.min(lengths[arc], aEdgeLengths[e]);
+		}
+		return lengths;
+	}
+
+	/**
+	 * Counts, for every node, the neighbors connected to it by more than one edge, whatever the
+	 * directions of the edges.
+	 *
+	 * @return Number of multi-edge partners of every node, indexed like the nodes.
+	 */
+	public int[] multiEdgePartners() {
+		final int[] pairEdges = new int[numPairs];
+		for (int e = 0; e < numEdges; e++)
+			if (edgeSources[e] != edgeTargets[e])
+				pairEdges[pairOf(edgeSources[e], edgeTargets[e])]++;
+		final int[] partners = new int[numNodes];
+		for (int i = 0; i < numNodes; i++)
+			for (int ni = neighborOffsets[i]; ni < neighborOffsets[i + 1]; ni++)
+				if (pairEdges[neighborPairs[ni]] > 1)
+					partners[i]++;
+		return partners;
+	}
+
+	/**
+	 * Converts the given node counts into CSR offsets.
+	 */
+	private static int[] prefixSums(int[] aCounts) {
+		final int[] offsets = new int[aCounts.length + 1];
+		for (int i = 0; i < aCounts.length; i++)
+			offsets[i + 1] = offsets[i] + aCounts[i];
+		return offsets;
+	}
+
+	/**
+	 * Sorts the neighbor list of every node, removes duplicate neighbors and updates the offsets.
+	 *
+	 * @return Compacted neighbor array.
+	 */
+	private static int[] sortAndCompact(int[] aOffsets, int[] aNeighbors) {
+		int length = 0;
+		int first = 0;
+		for (int i = 0; i + 1 < aOffsets.length; i++) {
+			final int last = aOffsets[i + 1];
+			Arrays.sort(aNeighbors, first, last);
+			aOffsets[i] = length;
+			for (int ni = first; ni < last; ni++)
+				if (ni == first || aNeighbors[ni] != aNeighbors[ni - 1])
+					aNeighbors[length++] = aNeighbors[ni];
+			first = last;
+		}
+		aOffsets[aOffsets.length - 1] = length;
+		return (length == aNeighbors.length) ? aNeighbors : Arrays.copyOf(aNeighbors, length);
+	}
+
+	/**
+	 * Number of nodes.
+	 */
+	public final int numNodes;
+
+	/**
+	 * Number of edges, including self-loops and multiple edges.
+	 */
+	public final int numEdges;
+
+	/**
+	 * Nodes of the network, by index; <code>null</code> if the snapshot is not backed by a network.
+	 */
+	public final CyNode[] nodes;
+
+	/**
+	 * Edges of the network, by index; <code>null</code> if the snapshot is not backed by a network.
+	 */
+	public final CyEdge[] edges;
+
+	/**
+	 * Source node of every edge.
+	 */
+	public final int[] edgeSources;
+
+	/**
+	 * Target node of every edge.
+	 */
+	public final int[] edgeTargets;
+
+	/**
+	 * Flag of every edge indicating if it is directed.
+	 */
+	public final boolean[] edgeDirected;
+
+	/**
+	 * Offsets of the edges of every node in {@link #sourceEdges}.
+	 */
+	public final int[] sourceOffsets;
+
+	/**
+	 * Indices of the edges, grouped by their source node.
+	 */
+	public final int[] sourceEdges;
+
+	/**
+	 * Offsets of the undirected view.
+	 */
+	public final int[] neighborOffsets;
+
+	/**
+	 * Neighbors in the undirected view, over all edges regardless of their direction.
+	 */
+	public final int[] neighbors;
+
+	/**
+	 * Pair IDs, parallel to {@link #neighbors}.
+	 */
+	public final int[] neighborPairs;
+
+	/**
+	 * Number of adjacent unordered pairs of nodes.
+	 */
+	public final int numPairs;
+
+	/**
+	 * Offsets of the out-view.
+	 */
+	public final int[] outOffsets;
+
+	/**
+	 * Targets of the directed edges leaving every node. The arc ID of a position is the position
+	 * itself.
+	 */
+	public final int[] outNeighbors;
+
+	/**
+	 * Offsets of the in-view.
+	 */
+	public final int[] inOffsets;
+
+	/**
+	 * Sources of the directed edges entering every node.
+	 */
+	public final int[] inNeighbors;
+
+	/**
+	 * Arc IDs, parallel to {@link #inNeighbors}.
+	 */
+	public final int[] inArcs;
+
+	/**
+	 * Number of arcs, i.e. of ordered pairs of nodes connected by a directed edge.
+	 */
+	public final int numArcs;
+
+	/**
+	 * Mapping of the nodes of the network to their indices in the snapshot of the whole network.
+	 */
+	private final Map<CyNode, Integer> nodeIndex;
+
+	/**
+	 * Indices of the nodes of a subgraph in the snapshot of the whole network; <code>null</code> if
+	 * this is the snapshot of the whole network.
+	 */
+	private final int[] globalIndex;
+
+	/**
+	 * Indices of the edges of a subgraph in the snapshot of the whole network; <code>null</code> if
+	 * this is the snapshot of the whole network.
+	 */
+	private final int[] globalEdgeIndex;
+}
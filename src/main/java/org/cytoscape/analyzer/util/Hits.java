@@ -0,0 +1,154 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+
+/**
+ * Hub and authority scores of the nodes of a directed network, computed with HITS
+ * (J.M. Kleinberg: Authoritative Sources in a Hyperlinked Environment. Journal of the ACM
+ * 46(5):604-632, 1999).
+ * <p>
+ * The authority score of a node is proportional to the sum of the hub scores of its in-neighbors,
+ * and the hub score of a node to the sum of the authority scores of its out-neighbors. Both are
+ * found with a {@link PowerIteration} from uniform hub scores, every iteration computing the
+ * authority scores from the hub scores and then the hub scores from the authority scores, each
+ * scaled to unit Euclidean norm. The iterations stop when the scores change by at most
+ * <code>tolerance</code> in total.
+ * </p>
+ */
+public final class Hits {
+
+	/**
+	 * Computes the hub and authority scores of every node, sharing the nodes of every iteration
+	 * among the workers of the given analyzer.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer whose workers are used; the iterations stop early if it is cancelled.
+	 *            <code>null</code> to run the iterations serially on the calling thread.
+	 * @param aNumNodes
+	 *            Number of nodes.
+	 * @param aOutOffsets
+	 *            Array with the indices of each node's first out-neighbor in <code>aOutNeighbors</code>.
+	 * @param aOutNeighbors
+	 *            Array with every node's out-neighbor indices.
+	 * @param aInOffsets
+	 *            Array with the indices of each node's first in-neighbor in <code>aInNeighbors</code>.
+	 * @param aInNeighbors
+	 *            Array with every node's in-neighbor indices.
+	 * @param aTolerance
+	 *            Largest total change of the hub and authority scores in the last iteration.
+	 * @return Hub and authority scores of the nodes.
+	 * @throws IllegalArgumentException
+	 *             If <code>aTolerance</code> is not positive.
+	 */
+	public static Hits run(NetworkAnalyzer aAnalyzer, int aNumNodes, int[] aOutOffsets, int[] aOutNeighbors,
+			int[] aInOffsets, int[] aInNeighbors, double aTolerance) {
+		if (!(aTolerance > 0))
+			throw new IllegalArgumentException("Centrality tolerance must be greater than 0.");
+		final Hits hits = new Hits(aNumNodes);
+		if (aNumNodes > 0)
+			hits.iterate(aAnalyzer, aOutOffsets, aOutNeighbors, aInOffsets, aInNeighbors, aTolerance);
+		return hits;
+	}
+
+	/**
+	 * Initializes a new instance of <code>Hits</code>.
+	 */
+	private Hits(int aNumNodes) {
+		numNodes = aNumNodes;
+		hubs = new double[aNumNodes];
+		authorities = new double[aNumNodes];
+		iterations = 0;
+	}
+
+	/**
+	 * Gets the number of iterations performed.
+	 *
+	 * @return Number of iterations.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Iterates the scores until they converge.
+	 */
+	private void iterate(NetworkAnalyzer aAnalyzer, int[] aOutOffsets, int[] aOutNeighbors, int[] aInOffsets,
+			int[] aInNeighbors, double aTolerance) {
+		final PowerIteration engine = new PowerIteration(aAnalyzer, numNodes);
+		double[] currentHubs = hubs, nextHubs = new double[numNodes];
+		double[] currentAuthorities = authorities, nextAuthorities = new double[numNodes];
+		Arrays.fill(currentHubs, 1 / Math.sqrt(numNodes));
+
+		while (iterations < PowerIteration.MAX_ITERATIONS && !engine.isCancelled()) {
+			engine.multiply(aInOffsets, aInNeighbors, currentHubs, null, nextAuthorities, null);
+			engine.normalize(nextAuthorities);
+			engine.multiply(aOutOffsets, aOutNeighbors, nextAuthorities, null, nextHubs, null);
+			engine.normalize(nextHubs);
+			if (engine.isCancelled())
+				break;
+			final double change = engine.distance(nextHubs, currentHubs)
+					+ engine.distance(nextAuthorities, currentAuthorities);
+			iterations++;
+			double[] swap = currentHubs;
+			currentHubs = nextHubs;
+			nextHubs = swap;
+			swap = currentAuthorities;
+			currentAuthorities = nextAuthorities;
+			nextAuthorities = swap;
+			if (change <= aTolerance)
+				break;
+		}
+		if (currentHubs != hubs)
+			System.arraycopy(currentHubs, 0, hubs, 0, numNodes);
+		if (currentAuthorities != authorities)
+			System.arraycopy(currentAuthorities, 0, authorities, 0, numNodes);
+	}
+
+	/**
+	 * Number of nodes.
+	 */
+	private final int numNodes;
+
+	/**
+	 * Hub score of each node.
+	 */
+	public final double[] hubs;
+
+	/**
+	 * Authority score of each node.
+	 */
+	public final double[] authorities;
+
+	/**
+	 * Number of iterations performed.
+	 */
+	private int iterations;
+}
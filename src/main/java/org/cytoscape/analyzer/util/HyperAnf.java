@@ -0,0 +1,307 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+
+/**
+ * Approximate shortest path lengths of a connected component, computed with HyperANF (P. Boldi,
+ * M. Rosa and S. Vigna: HyperANF: Approximating the Neighbourhood Function of Very Large Graphs on a
+ * Budget. WWW 2011).
+ * <p>
+ * Every node owns a HyperLogLog counter of <code>2<sup>registerBits</sup></code> one-byte
+ * registers. In iteration <code>t</code>, the counter of a node becomes the union of its own
+ * counter and those of its neighbors, so that it estimates the number of nodes within distance
+ * <code>t</code> of the node. The increase of the estimate in iteration <code>t</code> is the
+ * estimated number of nodes at distance exactly <code>t</code>. The iterations stop when no counter
+ * changes, which takes as many iterations as the (estimated) diameter of the component, each of
+ * them linear in the number of edges. Only the counters of neighbors that changed in the previous
+ * iteration are merged. The relative standard error of a counter is about
+ * <code>1.04 / sqrt(2<sup>registerBits</sup>)</code>.
+ * </p>
+ */
+public final class HyperAnf {
+
+	/**
+	 * Smallest number of register bits supported.
+	 */
+	public static final int MIN_REGISTER_BITS = 4;
+
+	/**
+	 * Largest number of register bits supported.
+	 */
+	public static final int MAX_REGISTER_BITS = 16;
+
+	/**
+	 * Runs HyperANF on a connected component, sharing the nodes of every iteration among the workers
+	 * of the given analyzer.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer whose workers are used; the iterations stop early if it is cancelled.
+	 * @param aNumNodes
+	 *            Number of nodes in the component.
+	 * @param aOffsets
+	 *            Array with the indices of each node's first neighbor in <code>aNeighbors</code>.
+	 * @param aNeighbors
+	 *            Array with every node's neighbor indices. For directed distances, these are the
+	 *            out-neighbors.
+	 * @param aRegisterBits
+	 *            Binary logarithm of the number of registers per counter.
+	 * @param aSeed
+	 *            Seed of the hash function of the counters.
+	 * @return Estimated path lengths of the component.
+	 * @throws IllegalArgumentException
+	 *             If <code>aRegisterBits</code> is out of range, or if the counters would not fit in
+	 *             an array.
+	 */
+	public static HyperAnf run(NetworkAnalyzer aAnalyzer, int aNumNodes, int[] aOffsets, int[] aNeighbors,
+			int aRegisterBits, long aSeed) {
+		if (aRegisterBits < MIN_REGISTER_BITS || aRegisterBits > MAX_REGISTER_BITS)
+			throw new IllegalArgumentException("Register bits must be between " + MIN_REGISTER_BITS + " and "
+					+ MAX_REGISTER_BITS + ".");
+		if (((long) aNumNodes << aRegisterBits) > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Too many HyperANF registers; use fewer register bits.");
+		final HyperAnf anf = new HyperAnf(aNumNodes, aRegisterBits);
+		anf.iterate(aAnalyzer, aOffsets, aNeighbors, aSeed);
+		return anf;
+	}
+
+	/**
+	 * Initializes a new instance of <code>HyperAnf</code>.
+	 */
+	private HyperAnf(int aNumNodes, int aRegisterBits) {
+		numNodes = aNumNodes;
+		registerBits = aRegisterBits;
+		registers = 1 << aRegisterBits;
+		sizes = new double[aNumNodes];
+		distanceSums = new double[aNumNodes];
+		harmonicSums = new double[aNumNodes];
+		distanceDistribution = new double[] { 0 };
+		diameter = 0;
+	}
+
+	/**
+	 * Gets the estimated diameter of the component.
+	 *
+	 * @return Number of the last iteration in which a counter changed.
+	 */
+	public int getDiameter() {
+		return diameter;
+	}
+
+	/**
+	 * Gets the estimated average shortest path length from the given node.
+	 *
+	 * @param aNode
+	 *            Index of the node.
+	 * @return Estimated average distance from <code>aNode</code> to the nodes reachable from it;
+	 *         <code>0</code> if no other node is reachable.
+	 */
+	public double getAverageLength(int aNode) {
+		final double reachable = sizes[aNode] - 1;
+		return (reachable > 0) ? distanceSums[aNode] / reachable : 0;
+	}
+
+	/**
+	 * Gets the estimated number of ordered node pairs at the given distance.
+	 *
+	 * @param aLength
+	 *            Length of the shortest paths, at least <code>1</code>.
+	 * @return Estimated number of pairs; <code>0</code> if <code>aLength</code> exceeds
+	 *         the diameter.
+	 */
+	public double getPairCount(int aLength) {
+		return (aLength < distanceDistribution.length) ? distanceDistribution[aLength] : 0;
+	}
+
+	/**
+	 * Iterates the counters until none of them changes.
+	 */
+	private void iterate(NetworkAnalyzer aAnalyzer, int[] aOffsets, int[] aNeighbors, long aSeed) {
+		byte[] current = new byte[numNodes << registerBits];
+		byte[] next = new byte[numNodes << registerBits];
+		boolean[] changed = new boolean[numNodes];
+		boolean[] nextChanged = new boolean[numNodes];
+		for (int node = 0; node < numNodes; node++) {
+			add(current, node, aSeed);
+			sizes[node] = estimate(current, node);
+			changed[node] = true;
+		}
+
+		boolean anyChanged = true;
+		for (int t = 1; anyChanged && !aAnalyzer.cancelled; t++) {
+			final int length = t;
+			final byte[] from = current, to = next;
+			final boolean[] fromChanged = changed, toChanged = nextChanged;
+			final List<double[]> workers = aAnalyzer.forEachSource(numNodes, () -> new double[1], (pairs, node) -> {
+				final int base = node << registerBits;
+				System.arraycopy(from, base, to, base, registers);
+				boolean grown = false;
+				for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++) {
+					final int neighbor = aNeighbors[ni];
+					// A neighbor that did not change was merged in the previous iteration already
+					if (fromChanged[neighbor] && neighbor != node)
+						grown |= union(to, base, from, neighbor << registerBits);
+				}
+				toChanged[node] = grown;
+				if (grown) {
+					final double size = Math.max(sizes[node], estimate(to, node));
+					final double found = size - sizes[node];
+					sizes[node] = size;
+					distanceSums[node] += length * found;
+					harmonicSums[node] += found / length;
+					pairs[0] += found;
+				}
+			});
+
+			double pairs = 0;
+			for (double[] worker : workers)
+				pairs += worker[0];
+			anyChanged = false;
+			for (int node = 0; node < numNodes && !anyChanged; node++)
+				anyChanged = nextChanged[node];
+			if (anyChanged) {
+				distanceDistribution = Arrays.copyOf(distanceDistribution, t + 1);
+				distanceDistribution[t] = pairs;
+				diameter = t;
+			}
+
+			current = next;
+			next = from;
+			changed = nextChanged;
+			nextChanged = fromChanged;
+		}
+	}
+
+	/**
+	 * Adds the given node to its own counter.
+	 */
+	private void add(byte[] aCounters, int aNode, long aSeed) {
+		final long hash = mix(aNode + aSeed * 0x9E3779B97F4A7C15L);
+		final int register = (int) (hash >>> (64 - registerBits));
+		// Position of the first one bit among the remaining bits; the sentinel bounds it
+		final long rest = (hash << registerBits) | (1L << (registerBits - 1));
+		final byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+		final int index = (aNode << registerBits) + register;
+		if (aCounters[index] < rank)
+			aCounters[index] = rank;
+	}
+
+	/**
+	 * Merges a counter into another.
+	 *
+	 * @return <code>true</code> if the target counter changed; <code>false</code> otherwise.
+	 */
+	private boolean union(byte[] aTo, int aToBase, byte[] aFrom, int aFromBase) {
+		boolean grown = false;
+		for (int r = 0; r < registers; r++) {
+			final byte value = aFrom[aFromBase + r];
+			if (aTo[aToBase + r] < value) {
+				aTo[aToBase + r] = value;
+				grown = true;
+			}
+		}
+		return grown;
+	}
+
+	/**
+	 * Computes the HyperLogLog estimate of the given counter, with the linear counting correction
+	 * for small cardinalities.
+	 */
+	private double estimate(byte[] aCounters, int aNode) {
+		final int base = aNode << registerBits;
+		double sum = 0;
+		int zeros = 0;
+		for (int r = 0; r < registers; r++) {
+			final byte value = aCounters[base + r];
+			sum += Math.scalb(1.0, -value);
+			if (value == 0)
+				zeros++;
+		}
+		final double m = registers;
+		final double alpha = (registers == 16) ? 0.673 : (registers == 32) ? 0.697 : (registers == 64) ? 0.709
+				: 0.7213 / (1 + 1.079 / m);
+		final double estimate = alpha * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0)
+			return m * Math.log(m / zeros);
+		return estimate;
+	}
+
+	/**
+	 * Scrambles the bits of the given value (the finalizer of SplitMix64).
+	 */
+	private static long mix(long aValue) {
+		long z = aValue + 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Number of nodes in the component.
+	 */
+	private final int numNodes;
+
+	/**
+	 * Binary logarithm of {@link #registers}.
+	 */
+	private final int registerBits;
+
+	/**
+	 * Number of registers per counter.
+	 */
+	private final int registers;
+
+	/**
+	 * Estimated number of nodes reachable from each node, the node itself included.
+	 */
+	private final double[] sizes;
+
+	/**
+	 * Estimated sum of the distances from each node to the nodes reachable from it.
+	 */
+	public final double[] distanceSums;
+
+	/**
+	 * Estimated sum of the inverse distances from each node to the nodes reachable from it.
+	 */
+	public final double[] harmonicSums;
+
+	/**
+	 * Estimated number of ordered node pairs at each distance; the element at index <code>0</code>
+	 * is unused.
+	 */
+	private double[] distanceDistribution;
+
+	/**
+	 * Estimated diameter of the component: the last iteration in which any counter changed.
+	 */
+	private int diameter;
+}
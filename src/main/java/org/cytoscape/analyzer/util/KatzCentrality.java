@@ -0,0 +1,147 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+
+/**
+ * Katz centrality of the nodes of a network (L. Katz: A New Status Index Derived from Sociometric
+ * Analysis. Psychometrika 18(1):39-43, 1953).
+ * <p>
+ * The centrality of a node counts the walks that end in it, a walk of length <code>k</code>
+ * weighted by <code>attenuation<sup>k</sup></code>: the centralities <code>x</code> solve
+ * <code>x = attenuation A<sup>T</sup> x + 1</code>. They are found with a {@link PowerIteration}
+ * from the vector of ones, which converges when the attenuation is below the inverse of the
+ * principal eigenvalue of the adjacency matrix <code>A</code>. The iterations stop when the
+ * centralities change by at most <code>tolerance</code> in total, relative to their sum, and the
+ * centralities are scaled to unit Euclidean norm.
+ * </p>
+ */
+public final class KatzCentrality {
+
+	/**
+	 * Computes the Katz centrality of every node, sharing the nodes of every iteration among the
+	 * workers of the given analyzer.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer whose workers are used; the iterations stop early if it is cancelled.
+	 *            <code>null</code> to run the iterations serially on the calling thread.
+	 * @param aNumNodes
+	 *            Number of nodes.
+	 * @param aInOffsets
+	 *            Array with the indices of each node's first in-neighbor in <code>aInNeighbors</code>.
+	 * @param aInNeighbors
+	 *            Array with every node's in-neighbor indices. For an undirected network, these are
+	 *            the neighbors.
+	 * @param aAttenuation
+	 *            Weight of a walk of length one; the iterations converge only if it is below the
+	 *            inverse of the principal eigenvalue of the adjacency matrix.
+	 * @param aTolerance
+	 *            Largest total change of the centralities in the last iteration, relative to their
+	 *            sum.
+	 * @return Katz centralities of the nodes.
+	 * @throws IllegalArgumentException
+	 *             If <code>aAttenuation</code> or <code>aTolerance</code> is not positive.
+	 */
+	public static KatzCentrality run(NetworkAnalyzer aAnalyzer, int aNumNodes, int[] aInOffsets,
+			int[] aInNeighbors, double aAttenuation, double aTolerance) {
+		if (!(aAttenuation > 0))
+			throw new IllegalArgumentException("Katz attenuation factor must be greater than 0.");
+		if (!(aTolerance > 0))
+			throw new IllegalArgumentException("Centrality tolerance must be greater than 0.");
+		final KatzCentrality centrality = new KatzCentrality(aNumNodes);
+		if (aNumNodes > 0)
+			centrality.iterate(aAnalyzer, aInOffsets, aInNeighbors, aAttenuation, aTolerance);
+		return centrality;
+	}
+
+	/**
+	 * Initializes a new instance of <code>KatzCentrality</code>.
+	 */
+	private KatzCentrality(int aNumNodes) {
+		numNodes = aNumNodes;
+		scores = new double[aNumNodes];
+		iterations = 0;
+	}
+
+	/**
+	 * Gets the number of iterations performed.
+	 *
+	 * @return Number of iterations.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Iterates the centralities until they converge.
+	 */
+	private void iterate(NetworkAnalyzer aAnalyzer, int[] aInOffsets, int[] aInNeighbors, double aAttenuation,
+			double aTolerance) {
+		final PowerIteration engine = new PowerIteration(aAnalyzer, numNodes);
+		final double[] ones = new double[numNodes];
+		Arrays.fill(ones, 1);
+		double[] current = scores;
+		double[] next = new double[numNodes];
+		System.arraycopy(ones, 0, current, 0, numNodes);
+
+		while (iterations < PowerIteration.MAX_ITERATIONS && !engine.isCancelled()) {
+			engine.multiply(aInOffsets, aInNeighbors, current, null, next,
+					(node, pulled) -> aAttenuation * pulled + 1);
+			if (engine.isCancelled())
+				break;
+			final double change = engine.distance(next, current);
+			final double sum = engine.dot(next, ones);
+			iterations++;
+			final double[] swap = current;
+			current = next;
+			next = swap;
+			if (change <= aTolerance * sum || Double.isInfinite(sum))
+				break;
+		}
+		engine.normalize(current);
+		if (current != scores)
+			System.arraycopy(current, 0, scores, 0, numNodes);
+	}
+
+	/**
+	 * Number of nodes.
+	 */
+	private final int numNodes;
+
+	/**
+	 * Katz centrality of each node.
+	 */
+	public final double[] scores;
+
+	/**
+	 * Number of iterations performed.
+	 */
+	private int iterations;
+}
@@ -0,0 +1,91 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2013
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as 
+ * published by the Free Software Foundation, either version 2.1 of the 
+ * License, or (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Lesser Public 
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+/**
+ * Enumeration on the tiers of topological parameters a network analysis can be restricted to.
+ * <p>
+ * Every tier includes the parameters of the tiers before it. The cost of the analysis grows from
+ * linear in the number of edges for {@link #DEGREE} to a search from every node for {@link #PATHS}
+ * and {@link #ALL}.
+ * </p>
+ */
+public enum MetricTier {
+
+	/**
+	 * Degrees, degree distributions, isolated nodes, self-loops and multi-edge node pairs.
+	 */
+	DEGREE("degree"),
+
+	/**
+	 * Parameters of the neighborhood of each node: clustering coefficient, topological coefficient
+	 * and neighborhood connectivity. PageRank, which takes a few passes over the edges, is computed
+	 * from this tier on.
+	 */
+	LOCAL("local"),
+
+	/**
+	 * Parameters of the shortest path lengths: eccentricity, average shortest path length, closeness,
+	 * radiality, diameter, radius, path length and shared neighbors distributions.
+	 */
+	PATHS("paths"),
+
+	/**
+	 * All parameters, including node and edge betweenness and stress.
+	 */
+	ALL("all");
+
+	/**
+	 * Initializes a new tier.
+	 * 
+	 * @param aLabel Name of the tier, as shown to the user.
+	 */
+	private MetricTier(String aLabel) {
+		label = aLabel;
+	}
+
+	/**
+	 * Checks if the parameters of the given tier are computed in this tier.
+	 * 
+	 * @param aTier Tier to be checked.
+	 * @return <code>true</code> if <code>aTier</code> is this tier or comes before it;
+	 *         <code>false</code> otherwise.
+	 */
+	public boolean includes(MetricTier aTier) {
+		return compareTo(aTier) >= 0;
+	}
+
+	@Override
+	public String toString() {
+		return label;
+	}
+
+	/**
+	 * Name of the tier, as shown to the user.
+	 */
+	private final String label;
+}
@@ -70,21 +70,28 @@ public class Msgs {
 		simpleParams = new HashMap<String, String>(16);
 		simpleParams.put("networkTitle", "");
 		simpleParams.put("time", "Analysis time (sec)");
+		simpleParams.put("writeTime", "Attribute write time (sec)");
 		simpleParams.put("nodeCount", "Number of nodes");
+		simpleParams.put("nodeSubset", "Analyzed nodes (selection)");
 		simpleParams.put("edgeCount", "Number of edges");
 		simpleParams.put("density", "Network density");
 		simpleParams.put("heterogeneity", "Network heterogeneity");
 		simpleParams.put("centralization", "Network centralization");
 		simpleParams.put("avNeighbors", "Avg. number of neighbors");
 		simpleParams.put("ncc", "Connected components");
+		simpleParams.put("degeneracy", "Degeneracy (largest k-core)");
 		simpleParams.put("connPairs", "Shortest paths");
 		simpleParams.put("diameter", "Network diameter");
 		simpleParams.put("radius", "Network radius");
 		simpleParams.put("avSpl", "Characteristic path length");
+		simpleParams.put("efficiency", "Global efficiency");
 		simpleParams.put("cc", "Clustering coefficient");
 		simpleParams.put("nsl", "Number of self-loops");
 		simpleParams.put("mnp", "Multi-edge node pairs");
 		simpleParams.put("usn", "Isolated nodes");
+		simpleParams.put("edgeWeights", "Edge weight column");
+		simpleParams.put("nbtSources", "Betweenness sources");
+		simpleParams.put("nbtError", "Betweenness error bound");
 
 		nodeAttributes = new HashMap<String, String>(32);
 		nodeAttributes.put("spl", "Eccentricity");
@@ -92,6 +99,7 @@ public class Msgs {
 		nodeAttributes.put("tco", "TopologicalCoefficient");
 		nodeAttributes.put("apl", "AverageShortestPathLength");
 		nodeAttributes.put("clc", "ClosenessCentrality");
+		nodeAttributes.put("hrc", "HarmonicCentrality");
 		nodeAttributes.put("isn", "IsSingleNode");
 		nodeAttributes.put("nco", "NeighborhoodConnectivity");
 		nodeAttributes.put("nde", "NumberOfDirectedEdges");
@@ -104,11 +112,18 @@ public class Msgs {
 		nodeAttributes.put("nbt", "BetweennessCentrality");
 		nodeAttributes.put("rad", "Radiality");
 		nodeAttributes.put("stress", "Stress");
+		nodeAttributes.put("prk", "PageRank");
+		nodeAttributes.put("kco", "KCore");
+		nodeAttributes.put("evc", "EigenvectorCentrality");
+		nodeAttributes.put("kac", "KatzCentrality");
+		nodeAttributes.put("hub", "HubScore");
+		nodeAttributes.put("aut", "AuthorityScore");
 
 		dirNodeAttributes = new HashSet<String>(16);
 		dirNodeAttributes.add("Eccentricity");
 		dirNodeAttributes.add("AverageShortestPathLength");
 		dirNodeAttributes.add("ClosenessCentrality");
+		dirNodeAttributes.add("HarmonicCentrality");
 		dirNodeAttributes.add("ClusteringCoefficient");
 		dirNodeAttributes.add("Indegree");
 		dirNodeAttributes.add("Outdegree");
@@ -119,6 +134,12 @@ public class Msgs {
 		dirNodeAttributes.add("NeighborhoodConnectivity");
 		dirNodeAttributes.add("BetweennessCentrality");
 		dirNodeAttributes.add("Stress");
+		dirNodeAttributes.add("PageRank");
+		dirNodeAttributes.add("KCore");
+		dirNodeAttributes.add("EigenvectorCentrality");
+		dirNodeAttributes.add("KatzCentrality");
+		dirNodeAttributes.add("HubScore");
+		dirNodeAttributes.add("AuthorityScore");
 
 		undirNodeAttributes = new HashSet<String>(16);
 		undirNodeAttributes.add("Degree");
@@ -128,6 +149,7 @@ public class Msgs {
 		undirNodeAttributes.add("Eccentricity");
 		undirNodeAttributes.add("AverageShortestPathLength");
 		undirNodeAttributes.add("ClosenessCentrality");
+		undirNodeAttributes.add("HarmonicCentrality");
 		undirNodeAttributes.add("BetweennessCentrality");
 		undirNodeAttributes.add("Stress");
 		undirNodeAttributes.add("Radiality");
@@ -136,6 +158,10 @@ public class Msgs {
 		undirNodeAttributes.add("NumberOfUndirectedEdges");
 		undirNodeAttributes.add("NumberOfDirectedEdges");
 		undirNodeAttributes.add("PartnerOfMultiEdgedNodePairs");
+		undirNodeAttributes.add("PageRank");
+		undirNodeAttributes.add("KCore");
+		undirNodeAttributes.add("EigenvectorCentrality");
+		undirNodeAttributes.add("KatzCentrality");
 
 		edgeAttributes = new HashMap<String, String>(2);
 		edgeAttributes.put("ebt", "EdgeBetweenness");
@@ -58,19 +58,26 @@ public class NetworkStats {
 	public static final String[] simpleParams = new String[] {
 		"cc",
 		"ncc",
+		"degeneracy",
 		"diameter",
 		"radius",
 		"centralization",
 		"connPairs",
 		"avSpl",
+		"efficiency",
 		"avNeighbors",
 		"nodeCount",
+		"nodeSubset",
 		"edgeCount",
 		"density",
 		"heterogeneity",
 		"usn",
 		"nsl",
 		"mnp",
+		"edgeWeights",
+		"nbtSources",
+		"nbtError",
+		"writeTime",
 		"time"
 	};
 
@@ -143,9 +150,9 @@ public class NetworkStats {
 		if (NetworkAnalyzer.verbose) 	System.out.println(jsonOutput(params));
 	}
 	
-	static String[] keys = {"networkTitle", "", "nodeCount", "edgeCount", "avNeighbors", "diameter", "radius", "avSpl",
+	static String[] keys = {"networkTitle", "", "nodeCount", "nodeSubset", "edgeCount", "avNeighbors", "diameter", "radius", "avSpl", "efficiency",
 			"", "cc", "density", 	"heterogeneity", "centralization", 
-			"", "ncc", "mnp", "nsl", "", "time"	};
+			"", "ncc", "degeneracy", "mnp", "nsl", "", "edgeWeights", "nbtSources", "nbtError", "", "writeTime", "time"	};
 
 
 	String inQuotes(String s)	{ return '"' + s + '"'; }
@@ -0,0 +1,227 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+
+/**
+ * PageRank of the nodes of a network (L. Page, S. Brin, R. Motwani and T. Winograd: The PageRank
+ * Citation Ranking: Bringing Order to the Web. Stanford InfoLab, 1999).
+ * <p>
+ * The ranks are the stationary distribution of a random surfer who follows a random out-link of the
+ * current node with probability <code>damping</code>, and jumps to a node chosen uniformly at random
+ * otherwise. A dangling node, which has no out-links, always jumps, so that its rank is spread over
+ * all nodes and the ranks keep summing to <code>1</code>. Starting from the uniform distribution,
+ * every iteration pulls the rank of each node from its in-neighbors with a {@link PowerIteration},
+ * reading only the ranks of the previous iteration. The iterations stop when the ranks change by at
+ * most <code>tolerance</code> in total.
+ * </p>
+ * <p>
+ * Optionally, every {@link #EXTRAPOLATION_PERIOD} iterations the ranks are replaced by their
+ * quadratic extrapolation from the last four iterates (S.D. Kamvar, T.H. Haveliwala, C.D. Manning
+ * and G.H. Golub: Extrapolation Methods for Accelerating PageRank Computations. WWW 2003), which
+ * removes most of the error along the next two eigenvectors of the iteration. It pays off on
+ * networks with hubs and for damping factors close to <code>1</code>.
+ * </p>
+ */
+public final class PageRank {
+
+	/**
+	 * Number of iterations between two extrapolations of the ranks.
+	 */
+	public static final int EXTRAPOLATION_PERIOD = 10;
+
+	/**
+	 * Computes the PageRank of every node, sharing the nodes of every iteration among the workers of
+	 * the given analyzer.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer whose workers are used; the iterations stop early if it is cancelled.
+	 *            <code>null</code> to run the iterations serially on the calling thread.
+	 * @param aNumNodes
+	 *            Number of nodes.
+	 * @param aOutOffsets
+	 *            Array with the offsets of the out-neighbors of each node, from which the out-degrees
+	 *            are taken.
+	 * @param aInOffsets
+	 *            Array with the indices of each node's first in-neighbor in <code>aInNeighbors</code>.
+	 * @param aInNeighbors
+	 *            Array with every node's in-neighbor indices. For an undirected network, the
+	 *            in-neighbors and the out-neighbors are both the neighbors.
+	 * @param aDamping
+	 *            Probability of following a link rather than jumping to a random node.
+	 * @param aTolerance
+	 *            Largest total change of the ranks in the last iteration.
+	 * @param aExtrapolate
+	 *            Flag indicating if the ranks are periodically extrapolated.
+	 * @return PageRank of the nodes.
+	 * @throws IllegalArgumentException
+	 *             If <code>aDamping</code> is not between <code>0</code> and <code>1</code>, or if
+	 *             <code>aTolerance</code> is not positive.
+	 */
+	public static PageRank run(NetworkAnalyzer aAnalyzer, int aNumNodes, int[] aOutOffsets, int[] aInOffsets,
+			int[] aInNeighbors, double aDamping, double aTolerance, boolean aExtrapolate) {
+		if (!(aDamping > 0 && aDamping < 1))
+			throw new IllegalArgumentException("PageRank damping factor must be greater than 0 and less than 1.");
+		if (!(aTolerance > 0))
+			throw new IllegalArgumentException("PageRank tolerance must be greater than 0.");
+		final PageRank pageRank = new PageRank(aNumNodes, aOutOffsets);
+		if (aNumNodes > 0)
+			pageRank.iterate(aAnalyzer, aInOffsets, aInNeighbors, aDamping, aTolerance, aExtrapolate);
+		return pageRank;
+	}
+
+	/**
+	 * Initializes a new instance of <code>PageRank</code>.
+	 */
+	private PageRank(int aNumNodes, int[] aOutOffsets) {
+		numNodes = aNumNodes;
+		ranks = new double[aNumNodes];
+		inverseDegrees = new double[aNumNodes];
+		danglingNodes = new double[aNumNodes];
+		for (int node = 0; node < aNumNodes; node++) {
+			final int degree = aOutOffsets[node + 1] - aOutOffsets[node];
+			inverseDegrees[node] = (degree > 0) ? 1.0 / degree : 0;
+			danglingNodes[node] = (degree > 0) ? 0 : 1;
+		}
+		iterations = 0;
+	}
+
+	/**
+	 * Gets the number of iterations performed.
+	 *
+	 * @return Number of iterations, extrapolations not included.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Iterates the ranks until they converge.
+	 */
+	private void iterate(NetworkAnalyzer aAnalyzer, int[] aInOffsets, int[] aInNeighbors, double aDamping,
+			double aTolerance, boolean aExtrapolate) {
+		final PowerIteration engine = new PowerIteration(aAnalyzer, numNodes);
+		// The last three iterates before the current one, the oldest first
+		final double[][] history = aExtrapolate ? new double[3][numNodes] : null;
+		double[] current = ranks;
+		double[] next = new double[numNodes];
+		Arrays.fill(current, 1.0 / numNodes);
+		double dangling = engine.dot(current, danglingNodes);
+
+		while (iterations < PowerIteration.MAX_ITERATIONS && !engine.isCancelled()) {
+			final double jump = ((1 - aDamping) + aDamping * dangling) / numNodes;
+			engine.multiply(aInOffsets, aInNeighbors, current, inverseDegrees, next,
+					(node, pulled) -> jump + aDamping * pulled);
+			if (engine.isCancelled())
+				break;
+			final double change = engine.distance(next, current);
+			dangling = engine.dot(next, danglingNodes);
+			iterations++;
+			final double[] swap = current;
+			current = next;
+			next = swap;
+			if (change <= aTolerance)
+				break;
+
+			if (aExtrapolate) {
+				final int phase = iterations % EXTRAPOLATION_PERIOD;
+				if (phase == 0) {
+					extrapolate(history, current);
+					dangling = engine.dot(current, danglingNodes);
+				} else if (phase >= EXTRAPOLATION_PERIOD - 3) {
+					System.arraycopy(current, 0, history[phase - (EXTRAPOLATION_PERIOD - 3)], 0, numNodes);
+				}
+			}
+		}
+		if (current != ranks)
+			System.arraycopy(current, 0, ranks, 0, numNodes);
+	}
+
+	/**
+	 * Replaces the current ranks by their quadratic extrapolation from the last four iterates, and
+	 * normalizes them to sum to <code>1</code>. The extrapolation is skipped if the differences of
+	 * the iterates are degenerate.
+	 */
+	private void extrapolate(double[][] aHistory, double[] aCurrent) {
+		final double[] x0 = aHistory[0], x1 = aHistory[1], x2 = aHistory[2];
+		// Least squares fit of the differences from x0 as y3 + g1 y1 + g2 y2 = 0
+		double a11 = 0, a12 = 0, a22 = 0, b1 = 0, b2 = 0;
+		for (int node = 0; node < numNodes; node++) {
+			final double y1 = x1[node] - x0[node];
+			final double y2 = x2[node] - x0[node];
+			final double y3 = aCurrent[node] - x0[node];
+			a11 += y1 * y1;
+			a12 += y1 * y2;
+			a22 += y2 * y2;
+			b1 -= y1 * y3;
+			b2 -= y2 * y3;
+		}
+		final double determinant = a11 * a22 - a12 * a12;
+		if (!(Math.abs(determinant) > 1.0e-12 * a11 * a22))
+			return;
+		final double g1 = (a22 * b1 - a12 * b2) / determinant;
+		final double g2 = (a11 * b2 - a12 * b1) / determinant;
+		final double beta0 = g1 + g2 + 1, beta1 = g2 + 1;
+		double sum = 0;
+		for (int node = 0; node < numNodes; node++) {
+			final double rank = beta0 * x1[node] + beta1 * x2[node] + aCurrent[node];
+			// A poor fit can extrapolate a small rank below zero
+			aCurrent[node] = Math.max(rank, 0);
+			sum += aCurrent[node];
+		}
+		for (int node = 0; node < numNodes; node++)
+			aCurrent[node] /= sum;
+	}
+
+	/**
+	 * Number of nodes.
+	 */
+	private final int numNodes;
+
+	/**
+	 * Inverse of the out-degree of each node; <code>0</code> for the dangling nodes.
+	 */
+	private final double[] inverseDegrees;
+
+	/**
+	 * Indicator of the dangling nodes: <code>1</code> for a dangling node, <code>0</code> otherwise.
+	 */
+	private final double[] danglingNodes;
+
+	/**
+	 * PageRank of each node. The ranks sum to <code>1</code>.
+	 */
+	public final double[] ranks;
+
+	/**
+	 * Number of iterations performed.
+	 */
+	private int iterations;
+}
@@ -36,14 +36,28 @@ public class PathLengthData {
 	private int count;
 	private long totalLength;
 	private int maxLength;
+	private double weightedLength;
+	private double harmonicSum;
+	// Inverse of maxLength; the searches add the lengths in ascending order, so it is mostly reused
+	private double inverseMaxLength;
 
 	/**
 	 * Initializes a new instance of <code>PathLengthData</code>.
 	 */
 	public PathLengthData() {
+		reset();
+	}
+
+	/**
+	 * Removes all accumulated shortest path lengths, so that this instance can be reused.
+	 */
+	public void reset() {
 		count = 0;
 		totalLength = 0;
 		maxLength = 0;
+		weightedLength = 0;
+		harmonicSum = 0;
+		inverseMaxLength = 0;
 	}
 
 	/**
@@ -56,13 +70,47 @@ public class PathLengthData {
 		totalLength += aLength;
 		if (maxLength < aLength) {
 			maxLength = aLength;
+			inverseMaxLength = 1.0 / aLength;
 		}
+		harmonicSum += (aLength == maxLength) ? inverseMaxLength : 1.0 / aLength;
+	}
+
+	/**
+	 * Accumulates the length of a shortest path over weighted edges. A search accumulates either
+	 * numbers of edges, with {@link #addSPL(int)}, or weighted lengths, which do not count towards the
+	 * total and the maximum number of edges.
+	 * 
+	 * @param aLength Positive length of the shortest path to be accumulated.
+	 */
+	public void addWeightedSPL(double aLength) {
+		count++;
+		weightedLength += aLength;
+		harmonicSum += 1.0 / aLength;
 	}
 
 	public int getCount() {		return count;	}
 	public long getTotalLength() {		return totalLength;	}
 	public int getMaxLength() {		return maxLength;	}
+
+	/**
+	 * Gets the sum of the accumulated weighted shortest path lengths.
+	 * 
+	 * @return Sum of the lengths added by {@link #addWeightedSPL(double)}; <code>0</code> if none.
+	 */
+	public double getWeightedLength() {
+		return weightedLength;
+	}
+
+	/**
+	 * Gets the sum of the inverses of the accumulated shortest path lengths.
+	 * 
+	 * @return Sum of <code>1 / length</code> over all accumulated lengths; <code>0</code> if none.
+	 */
+	public double getHarmonicSum() {
+		return harmonicSum;
+	}
+
 	public double getAverageLength() {
-		return (count == 0) ? 0 :((double) totalLength) / count;
+		return (count == 0) ? 0 :((double) totalLength + weightedLength) / count;
 	}
 }
@@ -0,0 +1,232 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.function.IntConsumer;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+
+/**
+ * Engine of the iterative centralities, which multiply a vector over the nodes by the adjacency
+ * matrix of the network until it converges: {@link PageRank}, {@link EigenvectorCentrality},
+ * {@link KatzCentrality} and {@link Hits}.
+ * <p>
+ * The adjacency is given in the compressed form of {@link GraphSnapshot}, and a product pulls the
+ * value of every node from its neighbors in the given view. The nodes are split into fixed blocks,
+ * which are shared among the workers of the analyzer. The sums over all nodes are taken per block,
+ * and the blocks in order, so that the results do not depend on the number of workers.
+ * </p>
+ */
+public final class PowerIteration {
+
+	/**
+	 * Largest number of iterations of a centrality; the values of the last iteration are returned
+	 * if they have not converged by then.
+	 */
+	public static final int MAX_ITERATIONS = 1000;
+
+	/**
+	 * Number of nodes per block. The blocks are the units of work of the workers.
+	 */
+	private static final int BLOCK_SIZE = 256;
+
+	/**
+	 * Function computing the new value of a node from the sum pulled from its neighbors.
+	 */
+	public interface NodeUpdate {
+
+		/**
+		 * Computes the new value of a node.
+		 *
+		 * @param aNode
+		 *            Index of the node.
+		 * @param aPulled
+		 *            Sum of the values of the neighbors of the node.
+		 * @return New value of the node.
+		 */
+		double apply(int aNode, double aPulled);
+	}
+
+	/**
+	 * Initializes a new instance of <code>PowerIteration</code>.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer whose workers are used; the iterations stop early if it is cancelled.
+	 *            <code>null</code> to run the iterations serially on the calling thread.
+	 * @param aNumNodes
+	 *            Number of nodes.
+	 */
+	public PowerIteration(NetworkAnalyzer aAnalyzer, int aNumNodes) {
+		analyzer = aAnalyzer;
+		numNodes = aNumNodes;
+		blocks = (aNumNodes + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		blockSums = new double[blocks];
+	}
+
+	/**
+	 * Checks if the iterations must stop because the analyzer has been cancelled.
+	 *
+	 * @return <code>true</code> if the analyzer, if any, has been cancelled; <code>false</code>
+	 *         otherwise.
+	 */
+	public boolean isCancelled() {
+		return analyzer != null && analyzer.cancelled;
+	}
+
+	/**
+	 * Multiplies a vector by the adjacency matrix: every node pulls the weighted values of its
+	 * neighbors.
+	 *
+	 * @param aOffsets
+	 *            Array with the indices of each node's first neighbor in <code>aNeighbors</code>.
+	 * @param aNeighbors
+	 *            Array with every node's neighbor indices; in a directed network, the in-neighbors
+	 *            pull along the arcs and the out-neighbors against them.
+	 * @param aFrom
+	 *            Values of the nodes.
+	 * @param aWeights
+	 *            Weight of the value of every node; <code>null</code> for unit weights.
+	 * @param aTo
+	 *            Array to store the new values of the nodes in; distinct from <code>aFrom</code>.
+	 * @param aUpdate
+	 *            Function computing the new value of a node from the sum pulled from its neighbors;
+	 *            <code>null</code> to store the sum itself.
+	 */
+	public void multiply(int[] aOffsets, int[] aNeighbors, double[] aFrom, double[] aWeights, double[] aTo,
+			NodeUpdate aUpdate) {
+		forEachBlock(block -> {
+			final int last = Math.min(numNodes, (block + 1) * BLOCK_SIZE);
+			for (int node = block * BLOCK_SIZE; node < last; node++) {
+				double pulled = 0;
+				if (aWeights == null) {
+					for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++)
+						pulled += aFrom[aNeighbors[ni]];
+				} else {
+					for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++) {
+						final int neighbor = aNeighbors[ni];
+						pulled += aFrom[neighbor] * aWeights[neighbor];
+					}
+				}
+				aTo[node] = (aUpdate == null) ? pulled : aUpdate.apply(node, pulled);
+			}
+		});
+	}
+
+	/**
+	 * Computes the dot product of two vectors.
+	 *
+	 * @return Sum of the products of the values of every node.
+	 */
+	public double dot(double[] aValues1, double[] aValues2) {
+		forEachBlock(block -> {
+			final int last = Math.min(numNodes, (block + 1) * BLOCK_SIZE);
+			double sum = 0;
+			for (int node = block * BLOCK_SIZE; node < last; node++)
+				sum += aValues1[node] * aValues2[node];
+			blockSums[block] = sum;
+		});
+		return sumBlocks();
+	}
+
+	/**
+	 * Computes the distance between two vectors in the L1 norm.
+	 *
+	 * @return Sum of the absolute differences of the values of every node.
+	 */
+	public double distance(double[] aValues1, double[] aValues2) {
+		forEachBlock(block -> {
+			final int last = Math.min(numNodes, (block + 1) * BLOCK_SIZE);
+			double sum = 0;
+			for (int node = block * BLOCK_SIZE; node < last; node++)
+				sum += Math.abs(aValues1[node] - aValues2[node]);
+			blockSums[block] = sum;
+		});
+		return sumBlocks();
+	}
+
+	/**
+	 * Scales a vector to unit Euclidean norm. A vector of zeros is left unchanged.
+	 *
+	 * @param aValues
+	 *            Values of the nodes.
+	 * @return Euclidean norm of the vector before scaling.
+	 */
+	public double normalize(double[] aValues) {
+		final double norm = Math.sqrt(dot(aValues, aValues));
+		if (norm > 0) {
+			final double scale = 1 / norm;
+			forEachBlock(block -> {
+				final int last = Math.min(numNodes, (block + 1) * BLOCK_SIZE);
+				for (int node = block * BLOCK_SIZE; node < last; node++)
+					aValues[node] *= scale;
+			});
+		}
+		return norm;
+	}
+
+	/**
+	 * Runs a visitor for every block of nodes, on the workers of the analyzer if there is one.
+	 */
+	private void forEachBlock(IntConsumer aVisitor) {
+		if (analyzer == null) {
+			for (int block = 0; block < blocks; block++)
+				aVisitor.accept(block);
+		} else {
+			analyzer.forEachSource(blocks, () -> null, (state, block) -> aVisitor.accept(block));
+		}
+	}
+
+	/**
+	 * Adds up the sums of the blocks, in block order.
+	 */
+	private double sumBlocks() {
+		double sum = 0;
+		for (int block = 0; block < blocks; block++)
+			sum += blockSums[block];
+		return sum;
+	}
+
+	/**
+	 * Analyzer whose workers are used; <code>null</code> for serial iterations.
+	 */
+	private final NetworkAnalyzer analyzer;
+
+	/**
+	 * Number of nodes.
+	 */
+	private final int numNodes;
+
+	/**
+	 * Number of blocks of nodes.
+	 */
+	private final int blocks;
+
+	/**
+	 * Sums of the blocks of the last reduction.
+	 */
+	private final double[] blockSums;
+}
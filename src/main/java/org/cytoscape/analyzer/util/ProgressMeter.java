@@ -0,0 +1,238 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress of an analysis, counted in steps: every pass over the nodes takes one step per node, and
+ * so does every search from a source node.
+ * <p>
+ * The steps are counted in a {@link LongAdder}, so that the workers of the analyzer can advance the
+ * meter concurrently without contending for a single counter. The meter reports the fraction of
+ * the steps done, the number of steps per second and the estimated time left. It notifies its
+ * listener at most once per {@link #PUBLISH_INTERVAL} milliseconds; the worker that advances the
+ * meter past the end of an interval notifies it, the others only read the clock. The notifications
+ * are serialized on the meter, so a listener that takes longer than an interval delays the next
+ * notification rather than running concurrently with it.
+ * </p>
+ */
+public final class ProgressMeter {
+
+	/**
+	 * Shortest time, in milliseconds, between two notifications of the listener.
+	 */
+	public static final long PUBLISH_INTERVAL = 250;
+
+	/**
+	 * Receiver of the progress of an analysis.
+	 */
+	public interface Listener {
+
+		/**
+		 * Invoked when the progress of the analysis has changed. The method may be invoked by any of
+		 * the workers of the analyzer, but never by two of them at the same time.
+		 *
+		 * @param aMeter
+		 *            Meter whose progress has changed.
+		 */
+		void progressChanged(ProgressMeter aMeter);
+	}
+
+	/**
+	 * Initializes a new instance of <code>ProgressMeter</code>.
+	 */
+	public ProgressMeter() {
+		done = new LongAdder();
+		nextPublish = new AtomicLong();
+		total = 0;
+		startTime = System.nanoTime();
+	}
+
+	/**
+	 * Sets the receiver of the progress.
+	 *
+	 * @param aListener
+	 *            Listener to notify; <code>null</code> if the progress is not published.
+	 */
+	public void setListener(Listener aListener) {
+		listener = aListener;
+	}
+
+	/**
+	 * Starts measuring an analysis of the given number of steps.
+	 *
+	 * @param aTotal
+	 *            Number of steps of the analysis.
+	 */
+	public void start(long aTotal) {
+		done.reset();
+		total = aTotal;
+		startTime = System.nanoTime();
+		nextPublish.set(startTime);
+		publish();
+	}
+
+	/**
+	 * Marks the given number of steps as done.
+	 *
+	 * @param aSteps
+	 *            Number of steps done since the last call.
+	 */
+	public void advance(long aSteps) {
+		done.add(aSteps);
+		final Listener current = listener;
+		if (current == null)
+			return;
+		final long publish = nextPublish.get();
+		final long now = System.nanoTime();
+		if (now - publish >= 0 && nextPublish.compareAndSet(publish, now + PUBLISH_INTERVAL * 1000000L))
+			publish();
+	}
+
+	/**
+	 * Marks all steps as done and notifies the listener.
+	 */
+	public void finish() {
+		final long remaining = total - done.sum();
+		if (remaining > 0)
+			done.add(remaining);
+		publish();
+	}
+
+	/**
+	 * Gets the number of steps done.
+	 *
+	 * @return Number of steps done since the analysis started.
+	 */
+	public long getDone() {
+		return done.sum();
+	}
+
+	/**
+	 * Gets the number of steps of the analysis.
+	 *
+	 * @return Number of steps the analysis takes.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Gets the fraction of the steps done.
+	 *
+	 * @return Fraction in the range [0, 1]; <code>0</code> if the number of steps is unknown.
+	 */
+	public double getFraction() {
+		return (total > 0) ? Math.min(1.0, (double) done.sum() / total) : 0;
+	}
+
+	/**
+	 * Gets the average number of steps done per second.
+	 *
+	 * @return Steps per second since the analysis started.
+	 */
+	public double getRate() {
+		final double seconds = (System.nanoTime() - startTime) / 1e9;
+		return (seconds > 0) ? done.sum() / seconds : 0;
+	}
+
+	/**
+	 * Estimates the time left, assuming the remaining steps are done at the average rate so far.
+	 *
+	 * @return Estimated number of seconds left; <code>NaN</code> if no step is done yet.
+	 */
+	public double getRemainingTime() {
+		final double rate = getRate();
+		return (rate > 0) ? Math.max(0, total - done.sum()) / rate : Double.NaN;
+	}
+
+	/**
+	 * Describes the progress in a short message, such as
+	 * <code>"45% (1234 steps/s, about 2 min left)"</code>.
+	 *
+	 * @return Text with the fraction done, the rate and the estimated time left.
+	 */
+	@Override
+	public String toString() {
+		final StringBuilder text = new StringBuilder();
+		text.append(Math.round(getFraction() * 100)).append('%');
+		final double rate = getRate();
+		final double remaining = getRemainingTime();
+		if (rate > 0) {
+			text.append(" (").append(Math.round(rate)).append(" steps/s");
+			if (remaining > 0) {
+				text.append(", about ");
+				if (remaining < 60)
+					text.append(Math.max(1, Math.round(remaining))).append(" s");
+				else if (remaining < 3600)
+					text.append(Math.round(remaining / 60)).append(" min");
+				else
+					text.append(String.format("%.1f h", remaining / 3600));
+				text.append(" left");
+			}
+			text.append(')');
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Notifies the listener, if any, after any notification in progress has returned.
+	 */
+	private synchronized void publish() {
+		final Listener current = listener;
+		if (current != null)
+			current.progressChanged(this);
+	}
+
+	/**
+	 * Number of steps done.
+	 */
+	private final LongAdder done;
+
+	/**
+	 * Time, as given by {@link System#nanoTime()}, before which the listener is not notified again.
+	 */
+	private final AtomicLong nextPublish;
+
+	/**
+	 * Receiver of the progress; <code>null</code> if the progress is not published.
+	 */
+	private volatile Listener listener;
+
+	/**
+	 * Number of steps of the analysis.
+	 */
+	private volatile long total;
+
+	/**
+	 * Time, as given by {@link System#nanoTime()}, the analysis started at.
+	 */
+	private volatile long startTime;
+}
@@ -0,0 +1,193 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * Monotone priority queue of nodes keyed by non-negative distances, for Dijkstra's algorithm (R.K.
+ * Ahuja, K. Mehlhorn, J. Orlin and R.E. Tarjan: Faster Algorithms for the Shortest Path Problem.
+ * Journal of the ACM 37(2):213-223, 1990).
+ * <p>
+ * The keys are compared through the bits of their IEEE 754 representation, which are ordered like
+ * the non-negative numbers themselves. A node is kept in the bucket of the highest bit in which its
+ * key differs from the last key removed, so that a node moves to a lower bucket at most 64 times
+ * and every operation takes constant amortized time. The keys removed must not decrease, which is
+ * the case in Dijkstra's algorithm with non-negative edge lengths.
+ * </p>
+ * <p>
+ * Decreasing the key of a node is not supported; the node is added again with its new key, and the
+ * caller skips the stale entries it removes, whose key is larger than the distance of their node.
+ * The buckets grow as needed and keep their arrays when the heap is cleared, so a heap reused for
+ * the searches from all sources allocates nothing once it has grown. A heap is not thread-safe.
+ * </p>
+ */
+public final class RadixHeap {
+
+	/**
+	 * Number of buckets: one for the keys equal to the last key removed and one for every bit in
+	 * which a key can differ from it.
+	 */
+	private static final int BUCKETS = 65;
+
+	/**
+	 * Initial capacity of every bucket.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Initializes a new, empty instance of <code>RadixHeap</code>.
+	 */
+	public RadixHeap() {
+		nodes = new int[BUCKETS][INITIAL_CAPACITY];
+		keys = new long[BUCKETS][INITIAL_CAPACITY];
+		sizes = new int[BUCKETS];
+		clear();
+	}
+
+	/**
+	 * Removes all nodes from the heap and resets the last key removed to <code>0</code>.
+	 */
+	public void clear() {
+		Arrays.fill(sizes, 0);
+		size = 0;
+		last = 0;
+	}
+
+	/**
+	 * Checks if the heap is empty.
+	 *
+	 * @return <code>true</code> if the heap contains no node; <code>false</code> otherwise.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Adds a node to the heap.
+	 *
+	 * @param aNode
+	 *            Index of the node.
+	 * @param aKey
+	 *            Key of the node; not smaller than the last key removed.
+	 */
+	public void add(int aNode, double aKey) {
+		final long key = Double.doubleToRawLongBits(aKey);
+		put(bucketOf(key), aNode, key);
+		size++;
+	}
+
+	/**
+	 * Removes a node of smallest key from the heap. The heap must not be empty.
+	 *
+	 * @return Index of the node removed; its key is returned by {@link #lastKey()}.
+	 */
+	public int poll() {
+		settle();
+		size--;
+		return nodes[0][--sizes[0]];
+	}
+
+	/**
+	 * Gets the key of the node last removed.
+	 *
+	 * @return Last key removed; <code>0</code> if none has been removed since the heap was cleared.
+	 */
+	public double lastKey() {
+		return Double.longBitsToDouble(last);
+	}
+
+	/**
+	 * Makes sure that the first bucket holds the nodes of the smallest key: if it is empty, the
+	 * smallest key of the lowest non-empty bucket becomes the last key, and the nodes of that bucket
+	 * are distributed among the lower buckets.
+	 */
+	private void settle() {
+		if (sizes[0] > 0)
+			return;
+		int bucket = 1;
+		while (sizes[bucket] == 0)
+			bucket++;
+		final int[] bucketNodes = nodes[bucket];
+		final long[] bucketKeys = keys[bucket];
+		final int count = sizes[bucket];
+		long min = bucketKeys[0];
+		for (int i = 1; i < count; i++)
+			min = Math.min(min, bucketKeys[i]);
+		last = min;
+		sizes[bucket] = 0;
+		// Every key of the bucket now differs from the last key in a lower bit than before
+		for (int i = 0; i < count; i++)
+			put(bucketOf(bucketKeys[i]), bucketNodes[i], bucketKeys[i]);
+	}
+
+	/**
+	 * Finds the bucket of the given key.
+	 */
+	private int bucketOf(long aKey) {
+		return (aKey == last) ? 0 : 64 - Long.numberOfLeadingZeros(aKey ^ last);
+	}
+
+	/**
+	 * Appends a node to a bucket, growing the bucket if it is full.
+	 */
+	private void put(int aBucket, int aNode, long aKey) {
+		int count = sizes[aBucket];
+		if (count == nodes[aBucket].length) {
+			nodes[aBucket] = Arrays.copyOf(nodes[aBucket], 2 * count);
+			keys[aBucket] = Arrays.copyOf(keys[aBucket], 2 * count);
+		}
+		nodes[aBucket][count] = aNode;
+		keys[aBucket][count] = aKey;
+		sizes[aBucket] = count + 1;
+	}
+
+	/**
+	 * Nodes of every bucket.
+	 */
+	private final int[][] nodes;
+
+	/**
+	 * Keys of the nodes of every bucket, as the bits of their representation.
+	 */
+	private final long[][] keys;
+
+	/**
+	 * Number of nodes in every bucket.
+	 */
+	private final int[] sizes;
+
+	/**
+	 * Number of nodes in the heap.
+	 */
+	private int size;
+
+	/**
+	 * Last key removed, as the bits of its representation.
+	 */
+	private long last;
+}
@@ -0,0 +1,150 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Random;
+
+/**
+ * Random sample of the sources of a connected component, from which betweenness and stress are
+ * estimated instead of being computed from every source.
+ * <p>
+ * The estimate follows Brandes and Pich (2007): the dependencies of the sampled sources are added up
+ * and multiplied by {@link #scale}. The sample size is chosen with the Hoeffding bound and a union
+ * bound over the nodes, so that with probability at least <code>1 - delta</code> the normalized
+ * betweenness of every node is within <code>epsilon</code> of its exact value. A contribution of a
+ * single source to a normalized betweenness lies in <code>[0, n / (n - 1)]</code>, which gives a
+ * sample size of <code>k = (n / (n - 1))<sup>2</sup> ln(2n / delta) / (2 epsilon<sup>2</sup>)</code>
+ * for a component of <code>n</code> nodes. The sources are drawn without replacement, for which the
+ * Hoeffding bound holds as well.
+ * </p>
+ */
+public final class SourceSample {
+
+	/**
+	 * Draws a sample of sources that meets the given error bound.
+	 *
+	 * @param aNumNodes
+	 *            Number of nodes of the connected component.
+	 * @param aEpsilon
+	 *            Largest admissible absolute error of the normalized betweenness.
+	 * @param aDelta
+	 *            Largest admissible probability that the error exceeds <code>aEpsilon</code>.
+	 * @param aRandom
+	 *            Source of randomness.
+	 * @return Sample of the sources; <code>null</code> if <code>aEpsilon</code> is not positive or if
+	 *         the bound requires every node as a source, in which case betweenness must be computed
+	 *         exactly.
+	 */
+	public static SourceSample draw(int aNumNodes, double aEpsilon, double aDelta, Random aRandom) {
+		if (!(aEpsilon > 0) || aNumNodes <= 2)
+			return null;
+		final double range = aNumNodes / (aNumNodes - 1.0);
+		final double k = Math.ceil(range * range * Math.log(2.0 * aNumNodes / aDelta) / (2.0 * aEpsilon * aEpsilon));
+		if (k >= aNumNodes)
+			return null;
+		final int size = (int) k;
+
+		// Partial Fisher-Yates shuffle; the first size entries of order are the sample
+		final int[] order = new int[aNumNodes];
+		for (int i = 0; i < aNumNodes; i++)
+			order[i] = i;
+		final boolean[] selected = new boolean[aNumNodes];
+		for (int i = 0; i < size; i++) {
+			final int j = i + aRandom.nextInt(aNumNodes - i);
+			final int swap = order[i];
+			order[i] = order[j];
+			order[j] = swap;
+			selected[order[i]] = true;
+		}
+		final double epsilon = range * Math.sqrt(Math.log(2.0 * aNumNodes / aDelta) / (2.0 * size));
+		return new SourceSample(selected, size, (double) aNumNodes / size, epsilon);
+	}
+
+	/**
+	 * Initializes a new instance of <code>SourceSample</code>.
+	 */
+	private SourceSample(boolean[] aSelected, int aSize, double aScale, double aEpsilon) {
+		selected = aSelected;
+		size = aSize;
+		scale = aScale;
+		epsilon = aEpsilon;
+	}
+
+	/**
+	 * Checks if the given node is a sampled source.
+	 *
+	 * @param aNode
+	 *            Index of the node in the connected component.
+	 * @return <code>true</code> if betweenness must be accumulated from <code>aNode</code>;
+	 *         <code>false</code> otherwise.
+	 */
+	public boolean contains(int aNode) {
+		return selected[aNode];
+	}
+
+	/**
+	 * Multiplies the accumulated betweenness values by {@link #scale}.
+	 *
+	 * @param aValues
+	 *            Values accumulated from the sampled sources; modified in place.
+	 */
+	public void scale(double[] aValues) {
+		for (int i = 0; i < aValues.length; i++)
+			aValues[i] *= scale;
+	}
+
+	/**
+	 * Multiplies the accumulated stress values by {@link #scale}, rounding to the nearest integer.
+	 *
+	 * @param aValues
+	 *            Values accumulated from the sampled sources; modified in place.
+	 */
+	public void scale(long[] aValues) {
+		for (int i = 0; i < aValues.length; i++)
+			aValues[i] = Math.round(aValues[i] * scale);
+	}
+
+	/**
+	 * Flags of the sampled sources.
+	 */
+	private final boolean[] selected;
+
+	/**
+	 * Number of sampled sources.
+	 */
+	public final int size;
+
+	/**
+	 * Factor that turns the sums over the sampled sources into estimates of the sums over all sources.
+	 */
+	public final double scale;
+
+	/**
+	 * Error bound achieved by this sample, at the confidence it was drawn for.
+	 */
+	public final double epsilon;
+}
@@ -50,12 +50,15 @@ public class StatsDoc {
 	static {
 		shortDocs = new HashMap<String, String>(16);
 		shortDocs.put("nodeCount", "Total number of nodes in the network.");
+		shortDocs.put("nodeSubset", "Number of selected nodes the parameters were calculated for.");
 		shortDocs.put("edgeCount", "Total number of edges in the network.");
 		shortDocs.put("avNeighbors", "Average number of neighbors per node.");
 		shortDocs.put("ncc", "Number of disconnected parts the network splits into.");
+		shortDocs.put("degeneracy", "Largest k such that the network has a subgraph in which every node has at least k neighbors.");
 		shortDocs.put("diameter", "Largest distance between any two connected nodes.");
 		shortDocs.put("radius", "Smallest node eccentricity; a node's eccentricity is its largest distance to any other node.");
 		shortDocs.put("avSpl", "Average shortest-path length between connected node pairs.");
+		shortDocs.put("efficiency", "Average inverse distance between node pairs, disconnected pairs counting as 0 (0–1).");
 		shortDocs.put("cc", "How connected each node's neighbors are to one another, on average (0–1).");
 		shortDocs.put("density", "Fraction of possible edges that actually exist (0–1).");
 		shortDocs.put("heterogeneity", "Variability of the node degrees; high values indicate hub nodes.");
@@ -64,10 +67,20 @@ public class StatsDoc {
 		shortDocs.put("nsl", "Number of edges that connect a node to itself.");
 		shortDocs.put("mnp", "Number of node pairs connected by more than one edge.");
 		shortDocs.put("usn", "Number of nodes without any edges.");
+		shortDocs.put("edgeWeights", "Edge column whose values were used as edge lengths.");
+		shortDocs.put("nbtSources", "Number of sources betweenness was estimated from.");
+		shortDocs.put("nbtError", "Largest error of the estimated normalized betweenness, at the chosen confidence.");
+		shortDocs.put("writeTime", "Part of the analysis time spent writing the node and edge attributes.");
 
 		longDocs = new HashMap<String, String>(16);
 		longDocs.put("nodeCount",
 			"The total number of nodes in the network, including nodes with no connections.");
+		longDocs.put("nodeSubset",
+			"The number of selected nodes the analysis was restricted to. The node parameters are"
+			+ " calculated for these nodes only, with the shortest path searches starting from them, but"
+			+ " over the whole network. The statistics are based on the selected nodes as well: averages"
+			+ " and distributions are taken over them, and the path statistics over the paths that start"
+			+ " at them. Betweenness and stress need paths from every node and are not calculated.");
 		longDocs.put("edgeCount",
 			"The total number of edges in the network, as interpreted by the analysis"
 			+ " (paired edges may have been combined, depending on the chosen interpretation).");
@@ -79,6 +92,12 @@ public class StatsDoc {
 			+ " by a path. The number of connected components indicates how fragmented the network"
 			+ " is: a fully connected network has a single component. Components are computed"
 			+ " ignoring edge direction.");
+		longDocs.put("degeneracy",
+			"The <i>k</i>-core of a network is its largest subgraph in which every node has at least"
+			+ " <i>k</i> neighbors; the core number of a node, stored in the KCore attribute, is the"
+			+ " largest <i>k</i> such that the node belongs to the <i>k</i>-core. The degeneracy is the"
+			+ " largest core number in the whole network. High cores locate the densest regions of the"
+			+ " network. Cores are computed ignoring edge direction, self-loops and duplicated edges.");
 		longDocs.put("diameter",
 			"The distance between two nodes is the length, in edges, of the shortest path between"
 			+ " them. The network diameter is the largest distance between any two nodes;"
@@ -91,6 +110,13 @@ public class StatsDoc {
 			"Also known as the average shortest path length: the average of the distances between"
 			+ " all pairs of nodes that are connected by a path. It gives the expected distance"
 			+ " between two randomly chosen connected nodes.");
+		longDocs.put("efficiency",
+			"The global efficiency is the average of the inverse distances 1/<i>d</i>(<i>u</i>,<i>v</i>)"
+			+ " over all ordered pairs of distinct nodes, where pairs with no connecting path count as 0."
+			+ " Unlike the characteristic path length, it is defined for disconnected networks. It ranges"
+			+ " from 0 (no edges) to 1 (fully connected). When only some nodes are analyzed, or the"
+			+ " shortest paths are sampled, it is averaged over the sources of the searches. The harmonic"
+			+ " centrality of a node is the same average taken from that node alone.");
 		longDocs.put("cc",
 			"The clustering coefficient of a node <i>n</i> measures how connected its neighbors"
 			+ " are to one another: <i>C<sub>n</sub></i> = 2<i>e<sub>n</sub></i> /"
@@ -127,6 +153,25 @@ public class StatsDoc {
 			+ " (duplicated or parallel edges).");
 		longDocs.put("usn",
 			"The number of nodes with no incident edges (degree zero).");
+		longDocs.put("edgeWeights",
+			"The numeric edge column whose values were used as the lengths of the edges. Shown only for"
+			+ " a weighted analysis: the shortest paths minimize the sum of the lengths instead of the"
+			+ " number of edges, so the characteristic path length, closeness, harmonic centrality,"
+			+ " betweenness and stress are weighted, and the hop-count metrics (eccentricity,"
+			+ " radiality, diameter and radius) are not computed.");
+		longDocs.put("nbtSources",
+			"The number of nodes from which the shortest paths were followed to estimate betweenness"
+			+ " centrality, edge betweenness and stress. Shown only when betweenness is approximated:"
+			+ " the contributions of a random sample of sources are scaled up to the whole network.");
+		longDocs.put("nbtError",
+			"An upper bound on the absolute error of the estimated normalized betweenness of every"
+			+ " node, which holds with the confidence chosen for the analysis (one minus the failure"
+			+ " probability). The bound is at most the requested error; when a component is too small"
+			+ " for sampling to pay off, its betweenness is computed exactly.");
+		longDocs.put("writeTime",
+			"The time spent storing the computed values in the node and edge tables, which is included"
+			+ " in the analysis time. The values are written in a single pass after the computation,"
+			+ " and the table listeners are notified of all of them at once.");
 
 		directedLongDocs = new HashMap<String, String>(8);
 		directedLongDocs.put("avNeighbors", longDocs.get("avNeighbors")
@@ -148,9 +193,16 @@ public class StatsDoc {
 
 		// These are defined on shortest paths, which follow edge direction when the network is
 		// analyzed as directed
-		for (String key : new String[] { "diameter", "radius", "avSpl", "connPairs" })
+		for (String key : new String[] { "diameter", "radius", "avSpl", "efficiency", "connPairs" })
 			directedLongDocs.put(key, longDocs.get(key)
 				+ " In a directed analysis, paths follow edge direction.");
+
+		// Approximated path lengths leave the eccentricities exact; directed path lengths are never
+		// approximated
+		for (String key : new String[] { "diameter", "radius" })
+			longDocs.put(key, longDocs.get(key)
+				+ " When the path lengths are approximated with HyperANF, the eccentricities stay exact:"
+				+ " they are found from a few searches.");
 	}
 
 	/** The one-line tooltip description of the given statistic; null if there is none. */
@@ -0,0 +1,217 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+/**
+ * Scratch arrays for the breadth-first traversals of the analyzers.
+ * <p>
+ * A workspace is allocated once per worker and borrowed by every traversal the worker runs, so that
+ * the traversal of a single source allocates nothing. Instead of clearing the arrays between
+ * traversals, every traversal starts a new epoch by calling {@link #nextEpoch()}. A node counts as
+ * visited (or marked) only if its entry in {@link #visited} (or {@link #marks}) equals the current
+ * epoch; all per-node values of a node are initialized by the traversal when it first visits it.
+ * </p>
+ * <p>
+ * A workspace is not thread-safe; every worker must use its own instance.
+ * </p>
+ */
+public class TraversalWorkspace {
+
+	/**
+	 * Initializes a new instance of <code>TraversalWorkspace</code>.
+	 *
+	 * @param aNumNodes Number of nodes of the traversed graph.
+	 * @param aNumEdges Length of the neighbor index array of the traversed graph.
+	 */
+	public TraversalWorkspace(int aNumNodes, int aNumEdges) {
+		numNodes = aNumNodes;
+		epoch = 0;
+		visited = new int[aNumNodes];
+		marks = new int[aNumNodes];
+		queue = new int[aNumNodes];
+		distance = new int[aNumNodes];
+		sigma = new int[aNumNodes];
+		delta = new double[aNumNodes];
+		stressDependency = new long[aNumNodes];
+		predecessorCount = new int[aNumNodes];
+		descendantCount = new int[aNumNodes];
+		predecessors = new int[aNumEdges];
+		predecessorEdges = new int[aNumEdges];
+		descendantEdges = new int[aNumEdges];
+		edgeDependency = new double[aNumEdges];
+		pathLengths = new PathLengthData();
+	}
+
+	/**
+	 * Starts a new traversal. All nodes become unvisited and unmarked.
+	 *
+	 * @return Epoch of the new traversal.
+	 */
+	public int nextEpoch() {
+		if (epoch == Integer.MAX_VALUE) {
+			Arrays.fill(visited, 0);
+			Arrays.fill(marks, 0);
+			epoch = 0;
+		}
+		pathLengths.reset();
+		return ++epoch;
+	}
+
+	/**
+	 * Gets the logarithms of the numbers of shortest paths, used instead of {@link #sigma} by the
+	 * searches in which the numbers overflow. The array is allocated on first use.
+	 *
+	 * @return Natural logarithm of the number of shortest paths from the source to each node.
+	 */
+	public double[] logSigma() {
+		if (logSigma == null)
+			logSigma = new double[numNodes];
+		return logSigma;
+	}
+
+	/**
+	 * Gets the distances of the searches over weighted edges, used instead of {@link #distance}. The
+	 * array is allocated on first use.
+	 *
+	 * @return Length of the shortest path from the source to each visited node.
+	 */
+	public double[] lengths() {
+		if (lengths == null)
+			lengths = new double[numNodes];
+		return lengths;
+	}
+
+	/**
+	 * Gets the priority queue of the searches over weighted edges. The heap is allocated on first use
+	 * and cleared by the caller.
+	 *
+	 * @return Heap of the nodes found but not yet settled.
+	 */
+	public RadixHeap heap() {
+		if (heap == null)
+			heap = new RadixHeap();
+		return heap;
+	}
+
+	/**
+	 * Number of nodes this workspace was allocated for.
+	 */
+	private final int numNodes;
+
+	/**
+	 * Epoch of the current traversal.
+	 */
+	private int epoch;
+
+	/**
+	 * Epoch in which each node was last visited.
+	 */
+	public final int[] visited;
+
+	/**
+	 * Epoch in which each node was last marked, e.g. as a neighbor of the source.
+	 */
+	public final int[] marks;
+
+	/**
+	 * Queue of the traversal; reused as a stack by the betweenness computation.
+	 */
+	public final int[] queue;
+
+	/**
+	 * Distance of each visited node from the source.
+	 */
+	public final int[] distance;
+
+	/**
+	 * Number of shortest paths from the source to each visited node (sigma in the paper of Brandes).
+	 */
+	public final int[] sigma;
+
+	/**
+	 * Logarithms of the numbers of shortest paths; <code>null</code> until the numbers first overflow.
+	 */
+	private double[] logSigma;
+
+	/**
+	 * Distances of the searches over weighted edges; <code>null</code> until the first such search.
+	 */
+	private double[] lengths;
+
+	/**
+	 * Priority queue of the searches over weighted edges; <code>null</code> until the first such
+	 * search.
+	 */
+	private RadixHeap heap;
+
+	/**
+	 * Dependency of the source on each visited node (delta in the paper of Brandes).
+	 */
+	public final double[] delta;
+
+	/**
+	 * Number of shortest paths from the source that pass through each visited node.
+	 */
+	public final long[] stressDependency;
+
+	/**
+	 * Number of predecessors of each visited node on the shortest paths from the source.
+	 */
+	public final int[] predecessorCount;
+
+	/**
+	 * Number of descendants of each visited node on the shortest paths from the source.
+	 */
+	public final int[] descendantCount;
+
+	/**
+	 * Predecessors of the nodes, stored at the edge offsets of each node.
+	 */
+	public final int[] predecessors;
+
+	/**
+	 * Edge IDs of the edges to the predecessors, parallel to {@link #predecessors}.
+	 */
+	public final int[] predecessorEdges;
+
+	/**
+	 * Edge IDs of the edges to the descendants, stored at the edge offsets of each node.
+	 */
+	public final int[] descendantEdges;
+
+	/**
+	 * Edge betweenness contributed by the current source, indexed by edge ID.
+	 */
+	public final double[] edgeDependency;
+
+	/**
+	 * Shortest path length data of the current traversal.
+	 */
+	public final PathLengthData pathLengths;
+}
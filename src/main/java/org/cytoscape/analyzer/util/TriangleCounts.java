@@ -0,0 +1,275 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+
+/**
+ * Number of triangles every node of a connected component belongs to, and the number of links among
+ * the neighbors of every node, from which the clustering coefficients are derived.
+ * <p>
+ * Every triangle is found exactly once: the edges are oriented from the node of lower degree to
+ * the node of higher degree (ties broken by index), and the triangles are the common forward
+ * neighbors of the two ends of a forward edge. The forward neighbor lists are sorted, so they are
+ * intersected by merging; none of them is longer than <code>sqrt(2m)</code> for a component of
+ * <code>m</code> edges, which keeps the hubs cheap. The nodes are shared among the workers of the
+ * analyzer. The counts of the visited node are written by its worker alone; those of the other two
+ * nodes of its triangles are added to atomic counters, as any worker may reach them. The memory
+ * thus stays linear in the number of nodes, however many workers there are, at the cost of some
+ * contention on the counters of the hubs, which close most of the triangles. The counts of a node
+ * and its neighbor are added once per forward edge, so only the third node of every triangle takes
+ * an atomic update of its own.
+ * </p>
+ * <p>
+ * The links among the neighbors of a node are counted as ordered pairs: in an undirected component
+ * every triangle contributes two links, in a directed one as many as there are arcs between the two
+ * other nodes.
+ * </p>
+ * <p>
+ * When only some of the nodes are analyzed, the triangles are counted around each of them instead,
+ * by marking its neighbors and scanning theirs; the counts of the other nodes are left at zero.
+ * </p>
+ */
+public final class TriangleCounts {
+
+	/**
+	 * Counts the triangles of a connected component.
+	 *
+	 * @param aAnalyzer
+	 *            Analyzer whose workers share the nodes; <code>null</code> to count the triangles
+	 *            serially on the calling thread.
+	 * @param aNumNodes
+	 *            Number of nodes in the component.
+	 * @param aOffsets
+	 *            Array with the indices of each node's first neighbor in <code>aNeighbors</code>.
+	 * @param aNeighbors
+	 *            Array with every node's neighbor indices, regardless of edge direction, in
+	 *            ascending order and without repetitions.
+	 * @param aOutOffsets
+	 *            Offsets of the out-neighbors of a directed component; <code>null</code> for an
+	 *            undirected component.
+	 * @param aOutNeighbors
+	 *            Out-neighbors of a directed component, in ascending order; <code>null</code> for an
+	 *            undirected component.
+	 * @return Triangle counts of the component.
+	 */
+	public static TriangleCounts count(NetworkAnalyzer aAnalyzer, int aNumNodes, int[] aOffsets, int[] aNeighbors,
+			int[] aOutOffsets, int[] aOutNeighbors) {
+		return count(aAnalyzer, aNumNodes, aOffsets, aNeighbors, aOutOffsets, aOutNeighbors, null);
+	}
+
+	/**
+	 * Counts the triangles of the given nodes of a connected component.
+	 *
+	 * @param aSources
+	 *            Indices of the nodes whose triangles are counted; <code>null</code> for all nodes.
+	 * @return Triangle counts of the component; zero for the nodes not in <code>aSources</code>.
+	 * @see #count(NetworkAnalyzer, int, int[], int[], int[], int[])
+	 */
+	public static TriangleCounts count(NetworkAnalyzer aAnalyzer, int aNumNodes, int[] aOffsets, int[] aNeighbors,
+			int[] aOutOffsets, int[] aOutNeighbors, int[] aSources) {
+		if (aSources != null)
+			return countAround(aAnalyzer, aNumNodes, aOffsets, aNeighbors, aOutOffsets, aOutNeighbors, aSources);
+		final boolean directed = aOutOffsets != null;
+
+		// Forward neighbors, with the number of links each forward edge stands for
+		final int[] forwardOffsets = new int[aNumNodes + 1];
+		for (int node = 0; node < aNumNodes; node++) {
+			int forward = 0;
+			for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++)
+				if (precedes(aOffsets, node, aNeighbors[ni]))
+					forward++;
+			forwardOffsets[node + 1] = forwardOffsets[node] + forward;
+		}
+		final int[] forwardNeighbors = new int[forwardOffsets[aNumNodes]];
+		final byte[] forwardLinks = new byte[forwardNeighbors.length];
+		for (int node = 0, fi = 0; node < aNumNodes; node++) {
+			for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++) {
+				final int neighbor = aNeighbors[ni];
+				if (!precedes(aOffsets, node, neighbor))
+					continue;
+				forwardNeighbors[fi] = neighbor;
+				forwardLinks[fi++] = (byte) (directed
+						? (GraphSnapshot.find(aOutOffsets, aOutNeighbors, node, neighbor) >= 0 ? 1 : 0)
+								+ (GraphSnapshot.find(aOutOffsets, aOutNeighbors, neighbor, node) >= 0 ? 1 : 0)
+						: 2);
+			}
+		}
+
+		// The counts of the visited node are its worker's own, those of the other corners are shared
+		final long[] triangles = new long[aNumNodes];
+		final long[] links = new long[aNumNodes];
+		final AtomicLongArray cornerTriangles = new AtomicLongArray(aNumNodes);
+		final AtomicLongArray cornerLinks = directed ? new AtomicLongArray(aNumNodes) : null;
+		forEachNode(aAnalyzer, aNumNodes, () -> null, (state, node) -> {
+			final int first = forwardOffsets[node], last = forwardOffsets[node + 1];
+			long nodeTriangles = 0, nodeLinks = 0;
+			for (int a = first; a < last; a++) {
+				final int neighbor = forwardNeighbors[a];
+				// Common forward neighbors of node and neighbor, by merging the sorted lists
+				long common = 0, neighborLinks = 0;
+				int i = first, j = forwardOffsets[neighbor];
+				final int jLast = forwardOffsets[neighbor + 1];
+				while (i < last && j < jLast) {
+					final int x = forwardNeighbors[i], y = forwardNeighbors[j];
+					if (x < y) {
+						i++;
+					} else if (x > y) {
+						j++;
+					} else {
+						common++;
+						cornerTriangles.incrementAndGet(x);
+						if (directed) {
+							nodeLinks += forwardLinks[j];
+							neighborLinks += forwardLinks[i];
+							cornerLinks.addAndGet(x, forwardLinks[a]);
+						}
+						i++;
+						j++;
+					}
+				}
+				// The triangles of the two ends of the forward edge are added once per edge
+				if (common > 0) {
+					nodeTriangles += common;
+					cornerTriangles.addAndGet(neighbor, common);
+					if (directed)
+						cornerLinks.addAndGet(neighbor, neighborLinks);
+				}
+			}
+			triangles[node] = nodeTriangles;
+			links[node] = nodeLinks;
+		});
+
+		for (int node = 0; node < aNumNodes; node++) {
+			triangles[node] += cornerTriangles.get(node);
+			if (directed)
+				links[node] += cornerLinks.get(node);
+		}
+		if (!directed)
+			for (int node = 0; node < aNumNodes; node++)
+				links[node] = 2 * triangles[node];
+		return new TriangleCounts(aOffsets, triangles, links);
+	}
+
+	/**
+	 * Counts the triangles of the given nodes one node at a time.
+	 */
+	private static TriangleCounts countAround(NetworkAnalyzer aAnalyzer, int aNumNodes, int[] aOffsets,
+			int[] aNeighbors, int[] aOutOffsets, int[] aOutNeighbors, int[] aSources) {
+		final boolean directed = aOutOffsets != null;
+		final long[] triangles = new long[aNumNodes];
+		final long[] links = new long[aNumNodes];
+		// Every source is written by a single worker
+		forEachNode(aAnalyzer, aSources.length, () -> new TraversalWorkspace(aNumNodes, 0), (workspace, i) -> {
+			final int node = aSources[i];
+			final int epoch = workspace.nextEpoch();
+			final int[] isNeighbor = workspace.marks;
+			for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++)
+				isNeighbor[aNeighbors[ni]] = epoch;
+			long pairs = 0, arcs = 0;
+			for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++) {
+				final int neighbor = aNeighbors[ni];
+				for (int nni = aOffsets[neighbor]; nni < aOffsets[neighbor + 1]; nni++)
+					if (isNeighbor[aNeighbors[nni]] == epoch)
+						pairs++;
+				if (directed)
+					for (int oi = aOutOffsets[neighbor]; oi < aOutOffsets[neighbor + 1]; oi++)
+						if (isNeighbor[aOutNeighbors[oi]] == epoch)
+							arcs++;
+			}
+			// Every triangle is seen from both of the other two nodes
+			triangles[node] = pairs / 2;
+			links[node] = directed ? arcs : pairs;
+		});
+		return new TriangleCounts(aOffsets, triangles, links);
+	}
+
+	/**
+	 * Runs a visitor for every node, on the workers of the analyzer if there is one.
+	 */
+	private static <T> List<T> forEachNode(NetworkAnalyzer aAnalyzer, int aCount, Supplier<T> aNewState,
+			ObjIntConsumer<T> aVisitor) {
+		if (aAnalyzer != null)
+			return aAnalyzer.forEachSource(aCount, aNewState, aVisitor);
+		final T state = aNewState.get();
+		for (int node = 0; node < aCount; node++)
+			aVisitor.accept(state, node);
+		return Collections.singletonList(state);
+	}
+
+	/**
+	 * Checks if the edge between the given nodes is oriented from the first to the second one.
+	 */
+	private static boolean precedes(int[] aOffsets, int aNode1, int aNode2) {
+		final int degree1 = aOffsets[aNode1 + 1] - aOffsets[aNode1];
+		final int degree2 = aOffsets[aNode2 + 1] - aOffsets[aNode2];
+		return degree1 < degree2 || (degree1 == degree2 && aNode1 < aNode2);
+	}
+
+	/**
+	 * Initializes a new instance of <code>TriangleCounts</code>.
+	 */
+	private TriangleCounts(int[] aOffsets, long[] aTriangles, long[] aLinks) {
+		offsets = aOffsets;
+		triangles = aTriangles;
+		links = aLinks;
+	}
+
+	/**
+	 * Computes the clustering coefficient of the given node.
+	 *
+	 * @param aNode
+	 *            Index of the node.
+	 * @return Number of links among the neighbors of the node, divided by the number of ordered
+	 *         pairs of its neighbors; NaN if the node has less than two neighbors.
+	 */
+	public double getClusteringCoefficient(int aNode) {
+		final long neighborsCount = offsets[aNode + 1] - offsets[aNode];
+		return (double) links[aNode] / (double) (neighborsCount * (neighborsCount - 1));
+	}
+
+	/**
+	 * Offsets of the neighbors of the nodes.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Number of triangles each node belongs to.
+	 */
+	public final long[] triangles;
+
+	/**
+	 * Number of links among the neighbors of each node, counted as ordered pairs.
+	 */
+	public final long[] links;
+}
@@ -0,0 +1,187 @@
+package org.cytoscape.analyzer;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.cytoscape.analyzer.util.GraphSnapshot;
+import org.cytoscape.analyzer.util.PathLengthData;
+import org.cytoscape.analyzer.util.SampleGraphs;
+import org.cytoscape.analyzer.util.TraversalWorkspace;
+import org.junit.Test;
+
+/**
+ * Checks that the fused searches, which find the path lengths and the betweenness in a single
+ * breadth-first search, give the same results as the separate searches for each, and as the
+ * brute-force betweenness.
+ */
+public class TestFusedSearches {
+
+	@Test
+	public void undirectedFusedMatchesSeparate() {
+		final GraphSnapshot graph = SampleGraphs.random(600, 1500, false, 23);
+		final int n = graph.numNodes;
+		final int[] offsets = graph.neighborOffsets, neighbors = graph.neighbors;
+		final Results fused = new Results(n, graph.numPairs, neighbors.length);
+		final Results separate = new Results(n, graph.numPairs, neighbors.length);
+		for (int source = 0; source < n; source++) {
+			final PathLengthData fusedData = UndirNetworkAnalyzer.computeSPandNB(source, n, neighbors, offsets,
+					graph.neighborPairs, fused.sharedNeighbors, fused.pathLengths, fused.betweenness, fused.stress,
+					fused.edgeBetweenness, fused.workspace);
+			final PathLengthData separateData = UndirNetworkAnalyzer.computeSPandSN(source, n, neighbors, offsets,
+					separate.sharedNeighbors, separate.pathLengths, separate.workspace);
+			assertSameData(source, separateData, fusedData);
+			UndirNetworkAnalyzer.computeNBandEB(source, n, neighbors, offsets, graph.neighborPairs,
+					separate.betweenness, separate.stress, separate.edgeBetweenness, separate.workspace);
+		}
+		assertSame(separate, fused);
+	}
+
+	@Test
+	public void directedFusedMatchesSeparate() {
+		final GraphSnapshot graph = SampleGraphs.random(600, 1800, true, 23);
+		final int n = graph.numNodes;
+		final int[][] inOut = SampleGraphs.inOutNeighbors(graph);
+		final Results fused = new Results(n, graph.numArcs, inOut[1].length);
+		final Results separate = new Results(n, graph.numArcs, inOut[1].length);
+		for (int source = 0; source < n; source++) {
+			final PathLengthData fusedData = DirNetworkAnalyzer.computeSPandNB(source, n, inOut[1], inOut[0],
+					inOut[2], graph.inOffsets, fused.pathLengths, fused.betweenness, fused.stress,
+					fused.edgeBetweenness, fused.workspace);
+			final PathLengthData separateData = DirNetworkAnalyzer.computeSP(source, n, graph.outNeighbors,
+					graph.outOffsets, separate.pathLengths, separate.workspace);
+			assertSameData(source, separateData, fusedData);
+			DirNetworkAnalyzer.computeNBandEB(source, n, inOut[1], inOut[0], inOut[2], graph.inOffsets,
+					separate.betweenness, separate.stress, separate.edgeBetweenness, separate.workspace);
+		}
+		assertSame(separate, fused);
+	}
+
+	@Test
+	public void undirectedFusedMatchesBruteForce() {
+		final GraphSnapshot graph = SampleGraphs.random(80, 160, false, 29);
+		final int n = graph.numNodes;
+		final int[] offsets = graph.neighborOffsets, neighbors = graph.neighbors;
+		final Results fused = new Results(n, graph.numPairs, neighbors.length);
+		final Results reference = new Results(n, graph.numPairs, 0);
+		for (int source = 0; source < n; source++) {
+			UndirNetworkAnalyzer.computeSPandNB(source, n, neighbors, offsets, graph.neighborPairs,
+					fused.sharedNeighbors, fused.pathLengths, fused.betweenness, fused.stress, fused.edgeBetweenness,
+					fused.workspace);
+			SampleGraphs.dependencies(offsets, neighbors, graph.neighborPairs, null, source, reference.betweenness,
+					reference.stress, reference.edgeBetweenness);
+			addPathLengths(SampleGraphs.distances(offsets, neighbors, source), reference.pathLengths);
+		}
+		assertArrayEquals(reference.pathLengths, fused.pathLengths);
+		assertSameBetweenness(reference, fused);
+	}
+
+	@Test
+	public void directedFusedMatchesBruteForce() {
+		final GraphSnapshot graph = SampleGraphs.random(80, 240, true, 29);
+		final int n = graph.numNodes;
+		final int[][] inOut = SampleGraphs.inOutNeighbors(graph);
+		final int[] arcs = new int[graph.numArcs];
+		for (int ei = 0; ei < arcs.length; ei++)
+			arcs[ei] = ei;
+		final Results fused = new Results(n, graph.numArcs, inOut[1].length);
+		final Results reference = new Results(n, graph.numArcs, 0);
+		for (int source = 0; source < n; source++) {
+			DirNetworkAnalyzer.computeSPandNB(source, n, inOut[1], inOut[0], inOut[2], graph.inOffsets,
+					fused.pathLengths, fused.betweenness, fused.stress, fused.edgeBetweenness, fused.workspace);
+			SampleGraphs.dependencies(graph.outOffsets, graph.outNeighbors, arcs, null, source,
+					reference.betweenness, reference.stress, reference.edgeBetweenness);
+			addPathLengths(SampleGraphs.distances(graph.outOffsets, graph.outNeighbors, source), reference.pathLengths);
+		}
+		assertArrayEquals(reference.pathLengths, fused.pathLengths);
+		assertSameBetweenness(reference, fused);
+	}
+
+	/**
+	 * Adds the distances from a source to the other nodes to a histogram of path lengths.
+	 */
+	private static void addPathLengths(int[] aDistances, long[] aPathLengths) {
+		for (int distance : aDistances)
+			if (distance > 0)
+				aPathLengths[distance]++;
+	}
+
+	/**
+	 * Checks that two searches from the same source found the same path lengths.
+	 */
+	private static void assertSameData(int aSource, PathLengthData aExpected, PathLengthData aActual) {
+		assertEquals("Source " + aSource, aExpected.getCount(), aActual.getCount());
+		assertEquals("Source " + aSource, aExpected.getTotalLength(), aActual.getTotalLength());
+		assertEquals("Source " + aSource, aExpected.getMaxLength(), aActual.getMaxLength());
+	}
+
+	/**
+	 * Checks that the histograms are equal, and that the betweenness, stress and edge betweenness
+	 * are equal up to rounding errors.
+	 */
+	private static void assertSame(Results aExpected, Results aActual) {
+		assertArrayEquals(aExpected.sharedNeighbors, aActual.sharedNeighbors);
+		assertArrayEquals(aExpected.pathLengths, aActual.pathLengths);
+		assertSameBetweenness(aExpected, aActual);
+	}
+
+	private static void assertSameBetweenness(Results aExpected, Results aActual) {
+		assertArrayEquals(aExpected.stress, aActual.stress);
+		assertArrayEquals(aExpected.betweenness, aActual.betweenness, 1e-9 * max(aExpected.betweenness));
+		assertArrayEquals(aExpected.edgeBetweenness, aActual.edgeBetweenness, 1e-9 * max(aExpected.edgeBetweenness));
+	}
+
+	private static double max(double[] aValues) {
+		double max = 1;
+		for (double value : aValues)
+			max = Math.max(max, value);
+		return max;
+	}
+
+	/**
+	 * Histograms, betweenness and stress accumulated over all sources.
+	 */
+	private static class Results {
+
+		Results(int aNumNodes, int aNumEdges, int aNumNeighbors) {
+			workspace = new TraversalWorkspace(aNumNodes, aNumNeighbors);
+			sharedNeighbors = new long[aNumNodes];
+			pathLengths = new long[aNumNodes];
+			betweenness = new double[aNumNodes];
+			stress = new long[aNumNodes];
+			edgeBetweenness = new double[aNumEdges];
+		}
+
+		final TraversalWorkspace workspace;
+		final long[] sharedNeighbors;
+		final long[] pathLengths;
+		final double[] betweenness;
+		final long[] stress;
+		final double[] edgeBetweenness;
+	}
+}
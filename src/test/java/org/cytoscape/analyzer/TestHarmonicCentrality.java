@@ -0,0 +1,158 @@
+package org.cytoscape.analyzer;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.cytoscape.analyzer.util.GraphComponents;
+import org.cytoscape.analyzer.util.GraphSnapshot;
+import org.cytoscape.analyzer.util.PathLengthData;
+import org.cytoscape.analyzer.util.SampleGraphs;
+import org.cytoscape.analyzer.util.TraversalWorkspace;
+import org.junit.Test;
+
+/**
+ * Checks the harmonic centralities and the global efficiency derived from the searches within every
+ * connected component against the inverse distances between all pairs of nodes of the network.
+ * Like the analyzers, the searches run on the snapshots of the components, and the inverse
+ * distances are divided by the number of other nodes in the whole network, so that the pairs of
+ * nodes in different components count as zero.
+ */
+public class TestHarmonicCentrality {
+
+	@Test
+	public void undirected() {
+		assertHarmonic(SampleGraphs.random(400, 300, false, 41), false);
+	}
+
+	@Test
+	public void directed() {
+		assertHarmonic(SampleGraphs.random(400, 400, true, 41), true);
+	}
+
+	private static void assertHarmonic(GraphSnapshot aGraph, boolean aDirected) {
+		final int n = aGraph.numNodes;
+		final double[] expected = new double[n];
+		double expectedSum = 0;
+		for (int source = 0; source < n; source++) {
+			final int[] distances = aDirected ? SampleGraphs.distances(aGraph.outOffsets, aGraph.outNeighbors, source)
+					: SampleGraphs.distances(aGraph.neighborOffsets, aGraph.neighbors, source);
+			for (int distance : distances)
+				if (distance > 0)
+					expected[source] += 1.0 / distance;
+			expectedSum += expected[source];
+			expected[source] /= n - 1;
+		}
+
+		final GraphComponents components = GraphComponents.of(aGraph);
+		final double[] harmonic = new double[n];
+		double sum = 0;
+		int connected = 0;
+		for (int c = 0; c < components.numComponents; c++) {
+			final int[] members = components.membersOf(c);
+			final GraphSnapshot component = aGraph.subgraph(members);
+			if (members.length > 1)
+				connected++;
+			for (int i = 0; i < members.length; i++) {
+				final double harmonicSum = aDirected ? searchDirected(component, i) : searchUndirected(component, i);
+				harmonic[members[i]] = harmonicSum / (n - 1);
+				sum += harmonicSum;
+			}
+		}
+		// Several components with paths, besides the single nodes
+		assertTrue(connected > 1 && components.numComponents > connected);
+		assertArrayEquals(expected, harmonic, 1e-12);
+		assertEquals(expectedSum / ((double) n * (n - 1)), sum / ((double) n * (n - 1)), 1e-12);
+	}
+
+	/**
+	 * Finds the sum of the inverse distances from a node of an undirected component, taking turns
+	 * among the searches the analyzer runs.
+	 */
+	private static double searchUndirected(GraphSnapshot aComponent, int aSource) {
+		final int n = aComponent.numNodes;
+		final int[] offsets = aComponent.neighborOffsets, neighbors = aComponent.neighbors;
+		final TraversalWorkspace workspace = new TraversalWorkspace(n, neighbors.length);
+		final long[] sharedNeighbors = new long[n + 1], pathLengths = new long[n];
+		final double[] betweenness = new double[n], edgeBetweenness = new double[aComponent.numPairs];
+		final long[] stress = new long[n];
+		final PathLengthData data;
+		switch (aSource % 3) {
+		case 0:
+			data = UndirNetworkAnalyzer.computeSPandSN(aSource, n, neighbors, offsets, sharedNeighbors, pathLengths,
+					workspace);
+			break;
+		case 1:
+			data = UndirNetworkAnalyzer.computeSPandNB(aSource, n, neighbors, offsets, aComponent.neighborPairs,
+					sharedNeighbors, pathLengths, betweenness, stress, edgeBetweenness, workspace);
+			break;
+		default:
+			data = UndirNetworkAnalyzer.computeWeightedSPandNB(aSource, neighbors, offsets, aComponent.neighborPairs,
+					unitLengths(neighbors.length), null, false, betweenness, stress, edgeBetweenness, workspace);
+		}
+		return data.getHarmonicSum();
+	}
+
+	/**
+	 * Finds the sum of the inverse distances from a node of a directed component, taking turns among
+	 * the searches the analyzer runs.
+	 */
+	private static double searchDirected(GraphSnapshot aComponent, int aSource) {
+		final int n = aComponent.numNodes;
+		final int[][] inOut = SampleGraphs.inOutNeighbors(aComponent);
+		final TraversalWorkspace workspace = new TraversalWorkspace(n, inOut[1].length);
+		final long[] pathLengths = new long[n];
+		final double[] betweenness = new double[n], arcBetweenness = new double[aComponent.numArcs];
+		final long[] stress = new long[n];
+		final PathLengthData data;
+		switch (aSource % 3) {
+		case 0:
+			data = DirNetworkAnalyzer.computeSP(aSource, n, aComponent.outNeighbors, aComponent.outOffsets,
+					pathLengths, workspace);
+			break;
+		case 1:
+			data = DirNetworkAnalyzer.computeSPandNB(aSource, n, inOut[1], inOut[0], inOut[2], aComponent.inOffsets,
+					pathLengths, betweenness, stress, arcBetweenness, workspace);
+			break;
+		default:
+			data = UndirNetworkAnalyzer.computeWeightedSPandNB(aSource, inOut[1], inOut[0], inOut[2],
+					unitLengths(inOut[1].length), aComponent.inOffsets, false, betweenness, stress, arcBetweenness,
+					workspace);
+		}
+		return data.getHarmonicSum();
+	}
+
+	private static double[] unitLengths(int aNumEdges) {
+		final double[] lengths = new double[aNumEdges];
+		Arrays.fill(lengths, 1.0);
+		return lengths;
+	}
+}
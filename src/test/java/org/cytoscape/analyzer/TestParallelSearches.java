@@ -0,0 +1,184 @@
+package org.cytoscape.analyzer;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.cytoscape.analyzer.util.GraphSnapshot;
+import org.cytoscape.analyzer.util.SampleGraphs;
+import org.cytoscape.analyzer.util.TraversalWorkspace;
+import org.junit.Test;
+
+/**
+ * Checks that the searches shared among several workers by {@link NetworkAnalyzer#forEachSource}
+ * give the same histograms, betweenness and stress as the searches of a single worker.
+ */
+public class TestParallelSearches {
+
+	/**
+	 * Number of nodes of the tested graphs; large enough for four workers, each of them taking its
+	 * sources in several chunks.
+	 */
+	private static final int NUM_NODES = 600;
+
+	/**
+	 * Number of edges of the tested graphs.
+	 */
+	private static final int NUM_EDGES = 1500;
+
+	/**
+	 * Number of workers compared with a single one.
+	 */
+	private static final int THREADS = 4;
+
+	@Test
+	public void visitsEverySourceOnce() {
+		final NetworkAnalyzer analyzer = SampleGraphs.analyzer(false, THREADS);
+		final AtomicIntegerArray visits = new AtomicIntegerArray(NUM_NODES);
+		final List<int[]> workers = analyzer.forEachSource(NUM_NODES, () -> new int[1], (count, source) -> {
+			visits.incrementAndGet(source);
+			count[0]++;
+		});
+		assertEquals(THREADS, workers.size());
+		int total = 0;
+		for (int[] count : workers)
+			total += count[0];
+		assertEquals(NUM_NODES, total);
+		for (int source = 0; source < NUM_NODES; source++)
+			assertEquals(1, visits.get(source));
+	}
+
+	@Test
+	public void undirectedSearches() {
+		final GraphSnapshot graph = SampleGraphs.random(NUM_NODES, NUM_EDGES, false, 17);
+		assertSame(searchUndirected(graph, 1), searchUndirected(graph, THREADS));
+	}
+
+	@Test
+	public void directedSearches() {
+		final GraphSnapshot graph = SampleGraphs.random(NUM_NODES, NUM_EDGES, true, 17);
+		assertSame(searchDirected(graph, 1), searchDirected(graph, THREADS));
+	}
+
+	/**
+	 * Searches from every node of an undirected graph, sharing the sources among the given number
+	 * of workers.
+	 */
+	private static Results searchUndirected(GraphSnapshot aGraph, int aThreads) {
+		final int n = aGraph.numNodes;
+		final NetworkAnalyzer analyzer = SampleGraphs.analyzer(false, aThreads);
+		final List<Results> workers = analyzer.forEachSource(n,
+				() -> new Results(n, aGraph.numPairs, aGraph.neighbors.length), (results, source) -> {
+					if (source % 2 == 0)
+						UndirNetworkAnalyzer.computeSPandNB(source, n, aGraph.neighbors, aGraph.neighborOffsets,
+								aGraph.neighborPairs, results.sharedNeighbors, results.pathLengths, results.betweenness,
+								results.stress, results.edgeBetweenness, results.workspace);
+					else
+						UndirNetworkAnalyzer.computeSPandSN(source, n, aGraph.neighbors, aGraph.neighborOffsets,
+								results.sharedNeighbors, results.pathLengths, results.workspace);
+				});
+		assertEquals(Math.min(aThreads, n / 32), workers.size());
+		return Results.sum(workers, n, aGraph.numPairs);
+	}
+
+	/**
+	 * Searches from every node of a directed graph, sharing the sources among the given number of
+	 * workers.
+	 */
+	private static Results searchDirected(GraphSnapshot aGraph, int aThreads) {
+		final int n = aGraph.numNodes;
+		final int[][] inOut = SampleGraphs.inOutNeighbors(aGraph);
+		final NetworkAnalyzer analyzer = SampleGraphs.analyzer(true, aThreads);
+		final List<Results> workers = analyzer.forEachSource(n,
+				() -> new Results(n, aGraph.numArcs, inOut[1].length), (results, source) ->
+					DirNetworkAnalyzer.computeSPandNB(source, n, inOut[1], inOut[0], inOut[2], aGraph.inOffsets,
+							results.pathLengths, results.betweenness, results.stress, results.edgeBetweenness,
+							results.workspace));
+		assertEquals(Math.min(aThreads, n / 32), workers.size());
+		return Results.sum(workers, n, aGraph.numArcs);
+	}
+
+	/**
+	 * Checks that the histograms and the stress are equal, and that the betweenness values differ
+	 * by rounding errors only, as the workers add them up in another order.
+	 */
+	private static void assertSame(Results aExpected, Results aActual) {
+		assertArrayEquals(aExpected.sharedNeighbors, aActual.sharedNeighbors);
+		assertArrayEquals(aExpected.pathLengths, aActual.pathLengths);
+		assertArrayEquals(aExpected.stress, aActual.stress);
+		assertArrayEquals(aExpected.betweenness, aActual.betweenness, 1e-9 * max(aExpected.betweenness));
+		assertArrayEquals(aExpected.edgeBetweenness, aActual.edgeBetweenness, 1e-9 * max(aExpected.edgeBetweenness));
+	}
+
+	private static double max(double[] aValues) {
+		double max = 1;
+		for (double value : aValues)
+			max = Math.max(max, value);
+		return max;
+	}
+
+	/**
+	 * Histograms, betweenness and stress accumulated by one worker, or added up over all workers.
+	 */
+	private static class Results {
+
+		Results(int aNumNodes, int aNumEdges, int aNumNeighbors) {
+			workspace = new TraversalWorkspace(aNumNodes, aNumNeighbors);
+			sharedNeighbors = new long[aNumNodes];
+			pathLengths = new long[aNumNodes];
+			betweenness = new double[aNumNodes];
+			stress = new long[aNumNodes];
+			edgeBetweenness = new double[aNumEdges];
+		}
+
+		static Results sum(List<Results> aWorkers, int aNumNodes, int aNumEdges) {
+			final Results sum = new Results(aNumNodes, aNumEdges, 0);
+			for (Results worker : aWorkers) {
+				for (int i = 0; i < aNumNodes; i++) {
+					sum.sharedNeighbors[i] += worker.sharedNeighbors[i];
+					sum.pathLengths[i] += worker.pathLengths[i];
+					sum.betweenness[i] += worker.betweenness[i];
+					sum.stress[i] += worker.stress[i];
+				}
+				for (int e = 0; e < aNumEdges; e++)
+					sum.edgeBetweenness[e] += worker.edgeBetweenness[e];
+			}
+			return sum;
+		}
+
+		final TraversalWorkspace workspace;
+		final long[] sharedNeighbors;
+		final long[] pathLengths;
+		final double[] betweenness;
+		final long[] stress;
+		final double[] edgeBetweenness;
+	}
+}
@@ -0,0 +1,171 @@
+package org.cytoscape.analyzer;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.cytoscape.analyzer.util.GraphSnapshot;
+import org.cytoscape.analyzer.util.SampleGraphs;
+import org.cytoscape.analyzer.util.TraversalWorkspace;
+import org.junit.Test;
+
+/**
+ * Checks the betweenness and stress of square grids, whose numbers of shortest paths between
+ * opposite corners overflow the integer path counts of the kernels, against a search that counts the
+ * paths in double precision.
+ */
+public class TestPathCountOverflow {
+
+	@Test
+	public void undirectedGrids() {
+		// The 40 x 40 grid has more than 10^22 shortest paths between opposite corners
+		for (int side : new int[] { 8, 40 }) {
+			final GraphSnapshot graph = SampleGraphs.grid(side);
+			final int n = graph.numNodes;
+			final TraversalWorkspace workspace = new TraversalWorkspace(n, graph.neighbors.length);
+			final double[] betweenness = new double[n], edgeBetweenness = new double[graph.numPairs];
+			final long[] stress = new long[n];
+			for (int source = 0; source < n; source++)
+				UndirNetworkAnalyzer.computeNBandEB(source, n, graph.neighbors, graph.neighborOffsets,
+						graph.neighborPairs, betweenness, stress, edgeBetweenness, workspace);
+			assertReference(new Reference(graph.neighborOffsets, graph.neighbors, graph.neighborPairs,
+					graph.numPairs), betweenness, stress, edgeBetweenness);
+		}
+	}
+
+	@Test
+	public void directedGrids() {
+		for (int side : new int[] { 8, 40 }) {
+			final GraphSnapshot undirected = SampleGraphs.grid(side);
+			final boolean[] directed = new boolean[undirected.numEdges];
+			Arrays.fill(directed, true);
+			final GraphSnapshot graph = GraphSnapshot.of(undirected.numNodes, undirected.edgeSources,
+					undirected.edgeTargets, directed);
+			final int n = graph.numNodes;
+			final int[][] inOut = SampleGraphs.inOutNeighbors(graph);
+			final TraversalWorkspace workspace = new TraversalWorkspace(n, inOut[1].length);
+			final double[] betweenness = new double[n], arcBetweenness = new double[graph.numArcs];
+			final long[] stress = new long[n];
+			for (int source = 0; source < n; source++)
+				DirNetworkAnalyzer.computeNBandEB(source, n, inOut[1], inOut[0], inOut[2], graph.inOffsets,
+						betweenness, stress, arcBetweenness, workspace);
+			final int[] arcs = new int[graph.numArcs];
+			for (int arc = 0; arc < arcs.length; arc++)
+				arcs[arc] = arc;
+			assertReference(new Reference(graph.outOffsets, graph.outNeighbors, arcs, graph.numArcs), betweenness,
+					stress, arcBetweenness);
+		}
+	}
+
+	/**
+	 * Checks the betweenness within rounding errors, and the stress within rounding errors or
+	 * saturated at the largest long value.
+	 */
+	private static void assertReference(Reference aReference, double[] aBetweenness, long[] aStress,
+			double[] aEdgeBetweenness) {
+		for (int node = 0; node < aBetweenness.length; node++) {
+			final double expected = aReference.betweenness[node];
+			assertEquals("Node " + node, expected, aBetweenness[node], 1e-9 * expected);
+			final double expectedStress = aReference.stress[node];
+			if (expectedStress >= Long.MAX_VALUE)
+				assertEquals(Long.MAX_VALUE, aStress[node]);
+			else
+				assertEquals("Node " + node, expectedStress, aStress[node], 1e-9 * expectedStress + 0.5);
+		}
+		assertTrue(aEdgeBetweenness.length > 0);
+		for (int edge = 0; edge < aEdgeBetweenness.length; edge++) {
+			final double expected = aReference.edgeBetweenness[edge];
+			assertEquals("Edge " + edge, expected, aEdgeBetweenness[edge], 1e-9 * expected);
+		}
+	}
+
+	/**
+	 * Betweenness and stress from a search from every node, following Brandes with the numbers of
+	 * shortest paths counted in double precision.
+	 */
+	private static class Reference {
+
+		Reference(int[] aOffsets, int[] aNeighbors, int[] aEdgeIDs, int aNumEdges) {
+			final int n = aOffsets.length - 1;
+			betweenness = new double[n];
+			stress = new double[n];
+			edgeBetweenness = new double[aNumEdges];
+			final int[] distance = new int[n];
+			final int[] queue = new int[n];
+			final double[] paths = new double[n];
+			final double[] dependency = new double[n];
+			final double[] stressDependency = new double[n];
+			for (int source = 0; source < n; source++) {
+				Arrays.fill(distance, -1);
+				Arrays.fill(paths, 0);
+				Arrays.fill(dependency, 0);
+				Arrays.fill(stressDependency, 0);
+				distance[source] = 0;
+				paths[source] = 1;
+				queue[0] = source;
+				int head = 0, tail = 1;
+				while (head < tail) {
+					final int node = queue[head++];
+					for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++) {
+						final int neighbor = aNeighbors[ni];
+						if (distance[neighbor] < 0) {
+							distance[neighbor] = distance[node] + 1;
+							queue[tail++] = neighbor;
+						}
+						if (distance[neighbor] == distance[node] + 1)
+							paths[neighbor] += paths[node];
+					}
+				}
+				// Dependencies of the predecessors, in order of non-increasing distance
+				for (int i = tail - 1; i > 0; i--) {
+					final int node = queue[i];
+					for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++) {
+						final int descendant = aNeighbors[ni];
+						if (distance[descendant] != distance[node] + 1)
+							continue;
+						final double share = paths[node] / paths[descendant] * (1 + dependency[descendant]);
+						dependency[node] += share;
+						stressDependency[node] += 1 + stressDependency[descendant];
+						edgeBetweenness[aEdgeIDs[ni]] += share;
+					}
+					betweenness[node] += dependency[node];
+					stress[node] += paths[node] * stressDependency[node];
+				}
+				for (int ni = aOffsets[source]; ni < aOffsets[source + 1]; ni++)
+					edgeBetweenness[aEdgeIDs[ni]] += paths[source] / paths[aNeighbors[ni]]
+							* (1 + dependency[aNeighbors[ni]]);
+			}
+		}
+
+		final double[] betweenness;
+		final double[] stress;
+		final double[] edgeBetweenness;
+	}
+}
@@ -0,0 +1,99 @@
+package org.cytoscape.analyzer;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+
+import org.cytoscape.analyzer.util.GraphSnapshot;
+import org.cytoscape.analyzer.util.SampleGraphs;
+import org.cytoscape.analyzer.util.TraversalWorkspace;
+import org.junit.Test;
+
+/**
+ * Checks the topological coefficients computed by {@link UndirNetworkAnalyzer#computeTC} against
+ * the ones counted from an adjacency matrix, node pair by node pair.
+ */
+public class TestTopologicalCoefficients {
+
+	@Test
+	public void undirected() {
+		assertCoefficients(SampleGraphs.random(300, 1200, false, 31));
+	}
+
+	@Test
+	public void directed() {
+		// The coefficients of a directed network are taken over all neighbors, in- and out-
+		assertCoefficients(SampleGraphs.random(300, 1200, true, 31));
+	}
+
+	@Test
+	public void sparse() {
+		// Many nodes with a single neighbor or none, whose coefficients are not defined
+		assertCoefficients(SampleGraphs.random(300, 200, false, 37));
+	}
+
+	/**
+	 * Checks the topological coefficient of every node: the average, over the nodes sharing a
+	 * neighbor with it, of the number of shared neighbors, plus one if the two nodes are linked,
+	 * divided by the number of neighbors of the node.
+	 */
+	private static void assertCoefficients(GraphSnapshot aGraph) {
+		final int n = aGraph.numNodes;
+		final boolean[][] linked = new boolean[n][n];
+		for (int e = 0; e < aGraph.numEdges; e++) {
+			final int source = aGraph.edgeSources[e], target = aGraph.edgeTargets[e];
+			if (source != target) {
+				linked[source][target] = true;
+				linked[target][source] = true;
+			}
+		}
+		final TraversalWorkspace workspace = new TraversalWorkspace(n, 0);
+		for (int node = 0; node < n; node++) {
+			int degree = 0;
+			for (int other = 0; other < n; other++)
+				if (linked[node][other])
+					degree++;
+			long sum = 0;
+			int partners = 0;
+			for (int other = 0; other < n; other++) {
+				if (other == node)
+					continue;
+				int shared = 0;
+				for (int neighbor = 0; neighbor < n; neighbor++)
+					if (linked[node][neighbor] && linked[other][neighbor])
+						shared++;
+				if (shared > 0) {
+					partners++;
+					sum += shared + (linked[node][other] ? 1 : 0);
+				}
+			}
+			final double expected = (double) sum / ((double) partners * degree);
+			assertEquals("Node " + node, expected,
+					UndirNetworkAnalyzer.computeTC(node, aGraph.neighbors, aGraph.neighborOffsets, workspace), 1e-12);
+		}
+	}
+}
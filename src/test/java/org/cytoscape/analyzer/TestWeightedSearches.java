@@ -0,0 +1,260 @@
+package org.cytoscape.analyzer;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.cytoscape.analyzer.util.GraphSnapshot;
+import org.cytoscape.analyzer.util.PathLengthData;
+import org.cytoscape.analyzer.util.SampleGraphs;
+import org.cytoscape.analyzer.util.TraversalWorkspace;
+import org.junit.Test;
+
+/**
+ * Checks the searches with Dijkstra's algorithm on edges of length <code>1</code>, which must find
+ * the same paths as the breadth-first searches, and on edges of other lengths, which must find the
+ * same paths as a plain Dijkstra search and the same betweenness as a brute-force count.
+ */
+public class TestWeightedSearches {
+
+	@Test
+	public void undirectedUnitLengths() {
+		final GraphSnapshot graph = SampleGraphs.random(400, 1000, false, 7);
+		final int n = graph.numNodes;
+		final int[] offsets = graph.neighborOffsets, neighbors = graph.neighbors;
+		final TraversalWorkspace workspace = new TraversalWorkspace(n, neighbors.length);
+		final double[] lengths = unitLengths(neighbors.length);
+		final double[] betweenness = new double[n], edgeBetweenness = new double[graph.numPairs];
+		final long[] stress = new long[n];
+		final double[] weightedBetweenness = new double[n], weightedEdgeBetweenness = new double[graph.numPairs];
+		final long[] weightedStress = new long[n];
+		for (int source = 0; source < n; source++) {
+			final PathLengthData data = UndirNetworkAnalyzer.computeWeightedSPandNB(source, neighbors, offsets,
+					graph.neighborPairs, lengths, null, true, weightedBetweenness, weightedStress,
+					weightedEdgeBetweenness, workspace);
+			assertPathLengths(SampleGraphs.distances(offsets, neighbors, source), source, data);
+			UndirNetworkAnalyzer.computeNBandEB(source, n, neighbors, offsets, graph.neighborPairs, betweenness,
+					stress, edgeBetweenness, workspace);
+		}
+		assertArrayEquals(betweenness, weightedBetweenness, 1e-9);
+		assertArrayEquals(stress, weightedStress);
+		assertArrayEquals(edgeBetweenness, weightedEdgeBetweenness, 1e-9);
+	}
+
+	@Test
+	public void directedUnitLengths() {
+		final GraphSnapshot graph = SampleGraphs.random(400, 1400, true, 8);
+		final int n = graph.numNodes;
+		final int[][] inOut = SampleGraphs.inOutNeighbors(graph);
+		final TraversalWorkspace workspace = new TraversalWorkspace(n, inOut[1].length);
+		final double[] lengths = unitLengths(inOut[1].length);
+		final double[] betweenness = new double[n], arcBetweenness = new double[graph.numArcs];
+		final long[] stress = new long[n];
+		final double[] weightedBetweenness = new double[n], weightedArcBetweenness = new double[graph.numArcs];
+		final long[] weightedStress = new long[n];
+		for (int source = 0; source < n; source++) {
+			final PathLengthData data = UndirNetworkAnalyzer.computeWeightedSPandNB(source, inOut[1], inOut[0],
+					inOut[2], lengths, graph.inOffsets, true, weightedBetweenness, weightedStress,
+					weightedArcBetweenness, workspace);
+			assertPathLengths(SampleGraphs.distances(graph.outOffsets, graph.outNeighbors, source), source, data);
+			DirNetworkAnalyzer.computeNBandEB(source, n, inOut[1], inOut[0], inOut[2], graph.inOffsets,
+					betweenness, stress, arcBetweenness, workspace);
+		}
+		assertArrayEquals(betweenness, weightedBetweenness, 1e-9);
+		assertArrayEquals(stress, weightedStress);
+		assertArrayEquals(arcBetweenness, weightedArcBetweenness, 1e-9);
+	}
+
+	@Test
+	public void undirectedRandomLengths() {
+		final GraphSnapshot graph = SampleGraphs.random(60, 150, false, 9);
+		assertUndirectedLengths(graph, randomLengths(graph.numPairs, false, 9));
+	}
+
+	@Test
+	public void undirectedEqualLengthPaths() {
+		final GraphSnapshot graph = SampleGraphs.random(60, 150, false, 10);
+		assertTrue(assertUndirectedLengths(graph, randomLengths(graph.numPairs, true, 10)));
+	}
+
+	@Test
+	public void directedRandomLengths() {
+		final GraphSnapshot graph = SampleGraphs.random(60, 240, true, 11);
+		assertDirectedLengths(graph, randomLengths(graph.numArcs, false, 11));
+	}
+
+	@Test
+	public void directedEqualLengthPaths() {
+		final GraphSnapshot graph = SampleGraphs.random(60, 240, true, 12);
+		assertTrue(assertDirectedLengths(graph, randomLengths(graph.numArcs, true, 12)));
+	}
+
+	/**
+	 * Checks the weighted searches from every node of an undirected graph against the plain
+	 * Dijkstra search and the brute-force betweenness.
+	 * 
+	 * @param aPairLengths
+	 *            Length of every edge, by pair ID.
+	 * @return <code>true</code> if some node is reached by several shortest paths.
+	 */
+	private static boolean assertUndirectedLengths(GraphSnapshot aGraph, double[] aPairLengths) {
+		final int n = aGraph.numNodes;
+		final int[] offsets = aGraph.neighborOffsets, neighbors = aGraph.neighbors;
+		final double[] lengths = new double[neighbors.length];
+		for (int ni = 0; ni < neighbors.length; ni++)
+			lengths[ni] = aPairLengths[aGraph.neighborPairs[ni]];
+		final TraversalWorkspace workspace = new TraversalWorkspace(n, neighbors.length);
+		final double[] betweenness = new double[n], edgeBetweenness = new double[aGraph.numPairs];
+		final long[] stress = new long[n];
+		final double[] weightedBetweenness = new double[n], weightedEdgeBetweenness = new double[aGraph.numPairs];
+		final long[] weightedStress = new long[n];
+		boolean ties = false;
+		for (int source = 0; source < n; source++) {
+			final PathLengthData data = UndirNetworkAnalyzer.computeWeightedSPandNB(source, neighbors, offsets,
+					aGraph.neighborPairs, lengths, null, true, weightedBetweenness, weightedStress,
+					weightedEdgeBetweenness, workspace);
+			ties |= assertPathLengths(SampleGraphs.shortestPaths(offsets, neighbors, lengths, source), source, data);
+			SampleGraphs.dependencies(offsets, neighbors, aGraph.neighborPairs, lengths, source, betweenness, stress,
+					edgeBetweenness);
+		}
+		assertArrayEquals(betweenness, weightedBetweenness, 1e-9);
+		assertArrayEquals(stress, weightedStress);
+		assertArrayEquals(edgeBetweenness, weightedEdgeBetweenness, 1e-9);
+		return ties;
+	}
+
+	/**
+	 * Checks the weighted searches from every node of a directed graph against the plain Dijkstra
+	 * search and the brute-force betweenness.
+	 * 
+	 * @param aArcLengths
+	 *            Length of every edge, by arc ID.
+	 * @return <code>true</code> if some node is reached by several shortest paths.
+	 */
+	private static boolean assertDirectedLengths(GraphSnapshot aGraph, double[] aArcLengths) {
+		final int n = aGraph.numNodes;
+		final int[][] inOut = SampleGraphs.inOutNeighbors(aGraph);
+		final double[] lengths = new double[inOut[1].length];
+		for (int ni = 0; ni < lengths.length; ni++)
+			lengths[ni] = aArcLengths[inOut[2][ni]];
+		final int[] arcs = new int[aGraph.numArcs];
+		for (int ei = 0; ei < arcs.length; ei++)
+			arcs[ei] = ei;
+		final TraversalWorkspace workspace = new TraversalWorkspace(n, inOut[1].length);
+		final double[] betweenness = new double[n], arcBetweenness = new double[aGraph.numArcs];
+		final long[] stress = new long[n];
+		final double[] weightedBetweenness = new double[n], weightedArcBetweenness = new double[aGraph.numArcs];
+		final long[] weightedStress = new long[n];
+		boolean ties = false;
+		for (int source = 0; source < n; source++) {
+			final PathLengthData data = UndirNetworkAnalyzer.computeWeightedSPandNB(source, inOut[1], inOut[0],
+					inOut[2], lengths, aGraph.inOffsets, true, weightedBetweenness, weightedStress,
+					weightedArcBetweenness, workspace);
+			ties |= assertPathLengths(SampleGraphs.shortestPaths(aGraph.outOffsets, aGraph.outNeighbors, aArcLengths,
+					source), source, data);
+			SampleGraphs.dependencies(aGraph.outOffsets, aGraph.outNeighbors, arcs, aArcLengths, source, betweenness,
+					stress, arcBetweenness);
+		}
+		assertArrayEquals(betweenness, weightedBetweenness, 1e-9);
+		assertArrayEquals(stress, weightedStress);
+		assertArrayEquals(arcBetweenness, weightedArcBetweenness, 1e-9);
+		return ties;
+	}
+
+	/**
+	 * Generates random edge lengths.
+	 * 
+	 * @param aTies
+	 *            Flag indicating if the lengths are multiples of <code>1/4</code>, whose sums are
+	 *            exact, so that many paths are equally short; otherwise, the lengths are arbitrary
+	 *            doubles between <code>0.1</code> and <code>1.1</code>.
+	 */
+	private static double[] randomLengths(int aNumEdges, boolean aTies, long aSeed) {
+		final Random random = new Random(aSeed);
+		final double[] lengths = new double[aNumEdges];
+		for (int e = 0; e < aNumEdges; e++)
+			lengths[e] = aTies ? (1 + random.nextInt(12)) / 4.0 : 0.1 + random.nextDouble();
+		return lengths;
+	}
+
+	private static double[] unitLengths(int aNumEdges) {
+		final double[] lengths = new double[aNumEdges];
+		Arrays.fill(lengths, 1.0);
+		return lengths;
+	}
+
+	/**
+	 * Checks the number, the sum and the harmonic sum of the path lengths found by a weighted search
+	 * against the shortest paths found by a plain Dijkstra search.
+	 * 
+	 * @return <code>true</code> if some node is reached by several shortest paths.
+	 */
+	private static boolean assertPathLengths(double[][] aShortestPaths, int aSource, PathLengthData aData) {
+		final double[] distances = aShortestPaths[0];
+		int count = 0;
+		double total = 0;
+		double harmonic = 0;
+		boolean ties = false;
+		for (int node = 0; node < distances.length; node++) {
+			if (node != aSource && distances[node] < Double.POSITIVE_INFINITY) {
+				count++;
+				total += distances[node];
+				harmonic += 1.0 / distances[node];
+				ties |= aShortestPaths[1][node] > 1;
+			}
+		}
+		assertEquals("Source " + aSource, count, aData.getCount());
+		assertEquals("Source " + aSource, total, aData.getWeightedLength(), 1e-9 * total);
+		assertEquals("Source " + aSource, harmonic, aData.getHarmonicSum(), 1e-9);
+		return ties;
+	}
+
+	/**
+	 * Checks the number, the sum and the harmonic sum of the path lengths found by a weighted search
+	 * against the distances found by a breadth-first search.
+	 */
+	private static void assertPathLengths(int[] aDistances, int aSource, PathLengthData aData) {
+		int count = 0;
+		long total = 0;
+		double harmonic = 0;
+		for (int node = 0; node < aDistances.length; node++) {
+			if (node != aSource && aDistances[node] > 0) {
+				count++;
+				total += aDistances[node];
+				harmonic += 1.0 / aDistances[node];
+			}
+		}
+		assertEquals("Source " + aSource, count, aData.getCount());
+		assertEquals("Source " + aSource, total, aData.getWeightedLength(), 0);
+		assertEquals("Source " + aSource, harmonic, aData.getHarmonicSum(), 1e-9);
+	}
+}
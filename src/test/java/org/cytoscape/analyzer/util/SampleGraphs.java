@@ -0,0 +1,392 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.cytoscape.analyzer.DirNetworkAnalyzer;
+import org.cytoscape.analyzer.NetworkAnalyzer;
+import org.cytoscape.analyzer.UndirNetworkAnalyzer;
+import org.cytoscape.model.CyNetwork;
+import org.cytoscape.model.CyRow;
+
+/**
+ * Graphs and analyzers shared by the tests of the traversal kernels.
+ */
+public final class SampleGraphs {
+
+	/**
+	 * Generates a random graph with the given numbers of nodes and edges. Self-loops and multiple
+	 * edges are kept, as they are in the analyzed networks.
+	 * 
+	 * @param aNumNodes
+	 *            Number of nodes.
+	 * @param aNumEdges
+	 *            Number of edges.
+	 * @param aDirected
+	 *            Flag indicating if all edges are directed; otherwise all of them are undirected.
+	 * @param aSeed
+	 *            Seed of the generator, so that every run tests the same graph.
+	 * @return Snapshot of the generated graph.
+	 */
+	public static GraphSnapshot random(int aNumNodes, int aNumEdges, boolean aDirected, long aSeed) {
+		final Random random = new Random(aSeed);
+		final int[] sources = new int[aNumEdges];
+		final int[] targets = new int[aNumEdges];
+		final boolean[] directed = new boolean[aNumEdges];
+		for (int e = 0; e < aNumEdges; e++) {
+			sources[e] = random.nextInt(aNumNodes);
+			targets[e] = random.nextInt(aNumNodes);
+			directed[e] = aDirected;
+		}
+		return GraphSnapshot.of(aNumNodes, sources, targets, directed);
+	}
+
+	/**
+	 * Generates a random connected graph: a random tree, in which many nodes have a single neighbor,
+	 * and a few more edges between random nodes.
+	 * 
+	 * @param aNumNodes
+	 *            Number of nodes.
+	 * @param aExtraEdges
+	 *            Number of edges added to the tree.
+	 * @param aSeed
+	 *            Seed of the generator, so that every run tests the same graph.
+	 * @return Snapshot of the undirected graph.
+	 */
+	public static GraphSnapshot connected(int aNumNodes, int aExtraEdges, long aSeed) {
+		final Random random = new Random(aSeed);
+		final int numEdges = aNumNodes - 1 + aExtraEdges;
+		final int[] sources = new int[numEdges];
+		final int[] targets = new int[numEdges];
+		for (int node = 1; node < aNumNodes; node++) {
+			sources[node - 1] = random.nextInt(node);
+			targets[node - 1] = node;
+		}
+		for (int e = aNumNodes - 1; e < numEdges; e++) {
+			sources[e] = random.nextInt(aNumNodes);
+			targets[e] = random.nextInt(aNumNodes);
+		}
+		return GraphSnapshot.of(aNumNodes, sources, targets, new boolean[numEdges]);
+	}
+
+	/**
+	 * Generates a square grid, whose rows and columns are paths of the given number of nodes.
+	 * 
+	 * @param aSide
+	 *            Number of nodes in every row and every column.
+	 * @return Snapshot of the undirected grid.
+	 */
+	public static GraphSnapshot grid(int aSide) {
+		final int numEdges = 2 * aSide * (aSide - 1);
+		final int[] sources = new int[numEdges];
+		final int[] targets = new int[numEdges];
+		int e = 0;
+		for (int row = 0; row < aSide; row++) {
+			for (int column = 0; column < aSide; column++) {
+				final int node = row * aSide + column;
+				if (column + 1 < aSide) {
+					sources[e] = node;
+					targets[e++] = node + 1;
+				}
+				if (row + 1 < aSide) {
+					sources[e] = node;
+					targets[e++] = node + aSide;
+				}
+			}
+		}
+		return GraphSnapshot.of(aSide * aSide, sources, targets, new boolean[numEdges]);
+	}
+
+	/**
+	 * Arranges the out-neighbors and then the in-neighbors of every node of a directed graph one
+	 * after another, as {@link DirNetworkAnalyzer} passes them to its kernels.
+	 * 
+	 * @param aGraph
+	 *            Snapshot of a directed graph.
+	 * @return Array of three arrays: the offsets of the neighbors of every node, the neighbors, and
+	 *         the arc connecting the node to each of them.
+	 */
+	public static int[][] inOutNeighbors(GraphSnapshot aGraph) {
+		final int n = aGraph.numNodes;
+		final int[] offsets = new int[n + 1];
+		final int[] neighbors = new int[aGraph.outNeighbors.length + aGraph.inNeighbors.length];
+		final int[] arcs = new int[neighbors.length];
+		for (int node = 0, offset = 0; node < n; node++) {
+			offsets[node] = offset;
+			for (int ei = aGraph.outOffsets[node]; ei < aGraph.outOffsets[node + 1]; ei++) {
+				arcs[offset] = ei;
+				neighbors[offset++] = aGraph.outNeighbors[ei];
+			}
+			for (int ei = aGraph.inOffsets[node]; ei < aGraph.inOffsets[node + 1]; ei++) {
+				arcs[offset] = aGraph.inArcs[ei];
+				neighbors[offset++] = aGraph.inNeighbors[ei];
+			}
+		}
+		offsets[n] = neighbors.length;
+		return new int[][] { offsets, neighbors, arcs };
+	}
+
+	/**
+	 * Finds the distances from the given node with a plain breadth-first search, as a reference for
+	 * the optimized searches.
+	 * 
+	 * @param aOffsets
+	 *            Array with the indices of each node's first neighbor in <code>aNeighbors</code>.
+	 * @param aNeighbors
+	 *            Array with every node's neighbor indices.
+	 * @param aSource
+	 *            Node the search starts from.
+	 * @return Number of edges on a shortest path from <code>aSource</code> to every node;
+	 *         <code>-1</code> for the nodes it does not reach.
+	 */
+	public static int[] distances(int[] aOffsets, int[] aNeighbors, int aSource) {
+		final int[] distances = new int[aOffsets.length - 1];
+		Arrays.fill(distances, -1);
+		final ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		distances[aSource] = 0;
+		queue.add(aSource);
+		while (!queue.isEmpty()) {
+			final int node = queue.poll();
+			for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++) {
+				if (distances[aNeighbors[ni]] < 0) {
+					distances[aNeighbors[ni]] = distances[node] + 1;
+					queue.add(aNeighbors[ni]);
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Finds the shortest paths from the given node with a plain Dijkstra search, which scans all
+	 * nodes for the closest one, as a reference for the optimized searches. Two paths are equally
+	 * short if their lengths are equal in double precision, as in the optimized searches.
+	 * 
+	 * @param aOffsets
+	 *            Array with the indices of each node's first neighbor in <code>aNeighbors</code>.
+	 * @param aNeighbors
+	 *            Array with every node's neighbor indices.
+	 * @param aLengths
+	 *            Positive length of the edge to every neighbor, parallel to <code>aNeighbors</code>;
+	 *            <code>null</code> if every edge has length <code>1</code>.
+	 * @param aSource
+	 *            Node the search starts from.
+	 * @return Array of two arrays: the length of a shortest path from <code>aSource</code> to every
+	 *         node, <code>Double.POSITIVE_INFINITY</code> for the nodes it does not reach, and the
+	 *         number of shortest paths to every node.
+	 */
+	public static double[][] shortestPaths(int[] aOffsets, int[] aNeighbors, double[] aLengths, int aSource) {
+		final int n = aOffsets.length - 1;
+		final double[] distances = new double[n];
+		final double[] counts = new double[n];
+		final boolean[] settled = new boolean[n];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		distances[aSource] = 0;
+		counts[aSource] = 1;
+		while (true) {
+			int node = -1;
+			for (int i = 0; i < n; i++)
+				if (!settled[i] && distances[i] < Double.POSITIVE_INFINITY && (node < 0 || distances[i] < distances[node]))
+					node = i;
+			if (node < 0)
+				return new double[][] { distances, counts };
+			settled[node] = true;
+			for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++) {
+				final int neighbor = aNeighbors[ni];
+				final double length = distances[node] + (aLengths == null ? 1 : aLengths[ni]);
+				if (length < distances[neighbor]) {
+					distances[neighbor] = length;
+					counts[neighbor] = 0;
+				}
+				if (length == distances[neighbor] && !settled[neighbor])
+					counts[neighbor] += counts[node];
+			}
+		}
+	}
+
+	/**
+	 * Accumulates the node betweenness, stress and edge betweenness contributed by the given source
+	 * by brute force, as a reference for the algorithm of Brandes: the shortest paths to every
+	 * target are counted through every node and every edge separately.
+	 * 
+	 * @param aOffsets
+	 *            Array with the indices of each node's first neighbor in <code>aNeighbors</code>.
+	 * @param aNeighbors
+	 *            Array with every node's neighbor indices.
+	 * @param aEdgeIDs
+	 *            IDs of the edges to the neighbors, parallel to <code>aNeighbors</code>.
+	 * @param aLengths
+	 *            Positive length of the edge to every neighbor, parallel to <code>aNeighbors</code>;
+	 *            <code>null</code> if every edge has length <code>1</code>.
+	 * @param aSource
+	 *            Source of the shortest paths.
+	 * @param aBetweenness
+	 *            Node betweenness, to which the contributions of the source are added.
+	 * @param aStress
+	 *            Stress, to which the contributions of the source are added.
+	 * @param aEdgeBetweenness
+	 *            Edge betweenness, indexed by edge ID, to which the contributions of the source are
+	 *            added.
+	 */
+	public static void dependencies(int[] aOffsets, int[] aNeighbors, int[] aEdgeIDs, double[] aLengths, int aSource,
+			double[] aBetweenness, long[] aStress, double[] aEdgeBetweenness) {
+		final int n = aOffsets.length - 1;
+		final double[][] paths = shortestPaths(aOffsets, aNeighbors, aLengths, aSource);
+		final double[] distances = paths[0], counts = paths[1];
+		// Nodes by non-increasing distance, so that every edge of a shortest path leads to an earlier node
+		final Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++)
+			order[i] = Integer.valueOf(i);
+		Arrays.sort(order, (a, b) -> Double.compare(distances[b.intValue()], distances[a.intValue()]));
+		final double[] countsTo = new double[n];
+		for (int target = 0; target < n; target++) {
+			if (target == aSource || distances[target] == Double.POSITIVE_INFINITY)
+				continue;
+			// Number of shortest paths from the source to the target that continue from every node
+			Arrays.fill(countsTo, 0);
+			countsTo[target] = 1;
+			for (Integer node : order) {
+				final int v = node.intValue();
+				if (distances[v] >= distances[target])
+					continue;
+				for (int ni = aOffsets[v]; ni < aOffsets[v + 1]; ni++)
+					if (onShortestPath(distances, aLengths, v, aNeighbors[ni], ni))
+						countsTo[v] += countsTo[aNeighbors[ni]];
+			}
+			for (int v = 0; v < n; v++) {
+				if (v == aSource || v == target || countsTo[v] == 0)
+					continue;
+				aBetweenness[v] += counts[v] * countsTo[v] / counts[target];
+				aStress[v] += (long) (counts[v] * countsTo[v]);
+			}
+			for (int v = 0; v < n; v++)
+				for (int ni = aOffsets[v]; ni < aOffsets[v + 1]; ni++)
+					if (countsTo[aNeighbors[ni]] > 0 && onShortestPath(distances, aLengths, v, aNeighbors[ni], ni))
+						aEdgeBetweenness[aEdgeIDs[ni]] += counts[v] * countsTo[aNeighbors[ni]] / counts[target];
+		}
+	}
+
+	/**
+	 * Checks if the edge at the given neighbor position lies on a shortest path from the source of
+	 * the given distances.
+	 */
+	private static boolean onShortestPath(double[] aDistances, double[] aLengths, int aNode, int aNeighbor, int aPosition) {
+		return aDistances[aNode] + (aLengths == null ? 1 : aLengths[aPosition]) == aDistances[aNeighbor];
+	}
+
+	/**
+	 * Solves a dense system of linear equations by Gaussian elimination with partial pivoting, as a
+	 * reference for the iterative centralities.
+	 * 
+	 * @param aMatrix
+	 *            Square, non-singular matrix of the system; modified in place.
+	 * @param aRight
+	 *            Right-hand side of the system; modified in place.
+	 * @return Solution of the system.
+	 */
+	public static double[] solve(double[][] aMatrix, double[] aRight) {
+		final int n = aRight.length;
+		for (int column = 0; column < n; column++) {
+			int pivot = column;
+			for (int row = column + 1; row < n; row++)
+				if (Math.abs(aMatrix[row][column]) > Math.abs(aMatrix[pivot][column]))
+					pivot = row;
+			final double[] swap = aMatrix[column];
+			aMatrix[column] = aMatrix[pivot];
+			aMatrix[pivot] = swap;
+			final double right = aRight[column];
+			aRight[column] = aRight[pivot];
+			aRight[pivot] = right;
+			for (int row = column + 1; row < n; row++) {
+				final double factor = aMatrix[row][column] / aMatrix[column][column];
+				for (int k = column; k < n; k++)
+					aMatrix[row][k] -= factor * aMatrix[column][k];
+				aRight[row] -= factor * aRight[column];
+			}
+		}
+		final double[] solution = new double[n];
+		for (int row = n - 1; row >= 0; row--) {
+			double sum = aRight[row];
+			for (int k = row + 1; k < n; k++)
+				sum -= aMatrix[row][k] * solution[k];
+			solution[row] = sum / aMatrix[row][row];
+		}
+		return solution;
+	}
+
+	/**
+	 * Creates an analyzer whose workers share the traversals of the tests. Its network is empty and
+	 * is never read by the kernels.
+	 * 
+	 * @param aDirected
+	 *            Flag indicating if a directed analyzer is created.
+	 * @param aThreads
+	 *            Number of worker threads of the analyzer.
+	 * @return Analyzer of an empty network.
+	 */
+	public static NetworkAnalyzer analyzer(boolean aDirected, int aThreads) {
+		final CyNetwork network = emptyNetwork();
+		final NetworkInterpretation interpretation = new NetworkInterpretation(aDirected);
+		final NetworkAnalyzer analyzer = aDirected ? new DirNetworkAnalyzer(network, null, interpretation)
+				: new UndirNetworkAnalyzer(network, null, interpretation);
+		final AnalysisOptions options = new AnalysisOptions();
+		options.threads = aThreads;
+		analyzer.setOptions(options);
+		return analyzer;
+	}
+
+	/**
+	 * Creates a network without nodes and edges, whose rows hold a name only.
+	 */
+	private static CyNetwork emptyNetwork() {
+		final CyRow row = (CyRow) Proxy.newProxyInstance(CyRow.class.getClassLoader(), new Class<?>[] { CyRow.class },
+				(proxy, method, args) -> "get".equals(method.getName()) ? "Sample" : defaultValue(method.getReturnType()));
+		return (CyNetwork) Proxy.newProxyInstance(CyNetwork.class.getClassLoader(), new Class<?>[] { CyNetwork.class },
+				(proxy, method, args) -> "getRow".equals(method.getName()) ? row : defaultValue(method.getReturnType()));
+	}
+
+	/**
+	 * Default value of the given return type of a proxied method.
+	 */
+	private static Object defaultValue(Class<?> aType) {
+		if (aType == int.class)
+			return Integer.valueOf(0);
+		if (aType == long.class)
+			return Long.valueOf(0);
+		if (aType == boolean.class)
+			return Boolean.FALSE;
+		return null;
+	}
+
+	private SampleGraphs() {
+		// Utility class, not instantiated
+	}
+}
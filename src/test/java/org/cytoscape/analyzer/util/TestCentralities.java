@@ -0,0 +1,144 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Checks {@link EigenvectorCentrality}, {@link KatzCentrality} and {@link Hits} against the closed
+ * forms on small graphs and against a dense solve of the Katz equations.
+ */
+public class TestCentralities {
+
+	/**
+	 * Tolerance of the tested iterations.
+	 */
+	private static final double TOLERANCE = 1e-12;
+
+	@Test
+	public void eigenvectorOfStar() {
+		// The largest eigenvalue of a star with k leaves is sqrt(k)
+		final int leaves = 9;
+		final int[] sources = new int[leaves];
+		final int[] targets = new int[leaves];
+		for (int i = 0; i < leaves; i++)
+			targets[i] = i + 1;
+		final GraphSnapshot graph = GraphSnapshot.of(leaves + 1, sources, targets, new boolean[leaves]);
+		final EigenvectorCentrality eigenvector = EigenvectorCentrality.run(null, graph.numNodes,
+				graph.neighborOffsets, graph.neighbors, TOLERANCE);
+		assertEquals(3, eigenvector.getEigenvalue(), 1e-9);
+		assertEquals(Math.sqrt(0.5), eigenvector.scores[0], 1e-9);
+		for (int node = 1; node <= leaves; node++)
+			assertEquals(Math.sqrt(0.5 / leaves), eigenvector.scores[node], 1e-9);
+	}
+
+	@Test
+	public void eigenvectorOfClique() {
+		final int n = 7;
+		final int[] sources = new int[n * (n - 1) / 2];
+		final int[] targets = new int[sources.length];
+		int edge = 0;
+		for (int i = 0; i < n; i++)
+			for (int j = i + 1; j < n; j++, edge++) {
+				sources[edge] = i;
+				targets[edge] = j;
+			}
+		final GraphSnapshot graph = GraphSnapshot.of(n, sources, targets, new boolean[sources.length]);
+		final EigenvectorCentrality eigenvector = EigenvectorCentrality.run(null, n, graph.neighborOffsets,
+				graph.neighbors, TOLERANCE);
+		assertEquals(n - 1, eigenvector.getEigenvalue(), 1e-9);
+		for (int node = 0; node < n; node++)
+			assertEquals(1 / Math.sqrt(n), eigenvector.scores[node], 1e-9);
+	}
+
+	@Test
+	public void katzUndirected() {
+		final GraphSnapshot graph = SampleGraphs.random(60, 150, false, 53);
+		assertKatz(graph.numNodes, graph.neighborOffsets, graph.neighbors);
+	}
+
+	@Test
+	public void katzDirected() {
+		final GraphSnapshot graph = SampleGraphs.random(60, 200, true, 59);
+		assertKatz(graph.numNodes, graph.inOffsets, graph.inNeighbors);
+	}
+
+	@Test
+	public void hitsOfDag() {
+		// Hubs 0, 1 and 2 point to authority 3; hub 0 also points to authority 4
+		final GraphSnapshot graph = GraphSnapshot.of(5, new int[] { 0, 0, 1, 2 }, new int[] { 3, 4, 3, 3 },
+				new boolean[] { true, true, true, true });
+		final Hits hits = Hits.run(null, 5, graph.outOffsets, graph.outNeighbors, graph.inOffsets, graph.inNeighbors,
+				TOLERANCE);
+		// The authorities are the principal eigenvector of [[3, 1], [1, 1]], the hubs follow from them
+		final double a3 = 1 + Math.sqrt(2), a4 = 1;
+		final double[] authorities = normalized(new double[] { 0, 0, 0, a3, a4 });
+		final double[] hubs = normalized(new double[] { a3 + a4, a3, a3, 0, 0 });
+		assertArrayEquals(authorities, hits.authorities, 1e-9);
+		assertArrayEquals(hubs, hits.hubs, 1e-9);
+	}
+
+	/**
+	 * Checks the Katz centrality at half the convergence limit and close to it, where the series of
+	 * walks converges slowly, against the dense solution of <code>x = alpha A<sup>T</sup> x + 1</code>.
+	 */
+	private static void assertKatz(int aNumNodes, int[] aInOffsets, int[] aInNeighbors) {
+		final double eigenvalue = EigenvectorCentrality.run(null, aNumNodes, aInOffsets, aInNeighbors, TOLERANCE)
+				.getEigenvalue();
+		for (double factor : new double[] { 0.5, 0.95 }) {
+			final double attenuation = factor / eigenvalue;
+			final double[][] matrix = new double[aNumNodes][aNumNodes];
+			final double[] right = new double[aNumNodes];
+			for (int node = 0; node < aNumNodes; node++) {
+				matrix[node][node] = 1;
+				right[node] = 1;
+				for (int ni = aInOffsets[node]; ni < aInOffsets[node + 1]; ni++)
+					matrix[node][aInNeighbors[ni]] -= attenuation;
+			}
+			final double[] expected = normalized(SampleGraphs.solve(matrix, right));
+			final KatzCentrality katz = KatzCentrality.run(null, aNumNodes, aInOffsets, aInNeighbors, attenuation,
+					TOLERANCE);
+			assertArrayEquals("Attenuation factor " + factor, expected, katz.scores, 1e-8);
+		}
+	}
+
+	/**
+	 * Scales the given vector to unit Euclidean norm.
+	 */
+	private static double[] normalized(double[] aValues) {
+		double norm = 0;
+		for (final double value : aValues)
+			norm += value * value;
+		norm = Math.sqrt(norm);
+		for (int i = 0; i < aValues.length; i++)
+			aValues[i] /= norm;
+		return aValues;
+	}
+}
@@ -0,0 +1,110 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Checks the core numbers found by {@link CoreDecomposition} against the ones found by peeling the
+ * graph one degree at a time.
+ */
+public class TestCoreDecomposition {
+
+	@Test
+	public void randomGraphs() {
+		for (int seed = 61; seed < 64; seed++) {
+			final GraphSnapshot graph = SampleGraphs.random(300, 1200, false, seed);
+			final CoreDecomposition cores = CoreDecomposition.compute(graph.numNodes, graph.neighborOffsets,
+					graph.neighbors);
+			final int[] expected = peel(graph.numNodes, graph.neighborOffsets, graph.neighbors);
+			assertArrayEquals("Seed " + seed, expected, cores.cores);
+			int degeneracy = 0;
+			for (final int core : expected)
+				degeneracy = Math.max(degeneracy, core);
+			assertEquals(degeneracy, cores.getDegeneracy());
+		}
+	}
+
+	@Test
+	public void cliqueWithTail() {
+		// Nodes 0 to 5 form a clique, nodes 6 to 9 a path hanging from node 0
+		final int clique = 6, tail = 4;
+		final int numEdges = clique * (clique - 1) / 2 + tail;
+		final int[] sources = new int[numEdges];
+		final int[] targets = new int[numEdges];
+		int edge = 0;
+		for (int i = 0; i < clique; i++)
+			for (int j = i + 1; j < clique; j++, edge++) {
+				sources[edge] = i;
+				targets[edge] = j;
+			}
+		for (int node = clique; node < clique + tail; node++, edge++) {
+			sources[edge] = (node == clique) ? 0 : node - 1;
+			targets[edge] = node;
+		}
+		final GraphSnapshot graph = GraphSnapshot.of(clique + tail, sources, targets, new boolean[numEdges]);
+		final CoreDecomposition cores = CoreDecomposition.compute(graph.numNodes, graph.neighborOffsets,
+				graph.neighbors);
+		assertEquals(clique - 1, cores.getDegeneracy());
+		for (int node = 0; node < graph.numNodes; node++)
+			assertEquals("Node " + node, (node < clique) ? clique - 1 : 1, cores.cores[node]);
+	}
+
+	/**
+	 * Computes the core numbers by removing, for <code>k = 0, 1, ...</code>, the nodes of degree at
+	 * most <code>k</code> until none is left; the removed nodes have core number <code>k</code>.
+	 */
+	private static int[] peel(int aNumNodes, int[] aOffsets, int[] aNeighbors) {
+		final int[] cores = new int[aNumNodes];
+		final boolean[] removed = new boolean[aNumNodes];
+		int left = aNumNodes;
+		for (int k = 0; left > 0; k++) {
+			boolean found = true;
+			while (found) {
+				found = false;
+				for (int node = 0; node < aNumNodes; node++) {
+					if (removed[node])
+						continue;
+					int degree = 0;
+					for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++)
+						if (!removed[aNeighbors[ni]])
+							degree++;
+					if (degree <= k) {
+						removed[node] = true;
+						cores[node] = k;
+						left--;
+						found = true;
+					}
+				}
+			}
+		}
+		return cores;
+	}
+}
@@ -0,0 +1,119 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+import org.junit.Test;
+
+/**
+ * Checks the distances found by {@link DeltaStepping} against Dijkstra's algorithm, for bucket
+ * widths from well below the shortest edge to above the longest one.
+ */
+public class TestDeltaStepping {
+
+	/**
+	 * Number of nodes of the tested graphs; large enough for four workers.
+	 */
+	private static final int NUM_NODES = 500;
+
+	/**
+	 * Number of edges of the tested graphs; a few nodes are left unreached.
+	 */
+	private static final int NUM_EDGES = 1200;
+
+	@Test
+	public void undirected() {
+		final GraphSnapshot graph = SampleGraphs.random(NUM_NODES, NUM_EDGES, false, 31);
+		final double[] lengths = graph.neighborLengths(randomLengths(graph.numEdges, 32));
+		assertDistances(graph.neighborOffsets, graph.neighbors, lengths, false);
+	}
+
+	@Test
+	public void directed() {
+		final GraphSnapshot graph = SampleGraphs.random(NUM_NODES, 2 * NUM_EDGES, true, 33);
+		final double[] lengths = graph.arcLengths(randomLengths(graph.numEdges, 34));
+		assertDistances(graph.outOffsets, graph.outNeighbors, lengths, true);
+	}
+
+	/**
+	 * Generates edge lengths between <code>0.5</code> and <code>10</code>, and a few infinite ones,
+	 * which are never followed.
+	 */
+	private static double[] randomLengths(int aNumEdges, long aSeed) {
+		final Random random = new Random(aSeed);
+		final double[] lengths = new double[aNumEdges];
+		for (int e = 0; e < aNumEdges; e++)
+			lengths[e] = random.nextInt(50) == 0 ? Double.POSITIVE_INFINITY : 0.5 + 9.5 * random.nextDouble();
+		return lengths;
+	}
+
+	private static void assertDistances(int[] aOffsets, int[] aNeighbors, double[] aLengths, boolean aDirected) {
+		final double defaultWidth = DeltaStepping.defaultBucketWidth(NUM_NODES, aLengths);
+		for (double width : new double[] { 0.1, defaultWidth, 20 }) {
+			for (int threads : new int[] { 1, 4 }) {
+				final NetworkAnalyzer analyzer = threads > 1 ? SampleGraphs.analyzer(aDirected, threads) : null;
+				final DeltaStepping search = new DeltaStepping(NUM_NODES, aOffsets, aNeighbors, aLengths, width);
+				for (int source = 0; source < NUM_NODES; source += 7) {
+					assertArrayEquals("Source " + source + ", width " + width + ", " + threads + " threads",
+							dijkstra(aOffsets, aNeighbors, aLengths, source), search.run(analyzer, source), 1e-9);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Finds the distances from the given node with Dijkstra's algorithm on a binary heap, as a
+	 * reference for the bucketed searches.
+	 */
+	private static double[] dijkstra(int[] aOffsets, int[] aNeighbors, double[] aLengths, int aSource) {
+		final double[] distances = new double[aOffsets.length - 1];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		final PriorityQueue<double[]> heap = new PriorityQueue<double[]>((a, b) -> Double.compare(a[0], b[0]));
+		distances[aSource] = 0;
+		heap.add(new double[] { 0, aSource });
+		while (!heap.isEmpty()) {
+			final double[] entry = heap.poll();
+			final int node = (int) entry[1];
+			if (entry[0] > distances[node])
+				continue;
+			for (int ni = aOffsets[node]; ni < aOffsets[node + 1]; ni++) {
+				final double length = distances[node] + aLengths[ni];
+				if (length < distances[aNeighbors[ni]]) {
+					distances[aNeighbors[ni]] = length;
+					heap.add(new double[] { length, aNeighbors[ni] });
+				}
+			}
+		}
+		return distances;
+	}
+}
@@ -0,0 +1,136 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.cytoscape.analyzer.NetworkAnalyzer;
+import org.junit.Test;
+
+/**
+ * Checks the eccentricities, diameter and radius found by {@link EccentricityBounds} against a
+ * breadth-first search from every node.
+ */
+public class TestEccentricityBounds {
+
+	@Test
+	public void allEccentricities() {
+		for (long seed = 1; seed <= 20; seed++) {
+			final GraphSnapshot graph = SampleGraphs.connected(300, (int) (seed * 5), seed);
+			final EccentricityBounds bounds = computeAll(graph);
+			final int[] eccentricities = eccentricities(graph);
+			for (int node = 0; node < graph.numNodes; node++)
+				assertEquals("Node " + node + ", seed " + seed, eccentricities[node], bounds.getEccentricity(node));
+			assertEquals(max(eccentricities), bounds.getDiameter());
+			assertEquals(min(eccentricities), bounds.getRadius());
+		}
+	}
+
+	@Test
+	public void extremes() {
+		for (long seed = 1; seed <= 20; seed++) {
+			final GraphSnapshot graph = SampleGraphs.connected(300, (int) (seed * 5), seed);
+			final EccentricityBounds bounds = new EccentricityBounds(graph.numNodes, graph.neighborOffsets,
+					graph.neighbors);
+			bounds.computeExtremes(SampleGraphs.analyzer(false, 1));
+			final int[] eccentricities = eccentricities(graph);
+			assertEquals(max(eccentricities), bounds.getDiameter());
+			assertEquals(min(eccentricities), bounds.getRadius());
+		}
+	}
+
+	@Test
+	public void singleNeighbors() {
+		// A star, in which every node but the center has a single neighbor
+		final int[] centers = new int[50], leaves = new int[50];
+		for (int i = 0; i < leaves.length; i++)
+			leaves[i] = i + 1;
+		assertSearches(GraphSnapshot.of(51, centers, leaves, new boolean[50]));
+
+		// Paths of two and three nodes: both ends of the first one have a single neighbor
+		assertSearches(GraphSnapshot.of(2, new int[] { 0 }, new int[] { 1 }, new boolean[1]));
+		assertSearches(GraphSnapshot.of(3, new int[] { 0, 1 }, new int[] { 1, 2 }, new boolean[2]));
+
+		// A long path, whose middle node is the only center
+		final int[] sources = new int[100], targets = new int[100];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = i;
+			targets[i] = i + 1;
+		}
+		assertSearches(GraphSnapshot.of(101, sources, targets, new boolean[100]));
+	}
+
+	/**
+	 * Checks every eccentricity of the given graph, and that no node with a single neighbor was
+	 * searched from unless the graph has two nodes only.
+	 */
+	private static void assertSearches(GraphSnapshot aGraph) {
+		final EccentricityBounds bounds = computeAll(aGraph);
+		final int[] eccentricities = eccentricities(aGraph);
+		for (int node = 0; node < aGraph.numNodes; node++)
+			assertEquals(eccentricities[node], bounds.getEccentricity(node));
+		int singleNeighbors = 0;
+		for (int node = 0; node < aGraph.numNodes; node++)
+			if (aGraph.neighborOffsets[node + 1] - aGraph.neighborOffsets[node] == 1)
+				singleNeighbors++;
+		if (aGraph.numNodes > 2)
+			assertTrue(bounds.getSearchCount() <= aGraph.numNodes - singleNeighbors);
+	}
+
+	private static EccentricityBounds computeAll(GraphSnapshot aGraph) {
+		final NetworkAnalyzer analyzer = SampleGraphs.analyzer(false, 1);
+		final EccentricityBounds bounds = new EccentricityBounds(aGraph.numNodes, aGraph.neighborOffsets,
+				aGraph.neighbors);
+		bounds.computeAll(analyzer);
+		return bounds;
+	}
+
+	/**
+	 * Finds the eccentricity of every node with a breadth-first search from it.
+	 */
+	private static int[] eccentricities(GraphSnapshot aGraph) {
+		final int[] eccentricities = new int[aGraph.numNodes];
+		for (int node = 0; node < aGraph.numNodes; node++)
+			eccentricities[node] = max(SampleGraphs.distances(aGraph.neighborOffsets, aGraph.neighbors, node));
+		return eccentricities;
+	}
+
+	private static int max(int[] aValues) {
+		int max = Integer.MIN_VALUE;
+		for (int value : aValues)
+			max = Math.max(max, value);
+		return max;
+	}
+
+	private static int min(int[] aValues) {
+		int min = Integer.MAX_VALUE;
+		for (int value : aValues)
+			min = Math.min(min, value);
+		return min;
+	}
+}
@@ -0,0 +1,108 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Checks the components found by {@link GraphComponents} against the ones found by breadth-first
+ * searches.
+ */
+public class TestGraphComponents {
+
+	@Test
+	public void sparseGraphs() {
+		// Fewer edges than nodes, so that many components are single nodes
+		for (long seed = 1; seed <= 5; seed++) {
+			assertComponents(SampleGraphs.random(500, 300, false, seed));
+			assertComponents(SampleGraphs.random(500, 300, true, seed));
+		}
+	}
+
+	@Test
+	public void connectedGraph() {
+		final GraphSnapshot graph = SampleGraphs.connected(300, 50, 3);
+		assertEquals(1, assertComponents(graph).numComponents);
+	}
+
+	@Test
+	public void selfLoopsAndIsolatedNodes() {
+		// Node 0 has a self-loop only, 3 and 6 have no edges, 4 -> 5 is directed and doubled
+		final int[] sources = { 0, 1, 2, 2, 4, 4, 5, 7 };
+		final int[] targets = { 0, 2, 1, 2, 5, 5, 5, 1 };
+		final boolean[] directed = { false, false, true, false, true, true, false, true };
+		final GraphSnapshot graph = GraphSnapshot.of(8, sources, targets, directed);
+		final GraphComponents components = assertComponents(graph);
+		assertArrayEquals(new int[] { 0, 1, 1, 2, 3, 3, 4, 1 }, components.component);
+		assertArrayEquals(new int[] { 1, 2, 7 }, components.membersOf(1));
+	}
+
+	/**
+	 * Checks the components of the given graph against the ones found by breadth-first searches,
+	 * started from the nodes in ascending order.
+	 * 
+	 * @return Components of the graph.
+	 */
+	private static GraphComponents assertComponents(GraphSnapshot aGraph) {
+		final int n = aGraph.numNodes;
+		final int[] expected = new int[n];
+		Arrays.fill(expected, -1);
+		int numComponents = 0;
+		for (int node = 0; node < n; node++) {
+			if (expected[node] >= 0)
+				continue;
+			final int[] distances = SampleGraphs.distances(aGraph.neighborOffsets, aGraph.neighbors, node);
+			for (int other = 0; other < n; other++)
+				if (distances[other] >= 0)
+					expected[other] = numComponents;
+			numComponents++;
+		}
+
+		final GraphComponents components = GraphComponents.of(aGraph);
+		assertEquals(numComponents, components.numComponents);
+		assertArrayEquals(expected, components.component);
+		int members = 0;
+		for (int c = 0; c < numComponents; c++) {
+			final int[] nodes = components.membersOf(c);
+			assertEquals(nodes.length, components.sizeOf(c));
+			for (int i = 0; i < nodes.length; i++) {
+				assertEquals(c, expected[nodes[i]]);
+				if (i > 0)
+					assertTrue(nodes[i - 1] < nodes[i]);
+			}
+			members += nodes.length;
+		}
+		assertEquals(n, members);
+		return components;
+	}
+}
@@ -0,0 +1,91 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks the path lengths estimated by {@link HyperAnf} against the exact ones found by breadth-first
+ * search, within the standard error of the counters.
+ */
+public class TestHyperAnf {
+
+	/**
+	 * Number of nodes of the tested graph; large enough for four workers.
+	 */
+	private static final int NUM_NODES = 2000;
+
+	/**
+	 * Register bits of the counters, for a relative standard error of about 3%.
+	 */
+	private static final int REGISTER_BITS = 10;
+
+	/**
+	 * Admissible relative error of the estimates: three standard errors of a counter.
+	 */
+	private static final double ERROR = 3 * 1.04 / Math.sqrt(1 << REGISTER_BITS);
+
+	@Test
+	public void connected() {
+		final GraphSnapshot graph = SampleGraphs.connected(NUM_NODES, NUM_NODES / 2, 67);
+		final long[] pairs = new long[NUM_NODES];
+		long distanceSum = 0;
+		int diameter = 0;
+		for (int source = 0; source < NUM_NODES; source++)
+			for (final int distance : SampleGraphs.distances(graph.neighborOffsets, graph.neighbors, source)) {
+				pairs[distance]++;
+				distanceSum += distance;
+				diameter = Math.max(diameter, distance);
+			}
+		final long allPairs = (long) NUM_NODES * (NUM_NODES - 1);
+		final double averageLength = (double) distanceSum / allPairs;
+
+		for (int threads : new int[] { 1, 4 }) {
+			final HyperAnf anf = HyperAnf.run(SampleGraphs.analyzer(false, threads), NUM_NODES, graph.neighborOffsets,
+					graph.neighbors, REGISTER_BITS, 71);
+			// The neighborhood function: the pairs within each distance
+			double estimated = 0;
+			long exact = 0;
+			for (int length = 1; length <= diameter; length++) {
+				estimated += anf.getPairCount(length);
+				exact += pairs[length];
+				assertEquals("Length " + length, exact, estimated, ERROR * exact);
+			}
+			// The last distances are found by few counters, whose growth may go unnoticed
+			assertTrue(anf.getDiameter() <= diameter);
+			assertTrue(anf.getDiameter() >= diameter - 1);
+
+			double estimatedSum = 0;
+			for (int node = 0; node < NUM_NODES; node++)
+				estimatedSum += anf.distanceSums[node];
+			assertEquals(averageLength, estimatedSum / allPairs, ERROR * averageLength);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks the ranks found by {@link PageRank} against the stationary distribution of the random
+ * surfer, solved as a dense system of linear equations.
+ */
+public class TestPageRank {
+
+	/**
+	 * Number of nodes of the tested graphs; small enough for a dense solve.
+	 */
+	private static final int NUM_NODES = 80;
+
+	/**
+	 * Damping factor of the tested ranks.
+	 */
+	private static final double DAMPING = 0.85;
+
+	@Test
+	public void undirected() {
+		final GraphSnapshot graph = SampleGraphs.random(NUM_NODES, 200, false, 41);
+		assertRanks(graph.neighborOffsets, graph.neighbors, graph.neighborOffsets, graph.neighbors);
+	}
+
+	@Test
+	public void danglingNodes() {
+		final GraphSnapshot graph = SampleGraphs.random(NUM_NODES, 160, true, 43);
+		int dangling = 0;
+		for (int node = 0; node < NUM_NODES; node++)
+			if (graph.outOffsets[node] == graph.outOffsets[node + 1])
+				dangling++;
+		assertTrue(dangling > 0);
+		assertRanks(graph.outOffsets, graph.outNeighbors, graph.inOffsets, graph.inNeighbors);
+	}
+
+	@Test
+	public void sameOnAllWorkers() {
+		// Enough nodes for several blocks per worker
+		final GraphSnapshot graph = SampleGraphs.random(40000, 100000, true, 47);
+		final double[] serial = PageRank.run(null, graph.numNodes, graph.outOffsets, graph.inOffsets,
+				graph.inNeighbors, DAMPING, 1e-9, true).ranks;
+		final double[] parallel = PageRank.run(SampleGraphs.analyzer(true, 4), graph.numNodes, graph.outOffsets,
+				graph.inOffsets, graph.inNeighbors, DAMPING, 1e-9, true).ranks;
+		assertArrayEquals(serial, parallel, 0);
+	}
+
+	/**
+	 * Checks the ranks with and without extrapolation against the dense solution, and that they sum
+	 * to <code>1</code>.
+	 */
+	private static void assertRanks(int[] aOutOffsets, int[] aOutNeighbors, int[] aInOffsets, int[] aInNeighbors) {
+		final double[] expected = reference(aOutOffsets, aOutNeighbors);
+		for (boolean extrapolate : new boolean[] { false, true }) {
+			final PageRank pageRank = PageRank.run(null, NUM_NODES, aOutOffsets, aInOffsets, aInNeighbors, DAMPING,
+					1e-12, extrapolate);
+			assertArrayEquals("Extrapolated: " + extrapolate, expected, pageRank.ranks, 1e-10);
+			double sum = 0;
+			for (final double rank : pageRank.ranks)
+				sum += rank;
+			assertEquals(1, sum, 1e-12);
+		}
+	}
+
+	/**
+	 * Solves <code>x = G x</code> with <code>x</code> summing to <code>1</code>, where
+	 * <code>G</code> is the transition matrix of the random surfer: it follows a random out-link
+	 * with probability <code>DAMPING</code> and jumps to a random node otherwise, or always if there
+	 * is no out-link.
+	 */
+	private static double[] reference(int[] aOutOffsets, int[] aOutNeighbors) {
+		final int n = aOutOffsets.length - 1;
+		final double[][] matrix = new double[n][n];
+		for (int from = 0; from < n; from++) {
+			final int degree = aOutOffsets[from + 1] - aOutOffsets[from];
+			for (int to = 0; to < n; to++)
+				matrix[to][from] -= (degree == 0) ? 1.0 / n : (1 - DAMPING) / n;
+			for (int ni = aOutOffsets[from]; ni < aOutOffsets[from + 1]; ni++)
+				matrix[aOutNeighbors[ni]][from] -= DAMPING / degree;
+		}
+		for (int node = 0; node < n; node++)
+			matrix[node][node] += 1;
+		// The equations are dependent; the last one is replaced by the sum of the ranks
+		final double[] right = new double[n];
+		for (int node = 0; node < n; node++)
+			matrix[n - 1][node] = 1;
+		right[n - 1] = 1;
+		return SampleGraphs.solve(matrix, right);
+	}
+}
@@ -0,0 +1,129 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.cytoscape.analyzer.UndirNetworkAnalyzer;
+import org.junit.Test;
+
+/**
+ * Checks the size and the error bound of a {@link SourceSample}, and that its scale makes the
+ * sampled betweenness an unbiased estimate of the exact one.
+ */
+public class TestSourceSample {
+
+	/**
+	 * Number of nodes of the tested graph; large enough for a sample smaller than the graph.
+	 */
+	private static final int NUM_NODES = 30;
+
+	/**
+	 * Error bound of the tested samples.
+	 */
+	private static final double EPSILON = 0.5;
+
+	/**
+	 * Failure probability of the tested samples.
+	 */
+	private static final double DELTA = 0.5;
+
+	@Test
+	public void size() {
+		final Random random = new Random(73);
+		for (int n : new int[] { 30, 1000, 100000 }) {
+			for (double epsilon : new double[] { 0.05, 0.1, 0.5 }) {
+				final double range = n / (n - 1.0);
+				final double k = Math.ceil(range * range * Math.log(2.0 * n / DELTA) / (2 * epsilon * epsilon));
+				final SourceSample sample = SourceSample.draw(n, epsilon, DELTA, random);
+				if (k >= n) {
+					assertNull(sample);
+					continue;
+				}
+				assertEquals(k, sample.size, 0);
+				assertEquals((double) n / sample.size, sample.scale, 1e-12);
+				assertTrue(sample.epsilon <= epsilon);
+				assertEquals(range * Math.sqrt(Math.log(2.0 * n / DELTA) / (2 * sample.size)), sample.epsilon, 1e-12);
+				int sources = 0;
+				for (int node = 0; node < n; node++)
+					if (sample.contains(node))
+						sources++;
+				assertEquals(sample.size, sources);
+			}
+		}
+	}
+
+	@Test
+	public void exact() {
+		final Random random = new Random(79);
+		assertNull(SourceSample.draw(1000, 0, DELTA, random));
+		assertNull(SourceSample.draw(2, EPSILON, DELTA, random));
+		// The bound requires more sources than there are nodes
+		assertNull(SourceSample.draw(100, 0.01, DELTA, random));
+	}
+
+	@Test
+	public void unbiased() {
+		final GraphSnapshot graph = SampleGraphs.connected(NUM_NODES, NUM_NODES, 83);
+		final TraversalWorkspace workspace = new TraversalWorkspace(NUM_NODES, graph.neighbors.length);
+		final double[][] dependencies = new double[NUM_NODES][];
+		final double[] exact = new double[NUM_NODES];
+		double largest = 0;
+		for (int source = 0; source < NUM_NODES; source++) {
+			dependencies[source] = new double[NUM_NODES];
+			UndirNetworkAnalyzer.computeNBandEB(source, NUM_NODES, graph.neighbors, graph.neighborOffsets,
+					graph.neighborPairs, dependencies[source], new long[NUM_NODES], new double[graph.numPairs],
+					workspace);
+			for (int node = 0; node < NUM_NODES; node++) {
+				exact[node] += dependencies[source][node];
+				largest = Math.max(largest, exact[node]);
+			}
+		}
+
+		final Random random = new Random(89);
+		final int draws = 4000;
+		final double[] mean = new double[NUM_NODES];
+		for (int draw = 0; draw < draws; draw++) {
+			final SourceSample sample = SourceSample.draw(NUM_NODES, EPSILON, DELTA, random);
+			assertTrue(sample.size < NUM_NODES);
+			final double[] estimate = new double[NUM_NODES];
+			for (int source = 0; source < NUM_NODES; source++)
+				if (sample.contains(source))
+					for (int node = 0; node < NUM_NODES; node++)
+						estimate[node] += dependencies[source][node];
+			sample.scale(estimate);
+			for (int node = 0; node < NUM_NODES; node++)
+				mean[node] += estimate[node] / draws;
+		}
+		for (int node = 0; node < NUM_NODES; node++)
+			assertEquals("Node " + node, exact[node], mean[node], 0.05 * largest);
+	}
+}
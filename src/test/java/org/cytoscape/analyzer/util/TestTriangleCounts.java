@@ -0,0 +1,113 @@
+package org.cytoscape.analyzer.util;
+
+/*
+ * #%L
+ * Cytoscape NetworkAnalyzer Impl (network-analyzer-impl)
+ * $Id:$
+ * $HeadURL:$
+ * %%
+ * Copyright (C) 2006 - 2026
+ *   Max Planck Institute for Informatics, Saarbruecken, Germany
+ *   The Cytoscape Consortium
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.cytoscape.analyzer.DirNetworkAnalyzer;
+import org.cytoscape.analyzer.UndirNetworkAnalyzer;
+import org.junit.Test;
+
+/**
+ * Checks the clustering coefficients derived from {@link TriangleCounts} against the ones computed
+ * node by node from the links among the neighbors.
+ */
+public class TestTriangleCounts {
+
+	/**
+	 * Number of nodes of the tested graphs; large enough for four workers.
+	 */
+	private static final int NUM_NODES = 400;
+
+	/**
+	 * Number of edges of the tested graphs, dense enough for many triangles.
+	 */
+	private static final int NUM_EDGES = 4000;
+
+	@Test
+	public void undirected() {
+		final GraphSnapshot graph = SampleGraphs.random(NUM_NODES, NUM_EDGES, false, 23);
+		for (int threads : new int[] { 1, 4 }) {
+			final TriangleCounts counts = TriangleCounts.count(SampleGraphs.analyzer(false, threads), NUM_NODES,
+					graph.neighborOffsets, graph.neighbors, null, null);
+			assertCoefficients(graph, counts, false, null);
+		}
+	}
+
+	@Test
+	public void directed() {
+		final GraphSnapshot graph = SampleGraphs.random(NUM_NODES, NUM_EDGES, true, 23);
+		for (int threads : new int[] { 1, 4 }) {
+			final TriangleCounts counts = TriangleCounts.count(SampleGraphs.analyzer(true, threads), NUM_NODES,
+					graph.neighborOffsets, graph.neighbors, graph.outOffsets, graph.outNeighbors);
+			assertCoefficients(graph, counts, true, null);
+		}
+	}
+
+	@Test
+	public void someNodes() {
+		final int[] sources = new int[NUM_NODES / 3];
+		for (int i = 0; i < sources.length; i++)
+			sources[i] = 3 * i;
+		for (boolean directed : new boolean[] { false, true }) {
+			final GraphSnapshot graph = SampleGraphs.random(NUM_NODES, NUM_EDGES, directed, 29);
+			final TriangleCounts counts = TriangleCounts.count(SampleGraphs.analyzer(directed, 4), NUM_NODES,
+					graph.neighborOffsets, graph.neighbors, directed ? graph.outOffsets : null,
+					directed ? graph.outNeighbors : null, sources);
+			assertCoefficients(graph, counts, directed, sources);
+		}
+	}
+
+	/**
+	 * Checks the clustering coefficients of the given nodes, or of all nodes, and that the triangles
+	 * add up to three times their number.
+	 */
+	private static void assertCoefficients(GraphSnapshot aGraph, TriangleCounts aCounts, boolean aDirected,
+			int[] aSources) {
+		long triangles = 0;
+		for (int node = 0; node < aGraph.numNodes; node++) {
+			if (aSources != null && Arrays.binarySearch(aSources, node) < 0)
+				continue;
+			final int[] neighbors = Arrays.copyOfRange(aGraph.neighbors, aGraph.neighborOffsets[node],
+					aGraph.neighborOffsets[node + 1]);
+			if (neighbors.length < 2)
+				continue;
+			final double expected = aDirected
+					? DirNetworkAnalyzer.computeCC(neighbors, aGraph.numNodes, aGraph.outNeighbors, aGraph.outOffsets)
+					: UndirNetworkAnalyzer.computeCC(neighbors, aGraph.numNodes, aGraph.neighbors,
+							aGraph.neighborOffsets);
+			assertEquals("Node " + node, expected, aCounts.getClusteringCoefficient(node), 1e-12);
+			triangles += aCounts.triangles[node];
+		}
+		assertTrue(triangles > 0);
+		if (aSources == null)
+			assertEquals(0, triangles % 3);
+	}
+}